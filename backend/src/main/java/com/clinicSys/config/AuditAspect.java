@@ -0,0 +1,92 @@
+package com.clinicSys.config;
+
+import com.clinicSys.domain.User;
+import com.clinicSys.service.IAuditLogService;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.RecordComponent;
+
+/**
+ * Queues an AuditLog entry for every call of an @Audited service method made by a signed-in
+ * user, including calls that fail. Details only name the method and the numeric IDs among its
+ * arguments (or, if there are none, in its result), never other field values, so no patient
+ * data or passwords end up in the log. Failures are recorded by exception type only: messages
+ * such as constraint violations can quote the values that were written.
+ */
+@Aspect
+@Component
+public class AuditAspect {
+
+    @Autowired
+    private IAuditLogService auditLogService;
+
+    @Around("@annotation(audited)")
+    public Object audit(ProceedingJoinPoint joinPoint, Audited audited) throws Throwable {
+        User user = currentUser();
+        if (user == null) {
+            return joinPoint.proceed();
+        }
+        StringBuilder details = new StringBuilder(joinPoint.getSignature().getName());
+        boolean hasIDs = appendArgumentIDs(details, joinPoint);
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable e) {
+            details.append(" failed: ").append(e.getClass().getSimpleName());
+            auditLogService.record(user.getUserID(), audited.action(), audited.entity(), details.toString());
+            throw e;
+        }
+        if (!hasIDs && result instanceof Record) {
+            appendRecordIDs(details, result);
+        }
+        auditLogService.record(user.getUserID(), audited.action(), audited.entity(), details.toString());
+        return result;
+    }
+
+    private User currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof User user) {
+            return user;
+        }
+        return null;
+    }
+
+    private boolean appendArgumentIDs(StringBuilder details, ProceedingJoinPoint joinPoint) {
+        String[] names = ((MethodSignature) joinPoint.getSignature()).getParameterNames();
+        Object[] args = joinPoint.getArgs();
+        int length = details.length();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i] instanceof Integer || args[i] instanceof Long) {
+                details.append(' ').append(names != null ? names[i] : "arg" + i).append('=').append(args[i]);
+            } else if (args[i] instanceof Record) {
+                appendRecordIDs(details, args[i]);
+            }
+        }
+        return details.length() > length;
+    }
+
+    // Top-level components named like "appointmentID" / "userId" only
+    private void appendRecordIDs(StringBuilder details, Object record) {
+        for (RecordComponent component : record.getClass().getRecordComponents()) {
+            String name = component.getName();
+            if (!name.endsWith("ID") && !name.endsWith("Id")) {
+                continue;
+            }
+            try {
+                Object value = component.getAccessor().invoke(record);
+                if (value instanceof Integer || value instanceof Long) {
+                    details.append(' ').append(name).append('=').append(value);
+                }
+            } catch (ReflectiveOperationException e) {
+                // Accessors of public records are always accessible; skip the field if not
+            }
+        }
+    }
+}
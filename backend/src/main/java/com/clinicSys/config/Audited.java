@@ -0,0 +1,25 @@
+package com.clinicSys.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a service method whose calls are written to the AuditLog table (see AuditAspect).
+ * Must be placed on the implementation method, not on the interface.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Audited {
+
+    /**
+     * AuditLog.ActionType, e.g. "Read", "Create", "Update"
+     */
+    String action();
+
+    /**
+     * AuditLog.EntityAffected, e.g. "MedicalRecord"
+     */
+    String entity();
+}
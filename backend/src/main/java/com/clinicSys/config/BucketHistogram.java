@@ -0,0 +1,95 @@
+package com.clinicSys.config;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-bucket histogram, safe to record into from many threads without locking. Buckets are
+ * cumulative on read, as Prometheus expects them, and percentiles are estimated by linear
+ * interpolation inside the bucket that holds them, so they are only as fine as the bounds.
+ */
+public final class BucketHistogram {
+
+    private final double[] bounds;
+    // One counter per bound plus one for values above the last bound
+    private final LongAdder[] buckets;
+    private final LongAdder count = new LongAdder();
+    private final DoubleAdder sum = new DoubleAdder();
+    private final AtomicLong maxBits = new AtomicLong(Double.doubleToLongBits(0));
+
+    public BucketHistogram(double... bounds) {
+        this.bounds = bounds.clone();
+        this.buckets = new LongAdder[bounds.length + 1];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(double value) {
+        int i = 0;
+        while (i < bounds.length && value > bounds[i]) {
+            i++;
+        }
+        buckets[i].increment();
+        count.increment();
+        sum.add(value);
+        long bits = maxBits.get();
+        while (value > Double.longBitsToDouble(bits) && !maxBits.compareAndSet(bits, Double.doubleToLongBits(value))) {
+            bits = maxBits.get();
+        }
+    }
+
+    public double[] getBounds() {
+        return bounds.clone();
+    }
+
+    /**
+     * @return Number of values at or below each bound, then the total (the +Inf bucket)
+     */
+    public long[] getCumulativeCounts() {
+        long[] cumulative = new long[buckets.length];
+        long running = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            running += buckets[i].sum();
+            cumulative[i] = running;
+        }
+        return cumulative;
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public double getSum() {
+        return sum.sum();
+    }
+
+    public double getMax() {
+        return Double.longBitsToDouble(maxBits.get());
+    }
+
+    /**
+     * @param quantile Between 0 and 1
+     * @return Estimated value at the quantile, at most the largest value recorded; 0 if empty
+     */
+    public double percentile(double quantile) {
+        long[] cumulative = getCumulativeCounts();
+        long total = cumulative[cumulative.length - 1];
+        if (total == 0) {
+            return 0;
+        }
+        double rank = quantile * total;
+        for (int i = 0; i < cumulative.length; i++) {
+            if (cumulative[i] >= rank) {
+                double lower = i == 0 ? 0 : bounds[i - 1];
+                double upper = i < bounds.length ? bounds[i] : getMax();
+                long below = i == 0 ? 0 : cumulative[i - 1];
+                long inBucket = cumulative[i] - below;
+                double estimate = inBucket == 0 ? upper : lower + (upper - lower) * (rank - below) / inBucket;
+                return Math.min(estimate, getMax());
+            }
+        }
+        return getMax();
+    }
+}
@@ -1,5 +1,6 @@
 package com.clinicSys.config;
 
+import com.clinicSys.domain.User;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
@@ -13,19 +14,56 @@ import java.util.function.Function;
 @Component
 public class JwtUtil {
 
+    // Claims embedded in the token so the filter can build the principal without a database lookup
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_STATUS = "status";
+    public static final String CLAIM_FULL_NAME = "name";
+
     // !!! Cần một chuỗi bí mật đủ dài và an toàn !!!
     private final SecretKey SECRET_KEY = Keys.hmacShaKeyFor("YourVeryLongAndSecureSecretKeyForClinicSysProjectMustBeAtLeast256Bits".getBytes());
     private final long EXPIRATION_TIME = 1000 * 60 * 60 * 10; // 10 giờ
 
-    public String generateToken(UserDetails userDetails) {
+    public String generateToken(User user) {
         return Jwts.builder()
-                .setSubject(userDetails.getUsername())
+                .setSubject(user.getUsername())
+                .claim(CLAIM_USER_ID, user.getUserID())
+                .claim(CLAIM_ROLE, user.getRole())
+                .claim(CLAIM_STATUS, user.getStatus())
+                .claim(CLAIM_FULL_NAME, user.getFullName())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
                 .signWith(SECRET_KEY, SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    /**
+     * Verifies the signature and expiry of the token and returns its claims.
+     * Throws io.jsonwebtoken.JwtException if the token is invalid or expired.
+     */
+    public Claims parseToken(String token) {
+        return extractAllClaims(token);
+    }
+
+    /**
+     * Builds a detached User principal from verified claims.
+     * Returns null for tokens issued before the claims were embedded.
+     */
+    public User toPrincipal(Claims claims) {
+        Integer userID = claims.get(CLAIM_USER_ID, Integer.class);
+        Integer role = claims.get(CLAIM_ROLE, Integer.class);
+        if (userID == null || role == null) {
+            return null;
+        }
+        User user = new User();
+        user.setUserID(userID);
+        user.setUsername(claims.getSubject());
+        user.setRole(role);
+        user.setStatus(claims.get(CLAIM_STATUS, String.class));
+        user.setFullName(claims.get(CLAIM_FULL_NAME, String.class));
+        return user;
+    }
+
     public Boolean validateToken(String token, UserDetails userDetails) {
         final String username = extractUsername(token);
         return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
@@ -51,4 +89,4 @@ public class JwtUtil {
     private Claims extractAllClaims(String token) {
         return Jwts.parserBuilder().setSigningKey(SECRET_KEY).build().parseClaimsJws(token).getBody();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,70 @@
+package com.clinicSys.config;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Times every call of a method declared on an I*Repository or I*Service interface, including
+ * calls that fail. Each method gets its own histogram of durations in seconds. Methods that
+ * return a Stream are timed until the stream is returned, not until it is consumed.
+ */
+@Aspect
+@Component
+public class MethodTimingAspect {
+
+    // Upper bounds in seconds, from 0.5 ms (a cached lookup) to 10 s (a report)
+    static final double[] DURATION_BOUNDS = {
+        0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10
+    };
+
+    public record MethodTimer(String layer, String type, String method, BucketHistogram durations) {
+    }
+
+    private final Map<Method, MethodTimer> timers = new ConcurrentHashMap<>();
+
+    @Around("execution(* com.clinicSys.repository.I*Repository.*(..))")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(joinPoint, "repository");
+    }
+
+    @Around("execution(* com.clinicSys.service.I*Service.*(..))")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(joinPoint, "service");
+    }
+
+    public Collection<MethodTimer> getTimers() {
+        return timers.values();
+    }
+
+    private Object time(ProceedingJoinPoint joinPoint, String layer) throws Throwable {
+        long start = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+            timers.computeIfAbsent(method, m -> new MethodTimer(layer, interfaceName(m, layer), m.getName(),
+                    new BucketHistogram(DURATION_BOUNDS)))
+                .durations().record(elapsed / 1e9);
+        }
+    }
+
+    // The interface the method was matched on, so timers are named the way callers see them
+    private static String interfaceName(Method method, String layer) {
+        String suffix = layer.equals("repository") ? "Repository" : "Service";
+        for (Class<?> type : method.getDeclaringClass().getInterfaces()) {
+            if (type.getSimpleName().startsWith("I") && type.getSimpleName().endsWith(suffix)) {
+                return type.getSimpleName();
+            }
+        }
+        return method.getDeclaringClass().getSimpleName();
+    }
+}
@@ -0,0 +1,70 @@
+package com.clinicSys.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Read replica, on when clinic.datasource.replica.url is set. The application then gets one
+ * DataSource that routes read-only transactions to a replica pool and the rest to the primary
+ * pool (see ReplicaRoutingDataSource). The primary pool is configured as usual through
+ * spring.datasource.*, the replica pool through clinic.datasource.replica.* (credentials
+ * default to the primary's, pool settings under clinic.datasource.replica.hikari.*). Schema
+ * migrations run on the primary only; the replica gets them through replication.
+ * <p>
+ * The routing is decided per physical connection, so Hibernate must hand its connection back
+ * after every transaction. By default it keeps the first one for the whole session, and with
+ * open-in-view a read-only call early in a request would pin the replica for the writes after it.
+ */
+@Configuration
+@ConditionalOnProperty(name = "clinic.datasource.replica.url")
+public class ReadReplicaConfig {
+
+    // Not candidates for autowiring: everything else gets the routing DataSource below
+    @Bean(defaultCandidate = false)
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean(defaultCandidate = false)
+    @ConfigurationProperties("clinic.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties, Environment environment) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class)
+            .url(environment.getProperty("clinic.datasource.replica.url"))
+            .username(environment.getProperty("clinic.datasource.replica.username", properties.determineUsername()))
+            .password(environment.getProperty("clinic.datasource.replica.password", properties.determinePassword()))
+            .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 ReplicaLagGuard replicaLagGuard) {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, replica, replicaLagGuard);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer connectionPerTransactionCustomizer() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+            PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+}
@@ -0,0 +1,103 @@
+package com.clinicSys.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Keeps read-your-writes flows on the primary while a read replica is configured
+ * (ReplicaRoutingDataSource). A user who ran a read-write transaction reads from the primary
+ * until clinic.datasource.replica.max-lag-ms after it ended, so e.g. the appointment a
+ * receptionist just created is in the list they see next even if the replica has not caught up.
+ * Writers are told apart by user name, or by thread for work without a logged-in user; work
+ * handed to another thread takes the writer along with propagate().
+ */
+@Component
+public class ReplicaLagGuard {
+
+    // Expired entries are only swept once there are this many
+    private static final int SWEEP_THRESHOLD = 10000;
+
+    private static final ThreadLocal<String> PROPAGATED = new ThreadLocal<>();
+
+    @Value("${clinic.datasource.replica.max-lag-ms:5000}")
+    private long maxLagMillis;
+
+    // Writer -> System.nanoTime() until which its reads go to the primary
+    private final Map<String, Long> primaryUntil = new ConcurrentHashMap<>();
+
+    /**
+     * Called when a read-write transaction takes a connection to the primary. The window is
+     * opened at once and opened again when the transaction ends, so it covers the commit.
+     */
+    public void recordWrite() {
+        String writer = currentWriter();
+        stickToPrimary(writer);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    stickToPrimary(writer);
+                }
+            });
+        }
+    }
+
+    /**
+     * @return true if the current user wrote less than max-lag-ms ago
+     */
+    public boolean mustReadPrimary() {
+        Long until = primaryUntil.get(currentWriter());
+        return until != null && until - System.nanoTime() > 0;
+    }
+
+    // Wraps work the current thread hands to another one so it reads like the current user
+    public <T> Supplier<T> propagate(Supplier<T> task) {
+        String writer = currentWriter();
+        return () -> {
+            String previous = PROPAGATED.get();
+            PROPAGATED.set(writer);
+            try {
+                return task.get();
+            } finally {
+                if (previous == null) {
+                    PROPAGATED.remove();
+                } else {
+                    PROPAGATED.set(previous);
+                }
+            }
+        };
+    }
+
+    private void stickToPrimary(String writer) {
+        long now = System.nanoTime();
+        if (primaryUntil.size() >= SWEEP_THRESHOLD) {
+            primaryUntil.values().removeIf(until -> until - now <= 0);
+        }
+        primaryUntil.put(writer, now + TimeUnit.MILLISECONDS.toNanos(maxLagMillis));
+    }
+
+    private static String currentWriter() {
+        String propagated = PROPAGATED.get();
+        if (propagated != null) {
+            return propagated;
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "user:" + authentication.getName();
+        }
+        // Thread.getId() is deprecated from Java 19 and threadId() is missing before it
+        Thread thread = Thread.currentThread();
+        return "thread:" + thread.getName() + "@" + System.identityHashCode(thread);
+    }
+}
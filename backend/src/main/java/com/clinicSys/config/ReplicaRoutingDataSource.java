@@ -0,0 +1,60 @@
+package com.clinicSys.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends @Transactional(readOnly = true) work to the read replica and everything else to the
+ * primary. The decision is taken when a connection is borrowed, so this has to sit behind a
+ * LazyConnectionDataSourceProxy: the transaction manager asks for the connection before the
+ * read-only flag of the new transaction is published, the proxy only borrows it at the first
+ * statement. Reads of a user who has just written go to the primary (ReplicaLagGuard), and so
+ * does work outside any transaction.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+    public static final String REPLICA = "replica";
+
+    private final ReplicaLagGuard replicaLagGuard;
+    private final LongAdder replicaReads = new LongAdder();
+    private final LongAdder primaryReads = new LongAdder();
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagGuard replicaLagGuard) {
+        this.replicaLagGuard = replicaLagGuard;
+        setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return PRIMARY;
+        }
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            replicaLagGuard.recordWrite();
+            return PRIMARY;
+        }
+        if (replicaLagGuard.mustReadPrimary()) {
+            primaryReads.increment();
+            return PRIMARY;
+        }
+        replicaReads.increment();
+        return REPLICA;
+    }
+
+    // Read-only transactions served by the replica since startup
+    public long getReplicaReads() {
+        return replicaReads.sum();
+    }
+
+    // Read-only transactions kept on the primary by the lag guard since startup
+    public long getPrimaryReads() {
+        return primaryReads.sum();
+    }
+}
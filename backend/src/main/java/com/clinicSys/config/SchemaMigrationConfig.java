@@ -0,0 +1,27 @@
+package com.clinicSys.config;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Runs SchemaMigrator when the application starts, before Hibernate builds its
+ * EntityManagerFactory, so entities never meet a schema older than they expect.
+ * Off in tests, whose schema Hibernate creates.
+ */
+@Configuration
+@ConditionalOnProperty(name = "clinic.schema.migrate-on-startup", havingValue = "true", matchIfMissing = true)
+public class SchemaMigrationConfig {
+
+    @Bean
+    public static EntityManagerFactoryDependsOnPostProcessor entityManagerFactoryDependsOnSchemaMigration() {
+        return new EntityManagerFactoryDependsOnPostProcessor("schemaMigration");
+    }
+
+    @Bean
+    public InitializingBean schemaMigration(SchemaMigrator schemaMigrator) {
+        return schemaMigrator::migrate;
+    }
+}
@@ -0,0 +1,217 @@
+package com.clinicSys.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Versioned schema migrations, applied in order and recorded in the SchemaHistory table.
+ * Scripts are classpath:db/migration/{vendor}/V{version}__{description}.sql, with vendor
+ * sqlserver or h2 (tests), and batches separated by lines containing only GO, as in db.sql.
+ * Version 1 is db.sql itself: a database without SchemaHistory but with the tables of db.sql
+ * is baselined at version 1 and gets every later script. That database may have been created
+ * from an older db.sql, so the scripts that bring it up to the current one (V2 to V5) check
+ * before each change and leave a database created from the current db.sql as it is. A script
+ * that was changed after it ran stops the migration. Nodes that start together take turns on a lock of the baseline row.
+ */
+@Component
+public class SchemaMigrator {
+
+    private static final Pattern SCRIPT_NAME = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+    private static final Pattern BATCH_SEPARATOR = Pattern.compile("(?im)^\\s*GO\\s*$");
+
+    public record Migration(int version, String description, String script, long checksum, String sql) {
+    }
+
+    @Autowired
+    private DataSource dataSource;
+
+    /**
+     * Applies the scripts newer than the last recorded version.
+     * @return The scripts applied, in order
+     */
+    public List<String> migrate() {
+        try (Connection connection = dataSource.getConnection()) {
+            String vendor = vendor(connection.getMetaData());
+            List<Migration> migrations = load(vendor);
+            ensureHistory(connection);
+
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                List<String> applied = apply(connection, migrations);
+                connection.commit();
+                return applied;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Lỗi khi cập nhật schema: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @param vendor sqlserver or h2
+     * @return The scripts of the vendor, ordered by version
+     */
+    public List<Migration> load(String vendor) {
+        Resource[] resources;
+        try {
+            resources = new PathMatchingResourcePatternResolver().getResources("classpath:db/migration/" + vendor + "/V*__*.sql");
+        } catch (IOException e) {
+            throw new RuntimeException("Không đọc được thư mục migration: " + e.getMessage(), e);
+        }
+        List<Migration> migrations = new ArrayList<>();
+        for (Resource resource : resources) {
+            Matcher name = SCRIPT_NAME.matcher(resource.getFilename());
+            if (!name.matches()) {
+                throw new RuntimeException("Tên migration không hợp lệ: " + resource.getFilename());
+            }
+            String sql;
+            try {
+                sql = resource.getContentAsString(StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new RuntimeException("Không đọc được migration " + resource.getFilename() + ": " + e.getMessage(), e);
+            }
+            CRC32 checksum = new CRC32();
+            checksum.update(sql.replace("\r\n", "\n").getBytes(StandardCharsets.UTF_8));
+            migrations.add(new Migration(Integer.parseInt(name.group(1)), name.group(2).replace('_', ' '),
+                resource.getFilename(), checksum.getValue(), sql));
+        }
+        migrations.sort(Comparator.comparingInt(Migration::version));
+        for (int i = 1; i < migrations.size(); i++) {
+            if (migrations.get(i).version() == migrations.get(i - 1).version()) {
+                throw new RuntimeException("Trùng phiên bản migration: V" + migrations.get(i).version());
+            }
+        }
+        return migrations;
+    }
+
+    private List<String> apply(Connection connection, List<Migration> migrations) throws SQLException {
+        // Held until commit, so a second node waits here and then sees what the first one applied
+        try (Statement lock = connection.createStatement()) {
+            lock.executeUpdate("UPDATE SchemaHistory SET InstalledOn = InstalledOn WHERE Version = 1");
+        }
+        Map<Integer, Long> installed = new HashMap<>();
+        try (Statement query = connection.createStatement();
+             ResultSet rows = query.executeQuery("SELECT Version, Checksum FROM SchemaHistory")) {
+            while (rows.next()) {
+                installed.put(rows.getInt(1), rows.getLong(2));
+            }
+        }
+
+        List<String> applied = new ArrayList<>();
+        for (Migration migration : migrations) {
+            Long checksum = installed.get(migration.version());
+            if (checksum != null) {
+                if (checksum != migration.checksum()) {
+                    throw new RuntimeException("Migration " + migration.script() + " đã bị sửa sau khi chạy");
+                }
+                continue;
+            }
+            if (migration.version() <= 1) {
+                throw new RuntimeException("Phiên bản 1 là db.sql, migration phải bắt đầu từ V2: " + migration.script());
+            }
+            long start = System.currentTimeMillis();
+            try (Statement statement = connection.createStatement()) {
+                for (String batch : BATCH_SEPARATOR.split(migration.sql())) {
+                    if (hasStatement(batch)) {
+                        statement.execute(batch);
+                    }
+                }
+            } catch (SQLException e) {
+                throw new RuntimeException("Migration " + migration.script() + " lỗi: " + e.getMessage(), e);
+            }
+            record(connection, migration.version(), migration.description(), migration.script(), migration.checksum(),
+                (int) (System.currentTimeMillis() - start));
+            applied.add(migration.script());
+        }
+        return applied;
+    }
+
+    private void ensureHistory(Connection connection) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        if (tableExists(metaData, "SchemaHistory")) {
+            return;
+        }
+        if (!tableExists(metaData, "Patient")) {
+            throw new RuntimeException("Chưa có bảng dữ liệu: chạy db.sql trước khi khởi động backend");
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE SchemaHistory (" +
+                "Version INT PRIMARY KEY, " +
+                "Description NVARCHAR(200) NOT NULL, " +
+                "Script NVARCHAR(200) NOT NULL, " +
+                "Checksum BIGINT NOT NULL, " +
+                "InstalledOn DATETIME2 NOT NULL, " +
+                "ExecutionMillis INT NOT NULL)");
+            record(connection, 1, "baseline", "db.sql", 0, 0);
+        } catch (SQLException e) {
+            // Another node created it first
+            if (!tableExists(connection.getMetaData(), "SchemaHistory")) {
+                throw e;
+            }
+        }
+    }
+
+    private void record(Connection connection, int version, String description, String script, long checksum,
+                        int executionMillis) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO SchemaHistory (Version, Description, Script, Checksum, InstalledOn, ExecutionMillis) " +
+                "VALUES (?, ?, ?, ?, ?, ?)")) {
+            insert.setInt(1, version);
+            insert.setString(2, description);
+            insert.setString(3, script);
+            insert.setLong(4, checksum);
+            insert.setTimestamp(5, Timestamp.valueOf(LocalDateTime.now()));
+            insert.setInt(6, executionMillis);
+            insert.executeUpdate();
+        }
+    }
+
+    private static boolean tableExists(DatabaseMetaData metaData, String table) throws SQLException {
+        try (ResultSet tables = metaData.getTables(null, null, table, new String[] {"TABLE"})) {
+            return tables.next();
+        }
+    }
+
+    // A batch of only comments is skipped
+    private static boolean hasStatement(String batch) {
+        return batch.lines().map(String::trim).anyMatch(line -> !line.isEmpty() && !line.startsWith("--"));
+    }
+
+    private static String vendor(DatabaseMetaData metaData) throws SQLException {
+        String product = metaData.getDatabaseProductName();
+        if (product.contains("SQL Server")) {
+            return "sqlserver";
+        }
+        if (product.equals("H2")) {
+            return "h2";
+        }
+        throw new RuntimeException("Không hỗ trợ cơ sở dữ liệu: " + product);
+    }
+}
@@ -57,6 +57,7 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
                         .requestMatchers("/api/auth/**").permitAll() // Cho phép Login
                         .requestMatchers("/api/debug/**").permitAll() // Cho phép Debug
+                        .requestMatchers("/api/metrics/prometheus").permitAll() // Prometheus dùng scrape token riêng
 
                         // --- PHÂN QUYỀN ADMIN ---
                         .requestMatchers("/api/admin/**").hasRole("ADMIN")
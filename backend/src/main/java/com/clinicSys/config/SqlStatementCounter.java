@@ -0,0 +1,136 @@
+package com.clinicSys.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Counts the SQL statements Hibernate prepares, in total and per HTTP request. The request
+ * filter opens a count on the request thread with begin() and closes it with end(route);
+ * statements run on other threads (scheduled jobs, imports, streamed exports) only count
+ * towards the total, unless the request hands its count over with propagate(). A request that runs more than clinic.metrics.statement-budget statements
+ * is kept in a short list of violations, which is where a new N+1 query shows up first.
+ * JDBC work done on the raw connection (batch writers) does not pass through Hibernate and is
+ * not counted.
+ */
+@Component
+public class SqlStatementCounter implements StatementInspector {
+
+    // Upper bounds of the statements-per-request histogram
+    static final double[] STATEMENT_BOUNDS = {0, 1, 2, 5, 10, 20, 50, 100, 200, 500};
+
+    public record RouteStats(String route, BucketHistogram statements, LongAdder overBudget) {
+    }
+
+    public record Violation(String route, long statements, LocalDateTime at) {
+    }
+
+    private static final ThreadLocal<LongAdder> CURRENT = new ThreadLocal<>();
+
+    @Value("${clinic.metrics.statement-budget:30}")
+    private int statementBudget;
+
+    @Value("${clinic.metrics.max-violations:100}")
+    private int maxViolations;
+
+    private final LongAdder total = new LongAdder();
+    private final Map<String, RouteStats> routes = new ConcurrentHashMap<>();
+    private final Deque<Violation> violations = new ArrayDeque<>();
+
+    @Override
+    public String inspect(String sql) {
+        total.increment();
+        LongAdder current = CURRENT.get();
+        if (current != null) {
+            current.increment();
+        }
+        return sql;
+    }
+
+    public void begin() {
+        CURRENT.set(new LongAdder());
+    }
+
+    // Wraps work the current thread hands to another one so its statements count here too
+    public <T> Supplier<T> propagate(Supplier<T> task) {
+        LongAdder current = CURRENT.get();
+        if (current == null) {
+            return task;
+        }
+        return () -> {
+            LongAdder previous = CURRENT.get();
+            CURRENT.set(current);
+            try {
+                return task.get();
+            } finally {
+                if (previous == null) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(previous);
+                }
+            }
+        };
+    }
+
+    /**
+     * Closes the count of the current thread and records it under the route.
+     * @param route Request method and handler pattern, e.g. "GET /api/patients/{id}"
+     * @return Statements run since begin()
+     */
+    public long end(String route) {
+        LongAdder current = CURRENT.get();
+        CURRENT.remove();
+        if (current == null) {
+            return 0;
+        }
+        long statements = current.sum();
+        RouteStats stats = routes.computeIfAbsent(route,
+            r -> new RouteStats(r, new BucketHistogram(STATEMENT_BOUNDS), new LongAdder()));
+        stats.statements().record(statements);
+        if (statements > statementBudget) {
+            stats.overBudget().increment();
+            synchronized (violations) {
+                if (violations.size() == maxViolations) {
+                    violations.removeFirst();
+                }
+                violations.addLast(new Violation(route, statements, LocalDateTime.now()));
+            }
+        }
+        return statements;
+    }
+
+    public long getTotal() {
+        return total.sum();
+    }
+
+    public int getStatementBudget() {
+        return statementBudget;
+    }
+
+    public Collection<RouteStats> getRoutes() {
+        return routes.values();
+    }
+
+    /**
+     * @return Requests over the budget, newest first
+     */
+    public List<Violation> getViolations() {
+        synchronized (violations) {
+            List<Violation> newestFirst = new ArrayList<>(violations);
+            Collections.reverse(newestFirst);
+            return newestFirst;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.clinicSys.config;
+
+import com.clinicSys.domain.User;
+import com.clinicSys.repository.IUserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Short-TTL cache of each user's current status and role.
+ * Lets JwtAuthFilter lock out deactivated or re-roled staff without a database lookup on every request.
+ */
+@Component
+public class UserStatusCache {
+
+    @Autowired
+    private IUserRepository userRepository;
+
+    @Value("${security.user-status-cache.ttl-seconds:30}")
+    private long ttlSeconds;
+
+    private final Map<Integer, Entry> entries = new ConcurrentHashMap<>();
+
+    private record Entry(String status, Integer role, long loadedAt) {}
+
+    /**
+     * @return true if the user still exists, is Active and still has the role carried by the token
+     */
+    public boolean isAllowed(User principal) {
+        Entry entry = entries.get(principal.getUserID());
+        long now = System.currentTimeMillis();
+        if (entry == null || now - entry.loadedAt() > ttlSeconds * 1000) {
+            entry = userRepository.findById(principal.getUserID())
+                .map(user -> new Entry(user.getStatus(), user.getRole(), now))
+                .orElse(new Entry(null, null, now));
+            entries.put(principal.getUserID(), entry);
+        }
+        return "Active".equals(entry.status())
+            && entry.role() != null
+            && entry.role() == principal.getRole();
+    }
+
+    /**
+     * Drops the cached entry so the next request re-reads the user (call after status or role changes).
+     * Inside a transaction it is dropped again when the transaction ends, so a request that re-read
+     * the user before the commit does not keep the old status cached.
+     */
+    public void evict(int userID) {
+        entries.remove(userID);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    entries.remove(userID);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.clinicSys.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+
+/**
+ * Extras for spring.threads.virtual.enabled=true, under which Spring Boot runs Tomcat requests,
+ * @Async and @Scheduled work on virtual threads. Request concurrency is then no longer capped by
+ * the Tomcat thread pool, so the DataSource is wrapped in a ConnectionGateDataSource sized to
+ * the connection pool (each pool gets its own when a read replica is configured). Spring Boot
+ * ignores the property below Java 21; startup fails instead so the setting is never silently off.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    @Bean
+    public static BeanPostProcessor connectionGatePostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // Proxies in front of pools (the gate itself, the read replica routing) borrow
+                // through the pools they delegate to, which are gated on their own
+                if (!(bean instanceof DataSource dataSource) || bean instanceof DelegatingDataSource
+                        || bean instanceof AbstractRoutingDataSource) {
+                    return bean;
+                }
+                int poolSize = bean instanceof HikariDataSource hikari ? hikari.getMaximumPoolSize()
+                    : environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10);
+                int permits = environment.getProperty("clinic.datasource.acquire-permits", Integer.class, poolSize);
+                long timeout = environment.getProperty("clinic.datasource.acquire-timeout-ms", Long.class,
+                    environment.getProperty("spring.datasource.hikari.connection-timeout", Long.class, 30000L));
+                return new ConnectionGateDataSource(dataSource, permits, timeout);
+            }
+        };
+    }
+
+    @Bean
+    public InitializingBean virtualThreadsAvailable() {
+        return () -> {
+            int feature = Runtime.version().feature();
+            if (feature < 21) {
+                throw new IllegalStateException(
+                    "spring.threads.virtual.enabled=true cần Java 21 trở lên (đang chạy Java " + feature + ")");
+            }
+        };
+    }
+}
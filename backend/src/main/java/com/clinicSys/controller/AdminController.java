@@ -1,16 +1,32 @@
 package com.clinicSys.controller;
 
 import com.clinicSys.dto.request.CreateUserDTO;
+import com.clinicSys.dto.response.AuditLogDTO;
+import com.clinicSys.dto.response.AuditStatsDTO;
+import com.clinicSys.dto.response.NotificationStatsDTO;
+import com.clinicSys.dto.response.CacheRegionStatsDTO;
+import com.clinicSys.dto.response.DailyStatsRebuildDTO;
 import com.clinicSys.dto.response.DashboardStatsDTO;
+import com.clinicSys.dto.response.MetricsDTO;
+import com.clinicSys.dto.response.PageDTO;
+import com.clinicSys.dto.response.ReferenceDataStatsDTO;
 import com.clinicSys.dto.request.UpdateUserDTO;
 import com.clinicSys.dto.request.UpdateUserStatusDTO;
 import com.clinicSys.dto.response.UserDTO;
+import com.clinicSys.service.IAuditLogService;
+import com.clinicSys.service.ICacheAdminService;
+import com.clinicSys.service.INotificationService;
+import com.clinicSys.service.IDailyStatsService;
 import com.clinicSys.service.IDashboardService;
+import com.clinicSys.service.IMetricsService;
+import com.clinicSys.service.IReferenceDataService;
 import com.clinicSys.service.IUserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -23,6 +39,24 @@ public class AdminController {
     @Autowired
     private IDashboardService dashboardService;
 
+    @Autowired
+    private IReferenceDataService referenceDataService;
+
+    @Autowired
+    private IDailyStatsService dailyStatsService;
+
+    @Autowired
+    private ICacheAdminService cacheAdminService;
+
+    @Autowired
+    private IAuditLogService auditLogService;
+
+    @Autowired
+    private INotificationService notificationService;
+
+    @Autowired
+    private IMetricsService metricsService;
+
     // API để lấy thống kê dashboard
     @GetMapping("/dashboard/stats")
     public ResponseEntity<DashboardStatsDTO> getDashboardStats() {
@@ -30,6 +64,82 @@ public class AdminController {
         return ResponseEntity.ok(stats);
     }
 
+    // API để tính lại bảng thống kê theo ngày (DailyClinicStats) cho một khoảng ngày
+    @PostMapping("/dashboard/stats/rebuild")
+    public ResponseEntity<?> rebuildDashboardStats(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            int days = dailyStatsService.rebuild(from, to);
+            return ResponseEntity.ok(new DailyStatsRebuildDTO(from, to, days));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    // API để xem thống kê cache dữ liệu danh mục (MedicineGroup, ServiceType, ICD10Code)
+    @GetMapping("/reference-data/stats")
+    public ResponseEntity<ReferenceDataStatsDTO> getReferenceDataStats() {
+        return ResponseEntity.ok(referenceDataService.getStats());
+    }
+
+    // API để nạp lại cache dữ liệu danh mục sau khi thay đổi trực tiếp trong database
+    @PostMapping("/reference-data/refresh")
+    public ResponseEntity<ReferenceDataStatsDTO> refreshReferenceData() {
+        referenceDataService.refresh();
+        return ResponseEntity.ok(referenceDataService.getStats());
+    }
+
+    // API để xem tỉ lệ hit/miss của từng vùng cache Hibernate (entity và kết quả truy vấn)
+    @GetMapping("/cache/regions")
+    public ResponseEntity<List<CacheRegionStatsDTO>> getCacheRegionStats() {
+        return ResponseEntity.ok(cacheAdminService.getRegionStats());
+    }
+
+    // API để xoá một vùng cache sau khi sửa dữ liệu trực tiếp trong database
+    @DeleteMapping("/cache/regions/{region}")
+    public ResponseEntity<?> evictCacheRegion(@PathVariable String region) {
+        try {
+            cacheAdminService.evictRegion(region);
+            return ResponseEntity.noContent().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    // API để xoá toàn bộ cache Hibernate
+    @DeleteMapping("/cache/regions")
+    public ResponseEntity<Void> evictAllCacheRegions() {
+        cacheAdminService.evictAll();
+        return ResponseEntity.noContent().build();
+    }
+
+    // API để xem nhật ký truy cập mới nhất (lọc theo người dùng nếu có)
+    @GetMapping("/audit")
+    public ResponseEntity<List<AuditLogDTO>> getRecentAuditLog(
+            @RequestParam(required = false) Integer userId,
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(auditLogService.getRecent(userId, limit));
+    }
+
+    // API để xem số bản ghi nhật ký đã ghi, đang chờ và bị bỏ (hàng đợi đầy hoặc ghi lỗi)
+    @GetMapping("/audit/stats")
+    public ResponseEntity<AuditStatsDTO> getAuditStats() {
+        return ResponseEntity.ok(auditLogService.getStats());
+    }
+
+    // API để xem số thông báo đang chờ gửi, đã gửi, gửi lỗi và tốc độ gửi của bộ dispatch
+    @GetMapping("/notifications/stats")
+    public ResponseEntity<NotificationStatsDTO> getNotificationStats() {
+        return ResponseEntity.ok(notificationService.getStats());
+    }
+
+    // API để xem thời gian chạy của các hàm repository/service, số câu SQL mỗi request và trạng thái connection pool
+    @GetMapping("/metrics")
+    public ResponseEntity<MetricsDTO> getMetrics() {
+        return ResponseEntity.ok(metricsService.getMetrics());
+    }
+
     // API để lấy danh sách Staff
     @GetMapping("/staff")
     public ResponseEntity<List<UserDTO>> getAllStaff() {
@@ -37,6 +147,19 @@ public class AdminController {
         return ResponseEntity.ok(staffList);
     }
 
+    // API để lấy danh sách Staff theo trang (keyset, sắp xếp theo UserID)
+    @GetMapping("/staff/page")
+    public ResponseEntity<?> getStaffPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        try {
+            PageDTO<UserDTO> page = userService.getStaffPage(cursor, limit);
+            return ResponseEntity.ok(page);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse("Lỗi khi lấy danh sách nhân viên: " + e.getMessage()));
+        }
+    }
+
     // API để lấy thông tin một Staff theo ID
     @GetMapping("/staff/{userId}")
     public ResponseEntity<UserDTO> getStaffById(@PathVariable int userId) {
@@ -75,4 +198,16 @@ public class AdminController {
         userService.resetPassword(userId);
         return ResponseEntity.ok().build();
     }
-}
\ No newline at end of file
+
+    private static class ErrorResponse {
+        private String message;
+        
+        public ErrorResponse(String message) {
+            this.message = message;
+        }
+        
+        public String getMessage() {
+            return message;
+        }
+    }
+}
@@ -2,13 +2,16 @@ package com.clinicSys.controller;
 
 import com.clinicSys.dto.response.DoctorDashboardDTO;
 import com.clinicSys.service.IDoctorService;
+import com.clinicSys.service.IQueueStreamService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/api/doctor")
@@ -18,6 +21,9 @@ public class DoctorController {
     @Autowired
     private IDoctorService doctorService;
 
+    @Autowired
+    private IQueueStreamService queueStreamService;
+
     @GetMapping("/dashboard")
     public ResponseEntity<?> getDoctorDashboard() {
         try {
@@ -30,6 +36,12 @@ public class DoctorController {
         }
     }
 
+    // Stream các thay đổi trạng thái lịch hẹn của bác sĩ hiện tại (SSE)
+    @GetMapping(value = "/queue/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamQueue() {
+        return queueStreamService.subscribeCurrentDoctor();
+    }
+
     // Inner class for error response
     private static class ErrorResponse {
         private String message;
@@ -4,6 +4,7 @@ import com.clinicSys.dto.request.SaveConsultationDTO;
 import com.clinicSys.dto.response.ConsultationDataDTO;
 import com.clinicSys.dto.response.EMRDTO;
 import com.clinicSys.dto.response.ICD10CodeDTO;
+import com.clinicSys.dto.response.VisitHistoryPageDTO;
 import com.clinicSys.service.IEMRService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -32,6 +33,21 @@ public class EMRController {
         }
     }
 
+    @GetMapping("/patient/{patientID}/visits")
+    public ResponseEntity<?> getVisitHistory(
+            @PathVariable int patientID,
+            @RequestParam(required = false) Integer cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            VisitHistoryPageDTO page = emrService.getVisitHistory(patientID, cursor, limit);
+            return ResponseEntity.ok(page);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new ErrorResponse("Lỗi khi lấy lịch sử khám bệnh: " + e.getMessage()));
+        }
+    }
+
     @PostMapping("/appointment/{appointmentID}/start-consultation")
     public ResponseEntity<?> startConsultation(@PathVariable int appointmentID) {
         try {
@@ -0,0 +1,101 @@
+package com.clinicSys.controller;
+
+import com.clinicSys.dto.request.FileFormat;
+import com.clinicSys.service.IExportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+
+/**
+ * Bulk exports for reporting. The body is written by a StreamingResponseBody after the handler
+ * returns, row by row from the database cursor, so parameters are checked before streaming starts.
+ */
+@RestController
+@RequestMapping("/api/admin/export")
+public class ExportController {
+
+    @Autowired
+    private IExportService exportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // API để xuất danh sách bệnh nhân (format=csv hoặc ndjson)
+    @GetMapping("/patients")
+    public ResponseEntity<StreamingResponseBody> exportPatients(@RequestParam(defaultValue = "csv") String format) {
+        return export("patients", format, null, null, exportService::exportPatients);
+    }
+
+    // API để xuất lịch hẹn trong khoảng ngày [from, to] (không bắt buộc)
+    @GetMapping("/appointments")
+    public ResponseEntity<StreamingResponseBody> exportAppointments(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return export("appointments", format, from, to,
+            (fileFormat, out) -> exportService.exportAppointments(from, to, fileFormat, out));
+    }
+
+    // API để xuất hóa đơn theo ngày lập trong khoảng [from, to] (không bắt buộc)
+    @GetMapping("/bills")
+    public ResponseEntity<StreamingResponseBody> exportBills(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return export("bills", format, from, to,
+            (fileFormat, out) -> exportService.exportBills(from, to, fileFormat, out));
+    }
+
+    private ResponseEntity<StreamingResponseBody> export(String name, String format, LocalDate from, LocalDate to, ExportTask task) {
+        FileFormat fileFormat;
+        try {
+            fileFormat = FileFormat.fromParam(format);
+        } catch (RuntimeException e) {
+            return badRequest(e.getMessage());
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            return badRequest("Ngày bắt đầu phải trước hoặc bằng ngày kết thúc");
+        }
+        StreamingResponseBody body = out -> task.write(fileFormat, out);
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(fileFormat.getContentType()))
+            .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(name + "." + fileFormat.getExtension()).build().toString())
+            .body(body);
+    }
+
+    // Spring only streams a StreamingResponseBody when the handler declares it, so errors are written through one as well
+    private ResponseEntity<StreamingResponseBody> badRequest(String message) {
+        return ResponseEntity.badRequest()
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(out -> objectMapper.writeValue(out, new ErrorResponse(message)));
+    }
+
+    @FunctionalInterface
+    private interface ExportTask {
+        long write(FileFormat format, OutputStream out) throws IOException;
+    }
+
+    // Inner class for error response
+    private static class ErrorResponse {
+        private String message;
+
+        public ErrorResponse(String message) {
+            this.message = message;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.clinicSys.controller;
+
+import com.clinicSys.dto.request.FileFormat;
+import com.clinicSys.dto.response.ImportJobDTO;
+import com.clinicSys.service.IImportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * Bulk imports for onboarding. The upload is saved to a temporary file and imported in the
+ * background; the response is the job, whose progress and row errors are read from GET /{jobId}.
+ */
+@RestController
+@RequestMapping("/api/admin/import")
+public class ImportController {
+
+    @Autowired
+    private IImportService importService;
+
+    // API để nhập danh sách bệnh nhân từ tệp (format=csv hoặc ndjson)
+    @PostMapping("/patients")
+    public ResponseEntity<?> importPatients(@RequestParam("file") MultipartFile file,
+                                            @RequestParam(defaultValue = "csv") String format) {
+        return start(file, format, importService::startPatientImport);
+    }
+
+    // API để nhập danh mục thuốc từ tệp (format=csv hoặc ndjson)
+    @PostMapping("/medicines")
+    public ResponseEntity<?> importMedicines(@RequestParam("file") MultipartFile file,
+                                             @RequestParam(defaultValue = "csv") String format) {
+        return start(file, format, importService::startMedicineImport);
+    }
+
+    // API để xem tiến độ và các dòng lỗi của một lượt nhập
+    @GetMapping("/{jobId}")
+    public ResponseEntity<?> getJob(@PathVariable String jobId) {
+        try {
+            return ResponseEntity.ok(importService.getJob(jobId));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    // API để xem các lượt nhập gần đây
+    @GetMapping
+    public ResponseEntity<List<ImportJobDTO>> getJobs() {
+        return ResponseEntity.ok(importService.getJobs());
+    }
+
+    private ResponseEntity<?> start(MultipartFile file, String format, BiFunction<Path, FileFormat, ImportJobDTO> importer) {
+        FileFormat fileFormat;
+        try {
+            fileFormat = FileFormat.fromParam(format);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+        if (file.isEmpty()) {
+            return ResponseEntity.badRequest().body(new ErrorResponse("Tệp nhập dữ liệu trống"));
+        }
+        Path path = null;
+        try {
+            // The multipart part is gone once the request ends, the import outlives it
+            path = Files.createTempFile("clinic-import-", "." + fileFormat.getExtension());
+            file.transferTo(path);
+            return ResponseEntity.accepted().body(importer.apply(path, fileFormat));
+        } catch (IOException | RuntimeException e) {
+            e.printStackTrace();
+            try {
+                if (path != null) {
+                    Files.deleteIfExists(path);
+                }
+            } catch (IOException ignored) {
+            }
+            return ResponseEntity.badRequest().body(new ErrorResponse("Lỗi khi nhận tệp: " + e.getMessage()));
+        }
+    }
+
+    private static class ErrorResponse {
+        private String message;
+
+        public ErrorResponse(String message) {
+            this.message = message;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
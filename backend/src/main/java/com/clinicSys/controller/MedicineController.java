@@ -10,11 +10,13 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.clinicSys.dto.request.CreateMedicineDTO;
 import com.clinicSys.dto.response.MedicineDTO;
 import com.clinicSys.dto.response.MedicineGroupDTO;
+import com.clinicSys.dto.response.PageDTO;
 import com.clinicSys.dto.request.UpdateMedicineDTO;
 import com.clinicSys.dto.request.UpdateUserStatusDTO;
 import com.clinicSys.service.IMedicineService;
@@ -38,6 +40,19 @@ public class MedicineController {
         }
     }
 
+    // API để lấy danh sách medicines theo trang (keyset, sắp xếp theo MedicineCode)
+    @GetMapping("/page")
+    public ResponseEntity<?> getMedicinesPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        try {
+            PageDTO<MedicineDTO> page = medicineService.getMedicinesPage(cursor, limit);
+            return ResponseEntity.ok(page);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse("Lỗi khi lấy danh sách thuốc: " + e.getMessage()));
+        }
+    }
+
     // API để lấy thông tin một medicine theo ID
     @GetMapping("/{medicineId}")
     public ResponseEntity<MedicineDTO> getMedicineById(@PathVariable int medicineId) {
@@ -76,5 +91,16 @@ public class MedicineController {
         MedicineDTO updatedMedicine = medicineService.updateMedicineStatus(medicineId, statusDTO.status());
         return ResponseEntity.ok(updatedMedicine);
     }
-}
 
+    private static class ErrorResponse {
+        private String message;
+        
+        public ErrorResponse(String message) {
+            this.message = message;
+        }
+        
+        public String getMessage() {
+            return message;
+        }
+    }
+}
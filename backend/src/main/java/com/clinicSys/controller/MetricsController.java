@@ -0,0 +1,48 @@
+package com.clinicSys.controller;
+
+import com.clinicSys.service.IMetricsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Prometheus scrape endpoint. A scraper cannot sign in, so it sends the static token from
+ * clinic.metrics.scrape-token as a bearer token instead of a JWT; while the token is empty
+ * the endpoint does not exist.
+ */
+@RestController
+@RequestMapping("/api/metrics")
+public class MetricsController {
+
+    private static final MediaType PROMETHEUS_TEXT = MediaType.parseMediaType("text/plain;version=0.0.4;charset=utf-8");
+
+    @Autowired
+    private IMetricsService metricsService;
+
+    @Value("${clinic.metrics.scrape-token:}")
+    private String scrapeToken;
+
+    // API để Prometheus lấy số liệu (Authorization: Bearer <scrape-token>)
+    @GetMapping("/prometheus")
+    public ResponseEntity<String> scrape(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        if (scrapeToken.isBlank()) {
+            return ResponseEntity.notFound().build();
+        }
+        byte[] expected = ("Bearer " + scrapeToken).getBytes(StandardCharsets.UTF_8);
+        byte[] actual = authorization != null ? authorization.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        if (!MessageDigest.isEqual(expected, actual)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        return ResponseEntity.ok().contentType(PROMETHEUS_TEXT).body(metricsService.scrape());
+    }
+}
@@ -2,6 +2,7 @@ package com.clinicSys.controller;
 
 import com.clinicSys.dto.request.CreatePatientDTO;
 import com.clinicSys.dto.request.UpdatePatientDTO;
+import com.clinicSys.dto.response.PageDTO;
 import com.clinicSys.dto.response.PatientDTO;
 import com.clinicSys.service.IPatientService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -31,6 +32,19 @@ public class PatientController {
         }
     }
 
+    // Danh sách bệnh nhân theo trang (keyset, sắp xếp theo PatientID)
+    @GetMapping("/page")
+    public ResponseEntity<?> getPatientsPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        try {
+            PageDTO<PatientDTO> page = patientService.getPatientsPage(cursor, limit);
+            return ResponseEntity.ok(page);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse("Lỗi khi lấy danh sách bệnh nhân: " + e.getMessage()));
+        }
+    }
+
     @GetMapping("/{patientId}")
     public ResponseEntity<?> getPatientById(@PathVariable int patientId) {
         try {
@@ -44,9 +58,11 @@ public class PatientController {
     }
 
     @GetMapping("/search")
-    public ResponseEntity<?> searchPatients(@RequestParam String q) {
+    public ResponseEntity<?> searchPatients(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "20") int limit) {
         try {
-            List<PatientDTO> patients = patientService.searchPatients(q);
+            List<PatientDTO> patients = patientService.searchPatients(q, limit);
             return ResponseEntity.ok(patients);
         } catch (Exception e) {
             e.printStackTrace();
@@ -55,10 +71,13 @@ public class PatientController {
         }
     }
 
+    // Gửi lại cùng Idempotency-Key (khi client retry) sẽ trả về bệnh nhân đã tạo thay vì tạo bản ghi mới
     @PostMapping
-    public ResponseEntity<?> createPatient(@RequestBody CreatePatientDTO createPatientDTO) {
+    public ResponseEntity<?> createPatient(
+            @RequestBody CreatePatientDTO createPatientDTO,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
         try {
-            PatientDTO patient = patientService.createPatient(createPatientDTO);
+            PatientDTO patient = patientService.createPatient(createPatientDTO, idempotencyKey);
             return ResponseEntity.ok(patient);
         } catch (Exception e) {
             e.printStackTrace();
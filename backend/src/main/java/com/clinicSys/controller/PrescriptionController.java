@@ -20,9 +20,10 @@ public class PrescriptionController {
     private IPrescriptionService prescriptionService;
 
     @GetMapping("/medicines/search")
-    public ResponseEntity<?> searchMedicines(@RequestParam String q) {
+    public ResponseEntity<?> searchMedicines(@RequestParam String q,
+                                             @RequestParam(defaultValue = "false") boolean inStock) {
         try {
-            List<MedicineDTO> medicines = prescriptionService.searchMedicines(q);
+            List<MedicineDTO> medicines = prescriptionService.searchMedicines(q, inStock);
             return ResponseEntity.ok(medicines);
         } catch (Exception e) {
             e.printStackTrace();
@@ -1,11 +1,14 @@
 package com.clinicSys.controller;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -16,14 +19,22 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import com.clinicSys.dto.request.AddAppointmentServiceDTO;
 import com.clinicSys.dto.request.CreateAppointmentDTO;
 import com.clinicSys.dto.response.AppointmentDetailsDTO;
+import com.clinicSys.dto.response.BillDTO;
+import com.clinicSys.dto.response.BillingRunDTO;
+import com.clinicSys.dto.response.FreeSlotDTO;
 import com.clinicSys.dto.response.PatientDTO;
 import com.clinicSys.dto.response.ReceptionistDashboardDTO;
 import com.clinicSys.dto.response.ServiceDTO;
 import com.clinicSys.dto.response.UserDTO;
+import com.clinicSys.service.IBillingService;
+import com.clinicSys.service.IQueueStreamService;
 import com.clinicSys.service.IReceptionistService;
+import com.clinicSys.service.ISlotService;
 
 @RestController
 @RequestMapping("/api/receptionist")
@@ -33,6 +44,15 @@ public class ReceptionistController {
     @Autowired
     private IReceptionistService receptionistService;
 
+    @Autowired
+    private IQueueStreamService queueStreamService;
+
+    @Autowired
+    private ISlotService slotService;
+
+    @Autowired
+    private IBillingService billingService;
+
     @GetMapping("/dashboard")
     public ResponseEntity<?> getReceptionistDashboard() {
         try {
@@ -45,6 +65,12 @@ public class ReceptionistController {
         }
     }
 
+    // Stream các thay đổi trạng thái lịch hẹn (SSE) để dashboard cập nhật mà không cần tải lại toàn bộ
+    @GetMapping(value = "/queue/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamQueue() {
+        return queueStreamService.subscribeClinic();
+    }
+
     @GetMapping("/appointments/week")
     public ResponseEntity<?> getAppointmentsByWeek(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate weekStart) {
@@ -85,9 +111,11 @@ public class ReceptionistController {
     }
 
     @GetMapping("/appointments/patients/search")
-    public ResponseEntity<?> searchPatientsByName(@RequestParam String name) {
+    public ResponseEntity<?> searchPatientsByName(
+            @RequestParam String name,
+            @RequestParam(defaultValue = "20") int limit) {
         try {
-            List<PatientDTO> patients = receptionistService.searchPatientsByName(name);
+            List<PatientDTO> patients = receptionistService.searchPatientsByName(name, limit);
             return ResponseEntity.ok(patients);
         } catch (Exception e) {
             e.printStackTrace();
@@ -96,6 +124,21 @@ public class ReceptionistController {
         }
     }
 
+    // API để lấy các khung giờ trống sớm nhất (tất cả bác sĩ hoặc một bác sĩ)
+    @GetMapping("/slots/free")
+    public ResponseEntity<?> getFreeSlots(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) Integer doctorId,
+            @RequestParam(defaultValue = "10") int limit) {
+        try {
+            List<FreeSlotDTO> slots = slotService.findFreeSlots(from, doctorId, limit);
+            return ResponseEntity.ok(slots);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest()
+                .body(new ErrorResponse("Lỗi khi tìm khung giờ trống: " + e.getMessage()));
+        }
+    }
+
     @GetMapping("/doctors")
     public ResponseEntity<?> getAllDoctors() {
         try {
@@ -131,6 +174,62 @@ public class ReceptionistController {
         }
     }
 
+    // API để thêm dịch vụ vào lịch hẹn, trả về tổng tiền tạm tính
+    @PostMapping("/appointments/{appointmentId}/services")
+    public ResponseEntity<?> addAppointmentService(
+            @PathVariable int appointmentId,
+            @RequestBody AddAppointmentServiceDTO request) {
+        try {
+            BigDecimal total = billingService.addServiceLine(appointmentId, request);
+            return ResponseEntity.ok(total);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest()
+                .body(new ErrorResponse("Lỗi khi thêm dịch vụ: " + e.getMessage()));
+        }
+    }
+
+    // API để lập hóa đơn cho lịch hẹn đã khám xong (thanh toán ngay nếu có phương thức thanh toán)
+    @PostMapping("/appointments/{appointmentId}/bill")
+    public ResponseEntity<?> createBill(
+            @PathVariable int appointmentId,
+            @RequestBody(required = false) PaymentRequest request) {
+        try {
+            BillDTO bill = billingService.createBill(appointmentId, request != null ? request.getPaymentMethodID() : null);
+            return ResponseEntity.status(HttpStatus.CREATED).body(bill);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest()
+                .body(new ErrorResponse("Lỗi khi lập hóa đơn: " + e.getMessage()));
+        }
+    }
+
+    // API để thanh toán hóa đơn
+    @PutMapping("/bills/{billId}/pay")
+    public ResponseEntity<?> payBill(
+            @PathVariable int billId,
+            @RequestBody PaymentRequest request) {
+        try {
+            BillDTO bill = billingService.payBill(billId, request.getPaymentMethodID());
+            return ResponseEntity.ok(bill);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest()
+                .body(new ErrorResponse("Lỗi khi thanh toán hóa đơn: " + e.getMessage()));
+        }
+    }
+
+    // API để lập hóa đơn cho tất cả lịch hẹn đã khám xong trong ngày (mặc định hôm nay)
+    @PostMapping("/bills/batch")
+    public ResponseEntity<?> billCompletedAppointments(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        try {
+            BillingRunDTO result = billingService.billCompletedAppointments(date != null ? date : LocalDate.now());
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new ErrorResponse("Lỗi khi lập hóa đơn theo ngày: " + e.getMessage()));
+        }
+    }
+
     // Inner class for error response
     private static class ErrorResponse {
         private String message;
@@ -156,5 +255,17 @@ public class ReceptionistController {
             this.status = status;
         }
     }
-}
 
+    // Inner class for bill payment request
+    private static class PaymentRequest {
+        private Integer paymentMethodID;
+
+        public Integer getPaymentMethodID() {
+            return paymentMethodID;
+        }
+
+        public void setPaymentMethodID(Integer paymentMethodID) {
+            this.paymentMethodID = paymentMethodID;
+        }
+    }
+}
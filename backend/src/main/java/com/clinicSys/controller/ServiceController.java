@@ -10,11 +10,13 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.clinicSys.dto.request.CreateServiceDTO;
 import com.clinicSys.dto.request.UpdateServiceDTO;
 import com.clinicSys.dto.request.UpdateUserStatusDTO;
+import com.clinicSys.dto.response.PageDTO;
 import com.clinicSys.dto.response.ServiceDTO;
 import com.clinicSys.dto.response.ServiceTypeDTO;
 import com.clinicSys.service.IServiceService;
@@ -38,6 +40,19 @@ public class ServiceController {
         }
     }
 
+    // API để lấy danh sách services theo trang (keyset, sắp xếp theo ServiceCode)
+    @GetMapping("/page")
+    public ResponseEntity<?> getServicesPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        try {
+            PageDTO<ServiceDTO> page = serviceService.getServicesPage(cursor, limit);
+            return ResponseEntity.ok(page);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse("Lỗi khi lấy danh sách dịch vụ: " + e.getMessage()));
+        }
+    }
+
     // API để lấy thông tin một service theo ID
     @GetMapping("/{serviceId}")
     public ResponseEntity<ServiceDTO> getServiceById(@PathVariable int serviceId) {
@@ -76,5 +91,16 @@ public class ServiceController {
         ServiceDTO updatedService = serviceService.updateServiceStatus(serviceId, statusDTO.status());
         return ResponseEntity.ok(updatedService);
     }
-}
 
+    private static class ErrorResponse {
+        private String message;
+        
+        public ErrorResponse(String message) {
+            this.message = message;
+        }
+        
+        public String getMessage() {
+            return message;
+        }
+    }
+}
@@ -21,8 +21,8 @@ public class Appointment {
     @Column(name = "DateTime", nullable = false)
     private LocalDateTime dateTime;
 
-    @Column(name = "Status", nullable = false)
-    private String status;
+    @Column(name = "Status", nullable = false, length = 50)
+    private AppointmentStatus status;
 
     @Column(name = "PatientID", nullable = false)
     private int patientID;
@@ -0,0 +1,30 @@
+package com.clinicSys.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A service line of an appointment (e.g. general exam, blood test), billed at the service's price times the quantity
+ */
+@Entity
+@Table(name = "Appointment_Service")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppointmentService {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "AppointmentServiceID")
+    private int appointmentServiceID;
+
+    @Column(name = "AppointmentID", nullable = false)
+    private int appointmentID;
+
+    @Column(name = "ServiceID", nullable = false)
+    private int serviceID;
+
+    @Column(name = "Quantity", nullable = false)
+    private int quantity;
+}
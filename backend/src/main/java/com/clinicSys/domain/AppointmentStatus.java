@@ -0,0 +1,101 @@
+package com.clinicSys.domain;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Status of an appointment. Stored in Appointment.Status as the label (e.g. "Checked-in")
+ * through AppointmentStatusConverter, and serialized to JSON the same way.
+ *
+ * Allowed transitions:
+ * Scheduled → Checked-in → In Consultation → Completed → Billed,
+ * and Scheduled / Checked-in → Cancelled.
+ */
+public enum AppointmentStatus {
+    SCHEDULED("Scheduled"),
+    CHECKED_IN("Checked-in"),
+    IN_CONSULTATION("In Consultation"),
+    COMPLETED("Completed"),
+    BILLED("Billed"),
+    CANCELLED("Cancelled");
+
+    private static final Map<String, AppointmentStatus> BY_LABEL = new HashMap<>();
+    private static final Map<String, AppointmentStatus> BY_KEY = new HashMap<>();
+    private static final Map<AppointmentStatus, Set<AppointmentStatus>> TRANSITIONS = new EnumMap<>(AppointmentStatus.class);
+
+    static {
+        for (AppointmentStatus status : values()) {
+            BY_LABEL.put(status.label, status);
+            BY_KEY.put(key(status.label), status);
+        }
+        // Older spellings still found in existing rows
+        BY_KEY.put("checkin", CHECKED_IN);
+        BY_KEY.put("canceled", CANCELLED);
+
+        TRANSITIONS.put(SCHEDULED, EnumSet.of(CHECKED_IN, CANCELLED));
+        TRANSITIONS.put(CHECKED_IN, EnumSet.of(IN_CONSULTATION, CANCELLED));
+        TRANSITIONS.put(IN_CONSULTATION, EnumSet.of(COMPLETED));
+        TRANSITIONS.put(COMPLETED, EnumSet.of(BILLED));
+        TRANSITIONS.put(BILLED, EnumSet.noneOf(AppointmentStatus.class));
+        TRANSITIONS.put(CANCELLED, EnumSet.noneOf(AppointmentStatus.class));
+    }
+
+    private final String label;
+
+    AppointmentStatus(String label) {
+        this.label = label;
+    }
+
+    @JsonValue
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Parses a status label, accepting other casing and spellings ("check-in", "completed")
+     * @param value Status label
+     * @return Matching status
+     * @throws RuntimeException if the value is not a known status
+     */
+    public static AppointmentStatus fromLabel(String value) {
+        if (value == null) {
+            throw new RuntimeException("Trạng thái lịch hẹn không được để trống");
+        }
+        AppointmentStatus status = BY_LABEL.get(value);
+        if (status == null) {
+            status = BY_KEY.get(key(value));
+        }
+        if (status == null) {
+            throw new RuntimeException("Trạng thái lịch hẹn không hợp lệ: " + value);
+        }
+        return status;
+    }
+
+    /**
+     * Setting the current status again is allowed, so retried requests do not fail
+     * @return true if an appointment in this status may move to the given one
+     */
+    public boolean canTransitionTo(AppointmentStatus next) {
+        return next == this || TRANSITIONS.get(this).contains(next);
+    }
+
+    /**
+     * @throws RuntimeException if the transition is not allowed
+     */
+    public void requireTransitionTo(AppointmentStatus next) {
+        if (!canTransitionTo(next)) {
+            throw new RuntimeException("Không thể chuyển trạng thái lịch hẹn từ " + label + " sang " + next.label);
+        }
+    }
+
+    // Lower case letters only: "Checked-in", "checked in" and "CHECKED_IN" share one key
+    private static String key(String value) {
+        return value.toLowerCase(Locale.ROOT).replaceAll("[^a-z]", "");
+    }
+}
@@ -0,0 +1,22 @@
+package com.clinicSys.domain;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores AppointmentStatus as its label, so the column keeps the values
+ * ("Scheduled", "Checked-in", ...) that db.sql and existing rows already use.
+ */
+@Converter(autoApply = true)
+public class AppointmentStatusConverter implements AttributeConverter<AppointmentStatus, String> {
+
+    @Override
+    public String convertToDatabaseColumn(AppointmentStatus status) {
+        return status == null ? null : status.getLabel();
+    }
+
+    @Override
+    public AppointmentStatus convertToEntityAttribute(String value) {
+        return value == null ? null : AppointmentStatus.fromLabel(value);
+    }
+}
@@ -0,0 +1,35 @@
+package com.clinicSys.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "AuditLog")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditLog {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "LogID")
+    private int logID;
+
+    @Column(name = "ActionType", nullable = false, length = 100)
+    private String actionType;
+
+    @Column(name = "Timestamp", nullable = false)
+    private LocalDateTime timestamp;
+
+    @Column(name = "Details", length = 4000)
+    private String details;
+
+    @Column(name = "UserID", nullable = false)
+    private int userID;
+
+    @Column(name = "EntityAffected")
+    private String entityAffected;
+}
@@ -0,0 +1,32 @@
+package com.clinicSys.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "DailyClinicStats")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyClinicStats {
+    @Id
+    @Column(name = "StatDate")
+    private LocalDate statDate;
+
+    @Column(name = "AppointmentCount", nullable = false)
+    private int appointmentCount;
+
+    @Column(name = "DistinctPatients", nullable = false)
+    private int distinctPatients;
+
+    @Column(name = "NewPatients", nullable = false)
+    private int newPatients;
+
+    @Column(name = "Revenue", nullable = false, precision = 18, scale = 2)
+    private BigDecimal revenue;
+}
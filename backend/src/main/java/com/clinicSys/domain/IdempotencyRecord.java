@@ -0,0 +1,31 @@
+package com.clinicSys.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A client-supplied Idempotency-Key and the resource its first request created
+ */
+@Entity
+@Table(name = "IdempotencyKey")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyRecord {
+    @Id
+    @Column(name = "IdempotencyKey", length = 100)
+    private String idempotencyKey;
+
+    @Column(name = "Operation", nullable = false, length = 50)
+    private String operation;
+
+    @Column(name = "ResourceID")
+    private Integer resourceID;
+
+    @Column(name = "CreatedAt", nullable = false)
+    private LocalDateTime createdAt;
+}
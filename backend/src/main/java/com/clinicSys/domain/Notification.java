@@ -0,0 +1,73 @@
+package com.clinicSys.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outbox row of a notification to a patient. Written in the transaction that changed the
+ * appointment and delivered later by the dispatcher (see NotificationServiceImpl).
+ *
+ * Status: Pending → Processing (claimed by one dispatcher) → Sent, or back to Pending for a
+ * retry, or Failed after the last attempt. Pending reminders become Cancelled with their appointment.
+ */
+@Entity
+@Table(name = "Notification")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Notification {
+    public static final String PENDING = "Pending";
+    public static final String PROCESSING = "Processing";
+    public static final String SENT = "Sent";
+    public static final String FAILED = "Failed";
+    public static final String CANCELLED = "Cancelled";
+
+    public static final String CONFIRMATION = "Confirmation";
+    public static final String REMINDER = "Reminder";
+    public static final String STATUS_CHANGED = "StatusChanged";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "ID")
+    private int id;
+
+    @Column(name = "Type", nullable = false, length = 50)
+    private String type;
+
+    @Column(name = "Status", nullable = false, length = 50)
+    private String status;
+
+    @Column(name = "AppointmentID", nullable = false)
+    private int appointmentID;
+
+    // Appointment status label for StatusChanged notifications
+    @Column(name = "Payload", length = 500)
+    private String payload;
+
+    @Column(name = "CreatedAt", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Not delivered before this time (reminders are due some time before the appointment)
+    @Column(name = "SendAfter", nullable = false)
+    private LocalDateTime sendAfter;
+
+    @Column(name = "Attempts", nullable = false)
+    private int attempts;
+
+    // Claim of a Processing row; another dispatcher may take the row over once it has passed
+    @Column(name = "LockedUntil")
+    private LocalDateTime lockedUntil;
+
+    @Column(name = "ClaimToken", length = 36)
+    private String claimToken;
+
+    @Column(name = "SentAt")
+    private LocalDateTime sentAt;
+
+    @Column(name = "LastError", length = 500)
+    private String lastError;
+}
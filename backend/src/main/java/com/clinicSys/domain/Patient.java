@@ -8,7 +8,11 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "Patient")
+@Table(name = "Patient", uniqueConstraints = {
+    // Named so that violations can be told apart (see PatientServiceImpl.createPatient)
+    @UniqueConstraint(name = "UQ_Patient_PatientCode", columnNames = "PatientCode"),
+    @UniqueConstraint(name = "UQ_Patient_Phone", columnNames = "Phone")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -18,7 +22,7 @@ public class Patient {
     @Column(name = "PatientID")
     private int patientID;
 
-    @Column(name = "PatientCode", unique = true, nullable = false)
+    @Column(name = "PatientCode", nullable = false)
     private String patientCode;
 
     @Column(name = "FullName", nullable = false)
@@ -33,10 +37,11 @@ public class Patient {
     @Column(name = "Address")
     private String address;
 
-    @Column(name = "Phone", unique = true, nullable = false)
+    @Column(name = "Phone", nullable = false)
     private String phone;
 
-    @Column(name = "Email", unique = true)
+    // Unique among non-null values: filtered index UQ_Patient_Email in db.sql (a UNIQUE constraint would allow only one NULL)
+    @Column(name = "Email")
     private String email;
 }
 
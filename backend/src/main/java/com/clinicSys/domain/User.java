@@ -7,6 +7,7 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
@@ -18,7 +19,13 @@ import lombok.Data;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+// Read on every authenticated request; status and password changes go through Hibernate
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "User")
 @AllArgsConstructor
 @Data
 @Getter
@@ -79,7 +86,6 @@ public class User implements UserDetails {
 	@Override
 	public boolean isEnabled() { return "Active".equals(this.status); }
 
-
 	public String getRoleString() {
 		return switch (this.role) {
 			case 1 -> "Admin";
@@ -0,0 +1,6 @@
+package com.clinicSys.dto.request;
+
+public record AddAppointmentServiceDTO(
+    int serviceID,
+    Integer quantity
+) {}
@@ -0,0 +1,34 @@
+package com.clinicSys.dto.request;
+
+/**
+ * Format of exported and imported files (?format=csv or ?format=ndjson).
+ */
+public enum FileFormat {
+    CSV("text/csv;charset=UTF-8", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String contentType;
+    private final String extension;
+
+    FileFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public static FileFormat fromParam(String value) {
+        for (FileFormat format : values()) {
+            if (format.extension.equalsIgnoreCase(value == null ? "" : value.trim())) {
+                return format;
+            }
+        }
+        throw new RuntimeException("Định dạng tệp không hợp lệ: " + value + " (csv hoặc ndjson)");
+    }
+}
@@ -1,5 +1,7 @@
 package com.clinicSys.dto.response;
 
+import com.clinicSys.domain.AppointmentStatus;
+
 import java.time.LocalDateTime;
 
 /**
@@ -13,5 +15,11 @@ public record AppointmentWithDoctorDTO(
     String patientName,
     int doctorID,
     String doctorName
-) {}
+) {
+    // Used by JPQL constructor expressions, which select the converted status
+    public AppointmentWithDoctorDTO(int appointmentID, LocalDateTime dateTime, AppointmentStatus status,
+                                    int patientID, String patientName, int doctorID, String doctorName) {
+        this(appointmentID, dateTime, status.getLabel(), patientID, patientName, doctorID, doctorName);
+    }
+}
 
@@ -0,0 +1,12 @@
+package com.clinicSys.dto.response;
+
+import java.time.LocalDateTime;
+
+public record AuditLogDTO(
+    int logID,
+    String actionType,
+    LocalDateTime timestamp,
+    String details,
+    int userID,
+    String entityAffected
+) {}
@@ -0,0 +1,15 @@
+package com.clinicSys.dto.response;
+
+/**
+ * Counters of the asynchronous audit log writer since startup
+ */
+public record AuditStatsDTO(
+    long recorded,
+    long written,
+    // Rejected because the queue was full
+    long overflowed,
+    // Lost because their batch insert failed
+    long dropped,
+    int pending,
+    int queueCapacity
+) {}
@@ -0,0 +1,15 @@
+package com.clinicSys.dto.response;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record BillDTO(
+    int billID,
+    String invoiceCode,
+    int appointmentID,
+    BigDecimal totalAmount,
+    String paymentStatus,
+    Integer paymentMethodID,
+    LocalDateTime dateIssued,
+    LocalDateTime datePaid
+) {}
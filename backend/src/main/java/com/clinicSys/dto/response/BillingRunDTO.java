@@ -0,0 +1,13 @@
+package com.clinicSys.dto.response;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Result of billing all completed appointments of one day
+ */
+public record BillingRunDTO(
+    LocalDate day,
+    int billsCreated,
+    BigDecimal totalAmount
+) {}
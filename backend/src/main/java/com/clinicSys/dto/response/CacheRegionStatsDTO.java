@@ -0,0 +1,12 @@
+package com.clinicSys.dto.response;
+
+/**
+ * DTO for the statistics of one Hibernate second-level cache region (admin)
+ */
+public record CacheRegionStatsDTO(
+    String region,
+    long hits,
+    long misses,
+    long puts,
+    double hitRatio
+) {}
@@ -0,0 +1,13 @@
+package com.clinicSys.dto.response;
+
+/**
+ * State of the semaphore in front of the connection pool (virtual thread mode only)
+ */
+public record ConnectionGateDTO(
+    int permits,
+    int available,
+    // Threads waiting for a permit
+    int waiting,
+    // Requests that timed out waiting since startup
+    long rejected
+) {}
@@ -0,0 +1,14 @@
+package com.clinicSys.dto.response;
+
+/**
+ * Current state of the JDBC connection pool
+ */
+public record ConnectionPoolDTO(
+    String pool,
+    int active,
+    int idle,
+    int total,
+    // Threads waiting for a connection
+    int pending,
+    int maximumPoolSize
+) {}
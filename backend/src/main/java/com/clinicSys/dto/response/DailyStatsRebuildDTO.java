@@ -0,0 +1,9 @@
+package com.clinicSys.dto.response;
+
+import java.time.LocalDate;
+
+public record DailyStatsRebuildDTO(
+    LocalDate from,
+    LocalDate to,
+    int daysWritten
+) {}
@@ -13,6 +13,7 @@ public record EMRDTO(
     LocalDate dateOfBirth,
     int age,
     String gender,
-    List<VisitHistoryDTO> visitHistory
+    List<VisitHistoryDTO> visitHistory,     // First page of visit history, newest first
+    Integer visitHistoryNextCursor          // Cursor for the next page; null when the whole history is loaded
 ) {}
 
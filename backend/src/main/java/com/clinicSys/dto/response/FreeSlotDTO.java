@@ -0,0 +1,13 @@
+package com.clinicSys.dto.response;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for a free appointment slot of a doctor
+ */
+public record FreeSlotDTO(
+    int doctorID,
+    String doctorName,
+    LocalDateTime start,
+    LocalDateTime end
+) {}
@@ -0,0 +1,25 @@
+package com.clinicSys.dto.response;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Progress of a bulk import. Counters grow while the job is Running; Completed means every row was
+ * read (some may have failed), Failed means the file could not be read to the end.
+ */
+public record ImportJobDTO(
+    String jobID,
+    // Patients or Medicines
+    String type,
+    String status,
+    long rowsRead,
+    long inserted,
+    long updated,
+    long failed,
+    LocalDateTime startedAt,
+    LocalDateTime finishedAt,
+    // Why the job stopped, for Failed jobs
+    String message,
+    // The first clinic.import.max-reported-errors failed rows
+    List<ImportRowErrorDTO> errors
+) {}
@@ -0,0 +1,12 @@
+package com.clinicSys.dto.response;
+
+/**
+ * A row of an import file that was not written
+ */
+public record ImportRowErrorDTO(
+    // Line of the file where the row starts (1 = first line, including the CSV header)
+    long line,
+    // PatientCode / MedicineCode of the row, if it had one
+    String code,
+    String message
+) {}
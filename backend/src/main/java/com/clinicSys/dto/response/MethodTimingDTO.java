@@ -0,0 +1,17 @@
+package com.clinicSys.dto.response;
+
+/**
+ * Call durations of one repository or service method since startup. Percentiles are estimated
+ * from histogram buckets.
+ */
+public record MethodTimingDTO(
+    String layer,
+    String type,
+    String method,
+    long calls,
+    double totalMillis,
+    double maxMillis,
+    double p50Millis,
+    double p95Millis,
+    double p99Millis
+) {}
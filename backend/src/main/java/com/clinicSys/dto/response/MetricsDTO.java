@@ -0,0 +1,21 @@
+package com.clinicSys.dto.response;
+
+import java.util.List;
+
+/**
+ * Method timings, SQL statement counts and connection pool state of this node
+ */
+public record MetricsDTO(
+    // Slowest in total first
+    List<MethodTimingDTO> methods,
+    // Most statements per request first
+    List<RouteStatementsDTO> routes,
+    long sqlStatements,
+    int statementBudget,
+    // Newest first
+    List<StatementBudgetViolationDTO> violations,
+    // Null when the DataSource is not a Hikari pool
+    ConnectionPoolDTO connectionPool,
+    // Null unless virtual threads are enabled
+    ConnectionGateDTO connectionGate
+) {}
@@ -0,0 +1,19 @@
+package com.clinicSys.dto.response;
+
+import java.time.LocalDateTime;
+
+/**
+ * A notification as handed to the delivery channel, with the patient's contact details
+ */
+public record NotificationMessageDTO(
+    int notificationID,
+    String type,
+    int appointmentID,
+    LocalDateTime appointmentTime,
+    String patientName,
+    String phone,
+    String email,
+    // Appointment status label for StatusChanged notifications
+    String payload,
+    int attempt
+) {}
@@ -0,0 +1,16 @@
+package com.clinicSys.dto.response;
+
+/**
+ * Outbox backlog and dispatcher counters of this node since startup
+ */
+public record NotificationStatsDTO(
+    String channel,
+    long pending,
+    long failed,
+    long claimed,
+    long sent,
+    long failedAttempts,
+    long givenUp,
+    // Sent notifications per second of dispatcher work (claiming, delivering and marking)
+    double sentPerSecond
+) {}
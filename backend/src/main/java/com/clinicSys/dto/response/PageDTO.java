@@ -0,0 +1,12 @@
+package com.clinicSys.dto.response;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated list.
+ * nextCursor is opaque to clients: pass it back as ?cursor= to get the next page; null on the last page.
+ */
+public record PageDTO<T>(
+    List<T> items,
+    String nextCursor
+) {}
@@ -0,0 +1,12 @@
+package com.clinicSys.dto.response;
+
+import java.time.LocalDateTime;
+
+public record QueueEventDTO(
+    long eventID,
+    int appointmentID,
+    int doctorID,
+    int patientID,
+    String status,
+    LocalDateTime dateTime
+) {}
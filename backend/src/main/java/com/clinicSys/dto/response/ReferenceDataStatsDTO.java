@@ -0,0 +1,13 @@
+package com.clinicSys.dto.response;
+
+/**
+ * DTO for reference data cache statistics (admin)
+ */
+public record ReferenceDataStatsDTO(
+    int medicineGroups,
+    int serviceTypes,
+    int icd10Codes,
+    long hits,
+    long misses,
+    double hitRatio
+) {}
@@ -0,0 +1,13 @@
+package com.clinicSys.dto.response;
+
+/**
+ * SQL statements run by the requests of one route (method and handler pattern) since startup
+ */
+public record RouteStatementsDTO(
+    String route,
+    long requests,
+    double meanStatements,
+    double p95Statements,
+    long maxStatements,
+    long overBudget
+) {}
@@ -0,0 +1,9 @@
+package com.clinicSys.dto.response;
+
+import java.time.LocalDateTime;
+
+public record StatementBudgetViolationDTO(
+    String route,
+    long statements,
+    LocalDateTime at
+) {}
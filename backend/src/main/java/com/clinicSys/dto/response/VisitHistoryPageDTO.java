@@ -0,0 +1,11 @@
+package com.clinicSys.dto.response;
+
+import java.util.List;
+
+/**
+ * DTO for one page of EMR visit history
+ */
+public record VisitHistoryPageDTO(
+    List<VisitHistoryDTO> visits,
+    Integer nextCursor       // Pass back as cursor to load older visits; null when there are no more
+) {}
@@ -0,0 +1,35 @@
+package com.clinicSys.event;
+
+import com.clinicSys.domain.Appointment;
+import com.clinicSys.domain.AppointmentStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published (via ApplicationEventPublisher) whenever an appointment is booked or its status changes.
+ * Listeners receive it after the surrounding transaction commits.
+ */
+public record AppointmentStatusChangedEvent(
+    int appointmentID,
+    int doctorID,
+    int patientID,
+    String status,
+    LocalDateTime dateTime
+) {
+    public static AppointmentStatusChangedEvent of(Appointment appointment) {
+        return of(appointment, appointment.getStatus());
+    }
+
+    /**
+     * For status changes written with a bulk UPDATE, where the loaded entity still has its old status
+     */
+    public static AppointmentStatusChangedEvent of(Appointment appointment, AppointmentStatus status) {
+        return new AppointmentStatusChangedEvent(
+            appointment.getAppointmentID(),
+            appointment.getDoctorID(),
+            appointment.getPatientID(),
+            status.getLabel(),
+            appointment.getDateTime()
+        );
+    }
+}
@@ -0,0 +1,10 @@
+package com.clinicSys.event;
+
+import com.clinicSys.domain.Medicine;
+
+/**
+ * Published (via ApplicationEventPublisher) when a medicine is edited inside a transaction.
+ * Listeners receive it after the transaction commits, so a rolled-back edit is never seen.
+ */
+public record MedicineSavedEvent(Medicine medicine) {
+}
@@ -1,9 +1,13 @@
 package com.clinicSys.repository;
 
 import com.clinicSys.domain.Appointment;
+import com.clinicSys.domain.AppointmentStatus;
+import com.clinicSys.dto.response.AppointmentWithDoctorDTO;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for Appointment entity operations.
@@ -33,6 +37,16 @@ public interface IAppointmentRepository {
      */
     List<Appointment> findAllByDateTimeBetween(LocalDateTime start, LocalDateTime end);
     
+    /**
+     * Finds all appointments between two dates whose status is one of the given statuses
+     * @param start Start date
+     * @param end End date
+     * @param statuses Statuses to include
+     * @return List of appointments ordered by date time
+     */
+    List<Appointment> findByDateRangeAndStatuses(LocalDateTime start, LocalDateTime end,
+                                                 Collection<AppointmentStatus> statuses);
+
     /**
      * Counts appointments by date range
      * @param startDate Start date
@@ -49,6 +63,17 @@ public interface IAppointmentRepository {
      * @return List of appointments
      */
     List<Appointment> findByDoctorIDAndDateRange(int doctorID, LocalDateTime start, LocalDateTime end);
+
+    /**
+     * Finds appointments of a doctor in a date range whose status is one of the given statuses
+     * @param doctorID Doctor ID
+     * @param start Start date
+     * @param end End date
+     * @param statuses Statuses to include
+     * @return List of appointments ordered by date time
+     */
+    List<Appointment> findByDoctorIDAndDateRangeAndStatuses(int doctorID, LocalDateTime start, LocalDateTime end,
+                                                            Collection<AppointmentStatus> statuses);
     
     /**
      * Finds appointments by doctor ID and status
@@ -56,6 +81,69 @@ public interface IAppointmentRepository {
      * @param status Appointment status
      * @return List of appointments
      */
-    List<Appointment> findByDoctorIDAndStatus(int doctorID, String status);
-}
+    List<Appointment> findByDoctorIDAndStatus(int doctorID, AppointmentStatus status);
 
+    /**
+     * Finds all appointments between two dates together with patient and doctor names.
+     * Patient and doctor are joined in the same statement, so the number of queries
+     * does not grow with the number of appointments.
+     * @param start Start date
+     * @param end End date
+     * @return List of appointment rows ordered by date time
+     */
+    List<AppointmentWithDoctorDTO> findAppointmentsWithDoctorByDateRange(LocalDateTime start, LocalDateTime end);
+
+    /**
+     * Same as findAppointmentsWithDoctorByDateRange, restricted to the given statuses
+     * @param start Start date
+     * @param end End date
+     * @param statuses Statuses to include
+     * @return List of appointment rows ordered by date time
+     */
+    List<AppointmentWithDoctorDTO> findAppointmentsWithDoctorByDateRangeAndStatuses(
+        LocalDateTime start, LocalDateTime end, Collection<AppointmentStatus> statuses);
+
+    /**
+     * Finds all appointments whose IDs are in the given collection
+     * @param ids Appointment IDs
+     * @return List of matching appointments (order not guaranteed)
+     */
+    List<Appointment> findAllByIds(Collection<Integer> ids);
+
+    /**
+     * Finds the date time of the earliest appointment of a patient
+     * @param patientID Patient ID
+     * @return Earliest appointment date time, or null if the patient has no appointments
+     */
+    LocalDateTime findFirstDateTimeByPatientID(int patientID);
+
+    /**
+     * Checks whether a patient has any appointment in a date range
+     * @param patientID Patient ID
+     * @param start Start date (inclusive)
+     * @param end End date (exclusive)
+     * @return true if at least one appointment exists
+     */
+    boolean existsByPatientIDAndDateRange(int patientID, LocalDateTime start, LocalDateTime end);
+
+    /**
+     * Moves appointments from one status to another with bulk UPDATE statements.
+     * Appointments that are no longer in the expected status are left untouched.
+     * @param ids Appointment IDs
+     * @param from Expected current status
+     * @param to New status
+     * @return Number of updated appointments
+     */
+    int updateStatus(Collection<Integer> ids, AppointmentStatus from, AppointmentStatus to);
+
+    /**
+     * Streams the appointments in a date range for export as scalar rows
+     * (AppointmentID, DateTime, Status, PatientCode, PatientName, DoctorName). The rows are read
+     * forward-only, clinic.export.fetch-size per round trip, and no entities are loaded, so memory
+     * use does not grow with the number of rows. Must be consumed inside a transaction.
+     * @param start Start of the range (inclusive), or null for no lower bound
+     * @param end End of the range (exclusive), or null for no upper bound
+     * @return Rows ordered by DateTime, AppointmentID
+     */
+    Stream<Object[]> streamForExport(LocalDateTime start, LocalDateTime end);
+}
@@ -0,0 +1,24 @@
+package com.clinicSys.repository;
+
+import com.clinicSys.domain.AppointmentService;
+import java.util.List;
+
+/**
+ * Repository interface for AppointmentService (Appointment_Service) entity operations.
+ */
+public interface IAppointmentServiceRepository {
+
+    /**
+     * Finds the service lines of an appointment
+     * @param appointmentID Appointment ID
+     * @return Service lines in the order they were added
+     */
+    List<AppointmentService> findByAppointmentID(int appointmentID);
+
+    /**
+     * Saves or updates a service line
+     * @param appointmentService Service line to save
+     * @return Saved service line
+     */
+    AppointmentService save(AppointmentService appointmentService);
+}
@@ -0,0 +1,24 @@
+package com.clinicSys.repository;
+
+import com.clinicSys.domain.AuditLog;
+import java.util.List;
+
+/**
+ * Repository interface for AuditLog entity operations.
+ */
+public interface IAuditLogRepository {
+
+    /**
+     * Inserts audit entries using JDBC batching (hibernate.jdbc.batch_size rows per round trip)
+     * @param entries Entries to insert
+     */
+    void insertAll(List<AuditLog> entries);
+
+    /**
+     * Finds the newest audit entries, optionally of one user
+     * @param userID Only entries of this user, or null for all users
+     * @param limit Maximum number of entries
+     * @return Entries, newest first
+     */
+    List<AuditLog> findRecent(Integer userID, int limit);
+}
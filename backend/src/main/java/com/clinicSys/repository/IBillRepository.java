@@ -4,7 +4,9 @@ import com.clinicSys.domain.Bill;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for Bill entity operations.
@@ -39,5 +41,54 @@ public interface IBillRepository {
      * @return Total revenue amount
      */
     BigDecimal getTotalRevenueByDateRange(LocalDateTime startDate, LocalDateTime endDate);
-}
 
+    /**
+     * Finds the bill of an appointment
+     * @param appointmentID Appointment ID
+     * @return Optional containing the bill if found, empty otherwise
+     */
+    Optional<Bill> findByAppointmentID(int appointmentID);
+
+    /**
+     * Computes the amount of an appointment in one query: its service lines (price x quantity)
+     * plus the medicines prescribed during its consultation (price x quantity)
+     * @param appointmentID Appointment ID
+     * @return Total amount, zero if there is nothing to bill
+     */
+    BigDecimal computeAppointmentTotal(int appointmentID);
+
+    /**
+     * Computes the amounts of all completed appointments in a date range that have no bill yet,
+     * in one query, the same way as computeAppointmentTotal
+     * @param start Start of the range (inclusive)
+     * @param end End of the range (exclusive)
+     * @return Appointment ID to total amount, ordered by appointment time
+     */
+    Map<Integer, BigDecimal> computeUnbilledCompletedTotals(LocalDateTime start, LocalDateTime end);
+
+    /**
+     * Inserts new bills using JDBC batching (hibernate.jdbc.batch_size rows per round trip).
+     * Generated IDs are not set on the given objects; reload them with findByAppointmentID if needed.
+     * @param bills Bills to insert
+     */
+    void insertAll(List<Bill> bills);
+
+    /**
+     * Marks an unpaid bill as paid with a single conditional UPDATE, so a bill is never paid twice
+     * @param billID Bill ID
+     * @param paymentMethodID Payment method
+     * @param datePaid Time of payment
+     * @return true if the bill was unpaid and is now paid
+     */
+    boolean markPaid(int billID, Integer paymentMethodID, LocalDateTime datePaid);
+
+    /**
+     * Streams the bills issued in a date range for export as scalar rows (BillID, InvoiceCode,
+     * AppointmentID, PatientCode, PatientName, TotalAmount, PaymentStatus, DateIssued, DatePaid),
+     * read the same way as IAppointmentRepository.streamForExport. Must be consumed inside a transaction.
+     * @param start Start of the range (inclusive), or null for no lower bound
+     * @param end End of the range (exclusive), or null for no upper bound
+     * @return Rows ordered by DateIssued, BillID
+     */
+    Stream<Object[]> streamForExport(LocalDateTime start, LocalDateTime end);
+}
@@ -0,0 +1,68 @@
+package com.clinicSys.repository;
+
+import com.clinicSys.domain.DailyClinicStats;
+import com.clinicSys.dto.response.DashboardStatsDTO;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repository interface for the DailyClinicStats rollup (one row per day).
+ */
+public interface IDailyClinicStatsRepository {
+
+    /**
+     * Adds the given deltas to the row of a day
+     * @return Number of rows updated (0 if the day has no row yet)
+     */
+    int increment(LocalDate statDate, int appointments, int distinctPatients, int newPatients, BigDecimal revenue);
+
+    /**
+     * Inserts an all-zero row for a day in its own transaction.
+     * Throws DataIntegrityViolationException if another request created it first.
+     */
+    void createEmptyDay(LocalDate statDate);
+
+    /**
+     * Reads all admin dashboard counters in a single query
+     * @param today Day used for revenue and patients today
+     * @param monthStart First day counted for new patients this month
+     * @param bookedUntil Last day counted for appointments booked (from today)
+     * @return DashboardStatsDTO
+     */
+    DashboardStatsDTO getDashboardStats(LocalDate today, LocalDate monthStart, LocalDate bookedUntil);
+
+    /**
+     * Reads the paid revenue of one day from its row
+     * @param statDate Day
+     * @return Revenue, zero if the day has no row
+     */
+    BigDecimal findRevenue(LocalDate statDate);
+
+    /**
+     * Computes rollup rows for a date range from the Appointment and Bill tables
+     * @param from First day (inclusive)
+     * @param to Last day (inclusive)
+     * @return One row per day that has data
+     */
+    List<DailyClinicStats> computeFromSource(LocalDate from, LocalDate to);
+
+    /**
+     * Replaces all rollup rows in a date range
+     * @param from First day (inclusive)
+     * @param to Last day (inclusive)
+     * @param rows New rows for the range
+     */
+    void replaceRange(LocalDate from, LocalDate to, List<DailyClinicStats> rows);
+
+    /**
+     * @return Number of rollup rows
+     */
+    Long count();
+
+    /**
+     * @return Earliest day found in the Appointment or Bill tables, or null if both are empty
+     */
+    LocalDate findEarliestSourceDate();
+}
@@ -1,10 +1,12 @@
 package com.clinicSys.repository;
 
 import com.clinicSys.domain.Diagnosis;
+import java.util.Collection;
 import java.util.List;
 
 public interface IDiagnosisRepository {
     List<Diagnosis> findByRecordID(int recordID);
+    List<Diagnosis> findByRecordIDs(Collection<Integer> recordIDs);
     List<Diagnosis> findByPatientID(int patientID);
     Diagnosis save(Diagnosis diagnosis);
 }
@@ -6,6 +6,7 @@ import java.util.Optional;
 
 public interface IICD10CodeRepository {
     Optional<ICD10Code> findById(int id);
+    List<ICD10Code> findAll();
     List<ICD10Code> searchByCodeOrDescription(String searchTerm);
 }
 
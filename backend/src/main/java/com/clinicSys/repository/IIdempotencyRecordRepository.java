@@ -0,0 +1,34 @@
+package com.clinicSys.repository;
+
+import com.clinicSys.domain.IdempotencyRecord;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Repository interface for IdempotencyRecord entity operations.
+ */
+public interface IIdempotencyRecordRepository {
+
+    /**
+     * Finds the record of an Idempotency-Key
+     * @param idempotencyKey Key sent by the client
+     * @return Optional containing the record if found, empty otherwise
+     */
+    Optional<IdempotencyRecord> findByKey(String idempotencyKey);
+
+    /**
+     * Inserts a new record and flushes it, so a second request with the same key
+     * fails here with DataIntegrityViolationException
+     * @param record Record to insert
+     * @return Inserted record (managed)
+     */
+    IdempotencyRecord insert(IdempotencyRecord record);
+
+    /**
+     * Deletes records older than a point in time
+     * @param createdBefore Records created before this are deleted
+     * @return Number of deleted records
+     */
+    int deleteCreatedBefore(LocalDateTime createdBefore);
+}
@@ -9,5 +9,14 @@ public interface IMedicalRecordRepository {
     MedicalRecord save(MedicalRecord medicalRecord);
     Optional<MedicalRecord> findByAppointmentID(int appointmentID);
     List<MedicalRecord> findByPatientID(int patientID);
+
+    /**
+     * Finds one page of a patient's medical records, newest first (RecordID DESC).
+     * @param patientID Patient ID
+     * @param beforeRecordID Only records with a smaller RecordID are returned; null for the first page
+     * @param limit Maximum number of records to return
+     * @return List of medical records
+     */
+    List<MedicalRecord> findPageByPatientID(int patientID, Integer beforeRecordID, int limit);
 }
 
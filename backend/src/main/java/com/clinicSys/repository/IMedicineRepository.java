@@ -1,8 +1,10 @@
 package com.clinicSys.repository;
 
 import com.clinicSys.domain.Medicine;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Repository interface for Medicine entity operations.
@@ -10,6 +12,7 @@ import java.util.Optional;
 public interface IMedicineRepository {
     
     Optional<Medicine> findById(int id);
+    List<Medicine> findAllByIds(Collection<Integer> ids);
     
     Medicine save(Medicine medicine);
     
@@ -20,7 +23,27 @@ public interface IMedicineRepository {
     List<Medicine> findByMedicineGroupID(int medicineGroupID);
     
     List<Medicine> findByStatus(String status);
-    
-    List<Medicine> searchByName(String searchTerm);
-}
 
+    /**
+     * Finds one page of medicines ordered by MedicineCode (keyset pagination)
+     * @param afterMedicineCode Only rows with a greater MedicineCode are returned; null for the first page
+     * @param limit Maximum number of rows to return
+     * @return List of medicines
+     */
+    List<Medicine> findPageAfter(String afterMedicineCode, int limit);
+
+    /**
+     * Finds which of the given medicine codes already exist
+     * @param medicineCodes Medicine codes
+     * @return The existing codes
+     */
+    Set<String> findExistingMedicineCodes(Collection<String> medicineCodes);
+
+    /**
+     * Inserts or updates medicines by MedicineCode, the same way as IPatientRepository.mergeAll.
+     * The writes bypass Hibernate: evict the Medicine cache region and cached queries after commit.
+     * @param medicines Medicines to write (MedicineID is ignored)
+     * @return For each medicine, in order, null if it was written or the database error message
+     */
+    List<String> mergeAll(List<Medicine> medicines);
+}
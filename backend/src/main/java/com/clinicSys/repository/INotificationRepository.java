@@ -0,0 +1,71 @@
+package com.clinicSys.repository;
+
+import com.clinicSys.domain.Notification;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository interface for the Notification outbox.
+ */
+public interface INotificationRepository {
+
+    /**
+     * Saves or updates a notification (joins the caller's transaction)
+     * @param notification Notification to save
+     * @return Saved notification
+     */
+    Notification save(Notification notification);
+
+    /**
+     * Finds the notifications of an appointment
+     * @param appointmentID Appointment ID
+     * @return Notifications ordered by ID
+     */
+    List<Notification> findByAppointmentID(int appointmentID);
+
+    /**
+     * Cancels the reminders of an appointment that have not been sent yet
+     * @param appointmentID Appointment ID
+     * @return Number of cancelled reminders
+     */
+    int cancelPendingReminders(int appointmentID);
+
+    /**
+     * Claims up to limit due notifications for one dispatcher, in its own transaction.
+     * Candidate rows are read with a skip-locked pessimistic lock (UPDLOCK, ROWLOCK, READPAST
+     * on SQL Server), so dispatchers on other nodes skip them instead of waiting. The rows are
+     * then marked Processing with the given token, and only rows carrying the token are
+     * returned, so a row is never handed to two dispatchers.
+     * Due means Pending with SendAfter passed, or Processing with an expired LockedUntil.
+     * @param limit Maximum number of rows
+     * @param now Current time
+     * @param lockedUntil End of the claim
+     * @param claimToken Unique token of this claim
+     * @return Claimed notifications, oldest due first
+     */
+    List<Notification> claimDue(int limit, LocalDateTime now, LocalDateTime lockedUntil, String claimToken);
+
+    /**
+     * Marks claimed notifications as sent
+     * @param ids Notification IDs
+     * @param sentAt Time of delivery
+     */
+    void markSent(Collection<Integer> ids, LocalDateTime sentAt);
+
+    /**
+     * Records a failed delivery: back to Pending until retryAt, or Failed if retryAt is null
+     * @param id Notification ID
+     * @param error Error message
+     * @param retryAt Time of the next attempt, or null to give up
+     */
+    void markFailed(int id, String error, LocalDateTime retryAt);
+
+    /**
+     * Counts notifications in a status
+     * @param status Status
+     * @return Number of notifications
+     */
+    long countByStatus(String status);
+}
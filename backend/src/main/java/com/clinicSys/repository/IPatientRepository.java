@@ -1,8 +1,11 @@
 package com.clinicSys.repository;
 
 import com.clinicSys.domain.Patient;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for Patient entity operations.
@@ -38,33 +41,54 @@ public interface IPatientRepository {
     Optional<Patient> findByPhone(String phone);
     
     /**
-     * Counts distinct patients by date range (from appointments)
-     * @param startDate Start date
-     * @param endDate End date
-     * @return Count of distinct patients
+     * Finds one page of patients ordered by PatientID (keyset pagination)
+     * @param afterPatientID Only rows with a greater PatientID are returned; null for the first page
+     * @param limit Maximum number of rows to return
+     * @return List of patients
      */
-    Long countDistinctPatientsByDateRange(java.time.LocalDateTime startDate, java.time.LocalDateTime endDate);
-    
+    List<Patient> findPageAfter(Integer afterPatientID, int limit);
+
     /**
-     * Counts new patients by date range (patients with first appointment in range)
-     * @param startDate Start date
-     * @param endDate End date
-     * @return Count of new patients
+     * Finds all patients whose IDs are in the given collection
+     * @param ids Patient IDs
+     * @return List of matching patients (order not guaranteed)
      */
-    Long countNewPatientsByDateRange(java.time.LocalDateTime startDate, java.time.LocalDateTime endDate);
-    
+    List<Patient> findAllByIds(Collection<Integer> ids);
+
     /**
-     * Searches patients by name, phone, or patient code
-     * @param searchTerm Search term to match against name, phone, or patient code
-     * @return List of matching patients
+     * Reads the increment of the PatientCodeSeq sequence (created by the schema migrations)
+     * @return Number of codes each value reserves, empty if the sequence does not exist
      */
-    List<Patient> searchPatients(String searchTerm);
-    
+    Optional<Integer> findPatientCodeSequenceIncrement();
+
     /**
-     * Searches patients by name only (case-insensitive)
-     * @param name Patient name to search for
-     * @return List of matching patients
+     * Takes the next value of PatientCodeSeq; the caller owns every number from that value
+     * up to (not including) value + increment
+     * @return First number of the reserved block
      */
-    List<Patient> searchPatientsByName(String name);
-}
+    long nextPatientCodeBlock();
+
+    /**
+     * Streams all patients for export as scalar rows
+     * (PatientID, PatientCode, FullName, DateOfBirth, Gender, Phone, Email, Address),
+     * read the same way as IAppointmentRepository.streamForExport. Must be consumed inside a transaction.
+     * @return Rows ordered by PatientID
+     */
+    Stream<Object[]> streamForExport();
+
+    /**
+     * Finds which of the given patient codes already exist
+     * @param patientCodes Patient codes
+     * @return The existing codes
+     */
+    Set<String> findExistingPatientCodes(Collection<String> patientCodes);
 
+    /**
+     * Inserts or updates patients by PatientCode, one MERGE per patient sent in JDBC batches.
+     * A patient that violates a constraint does not stop the others. Joins the caller's transaction;
+     * the patient search index is not updated.
+     * @param patients Patients to write (PatientID is ignored)
+     * @return For each patient, in order, null if it was written or the database error message
+     */
+    List<String> mergeAll(List<Patient> patients);
+}
@@ -7,6 +7,18 @@ public interface IPrescriptionMedicineRepository {
     List<PrescriptionMedicine> findByPrescriptionID(int prescriptionID);
     PrescriptionMedicine save(PrescriptionMedicine prescriptionMedicine);
     void deleteById(int id);
+
+    /**
+     * Deletes all items of a prescription with a single bulk DELETE statement
+     * @param prescriptionID Prescription ID
+     */
     void deleteByPrescriptionID(int prescriptionID);
+
+    /**
+     * Inserts new prescription items using JDBC batching (hibernate.jdbc.batch_size rows per round trip).
+     * Generated IDs are not set on the given objects; reload them with findByPrescriptionID if needed.
+     * @param items Items to insert
+     */
+    void insertAll(List<PrescriptionMedicine> items);
 }
 
@@ -20,5 +20,12 @@ public interface IServiceRepository {
     List<Service> findByServiceTypeID(int serviceTypeID);
     
     List<Service> findByStatus(String status);
-}
 
+    /**
+     * Finds one page of services ordered by ServiceCode (keyset pagination)
+     * @param afterServiceCode Only rows with a greater ServiceCode are returned; null for the first page
+     * @param limit Maximum number of rows to return
+     * @return List of services
+     */
+    List<Service> findPageAfter(String afterServiceCode, int limit);
+}
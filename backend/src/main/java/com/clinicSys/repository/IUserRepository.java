@@ -1,6 +1,7 @@
 package com.clinicSys.repository;
 
 import com.clinicSys.domain.User;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,6 +17,13 @@ public interface IUserRepository {
      * @return Optional containing the user if found, empty otherwise
      */
     Optional<User> findById(int id);
+
+    /**
+     * Finds all users whose IDs are in the given collection
+     * @param ids User IDs
+     * @return List of matching users (order not guaranteed)
+     */
+    List<User> findAllByIds(Collection<Integer> ids);
     
     /**
      * Saves or updates a user entity
@@ -63,4 +71,12 @@ public interface IUserRepository {
      * @return List of users with the specified role
      */
     List<User> findByRole(int roleID);
-}
\ No newline at end of file
+
+    /**
+     * Finds one page of users ordered by UserID (keyset pagination)
+     * @param afterUserID Only rows with a greater UserID are returned; null for the first page
+     * @param limit Maximum number of rows to return
+     * @return List of users
+     */
+    List<User> findPageAfter(Integer afterUserID, int limit);
+}
@@ -1,25 +1,47 @@
 package com.clinicSys.repository.impl;
 
 import com.clinicSys.domain.Appointment;
+import com.clinicSys.domain.AppointmentStatus;
+import com.clinicSys.dto.response.AppointmentWithDoctorDTO;
 import com.clinicSys.repository.IAppointmentRepository;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 @Transactional
 public class AppointmentRepositoryImpl implements IAppointmentRepository {
 
+    // SQL Server accepts at most 2100 parameters per statement
+    private static final int MAX_IN_PARAMETERS = 1000;
+
+    private static final String APPOINTMENT_WITH_DOCTOR_SELECT =
+        "SELECT new com.clinicSys.dto.response.AppointmentWithDoctorDTO(" +
+        "a.appointmentID, a.dateTime, a.status, a.patientID, COALESCE(p.fullName, 'Unknown'), a.doctorID, " +
+        "CASE WHEN u.fullName IS NULL OR u.fullName = '' THEN u.username ELSE u.fullName END) " +
+        "FROM Appointment a " +
+        "JOIN Patient p ON p.patientID = a.patientID " +
+        "JOIN User u ON u.userID = a.doctorID ";
+
     @PersistenceContext
     private EntityManager entityManager;
 
+    @Value("${clinic.export.fetch-size:1000}")
+    private int exportFetchSize;
+
     @Override
+    @Transactional(readOnly = true)
     public Optional<Appointment> findById(int id) {
         Appointment appointment = entityManager.find(Appointment.class, id);
         return Optional.ofNullable(appointment);
@@ -37,6 +59,7 @@ public class AppointmentRepositoryImpl implements IAppointmentRepository {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Appointment> findAllByDateTimeBetween(LocalDateTime start, LocalDateTime end) {
         TypedQuery<Appointment> query = entityManager.createQuery(
             "SELECT a FROM Appointment a WHERE a.dateTime >= :start AND a.dateTime < :end ORDER BY a.dateTime", 
@@ -47,6 +70,24 @@ public class AppointmentRepositoryImpl implements IAppointmentRepository {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public List<Appointment> findByDateRangeAndStatuses(LocalDateTime start, LocalDateTime end,
+                                                        Collection<AppointmentStatus> statuses) {
+        if (statuses.isEmpty()) {
+            return new ArrayList<>();
+        }
+        TypedQuery<Appointment> query = entityManager.createQuery(
+            "SELECT a FROM Appointment a " +
+            "WHERE a.dateTime >= :start AND a.dateTime < :end AND a.status IN :statuses " +
+            "ORDER BY a.dateTime", Appointment.class);
+        query.setParameter("start", start);
+        query.setParameter("end", end);
+        query.setParameter("statuses", statuses);
+        return query.getResultList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public Long countByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
         TypedQuery<Long> query = entityManager.createQuery(
             "SELECT COUNT(a) FROM Appointment a " +
@@ -58,6 +99,7 @@ public class AppointmentRepositoryImpl implements IAppointmentRepository {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Appointment> findByDoctorIDAndDateRange(int doctorID, LocalDateTime start, LocalDateTime end) {
         TypedQuery<Appointment> query = entityManager.createQuery(
             "SELECT a FROM Appointment a " +
@@ -70,7 +112,27 @@ public class AppointmentRepositoryImpl implements IAppointmentRepository {
     }
 
     @Override
-    public List<Appointment> findByDoctorIDAndStatus(int doctorID, String status) {
+    @Transactional(readOnly = true)
+    public List<Appointment> findByDoctorIDAndDateRangeAndStatuses(int doctorID, LocalDateTime start, LocalDateTime end,
+                                                                   Collection<AppointmentStatus> statuses) {
+        if (statuses.isEmpty()) {
+            return new ArrayList<>();
+        }
+        TypedQuery<Appointment> query = entityManager.createQuery(
+            "SELECT a FROM Appointment a " +
+            "WHERE a.doctorID = :doctorID AND a.dateTime >= :start AND a.dateTime < :end " +
+            "AND a.status IN :statuses " +
+            "ORDER BY a.dateTime", Appointment.class);
+        query.setParameter("doctorID", doctorID);
+        query.setParameter("start", start);
+        query.setParameter("end", end);
+        query.setParameter("statuses", statuses);
+        return query.getResultList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Appointment> findByDoctorIDAndStatus(int doctorID, AppointmentStatus status) {
         TypedQuery<Appointment> query = entityManager.createQuery(
             "SELECT a FROM Appointment a " +
             "WHERE a.doctorID = :doctorID AND a.status = :status " +
@@ -79,5 +141,109 @@ public class AppointmentRepositoryImpl implements IAppointmentRepository {
         query.setParameter("status", status);
         return query.getResultList();
     }
-}
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<AppointmentWithDoctorDTO> findAppointmentsWithDoctorByDateRange(LocalDateTime start, LocalDateTime end) {
+        TypedQuery<AppointmentWithDoctorDTO> query = entityManager.createQuery(
+            APPOINTMENT_WITH_DOCTOR_SELECT +
+            "WHERE a.dateTime >= :start AND a.dateTime < :end " +
+            "ORDER BY a.dateTime", AppointmentWithDoctorDTO.class);
+        query.setParameter("start", start);
+        query.setParameter("end", end);
+        return query.getResultList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<AppointmentWithDoctorDTO> findAppointmentsWithDoctorByDateRangeAndStatuses(
+            LocalDateTime start, LocalDateTime end, Collection<AppointmentStatus> statuses) {
+        if (statuses.isEmpty()) {
+            return new ArrayList<>();
+        }
+        TypedQuery<AppointmentWithDoctorDTO> query = entityManager.createQuery(
+            APPOINTMENT_WITH_DOCTOR_SELECT +
+            "WHERE a.dateTime >= :start AND a.dateTime < :end AND a.status IN :statuses " +
+            "ORDER BY a.dateTime", AppointmentWithDoctorDTO.class);
+        query.setParameter("start", start);
+        query.setParameter("end", end);
+        query.setParameter("statuses", statuses);
+        return query.getResultList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Appointment> findAllByIds(Collection<Integer> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        TypedQuery<Appointment> query = entityManager.createQuery(
+            "SELECT a FROM Appointment a WHERE a.appointmentID IN :ids", Appointment.class);
+        query.setParameter("ids", ids);
+        return query.getResultList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public LocalDateTime findFirstDateTimeByPatientID(int patientID) {
+        TypedQuery<LocalDateTime> query = entityManager.createQuery(
+            "SELECT MIN(a.dateTime) FROM Appointment a WHERE a.patientID = :patientID", LocalDateTime.class);
+        query.setParameter("patientID", patientID);
+        return query.getSingleResult();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean existsByPatientIDAndDateRange(int patientID, LocalDateTime start, LocalDateTime end) {
+        TypedQuery<Integer> query = entityManager.createQuery(
+            "SELECT a.appointmentID FROM Appointment a WHERE a.patientID = :patientID " +
+            "AND a.dateTime >= :start AND a.dateTime < :end", Integer.class);
+        query.setParameter("patientID", patientID);
+        query.setParameter("start", start);
+        query.setParameter("end", end);
+        query.setMaxResults(1);
+        return !query.getResultList().isEmpty();
+    }
+
+    @Override
+    public int updateStatus(Collection<Integer> ids, AppointmentStatus from, AppointmentStatus to) {
+        List<Integer> idList = new ArrayList<>(ids);
+        int updated = 0;
+        for (int i = 0; i < idList.size(); i += MAX_IN_PARAMETERS) {
+            updated += entityManager.createQuery(
+                "UPDATE Appointment a SET a.status = :to WHERE a.appointmentID IN :ids AND a.status = :from")
+                .setParameter("to", to)
+                .setParameter("from", from)
+                .setParameter("ids", idList.subList(i, Math.min(i + MAX_IN_PARAMETERS, idList.size())))
+                .executeUpdate();
+        }
+        return updated;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Stream<Object[]> streamForExport(LocalDateTime start, LocalDateTime end) {
+        StringBuilder jpql = new StringBuilder(
+            "SELECT a.appointmentID, a.dateTime, a.status, p.patientCode, p.fullName, d.fullName " +
+            "FROM Appointment a LEFT JOIN Patient p ON p.patientID = a.patientID " +
+            "LEFT JOIN User d ON d.userID = a.doctorID WHERE 1 = 1");
+        if (start != null) {
+            jpql.append(" AND a.dateTime >= :start");
+        }
+        if (end != null) {
+            jpql.append(" AND a.dateTime < :end");
+        }
+        jpql.append(" ORDER BY a.dateTime, a.appointmentID");
+        TypedQuery<Object[]> query = entityManager.createQuery(jpql.toString(), Object[].class);
+        if (start != null) {
+            query.setParameter("start", start);
+        }
+        if (end != null) {
+            query.setParameter("end", end);
+        }
+        return query
+            .setHint(HibernateHints.HINT_FETCH_SIZE, exportFetchSize)
+            .setHint(HibernateHints.HINT_READ_ONLY, true)
+            .getResultStream();
+    }
+}
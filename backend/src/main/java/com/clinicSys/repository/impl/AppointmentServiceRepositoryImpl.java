@@ -0,0 +1,41 @@
+package com.clinicSys.repository.impl;
+
+import com.clinicSys.domain.AppointmentService;
+import com.clinicSys.repository.IAppointmentServiceRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+@Transactional
+public class AppointmentServiceRepositoryImpl implements IAppointmentServiceRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<AppointmentService> findByAppointmentID(int appointmentID) {
+        TypedQuery<AppointmentService> query = entityManager.createQuery(
+            "SELECT s FROM AppointmentService s WHERE s.appointmentID = :appointmentID " +
+            "ORDER BY s.appointmentServiceID",
+            AppointmentService.class);
+        query.setParameter("appointmentID", appointmentID);
+        return query.getResultList();
+    }
+
+    @Override
+    public AppointmentService save(AppointmentService appointmentService) {
+        if (appointmentService.getAppointmentServiceID() == 0 || !entityManager.contains(appointmentService)) {
+            entityManager.persist(appointmentService);
+            entityManager.flush();
+            return appointmentService;
+        } else {
+            return entityManager.merge(appointmentService);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.clinicSys.repository.impl;
+
+import com.clinicSys.domain.AuditLog;
+import com.clinicSys.repository.IAuditLogRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.util.List;
+
+@Repository
+@Transactional
+public class AuditLogRepositoryImpl implements IAuditLogRepository {
+
+    private static final String INSERT_SQL =
+        "INSERT INTO AuditLog (ActionType, Timestamp, Details, UserID, EntityAffected) VALUES (?, ?, ?, ?, ?)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+
+    @Override
+    public void insertAll(List<AuditLog> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        // IDENTITY keys stop Hibernate from batching persist(), so batch the INSERT on the session's connection
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+                int pending = 0;
+                for (AuditLog entry : entries) {
+                    statement.setString(1, entry.getActionType());
+                    statement.setTimestamp(2, Timestamp.valueOf(entry.getTimestamp()));
+                    statement.setString(3, entry.getDetails());
+                    statement.setInt(4, entry.getUserID());
+                    statement.setString(5, entry.getEntityAffected());
+                    statement.addBatch();
+                    if (++pending == batchSize) {
+                        statement.executeBatch();
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    statement.executeBatch();
+                }
+            }
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<AuditLog> findRecent(Integer userID, int limit) {
+        TypedQuery<AuditLog> query = entityManager.createQuery(
+            "SELECT l FROM AuditLog l WHERE (:userID IS NULL OR l.userID = :userID) " +
+            "ORDER BY l.timestamp DESC, l.logID DESC", AuditLog.class);
+        query.setParameter("userID", userID);
+        query.setMaxResults(limit);
+        return query.getResultList();
+    }
+}
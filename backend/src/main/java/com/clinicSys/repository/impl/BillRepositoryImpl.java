@@ -1,26 +1,55 @@
 package com.clinicSys.repository.impl;
 
+import com.clinicSys.domain.AppointmentStatus;
 import com.clinicSys.domain.Bill;
 import com.clinicSys.repository.IBillRepository;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.TypedQuery;
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.sql.Types;
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 @Transactional
 public class BillRepositoryImpl implements IBillRepository {
 
+    private static final String INSERT_SQL =
+        "INSERT INTO Bill (InvoiceCode, TotalAmount, PaymentStatus, AppointmentID, PaymentMethodID, DateIssued, DatePaid) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    // Amount of appointment a: its service lines plus the medicines prescribed in its medical record
+    private static final String APPOINTMENT_TOTAL =
+        "COALESCE((SELECT SUM(s.price * line.quantity) FROM AppointmentService line, Service s " +
+        "WHERE s.serviceID = line.serviceID AND line.appointmentID = a.appointmentID), 0) + " +
+        "COALESCE((SELECT SUM(m.price * pm.quantity) FROM MedicalRecord r, Prescription p, PrescriptionMedicine pm, Medicine m " +
+        "WHERE p.recordID = r.recordID AND pm.prescriptionID = p.prescriptionID AND m.medicineID = pm.medicineID " +
+        "AND r.appointmentID = a.appointmentID), 0)";
+
     @PersistenceContext
     private EntityManager entityManager;
 
+    @Value("${clinic.export.fetch-size:1000}")
+    private int exportFetchSize;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+
     @Override
+    @Transactional(readOnly = true)
     public Optional<Bill> findById(int id) {
         Bill bill = entityManager.find(Bill.class, id);
         return Optional.ofNullable(bill);
@@ -38,12 +67,14 @@ public class BillRepositoryImpl implements IBillRepository {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Bill> findAll() {
         TypedQuery<Bill> query = entityManager.createQuery("SELECT b FROM Bill b", Bill.class);
         return query.getResultList();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public BigDecimal getTotalRevenueByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
         TypedQuery<BigDecimal> query = entityManager.createQuery(
             "SELECT COALESCE(SUM(b.totalAmount), 0) FROM Bill b " +
@@ -54,5 +85,116 @@ public class BillRepositoryImpl implements IBillRepository {
         BigDecimal result = query.getSingleResult();
         return result != null ? result : BigDecimal.ZERO;
     }
-}
 
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Bill> findByAppointmentID(int appointmentID) {
+        TypedQuery<Bill> query = entityManager.createQuery(
+            "SELECT b FROM Bill b WHERE b.appointmentID = :appointmentID", Bill.class);
+        query.setParameter("appointmentID", appointmentID);
+        return query.getResultStream().findFirst();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BigDecimal computeAppointmentTotal(int appointmentID) {
+        TypedQuery<BigDecimal> query = entityManager.createQuery(
+            "SELECT " + APPOINTMENT_TOTAL + " FROM Appointment a WHERE a.appointmentID = :appointmentID",
+            BigDecimal.class);
+        query.setParameter("appointmentID", appointmentID);
+        BigDecimal result = query.getResultStream().findFirst().orElse(null);
+        return result != null ? result : BigDecimal.ZERO;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Integer, BigDecimal> computeUnbilledCompletedTotals(LocalDateTime start, LocalDateTime end) {
+        List<Object[]> rows = entityManager.createQuery(
+            "SELECT a.appointmentID, " + APPOINTMENT_TOTAL + " FROM Appointment a " +
+            "WHERE a.dateTime >= :start AND a.dateTime < :end AND a.status = :status " +
+            "AND NOT EXISTS (SELECT 1 FROM Bill b WHERE b.appointmentID = a.appointmentID) " +
+            "ORDER BY a.dateTime, a.appointmentID", Object[].class)
+            .setParameter("start", start)
+            .setParameter("end", end)
+            .setParameter("status", AppointmentStatus.COMPLETED)
+            .getResultList();
+        Map<Integer, BigDecimal> totals = new LinkedHashMap<>();
+        for (Object[] row : rows) {
+            totals.put((Integer) row[0], row[1] != null ? (BigDecimal) row[1] : BigDecimal.ZERO);
+        }
+        return totals;
+    }
+
+    @Override
+    public void insertAll(List<Bill> bills) {
+        if (bills.isEmpty()) {
+            return;
+        }
+        // IDENTITY keys stop Hibernate from batching persist(), so batch the INSERT on the session's connection
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+                int pending = 0;
+                for (Bill bill : bills) {
+                    statement.setString(1, bill.getInvoiceCode());
+                    statement.setBigDecimal(2, bill.getTotalAmount());
+                    statement.setString(3, bill.getPaymentStatus());
+                    statement.setInt(4, bill.getAppointmentID());
+                    if (bill.getPaymentMethodID() != null) {
+                        statement.setInt(5, bill.getPaymentMethodID());
+                    } else {
+                        statement.setNull(5, Types.INTEGER);
+                    }
+                    statement.setTimestamp(6, Timestamp.valueOf(bill.getDateIssued()));
+                    statement.setTimestamp(7, bill.getDatePaid() != null ? Timestamp.valueOf(bill.getDatePaid()) : null);
+                    statement.addBatch();
+                    if (++pending == batchSize) {
+                        statement.executeBatch();
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    statement.executeBatch();
+                }
+            }
+        });
+    }
+
+    @Override
+    public boolean markPaid(int billID, Integer paymentMethodID, LocalDateTime datePaid) {
+        return entityManager.createQuery(
+            "UPDATE Bill b SET b.paymentStatus = 'Paid', b.paymentMethodID = :paymentMethodID, b.datePaid = :datePaid " +
+            "WHERE b.billID = :billID AND b.paymentStatus <> 'Paid'")
+            .setParameter("paymentMethodID", paymentMethodID)
+            .setParameter("datePaid", datePaid)
+            .setParameter("billID", billID)
+            .executeUpdate() > 0;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Stream<Object[]> streamForExport(LocalDateTime start, LocalDateTime end) {
+        StringBuilder jpql = new StringBuilder(
+            "SELECT b.billID, b.invoiceCode, b.appointmentID, p.patientCode, p.fullName, " +
+            "b.totalAmount, b.paymentStatus, b.dateIssued, b.datePaid " +
+            "FROM Bill b LEFT JOIN Appointment a ON a.appointmentID = b.appointmentID " +
+            "LEFT JOIN Patient p ON p.patientID = a.patientID WHERE 1 = 1");
+        if (start != null) {
+            jpql.append(" AND b.dateIssued >= :start");
+        }
+        if (end != null) {
+            jpql.append(" AND b.dateIssued < :end");
+        }
+        jpql.append(" ORDER BY b.dateIssued, b.billID");
+        TypedQuery<Object[]> query = entityManager.createQuery(jpql.toString(), Object[].class);
+        if (start != null) {
+            query.setParameter("start", start);
+        }
+        if (end != null) {
+            query.setParameter("end", end);
+        }
+        return query
+            .setHint(HibernateHints.HINT_FETCH_SIZE, exportFetchSize)
+            .setHint(HibernateHints.HINT_READ_ONLY, true)
+            .getResultStream();
+    }
+}
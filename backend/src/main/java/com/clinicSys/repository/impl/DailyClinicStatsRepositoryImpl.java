@@ -0,0 +1,171 @@
+package com.clinicSys.repository.impl;
+
+import com.clinicSys.domain.DailyClinicStats;
+import com.clinicSys.dto.response.DashboardStatsDTO;
+import com.clinicSys.repository.IDailyClinicStatsRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Repository
+@Transactional
+public class DailyClinicStatsRepositoryImpl implements IDailyClinicStatsRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int increment(LocalDate statDate, int appointments, int distinctPatients, int newPatients, BigDecimal revenue) {
+        return entityManager.createQuery(
+            "UPDATE DailyClinicStats s SET " +
+            "s.appointmentCount = s.appointmentCount + :appointments, " +
+            "s.distinctPatients = s.distinctPatients + :distinctPatients, " +
+            "s.newPatients = s.newPatients + :newPatients, " +
+            "s.revenue = s.revenue + :revenue " +
+            "WHERE s.statDate = :statDate")
+            .setParameter("appointments", appointments)
+            .setParameter("distinctPatients", distinctPatients)
+            .setParameter("newPatients", newPatients)
+            .setParameter("revenue", revenue)
+            .setParameter("statDate", statDate)
+            .executeUpdate();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void createEmptyDay(LocalDate statDate) {
+        entityManager.persist(new DailyClinicStats(statDate, 0, 0, 0, BigDecimal.ZERO));
+        entityManager.flush();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public DashboardStatsDTO getDashboardStats(LocalDate today, LocalDate monthStart, LocalDate bookedUntil) {
+        TypedQuery<DashboardStatsDTO> query = entityManager.createQuery(
+            "SELECT new com.clinicSys.dto.response.DashboardStatsDTO(" +
+            "COALESCE(SUM(CASE WHEN s.statDate = :today THEN s.revenue ELSE 0bd END), 0bd), " +
+            "COALESCE(SUM(CASE WHEN s.statDate = :today THEN s.distinctPatients ELSE 0 END), 0L), " +
+            "COALESCE(SUM(CASE WHEN s.statDate >= :monthStart AND s.statDate <= :today THEN s.newPatients ELSE 0 END), 0L), " +
+            "COALESCE(SUM(CASE WHEN s.statDate >= :today AND s.statDate <= :bookedUntil THEN s.appointmentCount ELSE 0 END), 0L), " +
+            "(SELECT COUNT(u) FROM User u), " +
+            "(SELECT COUNT(u) FROM User u WHERE u.role = 2), " +
+            "(SELECT COUNT(u) FROM User u WHERE u.role = 3), " +
+            "(SELECT COUNT(u) FROM User u WHERE u.status = 'Active')) " +
+            "FROM DailyClinicStats s " +
+            "WHERE s.statDate >= :from AND s.statDate <= :to",
+            DashboardStatsDTO.class);
+        query.setParameter("today", today);
+        query.setParameter("monthStart", monthStart);
+        query.setParameter("bookedUntil", bookedUntil);
+        query.setParameter("from", monthStart.isBefore(today) ? monthStart : today);
+        query.setParameter("to", bookedUntil);
+        return query.getSingleResult();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BigDecimal findRevenue(LocalDate statDate) {
+        DailyClinicStats day = entityManager.find(DailyClinicStats.class, statDate);
+        return day != null ? day.getRevenue() : BigDecimal.ZERO;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<DailyClinicStats> computeFromSource(LocalDate from, LocalDate to) {
+        LocalDateTime start = from.atStartOfDay();
+        LocalDateTime end = to.plusDays(1).atStartOfDay();
+        Map<LocalDate, DailyClinicStats> days = new TreeMap<>();
+
+        // Appointments and distinct patients per day
+        List<Object[]> appointmentRows = entityManager.createQuery(
+            "SELECT CAST(a.dateTime AS LocalDate), COUNT(a), COUNT(DISTINCT a.patientID) FROM Appointment a " +
+            "WHERE a.dateTime >= :start AND a.dateTime < :end " +
+            "GROUP BY CAST(a.dateTime AS LocalDate)", Object[].class)
+            .setParameter("start", start)
+            .setParameter("end", end)
+            .getResultList();
+        for (Object[] row : appointmentRows) {
+            DailyClinicStats day = days.computeIfAbsent((LocalDate) row[0], this::emptyDay);
+            day.setAppointmentCount(((Number) row[1]).intValue());
+            day.setDistinctPatients(((Number) row[2]).intValue());
+        }
+
+        // New patients: counted on the day of their first appointment ever
+        List<LocalDateTime> firstVisits = entityManager.createQuery(
+            "SELECT MIN(a.dateTime) FROM Appointment a GROUP BY a.patientID " +
+            "HAVING MIN(a.dateTime) >= :start AND MIN(a.dateTime) < :end", LocalDateTime.class)
+            .setParameter("start", start)
+            .setParameter("end", end)
+            .getResultList();
+        for (LocalDateTime firstVisit : firstVisits) {
+            DailyClinicStats day = days.computeIfAbsent(firstVisit.toLocalDate(), this::emptyDay);
+            day.setNewPatients(day.getNewPatients() + 1);
+        }
+
+        // Revenue of paid bills per day issued
+        List<Object[]> revenueRows = entityManager.createQuery(
+            "SELECT CAST(b.dateIssued AS LocalDate), SUM(b.totalAmount) FROM Bill b " +
+            "WHERE b.dateIssued >= :start AND b.dateIssued < :end AND b.paymentStatus = 'Paid' " +
+            "GROUP BY CAST(b.dateIssued AS LocalDate)", Object[].class)
+            .setParameter("start", start)
+            .setParameter("end", end)
+            .getResultList();
+        for (Object[] row : revenueRows) {
+            DailyClinicStats day = days.computeIfAbsent((LocalDate) row[0], this::emptyDay);
+            day.setRevenue((BigDecimal) row[1]);
+        }
+
+        return new ArrayList<>(days.values());
+    }
+
+    @Override
+    public void replaceRange(LocalDate from, LocalDate to, List<DailyClinicStats> rows) {
+        entityManager.createQuery("DELETE FROM DailyClinicStats s WHERE s.statDate >= :from AND s.statDate <= :to")
+            .setParameter("from", from)
+            .setParameter("to", to)
+            .executeUpdate();
+        for (DailyClinicStats row : rows) {
+            entityManager.persist(row);
+        }
+        entityManager.flush();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Long count() {
+        TypedQuery<Long> query = entityManager.createQuery("SELECT COUNT(s) FROM DailyClinicStats s", Long.class);
+        Long result = query.getSingleResult();
+        return result != null ? result : 0L;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public LocalDate findEarliestSourceDate() {
+        LocalDateTime firstAppointment = entityManager.createQuery(
+            "SELECT MIN(a.dateTime) FROM Appointment a", LocalDateTime.class).getSingleResult();
+        LocalDateTime firstBill = entityManager.createQuery(
+            "SELECT MIN(b.dateIssued) FROM Bill b", LocalDateTime.class).getSingleResult();
+        if (firstAppointment == null && firstBill == null) {
+            return null;
+        }
+        if (firstAppointment == null || (firstBill != null && firstBill.isBefore(firstAppointment))) {
+            return firstBill.toLocalDate();
+        }
+        return firstAppointment.toLocalDate();
+    }
+
+    private DailyClinicStats emptyDay(LocalDate statDate) {
+        return new DailyClinicStats(statDate, 0, 0, 0, BigDecimal.ZERO);
+    }
+}
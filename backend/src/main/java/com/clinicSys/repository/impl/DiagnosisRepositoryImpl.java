@@ -8,6 +8,8 @@ import jakarta.persistence.TypedQuery;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -18,6 +20,7 @@ public class DiagnosisRepositoryImpl implements IDiagnosisRepository {
     private EntityManager entityManager;
 
     @Override
+    @Transactional(readOnly = true)
     public List<Diagnosis> findByRecordID(int recordID) {
         TypedQuery<Diagnosis> query = entityManager.createQuery(
             "SELECT d FROM Diagnosis d WHERE d.recordID = :recordID ORDER BY d.date DESC",
@@ -27,6 +30,20 @@ public class DiagnosisRepositoryImpl implements IDiagnosisRepository {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public List<Diagnosis> findByRecordIDs(Collection<Integer> recordIDs) {
+        if (recordIDs.isEmpty()) {
+            return new ArrayList<>();
+        }
+        TypedQuery<Diagnosis> query = entityManager.createQuery(
+            "SELECT d FROM Diagnosis d WHERE d.recordID IN :recordIDs ORDER BY d.recordID, d.date DESC",
+            Diagnosis.class);
+        query.setParameter("recordIDs", recordIDs);
+        return query.getResultList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<Diagnosis> findByPatientID(int patientID) {
         // Join với MedicalRecord và Appointment để lấy diagnoses theo patientID
         TypedQuery<Diagnosis> query = entityManager.createQuery(
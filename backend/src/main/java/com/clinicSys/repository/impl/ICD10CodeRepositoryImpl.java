@@ -5,6 +5,7 @@ import com.clinicSys.repository.IICD10CodeRepository;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,12 +20,22 @@ public class ICD10CodeRepositoryImpl implements IICD10CodeRepository {
     private EntityManager entityManager;
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<ICD10Code> findById(int id) {
         ICD10Code code = entityManager.find(ICD10Code.class, id);
         return Optional.ofNullable(code);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public List<ICD10Code> findAll() {
+        TypedQuery<ICD10Code> query = entityManager.createQuery("SELECT icd FROM ICD10Code icd ORDER BY icd.code", ICD10Code.class);
+        query.setHint(HibernateHints.HINT_CACHEABLE, true);
+        return query.getResultList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<ICD10Code> searchByCodeOrDescription(String searchTerm) {
         TypedQuery<ICD10Code> query = entityManager.createQuery(
             "SELECT icd FROM ICD10Code icd " +
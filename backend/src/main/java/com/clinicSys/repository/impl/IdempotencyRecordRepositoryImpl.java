@@ -0,0 +1,39 @@
+package com.clinicSys.repository.impl;
+
+import com.clinicSys.domain.IdempotencyRecord;
+import com.clinicSys.repository.IIdempotencyRecordRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+@Transactional
+public class IdempotencyRecordRepositoryImpl implements IIdempotencyRecordRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Not read-only on purpose: the check has to see keys stored moments ago, by any user
+    @Override
+    public Optional<IdempotencyRecord> findByKey(String idempotencyKey) {
+        return Optional.ofNullable(entityManager.find(IdempotencyRecord.class, idempotencyKey));
+    }
+
+    @Override
+    public IdempotencyRecord insert(IdempotencyRecord record) {
+        entityManager.persist(record);
+        entityManager.flush();
+        return record;
+    }
+
+    @Override
+    public int deleteCreatedBefore(LocalDateTime createdBefore) {
+        return entityManager.createQuery("DELETE FROM IdempotencyRecord r WHERE r.createdAt < :createdBefore")
+            .setParameter("createdBefore", createdBefore)
+            .executeUpdate();
+    }
+}
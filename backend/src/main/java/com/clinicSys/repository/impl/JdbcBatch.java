@@ -0,0 +1,75 @@
+package com.clinicSys.repository.impl;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.dialect.SQLServerDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Runs one statement per row in JDBC batches without letting one bad row fail the others.
+ * When a batch fails, the rows the driver reports as failed (or never ran, for drivers that
+ * stop at the first error) are run again one at a time to get their own error message.
+ */
+final class JdbcBatch {
+
+    @FunctionalInterface
+    interface Binder<T> {
+        void bind(PreparedStatement statement, T row) throws SQLException;
+    }
+
+    private JdbcBatch() {
+    }
+
+    /**
+     * @return For each row, in order, null if the statement succeeded or its error message
+     */
+    static <T> List<String> executeEach(Connection connection, String sql, List<T> rows, int batchSize,
+                                        Binder<T> binder) throws SQLException {
+        List<String> errors = new ArrayList<>(Collections.nCopies(rows.size(), null));
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int start = 0; start < rows.size(); start += batchSize) {
+                int end = Math.min(start + batchSize, rows.size());
+                for (int i = start; i < end; i++) {
+                    binder.bind(statement, rows.get(i));
+                    statement.addBatch();
+                }
+                try {
+                    statement.executeBatch();
+                } catch (BatchUpdateException e) {
+                    statement.clearBatch();
+                    int[] counts = e.getUpdateCounts();
+                    for (int i = start; i < end; i++) {
+                        int k = i - start;
+                        if (counts != null && k < counts.length && counts[k] != Statement.EXECUTE_FAILED) {
+                            continue;
+                        }
+                        try {
+                            binder.bind(statement, rows.get(i));
+                            statement.executeUpdate();
+                        } catch (SQLException rowError) {
+                            errors.set(i, rowError.getMessage());
+                        }
+                    }
+                }
+            }
+        }
+        return errors;
+    }
+
+    /**
+     * SQL Server's MERGE checks for a matching row and inserts without a key-range lock, so two
+     * concurrent MERGEs of the same key can both insert. HOLDLOCK makes the check and the insert atomic.
+     */
+    static String mergeTableHint(EntityManager entityManager) {
+        SessionFactoryImplementor sessionFactory = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class);
+        return sessionFactory.getJdbcServices().getDialect() instanceof SQLServerDialect ? " WITH (HOLDLOCK)" : "";
+    }
+}
@@ -19,6 +19,7 @@ public class MedicalRecordRepositoryImpl implements IMedicalRecordRepository {
     private EntityManager entityManager;
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<MedicalRecord> findById(int id) {
         MedicalRecord record = entityManager.find(MedicalRecord.class, id);
         return Optional.ofNullable(record);
@@ -36,6 +37,7 @@ public class MedicalRecordRepositoryImpl implements IMedicalRecordRepository {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<MedicalRecord> findByAppointmentID(int appointmentID) {
         TypedQuery<MedicalRecord> query = entityManager.createQuery(
             "SELECT mr FROM MedicalRecord mr WHERE mr.appointmentID = :appointmentID", 
@@ -50,6 +52,7 @@ public class MedicalRecordRepositoryImpl implements IMedicalRecordRepository {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<MedicalRecord> findByPatientID(int patientID) {
         // Join với Appointment để lấy records theo patientID
         // Order by RecordID DESC to get newest records first (highest ID = newest)
@@ -62,5 +65,22 @@ public class MedicalRecordRepositoryImpl implements IMedicalRecordRepository {
         query.setParameter("patientID", patientID);
         return query.getResultList();
     }
-}
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<MedicalRecord> findPageByPatientID(int patientID, Integer beforeRecordID, int limit) {
+        TypedQuery<MedicalRecord> query = entityManager.createQuery(
+            "SELECT mr FROM MedicalRecord mr " +
+            "JOIN Appointment a ON mr.appointmentID = a.appointmentID " +
+            "WHERE a.patientID = :patientID " +
+            (beforeRecordID != null ? "AND mr.recordID < :beforeRecordID " : "") +
+            "ORDER BY mr.recordID DESC",
+            MedicalRecord.class);
+        query.setParameter("patientID", patientID);
+        if (beforeRecordID != null) {
+            query.setParameter("beforeRecordID", beforeRecordID);
+        }
+        query.setMaxResults(limit);
+        return query.getResultList();
+    }
+}
@@ -5,6 +5,7 @@ import com.clinicSys.repository.IMedicineGroupRepository;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,22 +20,27 @@ public class MedicineGroupRepositoryImpl implements IMedicineGroupRepository {
     private EntityManager entityManager;
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<MedicineGroup> findById(int id) {
         MedicineGroup medicineGroup = entityManager.find(MedicineGroup.class, id);
         return Optional.ofNullable(medicineGroup);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<MedicineGroup> findAll() {
         TypedQuery<MedicineGroup> query = entityManager.createQuery("SELECT mg FROM MedicineGroup mg ORDER BY mg.name", MedicineGroup.class);
+        query.setHint(HibernateHints.HINT_CACHEABLE, true);
         return query.getResultList();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<MedicineGroup> findByStatus(String status) {
         TypedQuery<MedicineGroup> query = entityManager.createQuery(
             "SELECT mg FROM MedicineGroup mg WHERE mg.status = :status", MedicineGroup.class);
         query.setParameter("status", status);
+        query.setHint(HibernateHints.HINT_CACHEABLE, true);
         return query.getResultList();
     }
 }
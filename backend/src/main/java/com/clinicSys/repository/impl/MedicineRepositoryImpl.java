@@ -5,25 +5,58 @@ import com.clinicSys.repository.IMedicineRepository;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.TypedQuery;
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
 @Transactional
 public class MedicineRepositoryImpl implements IMedicineRepository {
 
+    private static final int MAX_IN_PARAMETERS = 1000;
+
+    private static final String MERGE_SQL =
+        "USING (VALUES (?, ?, ?, ?, ?, ?, ?, ?)) AS s (MedicineCode, MedicineGroupID, Name, Strength, Unit, Price, Stock, Status) " +
+        "ON t.MedicineCode = s.MedicineCode " +
+        "WHEN MATCHED THEN UPDATE SET MedicineGroupID = s.MedicineGroupID, Name = s.Name, Strength = s.Strength, " +
+        "Unit = s.Unit, Price = s.Price, Stock = s.Stock, Status = s.Status " +
+        "WHEN NOT MATCHED THEN INSERT (MedicineCode, MedicineGroupID, Name, Strength, Unit, Price, Stock, Status) " +
+        "VALUES (s.MedicineCode, s.MedicineGroupID, s.Name, s.Strength, s.Unit, s.Price, s.Stock, s.Status);";
+
     @PersistenceContext
     private EntityManager entityManager;
 
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+
     @Override
+    @Transactional(readOnly = true)
     public Optional<Medicine> findById(int id) {
         Medicine medicine = entityManager.find(Medicine.class, id);
         return Optional.ofNullable(medicine);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<Medicine> findAllByIds(Collection<Integer> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        TypedQuery<Medicine> query = entityManager.createQuery(
+            "SELECT m FROM Medicine m WHERE m.medicineID IN :ids", Medicine.class);
+        query.setParameter("ids", ids);
+        return query.getResultList();
+    }
+
     @Override
     public Medicine save(Medicine medicine) {
         if (medicine.getMedicineID() == 0 || !entityManager.contains(medicine)) {
@@ -36,16 +69,19 @@ public class MedicineRepositoryImpl implements IMedicineRepository {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Medicine> findAll() {
         TypedQuery<Medicine> query = entityManager.createQuery("SELECT m FROM Medicine m ORDER BY m.medicineCode", Medicine.class);
         return query.getResultList();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<Medicine> findByMedicineCode(String medicineCode) {
         TypedQuery<Medicine> query = entityManager.createQuery(
             "SELECT m FROM Medicine m WHERE m.medicineCode = :medicineCode", Medicine.class);
         query.setParameter("medicineCode", medicineCode);
+        query.setHint(HibernateHints.HINT_CACHEABLE, true);
         try {
             Medicine medicine = query.getSingleResult();
             return Optional.of(medicine);
@@ -55,14 +91,17 @@ public class MedicineRepositoryImpl implements IMedicineRepository {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Medicine> findByMedicineGroupID(int medicineGroupID) {
         TypedQuery<Medicine> query = entityManager.createQuery(
             "SELECT m FROM Medicine m WHERE m.medicineGroupID = :medicineGroupID", Medicine.class);
         query.setParameter("medicineGroupID", medicineGroupID);
+        query.setHint(HibernateHints.HINT_CACHEABLE, true);
         return query.getResultList();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Medicine> findByStatus(String status) {
         TypedQuery<Medicine> query = entityManager.createQuery(
             "SELECT m FROM Medicine m WHERE m.status = :status", Medicine.class);
@@ -71,14 +110,49 @@ public class MedicineRepositoryImpl implements IMedicineRepository {
     }
 
     @Override
-    public List<Medicine> searchByName(String searchTerm) {
+    @Transactional(readOnly = true)
+    public List<Medicine> findPageAfter(String afterMedicineCode, int limit) {
         TypedQuery<Medicine> query = entityManager.createQuery(
-            "SELECT m FROM Medicine m WHERE LOWER(m.name) LIKE LOWER(:searchTerm) AND m.status = 'Active' " +
-            "ORDER BY m.name",
-            Medicine.class);
-        query.setParameter("searchTerm", "%" + searchTerm + "%");
-        query.setMaxResults(50); // Limit results
+            "SELECT m FROM Medicine m " +
+            (afterMedicineCode != null ? "WHERE m.medicineCode > :afterMedicineCode " : "") +
+            "ORDER BY m.medicineCode", Medicine.class);
+        if (afterMedicineCode != null) {
+            query.setParameter("afterMedicineCode", afterMedicineCode);
+        }
+        query.setMaxResults(limit);
         return query.getResultList();
     }
-}
 
+    @Override
+    @Transactional(readOnly = true)
+    public Set<String> findExistingMedicineCodes(Collection<String> medicineCodes) {
+        List<String> codes = new ArrayList<>(medicineCodes);
+        Set<String> existing = new HashSet<>();
+        for (int i = 0; i < codes.size(); i += MAX_IN_PARAMETERS) {
+            existing.addAll(entityManager.createQuery(
+                    "SELECT m.medicineCode FROM Medicine m WHERE m.medicineCode IN :codes", String.class)
+                .setParameter("codes", codes.subList(i, Math.min(i + MAX_IN_PARAMETERS, codes.size())))
+                .getResultList());
+        }
+        return existing;
+    }
+
+    @Override
+    public List<String> mergeAll(List<Medicine> medicines) {
+        if (medicines.isEmpty()) {
+            return new ArrayList<>();
+        }
+        String sql = "MERGE INTO Medicine" + JdbcBatch.mergeTableHint(entityManager) + " AS t " + MERGE_SQL;
+        return entityManager.unwrap(Session.class).doReturningWork(connection ->
+            JdbcBatch.executeEach(connection, sql, medicines, batchSize, (statement, medicine) -> {
+                statement.setString(1, medicine.getMedicineCode());
+                statement.setInt(2, medicine.getMedicineGroupID());
+                statement.setString(3, medicine.getName());
+                statement.setString(4, medicine.getStrength());
+                statement.setString(5, medicine.getUnit());
+                statement.setBigDecimal(6, medicine.getPrice());
+                statement.setInt(7, medicine.getStock());
+                statement.setString(8, medicine.getStatus());
+            }));
+    }
+}
@@ -0,0 +1,136 @@
+package com.clinicSys.repository.impl;
+
+import com.clinicSys.domain.Notification;
+import com.clinicSys.repository.INotificationRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.LockOptions;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+@Transactional
+public class NotificationRepositoryImpl implements INotificationRepository {
+
+    // SQL Server accepts at most 2100 parameters per statement
+    private static final int MAX_IN_PARAMETERS = 1000;
+
+    private static final String DUE =
+        "((n.status = '" + Notification.PENDING + "' AND n.sendAfter <= :now) " +
+        "OR (n.status = '" + Notification.PROCESSING + "' AND n.lockedUntil < :now))";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Notification save(Notification notification) {
+        if (notification.getId() == 0 || !entityManager.contains(notification)) {
+            entityManager.persist(notification);
+            return notification;
+        } else {
+            return entityManager.merge(notification);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Notification> findByAppointmentID(int appointmentID) {
+        TypedQuery<Notification> query = entityManager.createQuery(
+            "SELECT n FROM Notification n WHERE n.appointmentID = :appointmentID ORDER BY n.id", Notification.class);
+        query.setParameter("appointmentID", appointmentID);
+        return query.getResultList();
+    }
+
+    @Override
+    public int cancelPendingReminders(int appointmentID) {
+        return entityManager.createQuery(
+            "UPDATE Notification n SET n.status = :cancelled " +
+            "WHERE n.appointmentID = :appointmentID AND n.type = :reminder AND n.status = :pending")
+            .setParameter("cancelled", Notification.CANCELLED)
+            .setParameter("appointmentID", appointmentID)
+            .setParameter("reminder", Notification.REMINDER)
+            .setParameter("pending", Notification.PENDING)
+            .executeUpdate();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public List<Notification> claimDue(int limit, LocalDateTime now, LocalDateTime lockedUntil, String claimToken) {
+        List<Integer> candidates = entityManager.createQuery(
+            "SELECT n FROM Notification n WHERE " + DUE + " ORDER BY n.sendAfter, n.id", Notification.class)
+            .setParameter("now", now)
+            .setMaxResults(limit)
+            .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+            .setHint(AvailableSettings.JAKARTA_LOCK_TIMEOUT, LockOptions.SKIP_LOCKED)
+            .getResultStream()
+            .map(Notification::getId)
+            .toList();
+        if (candidates.isEmpty()) {
+            return new ArrayList<>();
+        }
+        // Re-checks the due condition, so a row claimed meanwhile where skip-locked is not supported is left alone
+        entityManager.createQuery(
+            "UPDATE Notification n SET n.status = '" + Notification.PROCESSING + "', n.claimToken = :claimToken, " +
+            "n.lockedUntil = :lockedUntil, n.attempts = n.attempts + 1 " +
+            "WHERE n.id IN :ids AND " + DUE)
+            .setParameter("claimToken", claimToken)
+            .setParameter("lockedUntil", lockedUntil)
+            .setParameter("ids", candidates)
+            .setParameter("now", now)
+            .executeUpdate();
+        // The candidates loaded above still hold their old state
+        entityManager.clear();
+        return entityManager.createQuery(
+            "SELECT n FROM Notification n WHERE n.claimToken = :claimToken ORDER BY n.sendAfter, n.id", Notification.class)
+            .setParameter("claimToken", claimToken)
+            .getResultList();
+    }
+
+    @Override
+    public void markSent(Collection<Integer> ids, LocalDateTime sentAt) {
+        List<Integer> idList = new ArrayList<>(ids);
+        for (int i = 0; i < idList.size(); i += MAX_IN_PARAMETERS) {
+            entityManager.createQuery(
+                "UPDATE Notification n SET n.status = :sent, n.sentAt = :sentAt, n.lockedUntil = null, n.lastError = null " +
+                "WHERE n.id IN :ids")
+                .setParameter("sent", Notification.SENT)
+                .setParameter("sentAt", sentAt)
+                .setParameter("ids", idList.subList(i, Math.min(i + MAX_IN_PARAMETERS, idList.size())))
+                .executeUpdate();
+        }
+    }
+
+    @Override
+    public void markFailed(int id, String error, LocalDateTime retryAt) {
+        if (error != null && error.length() > 500) {
+            error = error.substring(0, 500);
+        }
+        entityManager.createQuery(
+            "UPDATE Notification n SET n.status = :status, n.sendAfter = COALESCE(:retryAt, n.sendAfter), " +
+            "n.lockedUntil = null, n.lastError = :error WHERE n.id = :id")
+            .setParameter("status", retryAt != null ? Notification.PENDING : Notification.FAILED)
+            .setParameter("retryAt", retryAt)
+            .setParameter("error", error)
+            .setParameter("id", id)
+            .executeUpdate();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long countByStatus(String status) {
+        TypedQuery<Long> query = entityManager.createQuery(
+            "SELECT COUNT(n) FROM Notification n WHERE n.status = :status", Long.class);
+        query.setParameter("status", status);
+        Long result = query.getSingleResult();
+        return result != null ? result : 0L;
+    }
+}
@@ -5,21 +5,48 @@ import com.clinicSys.repository.IPatientRepository;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.TypedQuery;
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Repository
 @Transactional
 public class PatientRepositoryImpl implements IPatientRepository {
 
+    private static final String PATIENT_CODE_SEQUENCE = "PatientCodeSeq";
+
+    private static final int MAX_IN_PARAMETERS = 1000;
+
+    private static final String MERGE_SQL =
+        "USING (VALUES (?, ?, ?, ?, ?, ?, ?)) AS s (PatientCode, FullName, DateOfBirth, Gender, Address, Phone, Email) " +
+        "ON t.PatientCode = s.PatientCode " +
+        "WHEN MATCHED THEN UPDATE SET FullName = s.FullName, DateOfBirth = s.DateOfBirth, Gender = s.Gender, " +
+        "Address = s.Address, Phone = s.Phone, Email = s.Email " +
+        "WHEN NOT MATCHED THEN INSERT (PatientCode, FullName, DateOfBirth, Gender, Address, Phone, Email) " +
+        "VALUES (s.PatientCode, s.FullName, s.DateOfBirth, s.Gender, s.Address, s.Phone, s.Email);";
+
     @PersistenceContext
     private EntityManager entityManager;
 
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+
+    @Value("${clinic.export.fetch-size:1000}")
+    private int exportFetchSize;
+
     @Override
+    @Transactional(readOnly = true)
     public Optional<Patient> findById(int id) {
         Patient patient = entityManager.find(Patient.class, id);
         return Optional.ofNullable(patient);
@@ -37,12 +64,14 @@ public class PatientRepositoryImpl implements IPatientRepository {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Patient> findAll() {
         TypedQuery<Patient> query = entityManager.createQuery("SELECT p FROM Patient p", Patient.class);
         return query.getResultList();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<Patient> findByPhone(String phone) {
         TypedQuery<Patient> query = entityManager.createQuery(
             "SELECT p FROM Patient p WHERE p.phone = :phone", Patient.class);
@@ -56,54 +85,89 @@ public class PatientRepositoryImpl implements IPatientRepository {
     }
 
     @Override
-    public Long countDistinctPatientsByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
-        TypedQuery<Long> query = entityManager.createQuery(
-            "SELECT COUNT(DISTINCT a.patientID) FROM Appointment a " +
-            "WHERE a.dateTime >= :startDate AND a.dateTime < :endDate", Long.class);
-        query.setParameter("startDate", startDate);
-        query.setParameter("endDate", endDate);
-        Long result = query.getSingleResult();
-        return result != null ? result : 0L;
+    @Transactional(readOnly = true)
+    public List<Patient> findPageAfter(Integer afterPatientID, int limit) {
+        TypedQuery<Patient> query = entityManager.createQuery(
+            "SELECT p FROM Patient p " +
+            (afterPatientID != null ? "WHERE p.patientID > :afterPatientID " : "") +
+            "ORDER BY p.patientID", Patient.class);
+        if (afterPatientID != null) {
+            query.setParameter("afterPatientID", afterPatientID);
+        }
+        query.setMaxResults(limit);
+        return query.getResultList();
     }
 
     @Override
-    public Long countNewPatientsByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
-        TypedQuery<Long> query = entityManager.createQuery(
-            "SELECT COUNT(DISTINCT a.patientID) FROM Appointment a " +
-            "WHERE a.dateTime >= :startDate AND a.dateTime < :endDate " +
-            "AND a.patientID NOT IN (SELECT a2.patientID FROM Appointment a2 WHERE a2.dateTime < :startDate)", 
-            Long.class);
-        query.setParameter("startDate", startDate);
-        query.setParameter("endDate", endDate);
-        Long result = query.getSingleResult();
-        return result != null ? result : 0L;
+    @Transactional(readOnly = true)
+    public List<Patient> findAllByIds(Collection<Integer> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        TypedQuery<Patient> query = entityManager.createQuery(
+            "SELECT p FROM Patient p WHERE p.patientID IN :ids", Patient.class);
+        query.setParameter("ids", ids);
+        return query.getResultList();
     }
 
     @Override
-    public List<Patient> searchPatients(String searchTerm) {
-        String searchPattern = "%" + searchTerm.toLowerCase() + "%";
-        TypedQuery<Patient> query = entityManager.createQuery(
-            "SELECT p FROM Patient p " +
-            "WHERE LOWER(p.fullName) LIKE :searchTerm " +
-            "OR LOWER(p.phone) LIKE :searchTerm " +
-            "OR LOWER(p.patientCode) LIKE :searchTerm " +
-            "ORDER BY p.fullName", Patient.class);
-        query.setParameter("searchTerm", searchPattern);
-        return query.getResultList();
+    @Transactional(readOnly = true)
+    public Optional<Integer> findPatientCodeSequenceIncrement() {
+        // INFORMATION_SCHEMA.SEQUENCES exists on both SQL Server and H2
+        List<?> rows = entityManager.createNativeQuery(
+            "SELECT CAST(INCREMENT AS BIGINT) FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = :name")
+            .setParameter("name", PATIENT_CODE_SEQUENCE)
+            .getResultList();
+        return rows.isEmpty() ? Optional.empty() : Optional.of(((Number) rows.get(0)).intValue());
     }
 
     @Override
-    public List<Patient> searchPatientsByName(String name) {
-        if (name == null || name.trim().isEmpty()) {
-            return findAll();
+    public long nextPatientCodeBlock() {
+        Number value = (Number) entityManager.createNativeQuery(
+            "SELECT NEXT VALUE FOR " + PATIENT_CODE_SEQUENCE).getSingleResult();
+        return value.longValue();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Stream<Object[]> streamForExport() {
+        return entityManager.createQuery(
+                "SELECT p.patientID, p.patientCode, p.fullName, p.dateOfBirth, p.gender, p.phone, p.email, p.address " +
+                "FROM Patient p ORDER BY p.patientID", Object[].class)
+            .setHint(HibernateHints.HINT_FETCH_SIZE, exportFetchSize)
+            .setHint(HibernateHints.HINT_READ_ONLY, true)
+            .getResultStream();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Set<String> findExistingPatientCodes(Collection<String> patientCodes) {
+        List<String> codes = new ArrayList<>(patientCodes);
+        Set<String> existing = new HashSet<>();
+        for (int i = 0; i < codes.size(); i += MAX_IN_PARAMETERS) {
+            existing.addAll(entityManager.createQuery(
+                    "SELECT p.patientCode FROM Patient p WHERE p.patientCode IN :codes", String.class)
+                .setParameter("codes", codes.subList(i, Math.min(i + MAX_IN_PARAMETERS, codes.size())))
+                .getResultList());
         }
-        String searchPattern = "%" + name.toLowerCase().trim() + "%";
-        TypedQuery<Patient> query = entityManager.createQuery(
-            "SELECT p FROM Patient p " +
-            "WHERE LOWER(p.fullName) LIKE :searchTerm " +
-            "ORDER BY p.fullName", Patient.class);
-        query.setParameter("searchTerm", searchPattern);
-        return query.getResultList();
+        return existing;
     }
-}
 
+    @Override
+    public List<String> mergeAll(List<Patient> patients) {
+        if (patients.isEmpty()) {
+            return new ArrayList<>();
+        }
+        String sql = "MERGE INTO Patient" + JdbcBatch.mergeTableHint(entityManager) + " AS t " + MERGE_SQL;
+        return entityManager.unwrap(Session.class).doReturningWork(connection ->
+            JdbcBatch.executeEach(connection, sql, patients, batchSize, (statement, patient) -> {
+                statement.setString(1, patient.getPatientCode());
+                statement.setString(2, patient.getFullName());
+                statement.setDate(3, Date.valueOf(patient.getDateOfBirth()));
+                statement.setString(4, patient.getGender());
+                statement.setString(5, patient.getAddress());
+                statement.setString(6, patient.getPhone());
+                statement.setString(7, patient.getEmail());
+            }));
+    }
+}
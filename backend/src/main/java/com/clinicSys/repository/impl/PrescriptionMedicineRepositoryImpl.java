@@ -5,22 +5,33 @@ import com.clinicSys.repository.IPrescriptionMedicineRepository;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.TypedQuery;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.PreparedStatement;
 import java.util.List;
 
 @Repository
 @Transactional
 public class PrescriptionMedicineRepositoryImpl implements IPrescriptionMedicineRepository {
 
+    private static final String INSERT_SQL =
+        "INSERT INTO Prescription_Medicine (PrescriptionID, MedicineID, Quantity, Note) VALUES (?, ?, ?, ?)";
+
     @PersistenceContext
     private EntityManager entityManager;
 
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+
     @Override
+    @Transactional(readOnly = true)
     public List<PrescriptionMedicine> findByPrescriptionID(int prescriptionID) {
         TypedQuery<PrescriptionMedicine> query = entityManager.createQuery(
-            "SELECT pm FROM PrescriptionMedicine pm WHERE pm.prescriptionID = :prescriptionID",
+            "SELECT pm FROM PrescriptionMedicine pm WHERE pm.prescriptionID = :prescriptionID " +
+            "ORDER BY pm.prescriptionMedicineID",
             PrescriptionMedicine.class);
         query.setParameter("prescriptionID", prescriptionID);
         return query.getResultList();
@@ -47,14 +58,36 @@ public class PrescriptionMedicineRepositoryImpl implements IPrescriptionMedicine
 
     @Override
     public void deleteByPrescriptionID(int prescriptionID) {
-        TypedQuery<PrescriptionMedicine> query = entityManager.createQuery(
-            "SELECT pm FROM PrescriptionMedicine pm WHERE pm.prescriptionID = :prescriptionID",
-            PrescriptionMedicine.class);
-        query.setParameter("prescriptionID", prescriptionID);
-        List<PrescriptionMedicine> items = query.getResultList();
-        for (PrescriptionMedicine item : items) {
-            entityManager.remove(item);
+        entityManager.createQuery(
+            "DELETE FROM PrescriptionMedicine pm WHERE pm.prescriptionID = :prescriptionID")
+            .setParameter("prescriptionID", prescriptionID)
+            .executeUpdate();
+    }
+
+    @Override
+    public void insertAll(List<PrescriptionMedicine> items) {
+        if (items.isEmpty()) {
+            return;
         }
+        // IDENTITY keys stop Hibernate from batching persist(), so batch the INSERT on the session's connection
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+                int pending = 0;
+                for (PrescriptionMedicine item : items) {
+                    statement.setInt(1, item.getPrescriptionID());
+                    statement.setInt(2, item.getMedicineID());
+                    statement.setInt(3, item.getQuantity());
+                    statement.setString(4, item.getNote());
+                    statement.addBatch();
+                    if (++pending == batchSize) {
+                        statement.executeBatch();
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    statement.executeBatch();
+                }
+            }
+        });
     }
 }
-
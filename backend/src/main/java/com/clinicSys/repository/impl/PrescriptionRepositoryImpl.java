@@ -19,6 +19,7 @@ public class PrescriptionRepositoryImpl implements IPrescriptionRepository {
     private EntityManager entityManager;
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<Prescription> findById(int id) {
         Prescription prescription = entityManager.find(Prescription.class, id);
         return Optional.ofNullable(prescription);
@@ -36,6 +37,7 @@ public class PrescriptionRepositoryImpl implements IPrescriptionRepository {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<Prescription> findByRecordID(int recordID) {
         TypedQuery<Prescription> query = entityManager.createQuery(
             "SELECT p FROM Prescription p WHERE p.recordID = :recordID",
@@ -50,6 +52,7 @@ public class PrescriptionRepositoryImpl implements IPrescriptionRepository {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Prescription> findAll() {
         TypedQuery<Prescription> query = entityManager.createQuery(
             "SELECT p FROM Prescription p", Prescription.class);
@@ -5,6 +5,7 @@ import com.clinicSys.repository.IServiceRepository;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,6 +20,7 @@ public class ServiceRepositoryImpl implements IServiceRepository {
     private EntityManager entityManager;
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<Service> findById(int id) {
         Service service = entityManager.find(Service.class, id);
         return Optional.ofNullable(service);
@@ -36,16 +38,20 @@ public class ServiceRepositoryImpl implements IServiceRepository {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Service> findAll() {
         TypedQuery<Service> query = entityManager.createQuery("SELECT s FROM Service s ORDER BY s.serviceCode", Service.class);
+        query.setHint(HibernateHints.HINT_CACHEABLE, true);
         return query.getResultList();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<Service> findByServiceCode(String serviceCode) {
         TypedQuery<Service> query = entityManager.createQuery(
             "SELECT s FROM Service s WHERE s.serviceCode = :serviceCode", Service.class);
         query.setParameter("serviceCode", serviceCode);
+        query.setHint(HibernateHints.HINT_CACHEABLE, true);
         try {
             Service service = query.getSingleResult();
             return Optional.of(service);
@@ -55,19 +61,36 @@ public class ServiceRepositoryImpl implements IServiceRepository {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Service> findByServiceTypeID(int serviceTypeID) {
         TypedQuery<Service> query = entityManager.createQuery(
             "SELECT s FROM Service s WHERE s.serviceTypeID = :serviceTypeID ORDER BY s.serviceCode", Service.class);
         query.setParameter("serviceTypeID", serviceTypeID);
+        query.setHint(HibernateHints.HINT_CACHEABLE, true);
         return query.getResultList();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Service> findByStatus(String status) {
         TypedQuery<Service> query = entityManager.createQuery(
             "SELECT s FROM Service s WHERE s.status = :status ORDER BY s.serviceCode", Service.class);
         query.setParameter("status", status);
+        query.setHint(HibernateHints.HINT_CACHEABLE, true);
         return query.getResultList();
     }
-}
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<Service> findPageAfter(String afterServiceCode, int limit) {
+        TypedQuery<Service> query = entityManager.createQuery(
+            "SELECT s FROM Service s " +
+            (afterServiceCode != null ? "WHERE s.serviceCode > :afterServiceCode " : "") +
+            "ORDER BY s.serviceCode", Service.class);
+        if (afterServiceCode != null) {
+            query.setParameter("afterServiceCode", afterServiceCode);
+        }
+        query.setMaxResults(limit);
+        return query.getResultList();
+    }
+}
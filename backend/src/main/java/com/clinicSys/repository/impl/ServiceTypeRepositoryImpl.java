@@ -5,6 +5,7 @@ import com.clinicSys.repository.IServiceTypeRepository;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,22 +20,27 @@ public class ServiceTypeRepositoryImpl implements IServiceTypeRepository {
     private EntityManager entityManager;
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<ServiceType> findById(int id) {
         ServiceType serviceType = entityManager.find(ServiceType.class, id);
         return Optional.ofNullable(serviceType);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ServiceType> findAll() {
         TypedQuery<ServiceType> query = entityManager.createQuery("SELECT st FROM ServiceType st", ServiceType.class);
+        query.setHint(HibernateHints.HINT_CACHEABLE, true);
         return query.getResultList();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ServiceType> findByStatus(String status) {
         TypedQuery<ServiceType> query = entityManager.createQuery(
             "SELECT st FROM ServiceType st WHERE st.status = :status", ServiceType.class);
         query.setParameter("status", status);
+        query.setHint(HibernateHints.HINT_CACHEABLE, true);
         return query.getResultList();
     }
 }
@@ -5,9 +5,12 @@ import com.clinicSys.repository.IUserRepository;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,11 +22,24 @@ public class UserRepositoryImpl implements IUserRepository {
     private EntityManager entityManager;
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<User> findById(int id) {
         User user = entityManager.find(User.class, id);
         return Optional.ofNullable(user);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<User> findAllByIds(Collection<Integer> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        TypedQuery<User> query = entityManager.createQuery(
+            "SELECT u FROM User u WHERE u.userID IN :ids", User.class);
+        query.setParameter("ids", ids);
+        return query.getResultList();
+    }
+
     @Override
     public User save(User user) {
         if (user.getUserID() == 0 || !entityManager.contains(user)) {
@@ -36,16 +52,19 @@ public class UserRepositoryImpl implements IUserRepository {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<User> findAll() {
         TypedQuery<User> query = entityManager.createQuery("SELECT u FROM User u", User.class);
         return query.getResultList();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<User> findByUsername(String username) {
         TypedQuery<User> query = entityManager.createQuery(
             "SELECT u FROM User u WHERE u.username = :username", User.class);
         query.setParameter("username", username);
+        query.setHint(HibernateHints.HINT_CACHEABLE, true);
         try {
             User user = query.getSingleResult();
             return Optional.of(user);
@@ -55,6 +74,7 @@ public class UserRepositoryImpl implements IUserRepository {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Long countByRole(int roleID) {
         TypedQuery<Long> query = entityManager.createQuery(
             "SELECT COUNT(u) FROM User u WHERE u.role = :roleID", Long.class);
@@ -63,6 +83,7 @@ public class UserRepositoryImpl implements IUserRepository {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Long countByStatus(String status) {
         TypedQuery<Long> query = entityManager.createQuery(
             "SELECT COUNT(u) FROM User u WHERE u.status = :status", Long.class);
@@ -72,6 +93,7 @@ public class UserRepositoryImpl implements IUserRepository {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Long count() {
         TypedQuery<Long> query = entityManager.createQuery("SELECT COUNT(u) FROM User u", Long.class);
         Long result = query.getSingleResult();
@@ -79,11 +101,26 @@ public class UserRepositoryImpl implements IUserRepository {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<User> findByRole(int roleID) {
         TypedQuery<User> query = entityManager.createQuery(
             "SELECT u FROM User u WHERE u.role = :roleID AND u.status = 'Active' ORDER BY u.fullName", User.class);
         query.setParameter("roleID", roleID);
+        query.setHint(HibernateHints.HINT_CACHEABLE, true);
         return query.getResultList();
     }
-}
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<User> findPageAfter(Integer afterUserID, int limit) {
+        TypedQuery<User> query = entityManager.createQuery(
+            "SELECT u FROM User u " +
+            (afterUserID != null ? "WHERE u.userID > :afterUserID " : "") +
+            "ORDER BY u.userID", User.class);
+        if (afterUserID != null) {
+            query.setParameter("afterUserID", afterUserID);
+        }
+        query.setMaxResults(limit);
+        return query.getResultList();
+    }
+}
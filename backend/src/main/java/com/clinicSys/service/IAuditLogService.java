@@ -0,0 +1,43 @@
+package com.clinicSys.service;
+
+import com.clinicSys.dto.response.AuditLogDTO;
+import com.clinicSys.dto.response.AuditStatsDTO;
+
+import java.util.List;
+
+/**
+ * Audit trail of EMR, prescription and staff operations. Entries are queued in memory and
+ * written to the AuditLog table in batches by a background thread, so auditing never adds
+ * a database round trip to the request being audited.
+ */
+public interface IAuditLogService {
+
+    /**
+     * Queues an audit entry without blocking. When the queue is full the entry is rejected
+     * and counted as overflowed.
+     * @param userID User who performed the action
+     * @param actionType Action, e.g. "Read", "Create", "Update"
+     * @param entityAffected Entity type, e.g. "MedicalRecord"
+     * @param details Free text description
+     * @return true if the entry was queued
+     */
+    boolean record(int userID, String actionType, String entityAffected, String details);
+
+    /**
+     * Writes all entries queued so far before returning
+     */
+    void flush();
+
+    /**
+     * @return Counters of the writer since startup
+     */
+    AuditStatsDTO getStats();
+
+    /**
+     * Finds the newest written entries
+     * @param userID Only entries of this user, or null for all users
+     * @param limit Maximum number of entries (capped at 500)
+     * @return Entries, newest first
+     */
+    List<AuditLogDTO> getRecent(Integer userID, int limit);
+}
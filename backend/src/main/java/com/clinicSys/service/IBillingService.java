@@ -0,0 +1,47 @@
+package com.clinicSys.service;
+
+import com.clinicSys.dto.request.AddAppointmentServiceDTO;
+import com.clinicSys.dto.response.BillDTO;
+import com.clinicSys.dto.response.BillingRunDTO;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Bills appointments from their service lines and prescribed medicines. Paid amounts are added
+ * to the DailyClinicStats revenue of the day the bill was issued, so dashboards never sum the Bill table.
+ */
+public interface IBillingService {
+
+    /**
+     * Adds a service line to an appointment that has not been billed yet
+     * @param appointmentID Appointment ID
+     * @param line Service and quantity (defaults to 1)
+     * @return Amount the appointment would now be billed
+     */
+    BigDecimal addServiceLine(int appointmentID, AddAppointmentServiceDTO line);
+
+    /**
+     * Bills one completed appointment and moves it to Billed
+     * @param appointmentID Appointment ID
+     * @param paymentMethodID Payment method if the patient pays now, null to leave the bill unpaid
+     * @return Created bill
+     */
+    BillDTO createBill(int appointmentID, Integer paymentMethodID);
+
+    /**
+     * Marks an unpaid bill as paid
+     * @param billID Bill ID
+     * @param paymentMethodID Payment method
+     * @return Updated bill
+     */
+    BillDTO payBill(int billID, Integer paymentMethodID);
+
+    /**
+     * Creates unpaid bills for all completed appointments of a day that have none yet, and moves
+     * them to Billed, in one transaction
+     * @param day Day of the appointments
+     * @return Number of bills created and their total amount
+     */
+    BillingRunDTO billCompletedAppointments(LocalDate day);
+}
@@ -0,0 +1,27 @@
+package com.clinicSys.service;
+
+import com.clinicSys.dto.response.CacheRegionStatsDTO;
+
+import java.util.List;
+
+/**
+ * Statistics and eviction for the Hibernate second-level cache regions (entities and query results)
+ */
+public interface ICacheAdminService {
+
+    /**
+     * @return One entry per region, sorted by region name; counters run since startup
+     */
+    List<CacheRegionStatsDTO> getRegionStats();
+
+    /**
+     * Drops every entry of one region, e.g. after the table was changed directly in the database
+     * @param region Region name as returned by getRegionStats
+     */
+    void evictRegion(String region);
+
+    /**
+     * Drops every entry of every region
+     */
+    void evictAll();
+}
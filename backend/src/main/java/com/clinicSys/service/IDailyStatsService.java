@@ -0,0 +1,31 @@
+package com.clinicSys.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+public interface IDailyStatsService {
+
+    /**
+     * Updates the daily rollup for an appointment that is about to be saved.
+     * Must run in the same transaction as the insert and before it, because it
+     * looks at the patient's existing appointments to count distinct and new patients.
+     */
+    void recordAppointmentBooked(int patientID, LocalDateTime dateTime);
+
+    /**
+     * Adds the amount of a paid bill to the revenue of the day it was issued.
+     */
+    void recordRevenue(LocalDateTime dateIssued, BigDecimal amount);
+
+    /**
+     * Paid revenue of a day (bills issued that day), read from its rollup row instead of the Bill table
+     */
+    BigDecimal getRevenue(LocalDate day);
+
+    /**
+     * Recomputes the rollup rows of a date range from the Appointment and Bill tables.
+     * @return Number of days written
+     */
+    int rebuild(LocalDate from, LocalDate to);
+}
@@ -4,6 +4,7 @@ import com.clinicSys.dto.request.SaveConsultationDTO;
 import com.clinicSys.dto.response.ConsultationDataDTO;
 import com.clinicSys.dto.response.EMRDTO;
 import com.clinicSys.dto.response.ICD10CodeDTO;
+import com.clinicSys.dto.response.VisitHistoryPageDTO;
 
 import java.util.List;
 
@@ -14,6 +15,15 @@ public interface IEMRService {
      * @return EMRDTO containing patient info and visit history
      */
     EMRDTO getEMRByAppointmentID(int appointmentID);
+
+    /**
+     * Gets one page of a patient's visit history, newest first
+     * @param patientID Patient ID
+     * @param cursor nextCursor from the previous page, or null for the first page
+     * @param limit Maximum number of visits to return
+     * @return VisitHistoryPageDTO containing the visits and the cursor of the next page
+     */
+    VisitHistoryPageDTO getVisitHistory(int patientID, Integer cursor, int limit);
     
     /**
      * Updates appointment status to "In Consultation"
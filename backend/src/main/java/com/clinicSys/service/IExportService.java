@@ -0,0 +1,42 @@
+package com.clinicSys.service;
+
+import com.clinicSys.dto.request.FileFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+
+/**
+ * Bulk exports for reporting. Rows are read from a forward-only cursor and written to the output
+ * as they arrive, so memory use is the same for ten rows or ten million.
+ */
+public interface IExportService {
+
+    /**
+     * Writes all patients
+     * @param format Output format
+     * @param out Destination, left open
+     * @return Number of rows written
+     */
+    long exportPatients(FileFormat format, OutputStream out) throws IOException;
+
+    /**
+     * Writes the appointments of a date range
+     * @param from First day (inclusive), or null for no lower bound
+     * @param to Last day (inclusive), or null for no upper bound
+     * @param format Output format
+     * @param out Destination, left open
+     * @return Number of rows written
+     */
+    long exportAppointments(LocalDate from, LocalDate to, FileFormat format, OutputStream out) throws IOException;
+
+    /**
+     * Writes the bills issued in a date range
+     * @param from First day (inclusive), or null for no lower bound
+     * @param to Last day (inclusive), or null for no upper bound
+     * @param format Output format
+     * @param out Destination, left open
+     * @return Number of rows written
+     */
+    long exportBills(LocalDate from, LocalDate to, FileFormat format, OutputStream out) throws IOException;
+}
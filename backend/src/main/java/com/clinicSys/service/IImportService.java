@@ -0,0 +1,49 @@
+package com.clinicSys.service;
+
+import com.clinicSys.dto.request.FileFormat;
+import com.clinicSys.dto.response.ImportJobDTO;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Bulk import of patients and medicines from CSV or NDJSON files, for onboarding a branch.
+ * An import runs in the background: the file is read record by record, each chunk of
+ * clinic.import.chunk-size rows is validated in parallel and written with batched MERGE
+ * statements in its own transaction. Invalid rows are reported and skipped, the rest are written.
+ *
+ * Columns (names are case-insensitive; CSV needs a header line):
+ * patients: patientCode (optional, matched to update; new code if missing), fullName, dateOfBirth
+ * (yyyy-MM-dd), gender (Nam, Nữ, Khác), phone, email, address;
+ * medicines: medicineCode (matched to update), medicineName, medicineGroupID, strength, unit,
+ * price, stock, status (Active or Inactive, default Active).
+ */
+public interface IImportService {
+
+    /**
+     * Starts importing patients. The file is deleted when the import ends.
+     * @param file Uploaded file
+     * @param format File format
+     * @return The job, to follow with getJob
+     */
+    ImportJobDTO startPatientImport(Path file, FileFormat format);
+
+    /**
+     * Starts importing medicines. The file is deleted when the import ends.
+     * @param file Uploaded file
+     * @param format File format
+     * @return The job, to follow with getJob
+     */
+    ImportJobDTO startMedicineImport(Path file, FileFormat format);
+
+    /**
+     * @param jobID Job ID
+     * @return Current progress of the job
+     */
+    ImportJobDTO getJob(String jobID);
+
+    /**
+     * @return Running jobs and the jobs finished in the last clinic.import.retention-hours, newest first
+     */
+    List<ImportJobDTO> getJobs();
+}
@@ -0,0 +1,45 @@
+package com.clinicSys.service;
+
+import com.clinicSys.domain.Medicine;
+import com.clinicSys.dto.response.MedicineDTO;
+
+import java.util.List;
+
+/**
+ * In-memory autocomplete index over medicine name and code, for the prescription screen.
+ * Names are folded like IPatientSearchService and their words kept in a trie, so a query word
+ * matches the start of a name word, also with a typo or two in longer words ("amoxicilin").
+ * Only active medicines are returned; status and stock are filtered in memory.
+ * Built from the database at startup and updated when medicines are created or edited.
+ */
+public interface IMedicineSearchService {
+
+    /**
+     * Hard cap on the number of results a search can return
+     */
+    int MAX_RESULTS = 50;
+
+    /**
+     * Searches name and medicine code
+     * @param term Search term, typically what has been typed so far
+     * @param limit Maximum number of results (capped at MAX_RESULTS)
+     * @param inStockOnly Leave out medicines with no stock
+     * @return Best matches first
+     */
+    List<MedicineDTO> search(String term, int limit, boolean inStockOnly);
+
+    /**
+     * Adds a medicine to the index or replaces its previous entry
+     */
+    void index(Medicine medicine);
+
+    /**
+     * Rebuilds the whole index from the Medicine table
+     */
+    void rebuild();
+
+    /**
+     * @return Number of indexed medicines, active or not
+     */
+    int size();
+}
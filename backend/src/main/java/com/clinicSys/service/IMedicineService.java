@@ -1,6 +1,7 @@
 package com.clinicSys.service;
 
 import com.clinicSys.dto.request.CreateMedicineDTO;
+import com.clinicSys.dto.response.PageDTO;
 import com.clinicSys.dto.response.MedicineDTO;
 import com.clinicSys.dto.response.MedicineGroupDTO;
 import com.clinicSys.dto.request.UpdateMedicineDTO;
@@ -8,6 +9,7 @@ import java.util.List;
 
 public interface IMedicineService {
     List<MedicineDTO> getAllMedicines();
+    PageDTO<MedicineDTO> getMedicinesPage(String cursor, int limit);
     MedicineDTO getMedicineById(int medicineId);
     List<MedicineGroupDTO> getAllMedicineGroups();
     MedicineDTO createMedicine(CreateMedicineDTO createDTO);
@@ -0,0 +1,19 @@
+package com.clinicSys.service;
+
+import com.clinicSys.dto.response.MetricsDTO;
+
+/**
+ * Performance metrics of this node: durations of every I*Repository and I*Service method,
+ * SQL statements per HTTP request against clinic.metrics.statement-budget, and the state of
+ * the Hikari connection pool. Counters start at zero when the node starts.
+ */
+public interface IMetricsService {
+
+    MetricsDTO getMetrics();
+
+    /**
+     * @return The same metrics in the Prometheus text exposition format (version 0.0.4),
+     * durations in seconds as histograms
+     */
+    String scrape();
+}
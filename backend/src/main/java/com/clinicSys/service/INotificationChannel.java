@@ -0,0 +1,21 @@
+package com.clinicSys.service;
+
+import com.clinicSys.dto.response.NotificationMessageDTO;
+
+/**
+ * Delivery channel of the notification dispatcher (SMS, e-mail, ...). Exactly one channel bean
+ * is active, chosen with clinic.notifications.channel.
+ */
+public interface INotificationChannel {
+
+    /**
+     * @return Name shown in the dispatcher statistics
+     */
+    String getName();
+
+    /**
+     * Delivers one notification. Throwing marks the delivery as failed; it is retried later.
+     * @param message Notification with the patient's contact details
+     */
+    void send(NotificationMessageDTO message);
+}
@@ -0,0 +1,25 @@
+package com.clinicSys.service;
+
+import com.clinicSys.dto.response.NotificationStatsDTO;
+
+/**
+ * Patient notifications through a transactional outbox: every booking and status change of an
+ * appointment writes Notification rows in the same transaction, and a scheduled dispatcher
+ * delivers them through the configured INotificationChannel. Several backend nodes can run the
+ * dispatcher at once; each row is claimed by one of them. Delivery is at least once: a node
+ * that stops between sending and marking a batch leaves it to be claimed again when the claim expires.
+ */
+public interface INotificationService {
+
+    /**
+     * Claims and delivers due notifications, batch by batch, until none are left
+     * (or clinic.notifications.max-batches-per-run is reached)
+     * @return Number of notifications sent
+     */
+    int dispatchDue();
+
+    /**
+     * @return Outbox backlog and the counters of this node's dispatcher
+     */
+    NotificationStatsDTO getStats();
+}
@@ -0,0 +1,51 @@
+package com.clinicSys.service;
+
+import com.clinicSys.domain.Patient;
+import com.clinicSys.dto.response.PatientDTO;
+
+import java.util.List;
+
+/**
+ * In-memory search index over patient name, phone and patient code.
+ * Names are folded (lower case, Vietnamese diacritics removed) and split into
+ * trigrams, so "nguyen" matches "Nguyễn" without scanning the Patient table.
+ * Built from the database at startup and updated when patients are created or edited.
+ */
+public interface IPatientSearchService {
+
+    /**
+     * Hard cap on the number of results a search can return
+     */
+    int MAX_RESULTS = 50;
+
+    /**
+     * Searches name, phone and patient code
+     * @param term Search term
+     * @param limit Maximum number of results (capped at MAX_RESULTS)
+     * @return Best matches first
+     */
+    List<PatientDTO> search(String term, int limit);
+
+    /**
+     * Searches patient names only
+     * @param name Name or part of a name
+     * @param limit Maximum number of results (capped at MAX_RESULTS)
+     * @return Best matches first
+     */
+    List<PatientDTO> searchByName(String name, int limit);
+
+    /**
+     * Adds a patient to the index or replaces its previous entry
+     */
+    void index(Patient patient);
+
+    /**
+     * Rebuilds the whole index from the Patient table
+     */
+    void rebuild();
+
+    /**
+     * @return Number of indexed patients
+     */
+    int size();
+}
@@ -2,15 +2,22 @@ package com.clinicSys.service;
 
 import com.clinicSys.dto.request.CreatePatientDTO;
 import com.clinicSys.dto.request.UpdatePatientDTO;
+import com.clinicSys.dto.response.PageDTO;
 import com.clinicSys.dto.response.PatientDTO;
 
 import java.util.List;
 
 public interface IPatientService {
     PatientDTO createPatient(CreatePatientDTO createPatientDTO);
+    /**
+     * Same as createPatient, but a repeated call with the same idempotencyKey returns the
+     * patient created by the first call instead of creating another one
+     */
+    PatientDTO createPatient(CreatePatientDTO createPatientDTO, String idempotencyKey);
     List<PatientDTO> getAllPatients();
+    PageDTO<PatientDTO> getPatientsPage(String cursor, int limit);
     PatientDTO getPatientById(int patientId);
-    List<PatientDTO> searchPatients(String searchTerm);
+    List<PatientDTO> searchPatients(String searchTerm, int limit);
     PatientDTO updatePatient(int patientId, UpdatePatientDTO updatePatientDTO);
 }
 
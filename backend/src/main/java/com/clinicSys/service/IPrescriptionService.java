@@ -8,11 +8,12 @@ import java.util.List;
 
 public interface IPrescriptionService {
     /**
-     * Search medicines by name (case-insensitive)
+     * Search active medicines by name or code, from the in-memory index (IMedicineSearchService)
      * @param searchTerm Search term
-     * @return List of matching medicines
+     * @param inStockOnly Leave out medicines with no stock
+     * @return List of matching medicines, best matches first
      */
-    List<MedicineDTO> searchMedicines(String searchTerm);
+    List<MedicineDTO> searchMedicines(String searchTerm, boolean inStockOnly);
     
     /**
      * Gets prescription data by appointment ID
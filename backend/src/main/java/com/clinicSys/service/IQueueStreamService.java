@@ -0,0 +1,21 @@
+package com.clinicSys.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface IQueueStreamService {
+
+    /**
+     * Opens a stream of appointment status changes for the whole clinic (receptionist view).
+     */
+    SseEmitter subscribeClinic();
+
+    /**
+     * Opens a stream of appointment status changes for the authenticated doctor only.
+     */
+    SseEmitter subscribeCurrentDoctor();
+
+    /**
+     * @return Number of open streams
+     */
+    int getSubscriberCount();
+}
@@ -16,7 +16,7 @@ public interface IReceptionistService {
     List<AppointmentWithDoctorDTO> getAppointmentsByWeek(LocalDate weekStart);
     AppointmentDetailsDTO getAppointmentById(int appointmentId);
     AppointmentDetailsDTO updateAppointmentStatus(int appointmentId, String newStatus);
-    List<PatientDTO> searchPatientsByName(String name);
+    List<PatientDTO> searchPatientsByName(String name, int limit);
     List<UserDTO> getAllDoctors();
     List<ServiceDTO> getAllServices();
     AppointmentWithDoctorDTO createAppointment(CreateAppointmentDTO createAppointmentDTO);
@@ -0,0 +1,28 @@
+package com.clinicSys.service;
+
+import com.clinicSys.domain.ICD10Code;
+import com.clinicSys.domain.MedicineGroup;
+import com.clinicSys.domain.ServiceType;
+import com.clinicSys.dto.response.ReferenceDataStatsDTO;
+
+import java.util.Optional;
+
+/**
+ * In-memory cache of rarely changing reference data (MedicineGroup, ServiceType, ICD10Code).
+ * Loaded at startup; lookups that miss fall back to the repository and populate the cache.
+ */
+public interface IReferenceDataService {
+
+    Optional<MedicineGroup> findMedicineGroup(int medicineGroupID);
+
+    Optional<ServiceType> findServiceType(int serviceTypeID);
+
+    Optional<ICD10Code> findICD10Code(int codeID);
+
+    /**
+     * Reloads all reference tables from the database, dropping cached entries
+     */
+    void refresh();
+
+    ReferenceDataStatsDTO getStats();
+}
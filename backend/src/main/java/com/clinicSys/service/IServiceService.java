@@ -1,6 +1,7 @@
 package com.clinicSys.service;
 
 import com.clinicSys.dto.request.CreateServiceDTO;
+import com.clinicSys.dto.response.PageDTO;
 import com.clinicSys.dto.response.ServiceDTO;
 import com.clinicSys.dto.response.ServiceTypeDTO;
 import com.clinicSys.dto.request.UpdateServiceDTO;
@@ -8,6 +9,7 @@ import java.util.List;
 
 public interface IServiceService {
     List<ServiceDTO> getAllServices();
+    PageDTO<ServiceDTO> getServicesPage(String cursor, int limit);
     ServiceDTO getServiceById(int serviceId);
     List<ServiceTypeDTO> getAllServiceTypes();
     ServiceDTO createService(CreateServiceDTO createDTO);
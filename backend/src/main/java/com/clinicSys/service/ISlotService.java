@@ -0,0 +1,46 @@
+package com.clinicSys.service;
+
+import com.clinicSys.dto.response.FreeSlotDTO;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Doctors' working hours split into fixed-length slots, with the booked slots of each
+ * doctor and day kept in memory. Every booking goes through reserve, so two receptionists
+ * can never book overlapping appointments for the same doctor.
+ */
+public interface ISlotService {
+
+    /**
+     * Hard cap on the number of slots a search can return
+     */
+    int MAX_RESULTS = 100;
+
+    /**
+     * Finds the earliest free slots starting at or after a point in time
+     * @param from Earliest slot start
+     * @param doctorID Only this doctor, or null for all active doctors
+     * @param limit Maximum number of slots (capped at MAX_RESULTS)
+     * @return Free slots ordered by start time, then doctor ID
+     */
+    List<FreeSlotDTO> findFreeSlots(LocalDateTime from, Integer doctorID, int limit);
+
+    /**
+     * Books the slot starting at dateTime for a doctor, or throws if it overlaps another
+     * appointment or lies outside the doctor's working hours. When called inside a transaction,
+     * the slot is released again if that transaction rolls back.
+     */
+    void reserve(int doctorID, LocalDateTime dateTime);
+
+    /**
+     * @return Number of slots offered by all active doctors on a date
+     */
+    long countSlots(LocalDate date);
+
+    /**
+     * Reloads the list of active doctors
+     */
+    void refreshDoctors();
+}
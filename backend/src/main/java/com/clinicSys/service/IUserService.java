@@ -3,11 +3,13 @@ package com.clinicSys.service;
 import com.clinicSys.dto.request.CreateUserDTO;
 import com.clinicSys.dto.request.UpdateUserDTO;
 import com.clinicSys.dto.request.UpdateUserStatusDTO;
+import com.clinicSys.dto.response.PageDTO;
 import com.clinicSys.dto.response.UserDTO;
 import java.util.List;
 
 public interface IUserService {
     List<UserDTO> getAllStaff();
+    PageDTO<UserDTO> getStaffPage(String cursor, int limit);
     UserDTO getStaffById(int userId);
     UserDTO createStaff(CreateUserDTO userDTO);
     UserDTO updateStaff(int userId, UpdateUserDTO updateDTO);
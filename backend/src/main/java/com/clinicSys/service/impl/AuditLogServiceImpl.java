@@ -0,0 +1,156 @@
+package com.clinicSys.service.impl;
+
+import com.clinicSys.domain.AuditLog;
+import com.clinicSys.dto.response.AuditLogDTO;
+import com.clinicSys.dto.response.AuditStatsDTO;
+import com.clinicSys.repository.IAuditLogRepository;
+import com.clinicSys.service.IAuditLogService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+@Service
+public class AuditLogServiceImpl implements IAuditLogService {
+
+    // Details is NVARCHAR(MAX) in SQL Server, but keep entries small
+    private static final int MAX_DETAILS_LENGTH = 4000;
+
+    @Autowired
+    private IAuditLogRepository auditLogRepository;
+
+    @Value("${clinic.audit.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${clinic.audit.batch-size:200}")
+    private int batchSize;
+
+    // Longest time an entry waits in the queue when fewer than batch-size entries are pending
+    @Value("${clinic.audit.flush-ms:1000}")
+    private long flushMillis;
+
+    // Producers only touch the lock-free queue and the size counter, which enforces the bound
+    private final ConcurrentLinkedQueue<AuditLog> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    // Held while writing, so flush() returns only after entries taken by the writer thread are stored
+    private final ReentrantLock drainLock = new ReentrantLock();
+
+    private final AtomicLong recorded = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong overflowed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread writer;
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writer = new Thread(this::runWriter, "audit-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        // Whatever was queued after the writer's last pass
+        flush();
+    }
+
+    @Override
+    public boolean record(int userID, String actionType, String entityAffected, String details) {
+        if (size.incrementAndGet() > queueCapacity) {
+            size.decrementAndGet();
+            overflowed.incrementAndGet();
+            return false;
+        }
+        if (details != null && details.length() > MAX_DETAILS_LENGTH) {
+            details = details.substring(0, MAX_DETAILS_LENGTH);
+        }
+        queue.offer(new AuditLog(0, actionType, LocalDateTime.now(), details, userID, entityAffected));
+        recorded.incrementAndGet();
+        if (size.get() >= batchSize) {
+            LockSupport.unpark(writer);
+        }
+        return true;
+    }
+
+    @Override
+    public void flush() {
+        drainLock.lock();
+        try {
+            while (drainBatch()) {
+                // keep going until the queue is empty
+            }
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    @Override
+    public AuditStatsDTO getStats() {
+        return new AuditStatsDTO(recorded.get(), written.get(), overflowed.get(), dropped.get(),
+            size.get(), queueCapacity);
+    }
+
+    @Override
+    public List<AuditLogDTO> getRecent(Integer userID, int limit) {
+        return auditLogRepository.findRecent(userID, Math.min(Math.max(limit, 1), 500)).stream()
+            .map(entry -> new AuditLogDTO(entry.getLogID(), entry.getActionType(), entry.getTimestamp(),
+                entry.getDetails(), entry.getUserID(), entry.getEntityAffected()))
+            .collect(Collectors.toList());
+    }
+
+    private void runWriter() {
+        while (running) {
+            if (size.get() < batchSize) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(flushMillis));
+            }
+            try {
+                flush();
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Writes up to batch-size queued entries
+     * @return true if a full batch was taken, so more entries may be waiting
+     */
+    private boolean drainBatch() {
+        List<AuditLog> batch = new ArrayList<>(batchSize);
+        AuditLog entry;
+        while (batch.size() < batchSize && (entry = queue.poll()) != null) {
+            batch.add(entry);
+        }
+        if (batch.isEmpty()) {
+            return false;
+        }
+        size.addAndGet(-batch.size());
+        try {
+            auditLogRepository.insertAll(batch);
+            written.addAndGet(batch.size());
+        } catch (RuntimeException e) {
+            // A failing database must not block auditing forever: the batch is counted and given up
+            dropped.addAndGet(batch.size());
+            e.printStackTrace();
+        }
+        return batch.size() == batchSize;
+    }
+}
@@ -0,0 +1,191 @@
+package com.clinicSys.service.impl;
+
+import com.clinicSys.domain.Appointment;
+import com.clinicSys.domain.AppointmentService;
+import com.clinicSys.domain.AppointmentStatus;
+import com.clinicSys.domain.Bill;
+import com.clinicSys.dto.request.AddAppointmentServiceDTO;
+import com.clinicSys.dto.response.BillDTO;
+import com.clinicSys.dto.response.BillingRunDTO;
+import com.clinicSys.event.AppointmentStatusChangedEvent;
+import com.clinicSys.repository.IAppointmentRepository;
+import com.clinicSys.repository.IAppointmentServiceRepository;
+import com.clinicSys.repository.IBillRepository;
+import com.clinicSys.repository.IServiceRepository;
+import com.clinicSys.service.IBillingService;
+import com.clinicSys.service.IDailyStatsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class BillingServiceImpl implements IBillingService {
+
+    private static final String PAID = "Paid";
+    private static final String UNPAID = "Unpaid";
+    private static final DateTimeFormatter INVOICE_DATE = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    @Autowired
+    private IBillRepository billRepository;
+
+    @Autowired
+    private IAppointmentRepository appointmentRepository;
+
+    @Autowired
+    private IAppointmentServiceRepository appointmentServiceRepository;
+
+    @Autowired
+    private IServiceRepository serviceRepository;
+
+    @Autowired
+    private IDailyStatsService dailyStatsService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Override
+    @Transactional
+    public BigDecimal addServiceLine(int appointmentID, AddAppointmentServiceDTO line) {
+        Appointment appointment = findAppointment(appointmentID);
+        if (appointment.getStatus() == AppointmentStatus.BILLED) {
+            throw new RuntimeException("Lịch hẹn đã có hóa đơn");
+        }
+        if (appointment.getStatus() == AppointmentStatus.CANCELLED) {
+            throw new RuntimeException("Không thể thêm dịch vụ cho lịch hẹn đã hủy");
+        }
+        int quantity = line.quantity() != null ? line.quantity() : 1;
+        if (quantity <= 0) {
+            throw new RuntimeException("Số lượng phải lớn hơn 0");
+        }
+        if (serviceRepository.findById(line.serviceID()).isEmpty()) {
+            throw new RuntimeException("Không tìm thấy dịch vụ với ID: " + line.serviceID());
+        }
+        appointmentServiceRepository.save(new AppointmentService(0, appointmentID, line.serviceID(), quantity));
+        return billRepository.computeAppointmentTotal(appointmentID);
+    }
+
+    @Override
+    @Transactional
+    public BillDTO createBill(int appointmentID, Integer paymentMethodID) {
+        Appointment appointment = findAppointment(appointmentID);
+        if (appointment.getStatus() == AppointmentStatus.BILLED) {
+            throw new RuntimeException("Lịch hẹn đã có hóa đơn");
+        }
+        appointment.getStatus().requireTransitionTo(AppointmentStatus.BILLED);
+
+        // Conditional UPDATE: of two receptionists billing the same appointment, the second one waits
+        // for the first to commit and then updates nothing
+        if (appointmentRepository.updateStatus(List.of(appointmentID), AppointmentStatus.COMPLETED, AppointmentStatus.BILLED) == 0) {
+            throw new RuntimeException("Lịch hẹn đã có hóa đơn");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Bill bill = newBill(appointmentID, billRepository.computeAppointmentTotal(appointmentID), now);
+        if (paymentMethodID != null) {
+            bill.setPaymentStatus(PAID);
+            bill.setPaymentMethodID(paymentMethodID);
+            bill.setDatePaid(now);
+        }
+        Bill savedBill = billRepository.save(bill);
+        if (paymentMethodID != null) {
+            dailyStatsService.recordRevenue(savedBill.getDateIssued(), savedBill.getTotalAmount());
+        }
+        eventPublisher.publishEvent(AppointmentStatusChangedEvent.of(appointment, AppointmentStatus.BILLED));
+        return convertToDTO(savedBill);
+    }
+
+    @Override
+    @Transactional
+    public BillDTO payBill(int billID, Integer paymentMethodID) {
+        if (paymentMethodID == null) {
+            throw new RuntimeException("Vui lòng chọn phương thức thanh toán");
+        }
+        Bill bill = billRepository.findById(billID)
+            .orElseThrow(() -> new RuntimeException("Không tìm thấy hóa đơn với ID: " + billID));
+        LocalDateTime now = LocalDateTime.now();
+        if (!billRepository.markPaid(billID, paymentMethodID, now)) {
+            throw new RuntimeException("Hóa đơn đã được thanh toán");
+        }
+        // Same day as the nightly rebuild uses: the day the bill was issued
+        dailyStatsService.recordRevenue(bill.getDateIssued(), bill.getTotalAmount());
+        return new BillDTO(bill.getBillID(), bill.getInvoiceCode(), bill.getAppointmentID(), bill.getTotalAmount(),
+            PAID, paymentMethodID, bill.getDateIssued(), now);
+    }
+
+    @Override
+    public BillingRunDTO billCompletedAppointments(LocalDate day) {
+        return transactionTemplate.execute(status -> {
+            // One query computes the amount of every unbilled completed appointment of the day
+            Map<Integer, BigDecimal> totals = billRepository.computeUnbilledCompletedTotals(
+                day.atStartOfDay(), day.plusDays(1).atStartOfDay());
+            if (totals.isEmpty()) {
+                return new BillingRunDTO(day, 0, BigDecimal.ZERO);
+            }
+
+            LocalDateTime now = LocalDateTime.now();
+            List<Bill> bills = new ArrayList<>(totals.size());
+            BigDecimal totalAmount = BigDecimal.ZERO;
+            for (Map.Entry<Integer, BigDecimal> entry : totals.entrySet()) {
+                bills.add(newBill(entry.getKey(), entry.getValue(), now));
+                totalAmount = totalAmount.add(entry.getValue());
+            }
+            billRepository.insertAll(bills);
+
+            // A concurrent createBill for one of these appointments makes the insert above fail on
+            // the unique AppointmentID, so the whole run rolls back and can simply be started again
+            appointmentRepository.updateStatus(totals.keySet(), AppointmentStatus.COMPLETED, AppointmentStatus.BILLED);
+            for (Appointment appointment : appointmentRepository.findAllByIds(totals.keySet())) {
+                eventPublisher.publishEvent(AppointmentStatusChangedEvent.of(appointment, AppointmentStatus.BILLED));
+            }
+            return new BillingRunDTO(day, bills.size(), totalAmount);
+        });
+    }
+
+    @Scheduled(cron = "${clinic.billing.batch-cron:0 0 21 * * *}")
+    public void billToday() {
+        billCompletedAppointments(LocalDate.now());
+    }
+
+    private Appointment findAppointment(int appointmentID) {
+        return appointmentRepository.findById(appointmentID)
+            .orElseThrow(() -> new RuntimeException("Appointment not found with ID: " + appointmentID));
+    }
+
+    private Bill newBill(int appointmentID, BigDecimal totalAmount, LocalDateTime dateIssued) {
+        Bill bill = new Bill();
+        // One bill per appointment, so the appointment ID keeps the invoice code unique
+        bill.setInvoiceCode("HD" + dateIssued.format(INVOICE_DATE) + "-" + String.format("%06d", appointmentID));
+        bill.setTotalAmount(totalAmount);
+        bill.setPaymentStatus(UNPAID);
+        bill.setAppointmentID(appointmentID);
+        bill.setDateIssued(dateIssued);
+        return bill;
+    }
+
+    private BillDTO convertToDTO(Bill bill) {
+        return new BillDTO(
+            bill.getBillID(),
+            bill.getInvoiceCode(),
+            bill.getAppointmentID(),
+            bill.getTotalAmount(),
+            bill.getPaymentStatus(),
+            bill.getPaymentMethodID(),
+            bill.getDateIssued(),
+            bill.getDatePaid()
+        );
+    }
+}
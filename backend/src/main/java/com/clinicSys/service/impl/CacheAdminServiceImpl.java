@@ -0,0 +1,63 @@
+package com.clinicSys.service.impl;
+
+import com.clinicSys.dto.response.CacheRegionStatsDTO;
+import com.clinicSys.service.ICacheAdminService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cache.spi.CacheImplementor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+@Service
+public class CacheAdminServiceImpl implements ICacheAdminService {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public List<CacheRegionStatsDTO> getRegionStats() {
+        Statistics statistics = sessionFactory().getStatistics();
+        List<CacheRegionStatsDTO> result = new ArrayList<>();
+        for (String region : new TreeSet<>(cache().getCacheRegionNames())) {
+            CacheRegionStatistics stats = statistics.getCacheRegionStatistics(region);
+            if (stats == null) {
+                // Regions created by Hibernate itself (update timestamps) keep no statistics
+                result.add(new CacheRegionStatsDTO(region, 0, 0, 0, 0.0));
+                continue;
+            }
+            long hits = stats.getHitCount();
+            long misses = stats.getMissCount();
+            long lookups = hits + misses;
+            result.add(new CacheRegionStatsDTO(region, hits, misses, stats.getPutCount(),
+                lookups == 0 ? 0.0 : (double) hits / lookups));
+        }
+        return result;
+    }
+
+    @Override
+    public void evictRegion(String region) {
+        if (region == null || !cache().getCacheRegionNames().contains(region)) {
+            throw new RuntimeException("Không tìm thấy vùng cache: " + region);
+        }
+        cache().evictRegion(region);
+    }
+
+    @Override
+    public void evictAll() {
+        cache().evictAllRegions();
+    }
+
+    private SessionFactoryImplementor sessionFactory() {
+        return entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+    }
+
+    private CacheImplementor cache() {
+        return sessionFactory().getCache();
+    }
+}
@@ -0,0 +1,110 @@
+package com.clinicSys.service.impl;
+
+import com.clinicSys.domain.DailyClinicStats;
+import com.clinicSys.repository.IAppointmentRepository;
+import com.clinicSys.repository.IDailyClinicStatsRepository;
+import com.clinicSys.service.IDailyStatsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+public class DailyStatsServiceImpl implements IDailyStatsService {
+
+    @Autowired
+    private IDailyClinicStatsRepository dailyStatsRepository;
+
+    @Autowired
+    private IAppointmentRepository appointmentRepository;
+
+    // How many past days the nightly job recomputes, to repair any drift from the incremental updates
+    @Value("${clinic.stats.rebuild-past-days:40}")
+    private int rebuildPastDays;
+
+    // How many future days the nightly job recomputes (appointments booked ahead)
+    @Value("${clinic.stats.rebuild-future-days:14}")
+    private int rebuildFutureDays;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (dailyStatsRepository.count() > 0) {
+            return;
+        }
+        LocalDate earliest = dailyStatsRepository.findEarliestSourceDate();
+        if (earliest != null) {
+            rebuild(earliest, LocalDate.now().plusDays(rebuildFutureDays));
+        }
+    }
+
+    @Scheduled(cron = "${clinic.stats.rebuild-cron:0 30 2 * * *}")
+    public void rebuildRecentDays() {
+        LocalDate today = LocalDate.now();
+        rebuild(today.minusDays(rebuildPastDays), today.plusDays(rebuildFutureDays));
+    }
+
+    @Override
+    @Transactional
+    public void recordAppointmentBooked(int patientID, LocalDateTime dateTime) {
+        LocalDate day = dateTime.toLocalDate();
+        boolean seenThatDay = appointmentRepository.existsByPatientIDAndDateRange(
+            patientID, day.atStartOfDay(), day.plusDays(1).atStartOfDay());
+        LocalDateTime firstVisit = appointmentRepository.findFirstDateTimeByPatientID(patientID);
+
+        int newPatients = 0;
+        if (firstVisit == null) {
+            newPatients = 1;
+        } else if (firstVisit.toLocalDate().isAfter(day)) {
+            // Booked before the patient's previous first visit: the "new patient" moves to this day
+            newPatients = 1;
+            increment(firstVisit.toLocalDate(), 0, 0, -1, BigDecimal.ZERO);
+        }
+        increment(day, 1, seenThatDay ? 0 : 1, newPatients, BigDecimal.ZERO);
+    }
+
+    @Override
+    @Transactional
+    public void recordRevenue(LocalDateTime dateIssued, BigDecimal amount) {
+        if (dateIssued == null || amount == null || amount.signum() == 0) {
+            return;
+        }
+        increment(dateIssued.toLocalDate(), 0, 0, 0, amount);
+    }
+
+    @Override
+    public BigDecimal getRevenue(LocalDate day) {
+        return dailyStatsRepository.findRevenue(day);
+    }
+
+    @Override
+    @Transactional
+    public int rebuild(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new RuntimeException("Ngày bắt đầu phải trước ngày kết thúc");
+        }
+        List<DailyClinicStats> rows = dailyStatsRepository.computeFromSource(from, to);
+        dailyStatsRepository.replaceRange(from, to, rows);
+        return rows.size();
+    }
+
+    private void increment(LocalDate day, int appointments, int distinctPatients, int newPatients, BigDecimal revenue) {
+        if (dailyStatsRepository.increment(day, appointments, distinctPatients, newPatients, revenue) > 0) {
+            return;
+        }
+        try {
+            dailyStatsRepository.createEmptyDay(day);
+        } catch (DataIntegrityViolationException e) {
+            // Another request created the row first; the update below still applies
+        }
+        dailyStatsRepository.increment(day, appointments, distinctPatients, newPatients, revenue);
+    }
+}
@@ -1,6 +1,7 @@
 package com.clinicSys.service.impl;
 
 import com.clinicSys.domain.Appointment;
+import com.clinicSys.domain.AppointmentStatus;
 import com.clinicSys.domain.Patient;
 import com.clinicSys.domain.User;
 import com.clinicSys.dto.response.AppointmentDTO;
@@ -16,12 +17,22 @@ import org.springframework.stereotype.Service;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 public class DoctorServiceImpl implements IDoctorService {
 
+    private static final Set<AppointmentStatus> TODAY_LIST_STATUSES = EnumSet.of(
+        AppointmentStatus.SCHEDULED, AppointmentStatus.CHECKED_IN);
+    private static final Set<AppointmentStatus> WAITING_QUEUE_STATUSES = EnumSet.of(
+        AppointmentStatus.CHECKED_IN, AppointmentStatus.IN_CONSULTATION, AppointmentStatus.COMPLETED);
+    private static final Set<AppointmentStatus> DASHBOARD_STATUSES = EnumSet.of(
+        AppointmentStatus.SCHEDULED, AppointmentStatus.CHECKED_IN,
+        AppointmentStatus.IN_CONSULTATION, AppointmentStatus.COMPLETED);
+
     @Autowired
     private IAppointmentRepository appointmentRepository;
 
@@ -47,31 +58,18 @@ public class DoctorServiceImpl implements IDoctorService {
         LocalDateTime startOfToday = today.atStartOfDay();
         LocalDateTime endOfToday = today.atTime(LocalTime.MAX);
 
-        // Get today's appointments (Scheduled and Checked-in)
-        List<Appointment> todayAppointments = appointmentRepository.findByDoctorIDAndDateRange(
-            doctorID, startOfToday, endOfToday);
+        // Get today's appointments in the statuses the dashboard shows; the status filter runs in the database
+        List<Appointment> todayAppointments = appointmentRepository.findByDoctorIDAndDateRangeAndStatuses(
+            doctorID, startOfToday, endOfToday, DASHBOARD_STATUSES);
 
-        // Filter to only include Scheduled and Checked-in status (case-insensitive)
+        // Today's list: Scheduled and Checked-in
         List<Appointment> scheduledAndCheckedIn = todayAppointments.stream()
-            .filter(a -> {
-                String status = a.getStatus();
-                return "Scheduled".equalsIgnoreCase(status) || 
-                       "Checked-in".equalsIgnoreCase(status) ||
-                       "check-in".equalsIgnoreCase(status);
-            })
+            .filter(a -> TODAY_LIST_STATUSES.contains(a.getStatus()))
             .collect(Collectors.toList());
 
-        // Get waiting queue (patients with Checked-in, In Consultation, or Completed status - case-insensitive)
+        // Waiting queue: Checked-in, In Consultation and Completed
         List<Appointment> waitingQueueAppointments = todayAppointments.stream()
-            .filter(a -> {
-                String status = a.getStatus();
-                return "Checked-in".equalsIgnoreCase(status) || 
-                       "check-in".equalsIgnoreCase(status) ||
-                       "In Consultation".equalsIgnoreCase(status) ||
-                       "in consultation".equalsIgnoreCase(status) ||
-                       "Completed".equalsIgnoreCase(status) ||
-                       "completed".equalsIgnoreCase(status);
-            })
+            .filter(a -> WAITING_QUEUE_STATUSES.contains(a.getStatus()))
             .collect(Collectors.toList());
 
         // Convert to DTOs
@@ -94,7 +92,7 @@ public class DoctorServiceImpl implements IDoctorService {
             return new AppointmentDTO(
                 appointment.getAppointmentID(),
                 appointment.getDateTime(),
-                appointment.getStatus(),
+                appointment.getStatus().getLabel(),
                 appointment.getPatientID(),
                 patient.getFullName() != null ? patient.getFullName() : "Unknown",
                 patient.getPatientCode() != null ? patient.getPatientCode() : "",
@@ -1,30 +1,42 @@
 package com.clinicSys.service.impl;
 
+import com.clinicSys.config.Audited;
 import com.clinicSys.domain.*;
 import com.clinicSys.dto.request.SaveConsultationDTO;
 import com.clinicSys.dto.response.ConsultationDataDTO;
 import com.clinicSys.dto.response.EMRDTO;
 import com.clinicSys.dto.response.ICD10CodeDTO;
 import com.clinicSys.dto.response.VisitHistoryDTO;
+import com.clinicSys.dto.response.VisitHistoryPageDTO;
+import com.clinicSys.event.AppointmentStatusChangedEvent;
 import com.clinicSys.repository.*;
 import com.clinicSys.service.IEMRService;
+import com.clinicSys.service.IReferenceDataService;
 import com.clinicSys.repository.IICD10CodeRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.Period;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class EMRServiceImpl implements IEMRService {
 
+    private static final int VISIT_HISTORY_PAGE_SIZE = 20;
+    private static final int MAX_VISIT_HISTORY_PAGE_SIZE = 100;
+
     @Autowired
     private IAppointmentRepository appointmentRepository;
 
@@ -43,7 +55,14 @@ public class EMRServiceImpl implements IEMRService {
     @Autowired
     private IICD10CodeRepository icd10CodeRepository;
 
+    @Autowired
+    private IReferenceDataService referenceDataService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Override
+    @Audited(action = "Read", entity = "MedicalRecord")
     public EMRDTO getEMRByAppointmentID(int appointmentID) {
         // Get appointment
         Appointment appointment = appointmentRepository.findById(appointmentID)
@@ -57,91 +76,112 @@ public class EMRServiceImpl implements IEMRService {
         LocalDate today = LocalDate.now();
         int age = Period.between(patient.getDateOfBirth(), today).getYears();
 
-        // Get all visit history for this patient
-        List<MedicalRecord> allRecords = medicalRecordRepository.findByPatientID(patient.getPatientID());
-        List<VisitHistoryDTO> visitHistory = new ArrayList<>();
+        // Get the first page of visit history for this patient
+        VisitHistoryPageDTO firstPage = getVisitHistory(patient.getPatientID(), null, VISIT_HISTORY_PAGE_SIZE);
 
-        for (MedicalRecord record : allRecords) {
-            // Get appointment for this record
-            Optional<Appointment> recordAppointment = appointmentRepository.findById(record.getAppointmentID());
-            if (recordAppointment.isEmpty()) continue;
+        return new EMRDTO(
+            patient.getPatientID(),
+            patient.getPatientCode(),
+            patient.getFullName(),
+            patient.getDateOfBirth(),
+            age,
+            patient.getGender(),
+            firstPage.visits(),
+            firstPage.nextCursor()
+        );
+    }
+
+    @Override
+    @Audited(action = "Read", entity = "MedicalRecord")
+    public VisitHistoryPageDTO getVisitHistory(int patientID, Integer cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_VISIT_HISTORY_PAGE_SIZE));
+
+        // Fetch one extra record to know whether there is a next page
+        List<MedicalRecord> records = medicalRecordRepository.findPageByPatientID(patientID, cursor, pageSize + 1);
+        boolean hasMore = records.size() > pageSize;
+        if (hasMore) {
+            records = records.subList(0, pageSize);
+        }
+
+        // Load appointments, diagnoses and doctors for the whole page at once; ICD10 codes come from the reference cache
+        Map<Integer, Appointment> appointments = appointmentRepository.findAllByIds(
+                records.stream().map(MedicalRecord::getAppointmentID).collect(Collectors.toSet()))
+            .stream()
+            .collect(Collectors.toMap(Appointment::getAppointmentID, Function.identity()));
+
+        // Diagnoses come ordered by date DESC per record, so the first one is the primary diagnosis
+        Map<Integer, Diagnosis> primaryDiagnoses = new HashMap<>();
+        for (Diagnosis diagnosis : diagnosisRepository.findByRecordIDs(
+                records.stream().map(MedicalRecord::getRecordID).collect(Collectors.toSet()))) {
+            primaryDiagnoses.putIfAbsent(diagnosis.getRecordID(), diagnosis);
+        }
+
+        Map<Integer, String> doctorNames = userRepository.findAllByIds(
+                appointments.values().stream().map(Appointment::getDoctorID).collect(Collectors.toSet()))
+            .stream()
+            .collect(Collectors.toMap(User::getUserID, this::getDisplayName));
+
+        List<VisitHistoryDTO> visitHistory = new ArrayList<>();
+        for (MedicalRecord record : records) {
+            Appointment recordAppointment = appointments.get(record.getAppointmentID());
+            if (recordAppointment == null) continue;
 
-            // Get diagnosis for this record
-            List<Diagnosis> diagnoses = diagnosisRepository.findByRecordID(record.getRecordID());
-            
-            // Get primary diagnosis (first one or most recent)
             String primaryDiagnosis = "N/A";
             String diagnosisCode = "N/A";
-            if (!diagnoses.isEmpty()) {
-                Diagnosis primary = diagnoses.get(0);
+            Diagnosis primary = primaryDiagnoses.get(record.getRecordID());
+            if (primary != null) {
                 primaryDiagnosis = primary.getDescription() != null ? primary.getDescription() : "N/A";
-                // Get ICD10 code - we'll need to query it
-                diagnosisCode = getICD10Code(primary.getIcd10CodeID());
+                diagnosisCode = referenceDataService.findICD10Code(primary.getIcd10CodeID())
+                    .map(ICD10Code::getCode)
+                    .orElse("N/A");
             }
 
-            // Get doctor name
-            String doctorName = getDoctorName(recordAppointment.get().getDoctorID());
-
             visitHistory.add(new VisitHistoryDTO(
                 record.getAppointmentID(),
-                recordAppointment.get().getDateTime(),
+                recordAppointment.getDateTime(),
                 record.getSymptoms() != null ? record.getSymptoms() : "N/A",
                 primaryDiagnosis,
                 diagnosisCode,
-                doctorName,
+                doctorNames.getOrDefault(recordAppointment.getDoctorID(), "Unknown"),
                 record.getRecordID() // Add recordID to track insertion order
             ));
         }
 
-        // Records are already sorted by recordID DESC from repository query
-        // No need to sort again, but reverse to ensure newest first
-        // (Actually, since query already orders DESC, we keep the order as is)
-
-        return new EMRDTO(
-            patient.getPatientID(),
-            patient.getPatientCode(),
-            patient.getFullName(),
-            patient.getDateOfBirth(),
-            age,
-            patient.getGender(),
-            visitHistory
-        );
+        // Records are sorted by recordID DESC, so the last one is the cursor for older visits
+        Integer nextCursor = hasMore ? records.get(records.size() - 1).getRecordID() : null;
+        return new VisitHistoryPageDTO(visitHistory, nextCursor);
     }
 
     @Override
+    @Transactional
+    @Audited(action = "Update", entity = "Appointment")
     public void startConsultation(int appointmentID) {
         Appointment appointment = appointmentRepository.findById(appointmentID)
             .orElseThrow(() -> new RuntimeException("Appointment not found: " + appointmentID));
         
-        appointment.setStatus("In Consultation");
+        appointment.getStatus().requireTransitionTo(AppointmentStatus.IN_CONSULTATION);
+        appointment.setStatus(AppointmentStatus.IN_CONSULTATION);
         appointmentRepository.save(appointment);
+        eventPublisher.publishEvent(AppointmentStatusChangedEvent.of(appointment));
     }
 
     @Override
+    @Transactional
+    @Audited(action = "Update", entity = "Appointment")
     public void completeConsultation(int appointmentID) {
         Appointment appointment = appointmentRepository.findById(appointmentID)
             .orElseThrow(() -> new RuntimeException("Appointment not found: " + appointmentID));
         
-        appointment.setStatus("Completed");
+        appointment.getStatus().requireTransitionTo(AppointmentStatus.COMPLETED);
+        appointment.setStatus(AppointmentStatus.COMPLETED);
         appointmentRepository.save(appointment);
+        eventPublisher.publishEvent(AppointmentStatusChangedEvent.of(appointment));
     }
 
-    private String getICD10Code(int codeID) {
-        Optional<ICD10Code> code = icd10CodeRepository.findById(codeID);
-        if (code.isPresent()) {
-            return code.get().getCode();
-        }
-        return "N/A";
-    }
-
-    private String getDoctorName(int doctorID) {
-        Optional<User> doctor = userRepository.findById(doctorID);
-        if (doctor.isPresent()) {
-            return doctor.get().getFullName() != null && !doctor.get().getFullName().isEmpty()
-                ? doctor.get().getFullName()
-                : doctor.get().getUsername();
-        }
-        return "Unknown";
+    private String getDisplayName(User doctor) {
+        return doctor.getFullName() != null && !doctor.getFullName().isEmpty()
+            ? doctor.getFullName()
+            : doctor.getUsername();
     }
 
     @Override
@@ -156,6 +196,8 @@ public class EMRServiceImpl implements IEMRService {
     }
 
     @Override
+    @Transactional
+    @Audited(action = "Update", entity = "MedicalRecord")
     public void saveConsultation(SaveConsultationDTO saveDTO) {
         // Get current authenticated doctor
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -217,6 +259,7 @@ public class EMRServiceImpl implements IEMRService {
     }
 
     @Override
+    @Audited(action = "Read", entity = "MedicalRecord")
     public ConsultationDataDTO getConsultationData(int appointmentID) {
         // Get MedicalRecord for this appointment
         Optional<MedicalRecord> medicalRecord = medicalRecordRepository.findByAppointmentID(appointmentID);
@@ -248,7 +291,7 @@ public class EMRServiceImpl implements IEMRService {
             icd10CodeID = diagnosis.getIcd10CodeID();
             
             // Get ICD10 code details
-            Optional<ICD10Code> icd10 = icd10CodeRepository.findById(icd10CodeID);
+            Optional<ICD10Code> icd10 = referenceDataService.findICD10Code(icd10CodeID);
             if (icd10.isPresent()) {
                 icd10Code = icd10.get().getCode();
                 icd10Description = icd10.get().getDescription();
@@ -0,0 +1,152 @@
+package com.clinicSys.service.impl;
+
+import com.clinicSys.domain.AppointmentStatus;
+import com.clinicSys.dto.request.FileFormat;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Writes export rows one at a time, as CSV with a header line or as NDJSON (one JSON object per
+ * line, keyed by column name). Only the current row is held in memory; the output is buffered
+ * and goes to the client as the buffer fills.
+ */
+abstract class ExportRowWriter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final JsonFactory JSON = new JsonFactory();
+
+    protected final Writer writer;
+    protected final String[] columns;
+
+    private ExportRowWriter(OutputStream out, String[] columns) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        this.columns = columns;
+    }
+
+    static ExportRowWriter open(FileFormat format, OutputStream out, String... columns) throws IOException {
+        return format == FileFormat.CSV ? new Csv(out, columns) : new Ndjson(out, columns);
+    }
+
+    /**
+     * @param row Values in column order
+     */
+    abstract void write(Object[] row) throws IOException;
+
+    /**
+     * Flushes what is still buffered. The output stream itself is left open.
+     */
+    abstract void finish() throws IOException;
+
+    static String text(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof LocalDateTime dateTime) {
+            return dateTime.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        }
+        if (value instanceof LocalDate date) {
+            return date.format(DateTimeFormatter.ISO_LOCAL_DATE);
+        }
+        if (value instanceof AppointmentStatus status) {
+            return status.getLabel();
+        }
+        if (value instanceof BigDecimal decimal) {
+            return decimal.toPlainString();
+        }
+        return value.toString();
+    }
+
+    private static final class Csv extends ExportRowWriter {
+
+        private Csv(OutputStream out, String[] columns) throws IOException {
+            super(out, columns);
+            // BOM so that Excel reads the Vietnamese names as UTF-8
+            writer.write('\uFEFF');
+            write(columns);
+        }
+
+        @Override
+        void write(Object[] row) throws IOException {
+            for (int i = 0; i < row.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                String value = text(row[i]);
+                if (value != null) {
+                    writeField(value);
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        // RFC 4180: quote fields containing a separator, a quote or a line break
+        private void writeField(String value) throws IOException {
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\r' || c == '\n';
+            }
+            if (!quote) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        void finish() throws IOException {
+            writer.flush();
+        }
+    }
+
+    private static final class Ndjson extends ExportRowWriter {
+
+        private final JsonGenerator generator;
+
+        private Ndjson(OutputStream out, String[] columns) throws IOException {
+            super(out, columns);
+            generator = JSON.createGenerator(writer);
+            generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        void write(Object[] row) throws IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < row.length; i++) {
+                Object value = row[i];
+                generator.writeFieldName(columns[i]);
+                if (value == null) {
+                    generator.writeNull();
+                } else if (value instanceof Integer number) {
+                    generator.writeNumber(number);
+                } else if (value instanceof Long number) {
+                    generator.writeNumber(number);
+                } else if (value instanceof BigDecimal number) {
+                    generator.writeNumber(number);
+                } else {
+                    generator.writeString(text(value));
+                }
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        void finish() throws IOException {
+            generator.flush();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.clinicSys.service.impl;
+
+import com.clinicSys.dto.request.FileFormat;
+import com.clinicSys.repository.IAppointmentRepository;
+import com.clinicSys.repository.IBillRepository;
+import com.clinicSys.repository.IPatientRepository;
+import com.clinicSys.service.IExportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+public class ExportServiceImpl implements IExportService {
+
+    private static final String[] PATIENT_COLUMNS = {
+        "patientID", "patientCode", "fullName", "dateOfBirth", "gender", "phone", "email", "address"
+    };
+    private static final String[] APPOINTMENT_COLUMNS = {
+        "appointmentID", "dateTime", "status", "patientCode", "patientName", "doctorName"
+    };
+    private static final String[] BILL_COLUMNS = {
+        "billID", "invoiceCode", "appointmentID", "patientCode", "patientName",
+        "totalAmount", "paymentStatus", "dateIssued", "datePaid"
+    };
+
+    @Autowired
+    private IPatientRepository patientRepository;
+
+    @Autowired
+    private IAppointmentRepository appointmentRepository;
+
+    @Autowired
+    private IBillRepository billRepository;
+
+    // The transactions keep the connection (and with it the cursor) open while the rows are written
+    @Override
+    @Transactional(readOnly = true)
+    public long exportPatients(FileFormat format, OutputStream out) throws IOException {
+        try (Stream<Object[]> rows = patientRepository.streamForExport()) {
+            return write(rows, format, out, PATIENT_COLUMNS);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportAppointments(LocalDate from, LocalDate to, FileFormat format, OutputStream out) throws IOException {
+        try (Stream<Object[]> rows = appointmentRepository.streamForExport(startOf(from), endOf(to))) {
+            return write(rows, format, out, APPOINTMENT_COLUMNS);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportBills(LocalDate from, LocalDate to, FileFormat format, OutputStream out) throws IOException {
+        try (Stream<Object[]> rows = billRepository.streamForExport(startOf(from), endOf(to))) {
+            return write(rows, format, out, BILL_COLUMNS);
+        }
+    }
+
+    private long write(Stream<Object[]> rows, FileFormat format, OutputStream out, String[] columns) throws IOException {
+        ExportRowWriter writer = ExportRowWriter.open(format, out, columns);
+        long count = 0;
+        Iterator<Object[]> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            writer.write(iterator.next());
+            count++;
+        }
+        writer.finish();
+        return count;
+    }
+
+    private static LocalDateTime startOf(LocalDate from) {
+        return from != null ? from.atStartOfDay() : null;
+    }
+
+    private static LocalDateTime endOf(LocalDate to) {
+        return to != null ? to.plusDays(1).atStartOfDay() : null;
+    }
+}
@@ -0,0 +1,46 @@
+package com.clinicSys.service.impl;
+
+import com.clinicSys.dto.response.NotificationMessageDTO;
+import com.clinicSys.service.INotificationChannel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Local channel for development and tests: appends one line per notification to a file
+ * instead of contacting the patient.
+ */
+@Component
+@ConditionalOnProperty(name = "clinic.notifications.channel", havingValue = "file", matchIfMissing = true)
+public class FileNotificationChannel implements INotificationChannel {
+
+    @Value("${clinic.notifications.file:logs/notifications.log}")
+    private Path file;
+
+    @Override
+    public String getName() {
+        return "file";
+    }
+
+    @Override
+    public synchronized void send(NotificationMessageDTO message) {
+        String line = String.format("notificationID=%d type=%s appointmentID=%d time=%s patient=%s phone=%s email=%s payload=%s attempt=%d%n",
+            message.notificationID(), message.type(), message.appointmentID(), message.appointmentTime(),
+            message.patientName(), message.phone(), message.email(), message.payload(), message.attempt());
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            Files.writeString(file, line, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.clinicSys.service.impl;
+
+import com.clinicSys.dto.request.FileFormat;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads an import file record by record: CSV (RFC 4180, header line first, optional UTF-8 BOM)
+ * or NDJSON (one JSON object per line). Column names are matched case-insensitively, so values
+ * are keyed by lower-case name. Only the current record is held in memory. A record that cannot
+ * be parsed comes back with an error and reading goes on with the next one.
+ */
+final class ImportRowReader implements Closeable {
+
+    record Row(long line, Map<String, String> values, String error) {
+    }
+
+    private static final ObjectMapper JSON = new ObjectMapper()
+        .enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+
+    private final FileFormat format;
+    private final BufferedReader reader;
+    private List<String> header;
+    // Line number of the next character to read
+    private long line = 1;
+
+    private ImportRowReader(FileFormat format, BufferedReader reader) {
+        this.format = format;
+        this.reader = reader;
+    }
+
+    static ImportRowReader open(FileFormat format, Path file) throws IOException {
+        ImportRowReader rowReader = new ImportRowReader(format, Files.newBufferedReader(file, StandardCharsets.UTF_8));
+        rowReader.skipBom();
+        if (format == FileFormat.CSV) {
+            List<String> names = rowReader.nextCsvRecord();
+            if (names == null) {
+                throw new RuntimeException("Tệp CSV không có dòng tiêu đề");
+            }
+            rowReader.header = names.stream().map(name -> name.trim().toLowerCase(Locale.ROOT)).toList();
+        }
+        return rowReader;
+    }
+
+    /**
+     * @return Lower-case column names of a CSV file, or null for NDJSON
+     */
+    List<String> header() {
+        return header;
+    }
+
+    /**
+     * @return The next record, or null at the end of the file
+     */
+    Row next() throws IOException {
+        return format == FileFormat.CSV ? nextCsvRow() : nextJsonRow();
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private void skipBom() throws IOException {
+        reader.mark(1);
+        if (reader.read() != '\uFEFF') {
+            reader.reset();
+        }
+    }
+
+    private Row nextCsvRow() throws IOException {
+        while (true) {
+            long start = line;
+            List<String> fields;
+            try {
+                fields = nextCsvRecord();
+            } catch (IllegalStateException e) {
+                return new Row(start, null, e.getMessage());
+            }
+            if (fields == null) {
+                return null;
+            }
+            if (fields.size() == 1 && fields.get(0).isBlank()) {
+                continue;
+            }
+            if (fields.size() != header.size()) {
+                return new Row(start, null,
+                    "Dòng có " + fields.size() + " cột, dòng tiêu đề có " + header.size() + " cột");
+            }
+            Map<String, String> values = new HashMap<>();
+            for (int i = 0; i < fields.size(); i++) {
+                values.put(header.get(i), fields.get(i));
+            }
+            return new Row(start, values, null);
+        }
+    }
+
+    /**
+     * @return The fields of the next record, or null at the end of the file
+     * @throws IllegalStateException if a quoted field is not closed before the end of the file
+     */
+    private List<String> nextCsvRecord() throws IOException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IllegalStateException("Thiếu dấu \" đóng trường trong ngoặc kép");
+                }
+                if (c == '"') {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        reader.reset();
+                    }
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r') {
+                    reader.mark(1);
+                    if (reader.read() != '\n') {
+                        reader.reset();
+                    }
+                }
+                if (c != -1) {
+                    line++;
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+    }
+
+    private Row nextJsonRow() throws IOException {
+        String text;
+        do {
+            text = reader.readLine();
+            if (text == null) {
+                return null;
+            }
+            line++;
+        } while (text.isBlank());
+        long start = line - 1;
+        JsonNode node;
+        try {
+            node = JSON.readTree(text);
+        } catch (JsonProcessingException e) {
+            return new Row(start, null, "JSON không hợp lệ: " + e.getOriginalMessage());
+        }
+        if (!node.isObject()) {
+            return new Row(start, null, "Mỗi dòng phải là một đối tượng JSON");
+        }
+        Map<String, String> values = new HashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> entry = fields.next();
+            JsonNode value = entry.getValue();
+            values.put(entry.getKey().toLowerCase(Locale.ROOT), value.isNull() ? null
+                : value.isBigDecimal() ? value.decimalValue().toPlainString()
+                : value.asText());
+        }
+        return new Row(start, values, null);
+    }
+}
@@ -0,0 +1,455 @@
+package com.clinicSys.service.impl;
+
+import com.clinicSys.domain.Medicine;
+import com.clinicSys.domain.Patient;
+import com.clinicSys.dto.request.FileFormat;
+import com.clinicSys.dto.response.ImportJobDTO;
+import com.clinicSys.dto.response.ImportRowErrorDTO;
+import com.clinicSys.repository.IMedicineRepository;
+import com.clinicSys.repository.IPatientRepository;
+import com.clinicSys.service.ICacheAdminService;
+import com.clinicSys.service.IImportService;
+import com.clinicSys.service.IMedicineSearchService;
+import com.clinicSys.service.IPatientSearchService;
+import com.clinicSys.service.IReferenceDataService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+@Service
+public class ImportServiceImpl implements IImportService {
+
+    public static final String PATIENTS = "Patients";
+    public static final String MEDICINES = "Medicines";
+
+    public static final String RUNNING = "Running";
+    public static final String COMPLETED = "Completed";
+    public static final String FAILED = "Failed";
+
+    private static final Set<String> GENDERS = Set.of("Nam", "Nữ", "Khác");
+    private static final Set<String> MEDICINE_STATUSES = Set.of("Active", "Inactive");
+    private static final Pattern PHONE = Pattern.compile("\\+?\\d{8,15}");
+    private static final Pattern SPACES = Pattern.compile("[\\s.-]+");
+
+    private static final List<String> PATIENT_COLUMNS = List.of("fullname", "dateofbirth", "gender", "phone");
+    private static final List<String> MEDICINE_COLUMNS = List.of("medicinecode", "medicinename", "medicinegroupid", "price", "stock");
+
+    private static final String MEDICINE_REGION = "Medicine";
+    private static final String QUERY_REGION = "default-query-results-region";
+
+    @Autowired
+    private IPatientRepository patientRepository;
+
+    @Autowired
+    private IMedicineRepository medicineRepository;
+
+    @Autowired
+    private IPatientSearchService patientSearchService;
+
+    @Autowired
+    private IMedicineSearchService medicineSearchService;
+
+    @Autowired
+    private IReferenceDataService referenceDataService;
+
+    @Autowired
+    private ICacheAdminService cacheAdminService;
+
+    @Autowired
+    private PatientCodeGenerator patientCodeGenerator;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Rows validated together and written in one transaction
+    @Value("${clinic.import.chunk-size:500}")
+    private int chunkSize;
+
+    // Imports running at the same time; later ones wait
+    @Value("${clinic.import.threads:2}")
+    private int threads;
+
+    @Value("${clinic.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    @Value("${clinic.import.retention-hours:24}")
+    private int retentionHours;
+
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+    private final AtomicInteger threadCount = new AtomicInteger();
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void start() {
+        executor = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "import-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public ImportJobDTO startPatientImport(Path file, FileFormat format) {
+        return start(PATIENTS, file, format, PATIENT_COLUMNS, this::toPatient, this::writePatients);
+    }
+
+    @Override
+    public ImportJobDTO startMedicineImport(Path file, FileFormat format) {
+        return start(MEDICINES, file, format, MEDICINE_COLUMNS, this::toMedicine, this::writeMedicines);
+    }
+
+    @Override
+    public ImportJobDTO getJob(String jobID) {
+        ImportJob job = jobs.get(jobID);
+        if (job == null) {
+            throw new RuntimeException("Không tìm thấy lượt nhập dữ liệu: " + jobID);
+        }
+        return job.toDTO();
+    }
+
+    @Override
+    public List<ImportJobDTO> getJobs() {
+        purgeFinishedJobs();
+        return jobs.values().stream()
+            .map(ImportJob::toDTO)
+            .sorted(Comparator.comparing(ImportJobDTO::startedAt).reversed())
+            .toList();
+    }
+
+    private <T> ImportJobDTO start(String type, Path file, FileFormat format, List<String> requiredColumns,
+                                   Function<Map<String, String>, T> parser, ChunkWriter<T> writer) {
+        purgeFinishedJobs();
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), type);
+        jobs.put(job.id, job);
+        executor.execute(() -> run(job, file, format, requiredColumns, parser, writer));
+        return job.toDTO();
+    }
+
+    private <T> void run(ImportJob job, Path file, FileFormat format, List<String> requiredColumns,
+                         Function<Map<String, String>, T> parser, ChunkWriter<T> writer) {
+        String status = COMPLETED;
+        String message = null;
+        try (ImportRowReader reader = ImportRowReader.open(format, file)) {
+            if (reader.header() != null) {
+                List<String> missing = requiredColumns.stream().filter(c -> !reader.header().contains(c)).toList();
+                if (!missing.isEmpty()) {
+                    throw new RuntimeException("Thiếu cột bắt buộc: " + String.join(", ", missing));
+                }
+            }
+            List<ImportRowReader.Row> chunk = new ArrayList<>(chunkSize);
+            ImportRowReader.Row row;
+            while ((row = reader.next()) != null) {
+                job.rowsRead.incrementAndGet();
+                chunk.add(row);
+                if (chunk.size() == chunkSize) {
+                    process(job, chunk, parser, writer);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            process(job, chunk, parser, writer);
+        } catch (Exception e) {
+            e.printStackTrace();
+            status = FAILED;
+            message = e.getMessage();
+        } finally {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        if (job.written() > 0) {
+            // MERGE does not return the IDs the search indexes are keyed by
+            try {
+                if (PATIENTS.equals(job.type)) {
+                    patientSearchService.rebuild();
+                } else if (MEDICINES.equals(job.type)) {
+                    medicineSearchService.rebuild();
+                }
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+        job.finish(status, message);
+    }
+
+    private <T> void process(ImportJob job, List<ImportRowReader.Row> chunk,
+                             Function<Map<String, String>, T> parser, ChunkWriter<T> writer) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        // Validation only reads cached reference data, so the rows of a chunk are checked in parallel
+        List<Parsed<T>> parsed = chunk.parallelStream().map(row -> parse(row, parser)).toList();
+        List<Parsed<T>> valid = new ArrayList<>(parsed.size());
+        for (Parsed<T> row : parsed) {
+            if (row.error() != null) {
+                job.fail(row.line(), row.code(), row.error());
+            } else {
+                valid.add(row);
+            }
+        }
+        if (valid.isEmpty()) {
+            return;
+        }
+        try {
+            writer.write(job, valid);
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+            for (Parsed<T> row : valid) {
+                job.fail(row.line(), row.code(), "Lỗi khi ghi dữ liệu: " + e.getMessage());
+            }
+        }
+    }
+
+    private <T> Parsed<T> parse(ImportRowReader.Row row, Function<Map<String, String>, T> parser) {
+        if (row.error() != null) {
+            return new Parsed<>(row.line(), null, null, row.error());
+        }
+        String code = text(row.values(), "patientcode") != null ? text(row.values(), "patientcode") : text(row.values(), "medicinecode");
+        try {
+            return new Parsed<>(row.line(), code, parser.apply(row.values()), null);
+        } catch (RuntimeException e) {
+            return new Parsed<>(row.line(), code, null, e.getMessage());
+        }
+    }
+
+    private void writePatients(ImportJob job, List<Parsed<Patient>> rows) {
+        // Codes are only drawn for rows that passed validation
+        for (Parsed<Patient> row : rows) {
+            if (row.value().getPatientCode() == null) {
+                row.value().setPatientCode(patientCodeGenerator.nextCode());
+            }
+        }
+        List<Patient> patients = rows.stream().map(Parsed::value).toList();
+        Written written = transactionTemplate.execute(status -> new Written(
+            patientRepository.findExistingPatientCodes(patients.stream().map(Patient::getPatientCode).toList()),
+            patientRepository.mergeAll(patients)));
+        count(job, rows, written, Patient::getPatientCode);
+    }
+
+    private void writeMedicines(ImportJob job, List<Parsed<Medicine>> rows) {
+        List<Medicine> medicines = rows.stream().map(Parsed::value).toList();
+        Written written = transactionTemplate.execute(status -> new Written(
+            medicineRepository.findExistingMedicineCodes(medicines.stream().map(Medicine::getMedicineCode).toList()),
+            medicineRepository.mergeAll(medicines)));
+        // The MERGE went around Hibernate: drop what the cache still holds, now that it is committed
+        cacheAdminService.evictRegion(MEDICINE_REGION);
+        cacheAdminService.evictRegion(QUERY_REGION);
+        count(job, rows, written, Medicine::getMedicineCode);
+    }
+
+    private <T> void count(ImportJob job, List<Parsed<T>> rows, Written written, Function<T, String> code) {
+        Set<String> seen = new HashSet<>(written.existingCodes());
+        for (int i = 0; i < rows.size(); i++) {
+            Parsed<T> row = rows.get(i);
+            String error = written.errors().get(i);
+            if (error != null) {
+                job.fail(row.line(), code.apply(row.value()), translateDatabaseError(error));
+            } else if (seen.add(code.apply(row.value()))) {
+                job.inserted.incrementAndGet();
+            } else {
+                job.updated.incrementAndGet();
+            }
+        }
+    }
+
+    private static String translateDatabaseError(String error) {
+        String message = error.toUpperCase(Locale.ROOT);
+        if (message.contains("UQ_PATIENT_PHONE")) {
+            return "Số điện thoại đã tồn tại trong hệ thống";
+        }
+        if (message.contains("UQ_PATIENT_EMAIL")) {
+            return "Email đã tồn tại trong hệ thống";
+        }
+        return "Lỗi cơ sở dữ liệu: " + error;
+    }
+
+    private Patient toPatient(Map<String, String> values) {
+        Patient patient = new Patient();
+        String code = text(values, "patientcode");
+        if (code != null && code.length() > 50) {
+            throw new RuntimeException("Mã bệnh nhân không được dài quá 50 ký tự");
+        }
+        patient.setPatientCode(code);
+        patient.setFullName(required(values, "fullname", "Họ tên"));
+        LocalDate dateOfBirth = parseDate(required(values, "dateofbirth", "Ngày sinh"));
+        if (dateOfBirth.isAfter(LocalDate.now())) {
+            throw new RuntimeException("Ngày sinh không được ở tương lai");
+        }
+        patient.setDateOfBirth(dateOfBirth);
+        String gender = required(values, "gender", "Giới tính");
+        if (!GENDERS.contains(gender)) {
+            throw new RuntimeException("Giới tính không hợp lệ: " + gender + " (Nam, Nữ hoặc Khác)");
+        }
+        patient.setGender(gender);
+        String phone = SPACES.matcher(required(values, "phone", "Số điện thoại")).replaceAll("");
+        if (!PHONE.matcher(phone).matches()) {
+            throw new RuntimeException("Số điện thoại không hợp lệ: " + phone);
+        }
+        patient.setPhone(phone);
+        String email = text(values, "email");
+        if (email != null && !email.contains("@")) {
+            throw new RuntimeException("Email không hợp lệ: " + email);
+        }
+        patient.setEmail(email);
+        patient.setAddress(text(values, "address"));
+        return patient;
+    }
+
+    private Medicine toMedicine(Map<String, String> values) {
+        Medicine medicine = new Medicine();
+        medicine.setMedicineCode(required(values, "medicinecode", "Mã thuốc"));
+        medicine.setName(required(values, "medicinename", "Tên thuốc"));
+        int groupID = parseInt(required(values, "medicinegroupid", "Nhóm thuốc"), "Nhóm thuốc");
+        if (referenceDataService.findMedicineGroup(groupID).isEmpty()) {
+            throw new RuntimeException("Không tìm thấy nhóm thuốc: " + groupID);
+        }
+        medicine.setMedicineGroupID(groupID);
+        medicine.setStrength(text(values, "strength"));
+        medicine.setUnit(text(values, "unit"));
+        BigDecimal price;
+        try {
+            price = new BigDecimal(required(values, "price", "Giá"));
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Giá không hợp lệ: " + values.get("price"));
+        }
+        if (price.signum() < 0) {
+            throw new RuntimeException("Giá không được âm");
+        }
+        medicine.setPrice(price);
+        int stock = parseInt(required(values, "stock", "Tồn kho"), "Tồn kho");
+        if (stock < 0) {
+            throw new RuntimeException("Tồn kho không được âm");
+        }
+        medicine.setStock(stock);
+        String status = text(values, "status");
+        if (status != null && !MEDICINE_STATUSES.contains(status)) {
+            throw new RuntimeException("Trạng thái thuốc không hợp lệ: " + status + " (Active hoặc Inactive)");
+        }
+        medicine.setStatus(status != null ? status : "Active");
+        return medicine;
+    }
+
+    private static String text(Map<String, String> values, String column) {
+        String value = values.get(column);
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private static String required(Map<String, String> values, String column, String label) {
+        String value = text(values, column);
+        if (value == null) {
+            throw new RuntimeException(label + " không được để trống");
+        }
+        return value;
+    }
+
+    private static LocalDate parseDate(String value) {
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new RuntimeException("Ngày không hợp lệ (yyyy-MM-dd): " + value);
+        }
+    }
+
+    private static int parseInt(String value, String label) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new RuntimeException(label + " phải là số nguyên: " + value);
+        }
+    }
+
+    private void purgeFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(retentionHours);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+    }
+
+    @FunctionalInterface
+    private interface ChunkWriter<T> {
+        void write(ImportJob job, List<Parsed<T>> rows);
+    }
+
+    private record Parsed<T>(long line, String code, T value, String error) {
+    }
+
+    private record Written(Set<String> existingCodes, List<String> errors) {
+    }
+
+    private final class ImportJob {
+        private final String id;
+        private final String type;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final AtomicLong rowsRead = new AtomicLong();
+        private final AtomicLong inserted = new AtomicLong();
+        private final AtomicLong updated = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final List<ImportRowErrorDTO> errors = new ArrayList<>();
+        private volatile String status = RUNNING;
+        private volatile String message;
+        private volatile LocalDateTime finishedAt;
+
+        private ImportJob(String id, String type) {
+            this.id = id;
+            this.type = type;
+        }
+
+        private void fail(long line, String code, String error) {
+            failed.incrementAndGet();
+            synchronized (errors) {
+                if (errors.size() < maxReportedErrors) {
+                    errors.add(new ImportRowErrorDTO(line, code, error));
+                }
+            }
+        }
+
+        private long written() {
+            return inserted.get() + updated.get();
+        }
+
+        private void finish(String finalStatus, String finalMessage) {
+            message = finalMessage;
+            finishedAt = LocalDateTime.now();
+            status = finalStatus;
+        }
+
+        private ImportJobDTO toDTO() {
+            List<ImportRowErrorDTO> reported;
+            synchronized (errors) {
+                reported = List.copyOf(errors);
+            }
+            return new ImportJobDTO(id, type, status, rowsRead.get(), inserted.get(), updated.get(), failed.get(),
+                startedAt, finishedAt, message, reported);
+        }
+    }
+}
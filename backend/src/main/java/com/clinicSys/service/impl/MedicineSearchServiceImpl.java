@@ -0,0 +1,520 @@
+package com.clinicSys.service.impl;
+
+import com.clinicSys.domain.Medicine;
+import com.clinicSys.domain.MedicineGroup;
+import com.clinicSys.dto.response.MedicineDTO;
+import com.clinicSys.event.MedicineSavedEvent;
+import com.clinicSys.repository.IMedicineRepository;
+import com.clinicSys.service.IMedicineSearchService;
+import com.clinicSys.service.IReferenceDataService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+@Service
+public class MedicineSearchServiceImpl implements IMedicineSearchService {
+
+    private static final int DEFAULT_RESULTS = 20;
+    // Query words this long may have one typo, from TWO_EDITS_LENGTH on two
+    private static final int ONE_EDIT_LENGTH = 5;
+    private static final int TWO_EDITS_LENGTH = 9;
+    private static final String ACTIVE = "Active";
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    @Autowired
+    private IMedicineRepository medicineRepository;
+
+    @Autowired
+    private IReferenceDataService referenceDataService;
+
+    // Replaced as a whole on rebuild; single-medicine updates go through the write lock
+    private volatile IndexState state = new IndexState();
+    private final Object writeLock = new Object();
+    private List<Medicine> updatesDuringRebuild;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuild();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onMedicineSaved(MedicineSavedEvent event) {
+        index(event.medicine());
+    }
+
+    @Override
+    public List<MedicineDTO> search(String term, int limit, boolean inStockOnly) {
+        if (term == null || term.trim().isEmpty()) {
+            return new ArrayList<>();
+        }
+        int maxResults = limit <= 0 ? DEFAULT_RESULTS : Math.min(limit, MAX_RESULTS);
+        String folded = PatientSearchServiceImpl.fold(term);
+        List<String> tokens = tokenize(folded);
+        if (tokens.isEmpty()) {
+            return new ArrayList<>();
+        }
+        String code = String.join("", tokens);
+        List<String> rawTokens = new ArrayList<>();
+        for (String rawToken : SEPARATORS.split(term.trim().toLowerCase(Locale.ROOT))) {
+            if (!rawToken.isEmpty()) {
+                rawTokens.add(rawToken);
+            }
+        }
+
+        IndexState current = state;
+        List<WordMatch> wordMatches = new ArrayList<>(tokens.size());
+        WordMatch narrowest = null;
+        for (String token : tokens) {
+            WordMatch wordMatch = current.names.match(token, maxEdits(token));
+            wordMatches.add(wordMatch);
+            if (narrowest == null || wordMatch.size() < narrowest.size()) {
+                narrowest = wordMatch;
+            }
+        }
+        Query query = new Query(folded, code, tokens, wordMatches, rawTokens);
+
+        // Medicines matched by every query word, walked from the narrowest word's matches without copying
+        PriorityQueue<Match> best = new PriorityQueue<>(Comparator.reverseOrder());
+        for (Integer medicineID : narrowest.prefix()) {
+            offer(best, current, medicineID, query, inStockOnly, maxResults);
+        }
+        for (Integer medicineID : narrowest.fuzzy().keySet()) {
+            offer(best, current, medicineID, query, inStockOnly, maxResults);
+        }
+        // Code matches not already scored through their name
+        for (Integer medicineID : current.codes.prefixOf(code)) {
+            if (!query.matchesAllWords(medicineID)) {
+                offer(best, current, medicineID, query, inStockOnly, maxResults);
+            }
+        }
+
+        List<Match> ranked = new ArrayList<>(best);
+        ranked.sort(null);
+        List<MedicineDTO> results = new ArrayList<>(ranked.size());
+        for (Match match : ranked) {
+            results.add(withGroupName(match.entry().medicine()));
+        }
+        return results;
+    }
+
+    @Override
+    public void index(Medicine medicine) {
+        synchronized (writeLock) {
+            if (updatesDuringRebuild != null) {
+                updatesDuringRebuild.add(medicine);
+            }
+            state.put(toEntry(medicine));
+        }
+    }
+
+    @Override
+    public void rebuild() {
+        synchronized (writeLock) {
+            updatesDuringRebuild = new ArrayList<>();
+        }
+        IndexState rebuilt = new IndexState();
+        try {
+            for (Medicine medicine : medicineRepository.findAll()) {
+                rebuilt.put(toEntry(medicine));
+            }
+        } finally {
+            synchronized (writeLock) {
+                // Medicines saved while the table was being read may be missing from the snapshot
+                for (Medicine medicine : updatesDuringRebuild) {
+                    rebuilt.put(toEntry(medicine));
+                }
+                updatesDuringRebuild = null;
+                state = rebuilt;
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return state.entries.size();
+    }
+
+    private static void offer(PriorityQueue<Match> best, IndexState current, Integer medicineID, Query query,
+                              boolean inStockOnly, int maxResults) {
+        Entry entry = current.entries.get(medicineID);
+        if (entry == null || !entry.active() || (inStockOnly && entry.medicine().stock() <= 0)) {
+            return;
+        }
+        int score = score(entry, query);
+        if (score <= 0) {
+            return;
+        }
+        // Most candidates of a short term rank below a full queue; skip them before allocating
+        if (best.size() == maxResults && Match.compare(score, entry, best.peek().score(), best.peek().entry()) >= 0) {
+            return;
+        }
+        best.add(new Match(entry, score));
+        if (best.size() > maxResults) {
+            best.poll();
+        }
+    }
+
+    /**
+     * @return 0 if a query word matches no name word and the code does not match either,
+     * otherwise a relevance score
+     */
+    private static int score(Entry entry, Query query) {
+        List<String> tokens = query.tokens();
+        int score = 0;
+        if (entry.code().equals(query.code())) {
+            score += 1000;
+        } else if (entry.code().startsWith(query.code())) {
+            score += 600;
+        }
+        boolean codeMatch = score > 0;
+        if (entry.name().equals(query.folded())) {
+            score += 500;
+        } else if (entry.name().startsWith(query.folded())) {
+            score += 300;
+        }
+
+        Integer medicineID = entry.medicine().medicineID();
+        for (int i = 0; i < tokens.size(); i++) {
+            WordMatch wordMatch = query.wordMatches().get(i);
+            Integer edits = wordMatch.edits(medicineID);
+            if (edits == null) {
+                if (codeMatch) {
+                    continue;
+                }
+                return 0;
+            }
+            String token = tokens.get(i);
+            int tokenScore = 0;
+            for (String word : entry.words()) {
+                if (word.equals(token)) {
+                    tokenScore = Math.max(tokenScore, 40);
+                } else if (word.startsWith(token)) {
+                    tokenScore = Math.max(tokenScore, 20);
+                }
+            }
+            if (tokenScore == 0) {
+                // A typo: the whole word ("zorvaxim" for "zorvaxin") beats the start of a longer one
+                tokenScore = edits == 1 ? 8 : 4;
+                for (String word : entry.words()) {
+                    if (wordMatch.distanceTo(word) <= edits) {
+                        tokenScore += 4;
+                        break;
+                    }
+                }
+            }
+            score += tokenScore;
+        }
+
+        // Prefer the spelling the user actually typed
+        for (String rawToken : query.rawTokens()) {
+            if (entry.rawName().contains(rawToken)) {
+                score += 15;
+            }
+        }
+        return score;
+    }
+
+    private static int distance(String a, String b) {
+        int[] previous = new int[b.length() + 1];
+        int[] row = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            row[0] = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int substitute = previous[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                row[j] = Math.min(substitute, Math.min(row[j - 1], previous[j]) + 1);
+            }
+            int[] swap = previous;
+            previous = row;
+            row = swap;
+        }
+        return previous[b.length()];
+    }
+
+    private static int maxEdits(String token) {
+        if (token.length() >= TWO_EDITS_LENGTH) {
+            return 2;
+        }
+        return token.length() >= ONE_EDIT_LENGTH ? 1 : 0;
+    }
+
+    private MedicineDTO withGroupName(MedicineDTO medicine) {
+        // Looked up per search so a renamed group shows without reindexing
+        String groupName = referenceDataService.findMedicineGroup(medicine.medicineGroupID())
+            .map(MedicineGroup::getName)
+            .orElse("Unknown");
+        return new MedicineDTO(
+            medicine.medicineID(),
+            medicine.medicineCode(),
+            medicine.medicineName(),
+            groupName,
+            medicine.medicineGroupID(),
+            medicine.strength(),
+            medicine.unit(),
+            medicine.price(),
+            medicine.stock(),
+            medicine.status()
+        );
+    }
+
+    private Entry toEntry(Medicine medicine) {
+        String name = PatientSearchServiceImpl.fold(medicine.getName());
+        return new Entry(
+            new MedicineDTO(
+                medicine.getMedicineID(),
+                medicine.getMedicineCode(),
+                medicine.getName(),
+                null,
+                medicine.getMedicineGroupID(),
+                medicine.getStrength(),
+                medicine.getUnit(),
+                medicine.getPrice(),
+                medicine.getStock(),
+                medicine.getStatus()
+            ),
+            String.join("", tokenize(PatientSearchServiceImpl.fold(medicine.getMedicineCode()))),
+            name,
+            medicine.getName() != null ? medicine.getName().toLowerCase(Locale.ROOT) : "",
+            new ArrayList<>(new LinkedHashSet<>(tokenize(name))),
+            ACTIVE.equalsIgnoreCase(medicine.getStatus())
+        );
+    }
+
+    private static List<String> tokenize(String folded) {
+        if (folded.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(folded)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private record Entry(
+        // Without the group name, which is added when the entry is returned
+        MedicineDTO medicine,
+        // Folded, separators removed
+        String code,
+        String name,
+        String rawName,
+        List<String> words,
+        boolean active
+    ) {}
+
+    /**
+     * Natural order is best first: higher score, then name, then ID
+     */
+    private record Match(Entry entry, int score) implements Comparable<Match> {
+
+        @Override
+        public int compareTo(Match other) {
+            return compare(score, entry, other.score, other.entry);
+        }
+
+        private static int compare(int score, Entry entry, int otherScore, Entry otherEntry) {
+            if (score != otherScore) {
+                return score > otherScore ? -1 : 1;
+            }
+            int byName = entry.name().compareTo(otherEntry.name());
+            if (byName != 0) {
+                return byName;
+            }
+            return Integer.compare(entry.medicine().medicineID(), otherEntry.medicine().medicineID());
+        }
+    }
+
+    /**
+     * Medicines whose name has a word starting with one query word
+     * @param prefix Exact prefix matches, the trie node's own set
+     * @param fuzzy Medicine ID -> edits needed, for the ones only reached with a typo
+     * @param distances Whole name word -> edit distance to the query word, filled in while scoring
+     */
+    private record WordMatch(String token, Set<Integer> prefix, Map<Integer, Integer> fuzzy,
+                             Map<String, Integer> distances) {
+
+        private int distanceTo(String word) {
+            // Most candidates of a typo share the same few words
+            return distances.computeIfAbsent(word, w -> distance(token, w));
+        }
+
+        private Integer edits(Integer medicineID) {
+            return prefix.contains(medicineID) ? Integer.valueOf(0) : fuzzy.get(medicineID);
+        }
+
+        private int size() {
+            return prefix.size() + fuzzy.size();
+        }
+    }
+
+    private record Query(String folded, String code, List<String> tokens, List<WordMatch> wordMatches,
+                         List<String> rawTokens) {
+
+        private boolean matchesAllWords(Integer medicineID) {
+            for (WordMatch wordMatch : wordMatches) {
+                if (wordMatch.edits(medicineID) == null) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static final class IndexState {
+        private final Map<Integer, Entry> entries = new ConcurrentHashMap<>();
+        private final Trie names = new Trie();
+        private final Trie codes = new Trie();
+
+        private void put(Entry entry) {
+            int medicineID = entry.medicine().medicineID();
+            Entry previous = entries.put(medicineID, entry);
+            for (String word : entry.words()) {
+                names.add(word, medicineID);
+            }
+            codes.add(entry.code(), medicineID);
+            if (previous != null) {
+                for (String word : previous.words()) {
+                    if (!entry.words().contains(word)) {
+                        names.remove(word, medicineID, entry.words());
+                    }
+                }
+                if (!previous.code().equals(entry.code())) {
+                    codes.remove(previous.code(), medicineID, List.of(entry.code()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Every node keeps the IDs of the medicines with a word that starts with the path to it,
+     * so a prefix lookup is a walk down the trie and the IDs below a node are a subset of its own.
+     * Only changed under the write lock; searches read it concurrently.
+     */
+    private static final class Trie {
+        private final Node root = new Node();
+
+        private void add(String word, int medicineID) {
+            Node node = root;
+            for (int i = 0; i < word.length(); i++) {
+                node = node.children.computeIfAbsent(word.charAt(i), c -> new Node());
+                node.ids.add(medicineID);
+            }
+        }
+
+        /**
+         * Removes the medicine from the nodes of a word it no longer has, except where one of
+         * its remaining words passes through
+         */
+        private void remove(String word, int medicineID, Collection<String> kept) {
+            Node node = root;
+            for (int i = 0; i < word.length(); i++) {
+                Node child = node.children.get(word.charAt(i));
+                if (child == null) {
+                    return;
+                }
+                String prefix = word.substring(0, i + 1);
+                if (kept.stream().noneMatch(k -> k.startsWith(prefix))) {
+                    child.ids.remove(medicineID);
+                    if (child.ids.isEmpty()) {
+                        // Nothing below either
+                        node.children.remove(word.charAt(i));
+                        return;
+                    }
+                }
+                node = child;
+            }
+        }
+
+        private Set<Integer> prefixOf(String prefix) {
+            if (prefix.isEmpty()) {
+                return Collections.emptySet();
+            }
+            Node node = root;
+            for (int i = 0; i < prefix.length() && node != null; i++) {
+                node = node.children.get(prefix.charAt(i));
+            }
+            return node == null ? Collections.emptySet() : node.ids;
+        }
+
+        /**
+         * @return Medicines with a word the token is the start of, and, apart from those, the
+         * fewest edits that turn the token into the start of one of their words, within maxEdits
+         */
+        private WordMatch match(String token, int maxEdits) {
+            Set<Integer> prefix = prefixOf(token);
+            if (maxEdits == 0) {
+                return new WordMatch(token, prefix, Collections.emptyMap(), new HashMap<>());
+            }
+            Map<Integer, Integer> result = new HashMap<>();
+            // Levenshtein distance of the token to the path so far, one row per trie level. No row
+            // past token length + maxEdits can be within maxEdits, so the walk never goes deeper
+            int[][] rows = new int[token.length() + maxEdits + 2][token.length() + 1];
+            for (int j = 0; j <= token.length(); j++) {
+                rows[0][j] = j;
+            }
+            for (Map.Entry<Character, Node> child : root.children.entrySet()) {
+                match(child.getValue(), child.getKey(), token, rows, 1, maxEdits + 1, prefix, result);
+            }
+            return new WordMatch(token, prefix, result, new HashMap<>());
+        }
+
+        private static void match(Node node, char c, String token, int[][] rows, int depth,
+                                  int bestOnPath, Set<Integer> exact, Map<Integer, Integer> result) {
+            int n = token.length();
+            int[] previous = rows[depth - 1];
+            int[] row = rows[depth];
+            row[0] = previous[0] + 1;
+            int rowMin = row[0];
+            for (int j = 1; j <= n; j++) {
+                int substitute = previous[j - 1] + (token.charAt(j - 1) == c ? 0 : 1);
+                row[j] = Math.min(substitute, Math.min(row[j - 1], previous[j]) + 1);
+                rowMin = Math.min(rowMin, row[j]);
+            }
+            // IDs below this node are a subset of this node's; only a closer match adds anything
+            if (row[n] < bestOnPath) {
+                // Exact matches are the prefix set itself, which is not copied
+                if (row[n] > 0) {
+                    for (Integer medicineID : node.ids) {
+                        if (!exact.contains(medicineID)) {
+                            result.merge(medicineID, row[n], Math::min);
+                        }
+                    }
+                }
+                bestOnPath = row[n];
+            }
+            // Deeper rows never go below this row's minimum, and only a closer match than bestOnPath adds IDs
+            if (rowMin >= bestOnPath) {
+                return;
+            }
+            for (Map.Entry<Character, Node> child : node.children.entrySet()) {
+                match(child.getValue(), child.getKey(), token, rows, depth + 1, bestOnPath, exact, result);
+            }
+        }
+    }
+
+    private static final class Node {
+        private final Map<Character, Node> children = new ConcurrentHashMap<>();
+        private final Set<Integer> ids = ConcurrentHashMap.newKeySet();
+    }
+}
@@ -3,13 +3,19 @@ package com.clinicSys.service.impl;
 import com.clinicSys.domain.Medicine;
 import com.clinicSys.domain.MedicineGroup;
 import com.clinicSys.dto.request.CreateMedicineDTO;
+import com.clinicSys.dto.response.PageDTO;
 import com.clinicSys.dto.response.MedicineDTO;
 import com.clinicSys.dto.response.MedicineGroupDTO;
 import com.clinicSys.dto.request.UpdateMedicineDTO;
+import com.clinicSys.event.MedicineSavedEvent;
 import com.clinicSys.repository.IMedicineRepository;
 import com.clinicSys.repository.IMedicineGroupRepository;
+import com.clinicSys.service.IMedicineSearchService;
 import com.clinicSys.service.IMedicineService;
+import com.clinicSys.service.IReferenceDataService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -24,6 +30,15 @@ public class MedicineServiceImpl implements IMedicineService {
     @Autowired
     private IMedicineGroupRepository medicineGroupRepository;
 
+    @Autowired
+    private IReferenceDataService referenceDataService;
+
+    @Autowired
+    private IMedicineSearchService medicineSearchService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Override
     public List<MedicineDTO> getAllMedicines() {
         try {
@@ -37,6 +52,17 @@ public class MedicineServiceImpl implements IMedicineService {
         }
     }
 
+    @Override
+    public PageDTO<MedicineDTO> getMedicinesPage(String cursor, int limit) {
+        int pageSize = PageCursor.pageSize(limit);
+        // Fetch one extra row to know whether there is a next page
+        List<Medicine> rows = medicineRepository.findPageAfter(PageCursor.decode(cursor), pageSize + 1);
+        List<MedicineDTO> items = PageCursor.trim(rows, pageSize).stream()
+            .map(this::convertToDTO)
+            .collect(Collectors.toList());
+        return new PageDTO<>(items, PageCursor.next(rows, pageSize, Medicine::getMedicineCode));
+    }
+
     @Override
     public MedicineDTO getMedicineById(int medicineId) {
         Optional<Medicine> medicineOpt = medicineRepository.findById(medicineId);
@@ -59,7 +85,7 @@ public class MedicineServiceImpl implements IMedicineService {
         if (existingMedicine.isPresent()) {
             throw new RuntimeException("Medicine code already exists: " + createDTO.medicineCode());
         }
-        Optional<MedicineGroup> medicineGroupOpt = medicineGroupRepository.findById(createDTO.medicineGroupID());
+        Optional<MedicineGroup> medicineGroupOpt = referenceDataService.findMedicineGroup(createDTO.medicineGroupID());
         if (medicineGroupOpt.isEmpty()) {
             throw new RuntimeException("MedicineGroup not found with ID: " + createDTO.medicineGroupID());
         }
@@ -75,10 +101,12 @@ public class MedicineServiceImpl implements IMedicineService {
         newMedicine.setStatus(createDTO.status());
 
         Medicine savedMedicine = medicineRepository.save(newMedicine);
+        medicineSearchService.index(savedMedicine);
         return convertToDTO(savedMedicine);
     }
 
     @Override
+    @Transactional
     public MedicineDTO updateMedicine(int medicineId, UpdateMedicineDTO updateDTO) {
         Optional<Medicine> medicineOpt = medicineRepository.findById(medicineId);
         if (medicineOpt.isEmpty()) {
@@ -92,7 +120,7 @@ public class MedicineServiceImpl implements IMedicineService {
         }
 
         if (updateDTO.medicineGroupID() != null) {
-            Optional<MedicineGroup> medicineGroupOpt = medicineGroupRepository.findById(updateDTO.medicineGroupID());
+            Optional<MedicineGroup> medicineGroupOpt = referenceDataService.findMedicineGroup(updateDTO.medicineGroupID());
             if (medicineGroupOpt.isEmpty()) {
                 throw new RuntimeException("MedicineGroup not found with ID: " + updateDTO.medicineGroupID());
             }
@@ -116,10 +144,13 @@ public class MedicineServiceImpl implements IMedicineService {
         }
 
         Medicine updatedMedicine = medicineRepository.save(medicine);
+        // Indexed after commit, so a rolled-back edit never shows up in autocomplete
+        eventPublisher.publishEvent(new MedicineSavedEvent(updatedMedicine));
         return convertToDTO(updatedMedicine);
     }
 
     @Override
+    @Transactional
     public MedicineDTO updateMedicineStatus(int medicineId, String status) {
         Optional<Medicine> medicineOpt = medicineRepository.findById(medicineId);
         if (medicineOpt.isEmpty()) {
@@ -129,12 +160,13 @@ public class MedicineServiceImpl implements IMedicineService {
         Medicine medicine = medicineOpt.get();
         medicine.setStatus(status);
         Medicine updatedMedicine = medicineRepository.save(medicine);
+        eventPublisher.publishEvent(new MedicineSavedEvent(updatedMedicine));
         return convertToDTO(updatedMedicine);
     }
 
     private MedicineDTO convertToDTO(Medicine medicine) {
         String medicineGroupName = "Unknown";
-        Optional<MedicineGroup> medicineGroupOpt = medicineGroupRepository.findById(medicine.getMedicineGroupID());
+        Optional<MedicineGroup> medicineGroupOpt = referenceDataService.findMedicineGroup(medicine.getMedicineGroupID());
         if (medicineGroupOpt.isPresent()) {
             medicineGroupName = medicineGroupOpt.get().getName();
         }
@@ -0,0 +1,235 @@
+package com.clinicSys.service.impl;
+
+import com.clinicSys.config.BucketHistogram;
+import com.clinicSys.config.ConnectionGateDataSource;
+import com.clinicSys.config.MethodTimingAspect;
+import com.clinicSys.config.ReplicaRoutingDataSource;
+import com.clinicSys.config.SqlStatementCounter;
+import com.clinicSys.dto.response.ConnectionGateDTO;
+import com.clinicSys.dto.response.ConnectionPoolDTO;
+import com.clinicSys.dto.response.MethodTimingDTO;
+import com.clinicSys.dto.response.MetricsDTO;
+import com.clinicSys.dto.response.RouteStatementsDTO;
+import com.clinicSys.dto.response.StatementBudgetViolationDTO;
+import com.clinicSys.service.IMetricsService;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.Comparator;
+import java.util.List;
+
+@Service
+public class MetricsServiceImpl implements IMetricsService {
+
+    @Autowired
+    private MethodTimingAspect methodTimingAspect;
+
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Override
+    public MetricsDTO getMetrics() {
+        List<MethodTimingDTO> methods = methodTimingAspect.getTimers().stream()
+            .map(timer -> {
+                BucketHistogram durations = timer.durations();
+                return new MethodTimingDTO(timer.layer(), timer.type(), timer.method(), durations.getCount(),
+                    durations.getSum() * 1000, durations.getMax() * 1000, durations.percentile(0.5) * 1000,
+                    durations.percentile(0.95) * 1000, durations.percentile(0.99) * 1000);
+            })
+            .sorted(Comparator.comparingDouble(MethodTimingDTO::totalMillis).reversed())
+            .toList();
+        List<RouteStatementsDTO> routes = sqlStatementCounter.getRoutes().stream()
+            .map(route -> {
+                BucketHistogram statements = route.statements();
+                long requests = statements.getCount();
+                return new RouteStatementsDTO(route.route(), requests,
+                    requests == 0 ? 0 : statements.getSum() / requests, statements.percentile(0.95),
+                    (long) statements.getMax(), route.overBudget().sum());
+            })
+            .sorted(Comparator.comparingDouble(RouteStatementsDTO::meanStatements).reversed())
+            .toList();
+        List<StatementBudgetViolationDTO> violations = sqlStatementCounter.getViolations().stream()
+            .map(v -> new StatementBudgetViolationDTO(v.route(), v.statements(), v.at()))
+            .toList();
+        return new MetricsDTO(methods, routes, sqlStatementCounter.getTotal(), sqlStatementCounter.getStatementBudget(),
+            violations, getConnectionPool(), getConnectionGate());
+    }
+
+    @Override
+    public String scrape() {
+        StringBuilder out = new StringBuilder(64 * 1024);
+
+        out.append("# HELP clinic_method_seconds Duration of repository and service method calls\n");
+        out.append("# TYPE clinic_method_seconds histogram\n");
+        for (MethodTimingAspect.MethodTimer timer : methodTimingAspect.getTimers()) {
+            writeHistogram(out, "clinic_method_seconds", timer.durations(),
+                "layer", timer.layer(), "type", timer.type(), "method", timer.method());
+        }
+        out.append("# HELP clinic_method_seconds_max Longest call since startup\n");
+        out.append("# TYPE clinic_method_seconds_max gauge\n");
+        for (MethodTimingAspect.MethodTimer timer : methodTimingAspect.getTimers()) {
+            writeSample(out, "clinic_method_seconds_max", timer.durations().getMax(),
+                "layer", timer.layer(), "type", timer.type(), "method", timer.method());
+        }
+
+        out.append("# HELP clinic_http_request_sql_statements SQL statements run by one HTTP request\n");
+        out.append("# TYPE clinic_http_request_sql_statements histogram\n");
+        for (SqlStatementCounter.RouteStats route : sqlStatementCounter.getRoutes()) {
+            writeHistogram(out, "clinic_http_request_sql_statements", route.statements(), routeLabels(route.route()));
+        }
+        out.append("# HELP clinic_http_requests_over_statement_budget_total Requests that ran more SQL statements than the budget\n");
+        out.append("# TYPE clinic_http_requests_over_statement_budget_total counter\n");
+        for (SqlStatementCounter.RouteStats route : sqlStatementCounter.getRoutes()) {
+            writeSample(out, "clinic_http_requests_over_statement_budget_total", route.overBudget().sum(), routeLabels(route.route()));
+        }
+        out.append("# HELP clinic_sql_statement_budget SQL statements allowed per HTTP request\n");
+        out.append("# TYPE clinic_sql_statement_budget gauge\n");
+        writeSample(out, "clinic_sql_statement_budget", sqlStatementCounter.getStatementBudget());
+        out.append("# HELP clinic_sql_statements_total SQL statements prepared by Hibernate\n");
+        out.append("# TYPE clinic_sql_statements_total counter\n");
+        writeSample(out, "clinic_sql_statements_total", sqlStatementCounter.getTotal());
+
+        ConnectionPoolDTO pool = getConnectionPool();
+        if (pool != null) {
+            // Same names as the Micrometer Hikari binder, so existing dashboards work
+            writeGauge(out, "hikaricp_connections_active", "Connections in use", pool.active(), pool.pool());
+            writeGauge(out, "hikaricp_connections_idle", "Idle connections", pool.idle(), pool.pool());
+            writeGauge(out, "hikaricp_connections", "Connections in the pool", pool.total(), pool.pool());
+            writeGauge(out, "hikaricp_connections_pending", "Threads waiting for a connection", pool.pending(), pool.pool());
+            writeGauge(out, "hikaricp_connections_max", "Maximum pool size", pool.maximumPoolSize(), pool.pool());
+        }
+        ConnectionGateDTO gate = getConnectionGate();
+        if (gate != null) {
+            out.append("# HELP clinic_connection_gate_waiting Threads waiting for a connection permit\n");
+            out.append("# TYPE clinic_connection_gate_waiting gauge\n");
+            writeSample(out, "clinic_connection_gate_waiting", gate.waiting());
+            out.append("# HELP clinic_connection_gate_rejected_total Requests that timed out waiting for a connection permit\n");
+            out.append("# TYPE clinic_connection_gate_rejected_total counter\n");
+            writeSample(out, "clinic_connection_gate_rejected_total", gate.rejected());
+        }
+        ReplicaRoutingDataSource routing = getReplicaRouting();
+        if (routing != null) {
+            out.append("# HELP clinic_read_only_transactions_total Read-only transactions by the database that served them\n");
+            out.append("# TYPE clinic_read_only_transactions_total counter\n");
+            writeSample(out, "clinic_read_only_transactions_total", routing.getReplicaReads(),
+                "target", ReplicaRoutingDataSource.REPLICA);
+            writeSample(out, "clinic_read_only_transactions_total", routing.getPrimaryReads(),
+                "target", ReplicaRoutingDataSource.PRIMARY);
+        }
+        return out.toString();
+    }
+
+    private ConnectionPoolDTO getConnectionPool() {
+        HikariDataSource hikari;
+        try {
+            if (!dataSource.isWrapperFor(HikariDataSource.class)) {
+                return null;
+            }
+            hikari = dataSource.unwrap(HikariDataSource.class);
+        } catch (SQLException e) {
+            return null;
+        }
+        HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+        if (pool == null) {
+            // Pool not started yet
+            return new ConnectionPoolDTO(hikari.getPoolName(), 0, 0, 0, 0, hikari.getMaximumPoolSize());
+        }
+        return new ConnectionPoolDTO(hikari.getPoolName(), pool.getActiveConnections(), pool.getIdleConnections(),
+            pool.getTotalConnections(), pool.getThreadsAwaitingConnection(), hikari.getMaximumPoolSize());
+    }
+
+    private ConnectionGateDTO getConnectionGate() {
+        ConnectionGateDataSource gate;
+        try {
+            if (!dataSource.isWrapperFor(ConnectionGateDataSource.class)) {
+                return null;
+            }
+            gate = dataSource.unwrap(ConnectionGateDataSource.class);
+        } catch (SQLException e) {
+            return null;
+        }
+        return new ConnectionGateDTO(gate.getPermits(), gate.getAvailablePermits(), gate.getWaiting(), gate.getRejected());
+    }
+
+    private ReplicaRoutingDataSource getReplicaRouting() {
+        try {
+            if (!dataSource.isWrapperFor(ReplicaRoutingDataSource.class)) {
+                return null;
+            }
+            return dataSource.unwrap(ReplicaRoutingDataSource.class);
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+
+    private static String[] routeLabels(String route) {
+        int space = route.indexOf(' ');
+        return new String[] {"method", route.substring(0, space), "uri", route.substring(space + 1)};
+    }
+
+    private static void writeHistogram(StringBuilder out, String name, BucketHistogram histogram, String... labels) {
+        double[] bounds = histogram.getBounds();
+        long[] cumulative = histogram.getCumulativeCounts();
+        for (int i = 0; i < cumulative.length; i++) {
+            String le = i < bounds.length ? formatValue(bounds[i]) : "+Inf";
+            out.append(name).append("_bucket{");
+            appendLabels(out, labels);
+            if (labels.length > 0) {
+                out.append(',');
+            }
+            out.append("le=\"").append(le).append("\"} ").append(cumulative[i]).append('\n');
+        }
+        writeSample(out, name + "_sum", histogram.getSum(), labels);
+        writeSample(out, name + "_count", cumulative[cumulative.length - 1], labels);
+    }
+
+    private static void writeGauge(StringBuilder out, String name, String help, double value, String pool) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(" gauge\n");
+        writeSample(out, name, value, "pool", pool);
+    }
+
+    private static void writeSample(StringBuilder out, String name, double value, String... labels) {
+        out.append(name);
+        if (labels.length > 0) {
+            out.append('{');
+            appendLabels(out, labels);
+            out.append('}');
+        }
+        out.append(' ').append(formatValue(value)).append('\n');
+    }
+
+    private static void appendLabels(StringBuilder out, String... labels) {
+        for (int i = 0; i < labels.length; i += 2) {
+            if (i > 0) {
+                out.append(',');
+            }
+            out.append(labels[i]).append("=\"");
+            String value = labels[i + 1];
+            for (int c = 0; c < value.length(); c++) {
+                char ch = value.charAt(c);
+                switch (ch) {
+                    case '\\' -> out.append("\\\\");
+                    case '"' -> out.append("\\\"");
+                    case '\n' -> out.append("\\n");
+                    default -> out.append(ch);
+                }
+            }
+            out.append('"');
+        }
+    }
+
+    private static String formatValue(double value) {
+        if (value == Math.rint(value) && !Double.isInfinite(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+}
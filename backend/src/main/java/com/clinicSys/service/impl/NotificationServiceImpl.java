@@ -0,0 +1,191 @@
+package com.clinicSys.service.impl;
+
+import com.clinicSys.domain.Appointment;
+import com.clinicSys.domain.AppointmentStatus;
+import com.clinicSys.domain.Notification;
+import com.clinicSys.domain.Patient;
+import com.clinicSys.dto.response.NotificationMessageDTO;
+import com.clinicSys.dto.response.NotificationStatsDTO;
+import com.clinicSys.event.AppointmentStatusChangedEvent;
+import com.clinicSys.repository.IAppointmentRepository;
+import com.clinicSys.repository.INotificationRepository;
+import com.clinicSys.repository.IPatientRepository;
+import com.clinicSys.service.INotificationChannel;
+import com.clinicSys.service.INotificationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class NotificationServiceImpl implements INotificationService {
+
+    @Autowired
+    private INotificationRepository notificationRepository;
+
+    @Autowired
+    private IAppointmentRepository appointmentRepository;
+
+    @Autowired
+    private IPatientRepository patientRepository;
+
+    @Autowired
+    private INotificationChannel channel;
+
+    @Value("${clinic.notifications.batch-size:100}")
+    private int batchSize;
+
+    @Value("${clinic.notifications.max-batches-per-run:50}")
+    private int maxBatchesPerRun;
+
+    // How long before the appointment the reminder is sent
+    @Value("${clinic.notifications.reminder-hours:24}")
+    private long reminderHours;
+
+    // How long a claimed batch belongs to one dispatcher before another may take it over
+    @Value("${clinic.notifications.lease-seconds:300}")
+    private long leaseSeconds;
+
+    @Value("${clinic.notifications.max-attempts:5}")
+    private int maxAttempts;
+
+    // Wait before a retry, multiplied by the number of attempts so far
+    @Value("${clinic.notifications.retry-delay-seconds:60}")
+    private long retryDelaySeconds;
+
+    private final AtomicLong claimed = new AtomicLong();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong failedAttempts = new AtomicLong();
+    private final AtomicLong givenUp = new AtomicLong();
+    private final AtomicLong busyNanos = new AtomicLong();
+
+    /**
+     * Runs synchronously inside the publisher's transaction, so the outbox rows commit or roll
+     * back together with the appointment change.
+     */
+    @EventListener
+    public void onStatusChanged(AppointmentStatusChangedEvent event) {
+        LocalDateTime now = LocalDateTime.now();
+        AppointmentStatus status = AppointmentStatus.fromLabel(event.status());
+        if (status == AppointmentStatus.SCHEDULED) {
+            enqueue(Notification.CONFIRMATION, event, null, now, now);
+            LocalDateTime remindAt = event.dateTime().minusHours(reminderHours);
+            if (remindAt.isAfter(now)) {
+                enqueue(Notification.REMINDER, event, null, now, remindAt);
+            }
+            return;
+        }
+        if (status == AppointmentStatus.CANCELLED) {
+            notificationRepository.cancelPendingReminders(event.appointmentID());
+        }
+        enqueue(Notification.STATUS_CHANGED, event, event.status(), now, now);
+    }
+
+    @Scheduled(fixedDelayString = "${clinic.notifications.dispatch-ms:5000}")
+    public void dispatchScheduled() {
+        dispatchDue();
+    }
+
+    @Override
+    public int dispatchDue() {
+        int sentThisRun = 0;
+        for (int round = 0; round < maxBatchesPerRun; round++) {
+            long started = System.nanoTime();
+            LocalDateTime now = LocalDateTime.now();
+            List<Notification> batch = notificationRepository.claimDue(
+                batchSize, now, now.plusSeconds(leaseSeconds), UUID.randomUUID().toString());
+            if (batch.isEmpty()) {
+                break;
+            }
+            claimed.addAndGet(batch.size());
+            sentThisRun += deliver(batch);
+            busyNanos.addAndGet(System.nanoTime() - started);
+            if (batch.size() < batchSize) {
+                break;
+            }
+        }
+        return sentThisRun;
+    }
+
+    @Override
+    public NotificationStatsDTO getStats() {
+        long sentCount = sent.get();
+        double busySeconds = busyNanos.get() / (double) TimeUnit.SECONDS.toNanos(1);
+        return new NotificationStatsDTO(
+            channel.getName(),
+            notificationRepository.countByStatus(Notification.PENDING),
+            notificationRepository.countByStatus(Notification.FAILED),
+            claimed.get(),
+            sentCount,
+            failedAttempts.get(),
+            givenUp.get(),
+            busySeconds > 0 ? sentCount / busySeconds : 0
+        );
+    }
+
+    private void enqueue(String type, AppointmentStatusChangedEvent event, String payload,
+                         LocalDateTime now, LocalDateTime sendAfter) {
+        Notification notification = new Notification();
+        notification.setType(type);
+        notification.setStatus(Notification.PENDING);
+        notification.setAppointmentID(event.appointmentID());
+        notification.setPayload(payload);
+        notification.setCreatedAt(now);
+        notification.setSendAfter(sendAfter);
+        notificationRepository.save(notification);
+    }
+
+    private int deliver(List<Notification> batch) {
+        // Contact details of the whole batch in two queries
+        Map<Integer, Appointment> appointments = appointmentRepository.findAllByIds(
+                batch.stream().map(Notification::getAppointmentID).collect(Collectors.toSet()))
+            .stream()
+            .collect(Collectors.toMap(Appointment::getAppointmentID, Function.identity()));
+        Map<Integer, Patient> patients = patientRepository.findAllByIds(
+                appointments.values().stream().map(Appointment::getPatientID).collect(Collectors.toSet()))
+            .stream()
+            .collect(Collectors.toMap(Patient::getPatientID, Function.identity()));
+
+        List<Integer> sentIDs = new ArrayList<>(batch.size());
+        for (Notification notification : batch) {
+            Appointment appointment = appointments.get(notification.getAppointmentID());
+            Patient patient = appointment != null ? patients.get(appointment.getPatientID()) : null;
+            try {
+                channel.send(new NotificationMessageDTO(
+                    notification.getId(),
+                    notification.getType(),
+                    notification.getAppointmentID(),
+                    appointment != null ? appointment.getDateTime() : null,
+                    patient != null ? patient.getFullName() : null,
+                    patient != null ? patient.getPhone() : null,
+                    patient != null ? patient.getEmail() : null,
+                    notification.getPayload(),
+                    notification.getAttempts()
+                ));
+                sentIDs.add(notification.getId());
+            } catch (RuntimeException e) {
+                failedAttempts.incrementAndGet();
+                boolean giveUp = notification.getAttempts() >= maxAttempts;
+                if (giveUp) {
+                    givenUp.incrementAndGet();
+                }
+                notificationRepository.markFailed(notification.getId(), e.getMessage(),
+                    giveUp ? null : LocalDateTime.now().plusSeconds(retryDelaySeconds * notification.getAttempts()));
+            }
+        }
+        notificationRepository.markSent(sentIDs, LocalDateTime.now());
+        sent.addAndGet(sentIDs.size());
+        return sentIDs.size();
+    }
+}
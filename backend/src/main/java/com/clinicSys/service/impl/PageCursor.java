@@ -0,0 +1,75 @@
+package com.clinicSys.service.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Encodes the sort key of the last row of a page as an opaque cursor string.
+ * Clients must not build or parse cursors themselves, so the sort key can change without breaking them.
+ */
+final class PageCursor {
+
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 200;
+
+    private static final String VERSION = "v1:";
+
+    private PageCursor() {
+    }
+
+    static String encode(String lastKey) {
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString((VERSION + lastKey).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return The sort key stored in the cursor, or null for a missing cursor (first page)
+     */
+    static String decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        String decoded;
+        try {
+            decoded = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Cursor không hợp lệ");
+        }
+        if (!decoded.startsWith(VERSION)) {
+            throw new RuntimeException("Cursor không hợp lệ");
+        }
+        return decoded.substring(VERSION.length());
+    }
+
+    static Integer decodeId(String cursor) {
+        String key = decode(cursor);
+        if (key == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(key);
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Cursor không hợp lệ");
+        }
+    }
+
+    static int pageSize(int limit) {
+        return limit <= 0 ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+    }
+
+    /**
+     * Rows must have been fetched with pageSize + 1 so the extra row tells whether a next page exists.
+     */
+    static <E> List<E> trim(List<E> rows, int pageSize) {
+        return rows.size() > pageSize ? rows.subList(0, pageSize) : rows;
+    }
+
+    static <E> String next(List<E> rows, int pageSize, Function<E, String> keyOf) {
+        if (rows.size() <= pageSize) {
+            return null;
+        }
+        return encode(keyOf.apply(rows.get(pageSize - 1)));
+    }
+}
@@ -0,0 +1,171 @@
+package com.clinicSys.service.impl;
+
+import com.clinicSys.config.ReplicaLagGuard;
+import com.clinicSys.config.SqlStatementCounter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs independent read queries at the same time, each on a worker thread in its own read-only
+ * transaction, so a page that needs several of them waits for the slowest instead of the sum.
+ * submit() starts a query and returns at once; Query.get() waits for it until clinic.queries.timeout-ms
+ * after submission. A query that times out or fails answers with the last value it returned for the
+ * same name and scope (e.g. the same day). With nothing to fall back on, a failure is thrown and a
+ * slow query is waited for. Either way the transaction times out after
+ * clinic.queries.transaction-timeout-seconds, which cancels statements nobody waits for any more.
+ *
+ * Workers are a fixed pool of clinic.queries.threads with a bounded queue; when the queue is full the
+ * caller runs the query itself. With spring.threads.virtual.enabled=true every query gets a virtual
+ * thread instead. Queries count towards the statement budget of the request that submitted them and
+ * read from the primary if its user has just written (ReplicaLagGuard), but do not see its
+ * security context.
+ */
+@Component
+public class ParallelQueryTemplate {
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+
+    @Autowired
+    private ReplicaLagGuard replicaLagGuard;
+
+    @Value("${clinic.queries.threads:8}")
+    private int threads;
+
+    @Value("${clinic.queries.queue-capacity:200}")
+    private int queueCapacity;
+
+    @Value("${clinic.queries.timeout-ms:2000}")
+    private long timeoutMillis;
+
+    @Value("${clinic.queries.transaction-timeout-seconds:10}")
+    private int transactionTimeoutSeconds;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private record LastKnown(Object scope, Object value) {
+    }
+
+    private final Map<String, LastKnown> lastKnown = new ConcurrentHashMap<>();
+    private final AtomicInteger threadCount = new AtomicInteger();
+    private TransactionTemplate readOnly;
+    private Executor executor;
+
+    @PostConstruct
+    public void start() {
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.setTimeout(transactionTimeoutSeconds);
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor virtual = new SimpleAsyncTaskExecutor("parallel-query-");
+            virtual.setVirtualThreads(true);
+            executor = virtual;
+        } else {
+            executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), task -> {
+                    Thread thread = new Thread(task, "parallel-query-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor instanceof ThreadPoolExecutor pool) {
+            pool.shutdownNow();
+        } else if (executor instanceof SimpleAsyncTaskExecutor virtual) {
+            virtual.close();
+        }
+    }
+
+    /**
+     * Starts a query on a worker thread.
+     * @param name Identifies the query for its fallback value, e.g. "receptionist.todayAppointments"
+     * @param scope What the result depends on, e.g. the day; a fallback is only used for the same scope
+     */
+    public <T> Query<T> submit(String name, Object scope, Supplier<T> query) {
+        Supplier<T> task = replicaLagGuard.propagate(
+            sqlStatementCounter.propagate(() -> readOnly.execute(status -> query.get())));
+        // Late answers still refresh the fallback
+        CompletableFuture<T> future = CompletableFuture.supplyAsync(task, executor).whenComplete((value, error) -> {
+            if (error == null) {
+                lastKnown.put(name, new LastKnown(scope, value));
+            }
+        });
+        return new Query<>(this, name, scope, future, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis));
+    }
+
+    public static final class Query<T> {
+        private final ParallelQueryTemplate template;
+        private final String name;
+        private final Object scope;
+        private final CompletableFuture<T> future;
+        private final long deadline;
+
+        private Query(ParallelQueryTemplate template, String name, Object scope, CompletableFuture<T> future, long deadline) {
+            this.template = template;
+            this.name = name;
+            this.scope = scope;
+            this.future = future;
+            this.deadline = deadline;
+        }
+
+        public T get() {
+            try {
+                try {
+                    return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                } catch (TimeoutException e) {
+                    LastKnown known = lastKnown();
+                    if (known != null) {
+                        return value(known);
+                    }
+                    // Nothing to show instead (e.g. the first call of the day on a cold node)
+                    return future.get();
+                }
+            } catch (ExecutionException e) {
+                LastKnown known = lastKnown();
+                if (known != null) {
+                    return value(known);
+                }
+                throw e.getCause() instanceof RuntimeException cause
+                    ? cause : new RuntimeException("Truy vấn " + name + " thất bại", e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Bị ngắt khi chờ truy vấn " + name, e);
+            }
+        }
+
+        private LastKnown lastKnown() {
+            LastKnown known = template.lastKnown.get(name);
+            return known != null && known.scope().equals(scope) ? known : null;
+        }
+
+        @SuppressWarnings("unchecked")
+        private T value(LastKnown known) {
+            return (T) known.value();
+        }
+    }
+}
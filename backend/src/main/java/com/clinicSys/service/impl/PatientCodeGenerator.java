@@ -0,0 +1,50 @@
+package com.clinicSys.service.impl;
+
+import com.clinicSys.repository.IPatientRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands out patient codes "P" + yyyyMMdd + a number of at least 6 digits. The numbers come
+ * from the PatientCodeSeq sequence, whose increment is the block size: one NEXT VALUE FOR
+ * reserves a whole block, which is then used up in memory. Numbers of a block that is not
+ * used up before a restart are skipped, so codes are unique but not gap-free. The sequence
+ * is created by the schema migrations; without it no code is handed out.
+ */
+@Component
+public class PatientCodeGenerator {
+
+    private static final DateTimeFormatter DATE_PART = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    @Autowired
+    private IPatientRepository patientRepository;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private int blockSize;
+    private long next;
+    private long blockEnd;
+
+    public String nextCode() {
+        long number;
+        lock.lock();
+        try {
+            if (next >= blockEnd) {
+                if (blockSize == 0) {
+                    blockSize = patientRepository.findPatientCodeSequenceIncrement()
+                        .orElseThrow(() -> new RuntimeException(
+                            "Chưa có sequence PatientCodeSeq: cập nhật schema (db/migration) trước khi tạo bệnh nhân"));
+                }
+                next = patientRepository.nextPatientCodeBlock();
+                blockEnd = next + blockSize;
+            }
+            number = next++;
+        } finally {
+            lock.unlock();
+        }
+        return "P" + LocalDate.now().format(DATE_PART) + String.format("%06d", number);
+    }
+}
@@ -0,0 +1,353 @@
+package com.clinicSys.service.impl;
+
+import com.clinicSys.domain.Patient;
+import com.clinicSys.dto.response.PatientDTO;
+import com.clinicSys.event.PatientSavedEvent;
+import com.clinicSys.repository.IPatientRepository;
+import com.clinicSys.service.IPatientSearchService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+@Service
+public class PatientSearchServiceImpl implements IPatientSearchService {
+
+    private static final int DEFAULT_RESULTS = 20;
+    private static final int GRAM_SIZE = 3;
+    // Grams for the first one or two letters of a word, so short queries ("le", "an") still hit the index
+    private static final String PREFIX_MARK = "^";
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_DIGITS = Pattern.compile("\\D+");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final Comparator<Match> RANKING = Comparator
+        .comparingInt(Match::score).reversed()
+        .thenComparing(m -> m.entry().name())
+        .thenComparingInt(m -> m.entry().patient().patientID());
+
+    @Autowired
+    private IPatientRepository patientRepository;
+
+    // Replaced as a whole on rebuild; single-patient updates go through the write lock
+    private volatile IndexState state = new IndexState();
+    private final Object writeLock = new Object();
+    private List<Patient> updatesDuringRebuild;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuild();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPatientSaved(PatientSavedEvent event) {
+        index(event.patient());
+    }
+
+    @Override
+    public List<PatientDTO> search(String term, int limit) {
+        return find(term, limit, false);
+    }
+
+    @Override
+    public List<PatientDTO> searchByName(String name, int limit) {
+        return find(name, limit, true);
+    }
+
+    @Override
+    public void index(Patient patient) {
+        synchronized (writeLock) {
+            if (updatesDuringRebuild != null) {
+                updatesDuringRebuild.add(patient);
+            }
+            state.put(toEntry(patient));
+        }
+    }
+
+    @Override
+    public void rebuild() {
+        synchronized (writeLock) {
+            updatesDuringRebuild = new ArrayList<>();
+        }
+        IndexState rebuilt = new IndexState();
+        try {
+            for (Patient patient : patientRepository.findAll()) {
+                rebuilt.put(toEntry(patient));
+            }
+        } finally {
+            synchronized (writeLock) {
+                // Patients saved while the table was being read may be missing from the snapshot
+                for (Patient patient : updatesDuringRebuild) {
+                    rebuilt.put(toEntry(patient));
+                }
+                updatesDuringRebuild = null;
+                state = rebuilt;
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return state.entries.size();
+    }
+
+    private List<PatientDTO> find(String term, int limit, boolean nameOnly) {
+        if (term == null || term.trim().isEmpty()) {
+            return new ArrayList<>();
+        }
+        int maxResults = limit <= 0 ? DEFAULT_RESULTS : Math.min(limit, MAX_RESULTS);
+        String folded = fold(term);
+        List<String> tokens = tokenize(folded);
+        if (tokens.isEmpty()) {
+            return new ArrayList<>();
+        }
+        String rawLower = term.trim().toLowerCase(Locale.ROOT);
+
+        IndexState current = state;
+        PriorityQueue<Match> best = new PriorityQueue<>(RANKING.reversed());
+        for (Integer patientID : current.candidates(tokens)) {
+            Entry entry = current.entries.get(patientID);
+            if (entry == null) {
+                continue;
+            }
+            int score = score(entry, folded, tokens, rawLower, nameOnly);
+            if (score <= 0) {
+                continue;
+            }
+            best.add(new Match(entry, score));
+            if (best.size() > maxResults) {
+                best.poll();
+            }
+        }
+
+        List<Match> ranked = new ArrayList<>(best);
+        ranked.sort(RANKING);
+        List<PatientDTO> results = new ArrayList<>(ranked.size());
+        for (Match match : ranked) {
+            results.add(match.entry().patient());
+        }
+        return results;
+    }
+
+    /**
+     * @return 0 if a query token does not occur in the entry, otherwise a relevance score
+     */
+    private int score(Entry entry, String folded, List<String> tokens, String rawLower, boolean nameOnly) {
+        int score = 0;
+        if (!nameOnly) {
+            if (entry.code().equals(folded)) {
+                score += 1000;
+            }
+            if (!entry.phone().isEmpty() && entry.phone().equals(digits(folded))) {
+                score += 900;
+            }
+        }
+        if (entry.name().equals(folded)) {
+            score += 500;
+        } else if (entry.name().startsWith(folded)) {
+            score += 300;
+        }
+
+        for (String token : tokens) {
+            int tokenScore = 0;
+            for (String word : entry.words()) {
+                if (word.equals(token)) {
+                    tokenScore = Math.max(tokenScore, 40);
+                } else if (word.startsWith(token)) {
+                    tokenScore = Math.max(tokenScore, 20);
+                } else if (token.length() >= GRAM_SIZE && word.contains(token)) {
+                    tokenScore = Math.max(tokenScore, 5);
+                }
+            }
+            if (!nameOnly) {
+                String tokenDigits = digits(token);
+                if (entry.code().startsWith(token)
+                        || (!tokenDigits.isEmpty() && entry.phone().startsWith(tokenDigits))) {
+                    tokenScore = Math.max(tokenScore, 30);
+                } else if (token.length() >= GRAM_SIZE && (entry.code().contains(token)
+                        || (tokenDigits.length() >= GRAM_SIZE && entry.phone().contains(tokenDigits)))) {
+                    tokenScore = Math.max(tokenScore, 10);
+                }
+            }
+            if (tokenScore == 0) {
+                return 0;
+            }
+            score += tokenScore;
+        }
+
+        // Prefer the spelling the user actually typed ("Nguyễn" over "Nguyên" for "nguyễn")
+        for (String rawToken : SEPARATORS.split(rawLower)) {
+            if (!rawToken.isEmpty() && entry.rawName().contains(rawToken)) {
+                score += 15;
+            }
+        }
+        return score;
+    }
+
+    private Entry toEntry(Patient patient) {
+        String name = fold(patient.getFullName());
+        String phone = digits(patient.getPhone());
+        String code = fold(patient.getPatientCode());
+        List<String> words = tokenize(name);
+
+        Set<String> grams = new HashSet<>();
+        for (String word : words) {
+            addGrams(word, grams);
+        }
+        addGrams(phone, grams);
+        addGrams(code, grams);
+
+        return new Entry(
+            toDTO(patient),
+            name,
+            patient.getFullName() != null ? patient.getFullName().toLowerCase(Locale.ROOT) : "",
+            words,
+            phone,
+            code,
+            grams
+        );
+    }
+
+    private static void addGrams(String word, Set<String> grams) {
+        if (word.isEmpty()) {
+            return;
+        }
+        grams.add(PREFIX_MARK + word.substring(0, Math.min(1, word.length())));
+        grams.add(PREFIX_MARK + word.substring(0, Math.min(2, word.length())));
+        for (int i = 0; i + GRAM_SIZE <= word.length(); i++) {
+            grams.add(word.substring(i, i + GRAM_SIZE));
+        }
+    }
+
+    /**
+     * Grams a matching entry must contain for a query token
+     */
+    private static List<String> queryGrams(String token) {
+        List<String> grams = new ArrayList<>();
+        if (token.length() < GRAM_SIZE) {
+            grams.add(PREFIX_MARK + token);
+            return grams;
+        }
+        for (int i = 0; i + GRAM_SIZE <= token.length(); i++) {
+            grams.add(token.substring(i, i + GRAM_SIZE));
+        }
+        return grams;
+    }
+
+    /**
+     * Lower case, Vietnamese diacritics removed (đ → d), whitespace collapsed
+     */
+    static String fold(String value) {
+        if (value == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(value, Normalizer.Form.NFD);
+        String stripped = COMBINING_MARKS.matcher(decomposed).replaceAll("")
+            .replace('đ', 'd')
+            .replace('Đ', 'D');
+        return SPACES.matcher(stripped.toLowerCase(Locale.ROOT).trim()).replaceAll(" ");
+    }
+
+    private static String digits(String value) {
+        return value == null ? "" : NON_DIGITS.matcher(value).replaceAll("");
+    }
+
+    private static List<String> tokenize(String folded) {
+        if (folded.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(folded)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private PatientDTO toDTO(Patient patient) {
+        return new PatientDTO(
+            patient.getPatientID(),
+            patient.getPatientCode(),
+            patient.getFullName(),
+            patient.getDateOfBirth(),
+            patient.getGender(),
+            patient.getAddress(),
+            patient.getPhone(),
+            patient.getEmail()
+        );
+    }
+
+    private record Entry(
+        PatientDTO patient,
+        String name,
+        String rawName,
+        List<String> words,
+        String phone,
+        String code,
+        Set<String> grams
+    ) {}
+
+    private record Match(Entry entry, int score) {}
+
+    private static final class IndexState {
+        private final Map<Integer, Entry> entries = new ConcurrentHashMap<>();
+        private final Map<String, Set<Integer>> postings = new ConcurrentHashMap<>();
+
+        private void put(Entry entry) {
+            int patientID = entry.patient().patientID();
+            Entry previous = entries.put(patientID, entry);
+            for (String gram : entry.grams()) {
+                postings.computeIfAbsent(gram, g -> ConcurrentHashMap.newKeySet()).add(patientID);
+            }
+            if (previous != null) {
+                for (String gram : previous.grams()) {
+                    if (!entry.grams().contains(gram)) {
+                        Set<Integer> ids = postings.get(gram);
+                        if (ids != null) {
+                            ids.remove(patientID);
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * Intersects the posting lists of all query grams, smallest list first
+         */
+        private Set<Integer> candidates(List<String> tokens) {
+            List<Set<Integer>> lists = new ArrayList<>();
+            for (String token : tokens) {
+                for (String gram : queryGrams(token)) {
+                    Set<Integer> ids = postings.get(gram);
+                    if (ids == null || ids.isEmpty()) {
+                        return Collections.emptySet();
+                    }
+                    lists.add(ids);
+                }
+            }
+            lists.sort(Comparator.comparingInt(Set::size));
+            Set<Integer> result = new HashSet<>(lists.get(0));
+            for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+                result.retainAll(lists.get(i));
+            }
+            return result;
+        }
+    }
+}
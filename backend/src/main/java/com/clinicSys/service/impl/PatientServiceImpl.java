@@ -1,18 +1,30 @@
 package com.clinicSys.service.impl;
 
+import com.clinicSys.domain.IdempotencyRecord;
 import com.clinicSys.domain.Patient;
 import com.clinicSys.dto.request.CreatePatientDTO;
 import com.clinicSys.dto.request.UpdatePatientDTO;
+import com.clinicSys.dto.response.PageDTO;
 import com.clinicSys.dto.response.PatientDTO;
+import com.clinicSys.event.PatientSavedEvent;
+import com.clinicSys.repository.IIdempotencyRecordRepository;
 import com.clinicSys.repository.IPatientRepository;
+import com.clinicSys.service.IPatientSearchService;
 import com.clinicSys.service.IPatientService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Random;
+import java.util.Locale;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -21,28 +33,83 @@ public class PatientServiceImpl implements IPatientService {
     @Autowired
     private IPatientRepository patientRepository;
 
+    private static final String CREATE_PATIENT_OPERATION = "CreatePatient";
+    private static final int IDEMPOTENCY_KEY_MAX_LENGTH = 100;
+
+    @Autowired
+    private IPatientSearchService patientSearchService;
+
+    @Autowired
+    private IIdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private PatientCodeGenerator patientCodeGenerator;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${clinic.idempotency.retention-hours:24}")
+    private int idempotencyRetentionHours;
+
     @Override
     public PatientDTO createPatient(CreatePatientDTO createPatientDTO) {
-        // Check if phone already exists
-        if (createPatientDTO.phone() != null && !createPatientDTO.phone().trim().isEmpty()) {
-            patientRepository.findByPhone(createPatientDTO.phone().trim())
-                .ifPresent(patient -> {
-                    throw new RuntimeException("Số điện thoại đã tồn tại trong hệ thống");
-                });
+        return createPatient(createPatientDTO, null);
+    }
+
+    @Override
+    public PatientDTO createPatient(CreatePatientDTO createPatientDTO, String idempotencyKey) {
+        String key = idempotencyKey != null && !idempotencyKey.trim().isEmpty() ? idempotencyKey.trim() : null;
+        if (key != null) {
+            if (key.length() > IDEMPOTENCY_KEY_MAX_LENGTH) {
+                throw new RuntimeException("Idempotency-Key không được dài quá " + IDEMPOTENCY_KEY_MAX_LENGTH + " ký tự");
+            }
+            Optional<PatientDTO> earlier = findCreatedWithKey(key);
+            if (earlier.isPresent()) {
+                return earlier.get();
+            }
         }
 
-        // Check if email already exists (if provided)
-        if (createPatientDTO.email() != null && !createPatientDTO.email().trim().isEmpty()) {
-            // Note: We don't have findByEmail method, so we'll skip this check for now
-            // or we can add it later if needed
+        Patient savedPatient;
+        try {
+            // The key row is inserted first, so a concurrent retry with the same key waits on it
+            // and then fails, instead of racing to insert the same patient
+            savedPatient = transactionTemplate.execute(status -> {
+                IdempotencyRecord record = key != null
+                    ? idempotencyRecordRepository.insert(
+                        new IdempotencyRecord(key, CREATE_PATIENT_OPERATION, null, LocalDateTime.now()))
+                    : null;
+                Patient patient = patientRepository.save(newPatient(createPatientDTO));
+                if (record != null) {
+                    record.setResourceID(patient.getPatientID());
+                }
+                return patient;
+            });
+        } catch (DataIntegrityViolationException e) {
+            if (key != null) {
+                Optional<PatientDTO> earlier = findCreatedWithKey(key);
+                if (earlier.isPresent()) {
+                    return earlier.get();
+                }
+            }
+            throw translateUniqueViolation(e);
         }
+        patientSearchService.index(savedPatient);
 
-        // Generate patient code: P + YYYYMMDD + random 4 digits
-        String patientCode = generatePatientCode();
+        return convertToDTO(savedPatient);
+    }
+
+    // Drops keys that clients can no longer be retrying with
+    @Scheduled(fixedDelayString = "${clinic.idempotency.purge-ms:3600000}")
+    public void purgeIdempotencyKeys() {
+        idempotencyRecordRepository.deleteCreatedBefore(LocalDateTime.now().minusHours(idempotencyRetentionHours));
+    }
 
-        // Create new patient
+    private Patient newPatient(CreatePatientDTO createPatientDTO) {
         Patient patient = new Patient();
-        patient.setPatientCode(patientCode);
+        patient.setPatientCode(patientCodeGenerator.nextCode());
         patient.setFullName(createPatientDTO.fullName());
         patient.setDateOfBirth(createPatientDTO.dateOfBirth());
         patient.setGender(createPatientDTO.gender());
@@ -51,24 +118,30 @@ public class PatientServiceImpl implements IPatientService {
         patient.setEmail(createPatientDTO.email() != null && !createPatientDTO.email().trim().isEmpty() 
             ? createPatientDTO.email().trim() 
             : null);
+        return patient;
+    }
 
-        Patient savedPatient = patientRepository.save(patient);
-
-        return convertToDTO(savedPatient);
+    private Optional<PatientDTO> findCreatedWithKey(String key) {
+        return idempotencyRecordRepository.findByKey(key).map(record -> {
+            if (!CREATE_PATIENT_OPERATION.equals(record.getOperation()) || record.getResourceID() == null) {
+                throw new RuntimeException("Idempotency-Key đã được dùng cho một yêu cầu khác");
+            }
+            return getPatientById(record.getResourceID());
+        });
     }
 
-    private String generatePatientCode() {
-        // Format: P + YYYYMMDD + random 4 digits
-        LocalDate today = LocalDate.now();
-        String datePart = today.format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-        Random random = new Random();
-        int randomPart = 1000 + random.nextInt(9000); // 4-digit random number
-        
-        String code = "P" + datePart + randomPart;
-        
-        // Check if code already exists (very unlikely but check anyway)
-        // Since we don't have findByPatientCode, we'll just use this format
-        return code;
+    /**
+     * Maps a unique constraint violation on Patient to the message the check-then-insert used to give
+     */
+    private RuntimeException translateUniqueViolation(DataIntegrityViolationException e) {
+        String message = String.valueOf(NestedExceptionUtils.getMostSpecificCause(e).getMessage()).toUpperCase(Locale.ROOT);
+        if (message.contains("UQ_PATIENT_PHONE")) {
+            return new RuntimeException("Số điện thoại đã tồn tại trong hệ thống");
+        }
+        if (message.contains("UQ_PATIENT_EMAIL")) {
+            return new RuntimeException("Email đã tồn tại trong hệ thống");
+        }
+        return e;
     }
 
     @Override
@@ -79,6 +152,17 @@ public class PatientServiceImpl implements IPatientService {
             .collect(Collectors.toList());
     }
 
+    @Override
+    public PageDTO<PatientDTO> getPatientsPage(String cursor, int limit) {
+        int pageSize = PageCursor.pageSize(limit);
+        // Fetch one extra row to know whether there is a next page
+        List<Patient> rows = patientRepository.findPageAfter(PageCursor.decodeId(cursor), pageSize + 1);
+        List<PatientDTO> items = PageCursor.trim(rows, pageSize).stream()
+            .map(this::convertToDTO)
+            .collect(Collectors.toList());
+        return new PageDTO<>(items, PageCursor.next(rows, pageSize, p -> String.valueOf(p.getPatientID())));
+    }
+
     @Override
     public PatientDTO getPatientById(int patientId) {
         Patient patient = patientRepository.findById(patientId)
@@ -87,17 +171,15 @@ public class PatientServiceImpl implements IPatientService {
     }
 
     @Override
-    public List<PatientDTO> searchPatients(String searchTerm) {
+    public List<PatientDTO> searchPatients(String searchTerm, int limit) {
         if (searchTerm == null || searchTerm.trim().isEmpty()) {
             return getAllPatients();
         }
-        List<Patient> patients = patientRepository.searchPatients(searchTerm.trim());
-        return patients.stream()
-            .map(this::convertToDTO)
-            .collect(Collectors.toList());
+        return patientSearchService.search(searchTerm, limit);
     }
 
     @Override
+    @Transactional
     public PatientDTO updatePatient(int patientId, UpdatePatientDTO updatePatientDTO) {
         Patient patient = patientRepository.findById(patientId)
             .orElseThrow(() -> new RuntimeException("Patient not found with ID: " + patientId));
@@ -123,6 +205,8 @@ public class PatientServiceImpl implements IPatientService {
             : null);
 
         Patient updatedPatient = patientRepository.save(patient);
+        // Indexed after commit: the flush can still fail, e.g. on a duplicate email
+        eventPublisher.publishEvent(new PatientSavedEvent(updatedPatient));
         return convertToDTO(updatedPatient);
     }
 
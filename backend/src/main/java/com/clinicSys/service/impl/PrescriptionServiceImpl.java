@@ -1,23 +1,27 @@
 package com.clinicSys.service.impl;
 
+import com.clinicSys.config.Audited;
 import com.clinicSys.domain.*;
 import com.clinicSys.dto.request.SavePrescriptionDTO;
 import com.clinicSys.dto.response.MedicineDTO;
 import com.clinicSys.dto.response.PrescriptionDTO;
 import com.clinicSys.dto.response.PrescriptionItemDTO;
 import com.clinicSys.repository.*;
+import com.clinicSys.service.IMedicineSearchService;
 import com.clinicSys.service.IPrescriptionService;
-import com.clinicSys.repository.IMedicineGroupRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -36,20 +40,15 @@ public class PrescriptionServiceImpl implements IPrescriptionService {
     private IPrescriptionMedicineRepository prescriptionMedicineRepository;
 
     @Autowired
-    private IMedicineGroupRepository medicineGroupRepository;
+    private IMedicineSearchService medicineSearchService;
 
     @Override
-    public List<MedicineDTO> searchMedicines(String searchTerm) {
-        if (searchTerm == null || searchTerm.trim().isEmpty()) {
-            return new ArrayList<>();
-        }
-        List<Medicine> medicines = medicineRepository.searchByName(searchTerm.trim());
-        return medicines.stream()
-            .map(this::convertToMedicineDTO)
-            .collect(Collectors.toList());
+    public List<MedicineDTO> searchMedicines(String searchTerm, boolean inStockOnly) {
+        return medicineSearchService.search(searchTerm, IMedicineSearchService.MAX_RESULTS, inStockOnly);
     }
 
     @Override
+    @Audited(action = "Read", entity = "Prescription")
     public PrescriptionDTO getPrescriptionByAppointmentID(int appointmentID) {
         // Get MedicalRecord for this appointment
         Optional<MedicalRecord> medicalRecord = medicalRecordRepository.findByAppointmentID(appointmentID);
@@ -88,9 +87,7 @@ public class PrescriptionServiceImpl implements IPrescriptionService {
         
         // Get prescription items
         List<PrescriptionMedicine> items = prescriptionMedicineRepository.findByPrescriptionID(pres.getPrescriptionID());
-        List<PrescriptionItemDTO> itemDTOs = items.stream()
-            .map(this::convertToPrescriptionItemDTO)
-            .collect(Collectors.toList());
+        List<PrescriptionItemDTO> itemDTOs = convertToPrescriptionItemDTOs(items);
 
         return new PrescriptionDTO(
             pres.getPrescriptionID(),
@@ -104,6 +101,8 @@ public class PrescriptionServiceImpl implements IPrescriptionService {
     }
 
     @Override
+    @Transactional
+    @Audited(action = "Update", entity = "Prescription")
     public PrescriptionDTO savePrescription(SavePrescriptionDTO saveDTO) {
         // Get current authenticated doctor
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -144,34 +143,23 @@ public class PrescriptionServiceImpl implements IPrescriptionService {
 
         prescription = prescriptionRepository.save(prescription);
 
-        // Delete existing prescription items
+        // Replace existing prescription items: one bulk delete and one batched insert
         prescriptionMedicineRepository.deleteByPrescriptionID(prescription.getPrescriptionID());
 
-        // Save new prescription items
-        List<PrescriptionItemDTO> savedItems = new ArrayList<>();
+        List<PrescriptionMedicine> newItems = new ArrayList<>();
         for (SavePrescriptionDTO.PrescriptionItemRequestDTO itemDTO : saveDTO.items()) {
             PrescriptionMedicine pm = new PrescriptionMedicine();
             pm.setPrescriptionID(prescription.getPrescriptionID());
             pm.setMedicineID(itemDTO.medicineID());
             pm.setQuantity(itemDTO.quantity());
             pm.setNote(itemDTO.note());
-            pm = prescriptionMedicineRepository.save(pm);
-            
-            // Convert to DTO
-            Optional<Medicine> medicine = medicineRepository.findById(itemDTO.medicineID());
-            if (medicine.isPresent()) {
-                Medicine med = medicine.get();
-                savedItems.add(new PrescriptionItemDTO(
-                    pm.getPrescriptionMedicineID(),
-                    med.getMedicineID(),
-                    med.getName(),
-                    med.getMedicineCode(),
-                    med.getStrength(),
-                    pm.getQuantity(),
-                    pm.getNote()
-                ));
-            }
+            newItems.add(pm);
         }
+        prescriptionMedicineRepository.insertAll(newItems);
+
+        // Reload the saved items with their generated IDs
+        List<PrescriptionItemDTO> savedItems = convertToPrescriptionItemDTOs(
+            prescriptionMedicineRepository.findByPrescriptionID(prescription.getPrescriptionID()));
 
         return new PrescriptionDTO(
             prescription.getPrescriptionID(),
@@ -184,44 +172,29 @@ public class PrescriptionServiceImpl implements IPrescriptionService {
         );
     }
 
-    private MedicineDTO convertToMedicineDTO(Medicine medicine) {
-        // Get medicine group name
-        String groupName = "Unknown";
-        Optional<MedicineGroup> group = medicineGroupRepository.findById(medicine.getMedicineGroupID());
-        if (group.isPresent()) {
-            groupName = group.get().getName();
-        }
-
-        return new MedicineDTO(
-            medicine.getMedicineID(),
-            medicine.getMedicineCode(),
-            medicine.getName(),
-            groupName,
-            medicine.getMedicineGroupID(),
-            medicine.getStrength(),
-            medicine.getUnit(),
-            medicine.getPrice(),
-            medicine.getStock(),
-            medicine.getStatus()
-        );
-    }
-
-    private PrescriptionItemDTO convertToPrescriptionItemDTO(PrescriptionMedicine pm) {
-        Optional<Medicine> medicine = medicineRepository.findById(pm.getMedicineID());
-        if (medicine.isEmpty()) {
-            throw new RuntimeException("Medicine not found: " + pm.getMedicineID());
+    private List<PrescriptionItemDTO> convertToPrescriptionItemDTOs(List<PrescriptionMedicine> items) {
+        // Resolve all medicines of the prescription with one IN-list query
+        Map<Integer, Medicine> medicines = medicineRepository.findAllByIds(
+                items.stream().map(PrescriptionMedicine::getMedicineID).collect(Collectors.toSet()))
+            .stream()
+            .collect(Collectors.toMap(Medicine::getMedicineID, Function.identity()));
+
+        List<PrescriptionItemDTO> itemDTOs = new ArrayList<>();
+        for (PrescriptionMedicine pm : items) {
+            Medicine med = medicines.get(pm.getMedicineID());
+            if (med == null) {
+                throw new RuntimeException("Medicine not found: " + pm.getMedicineID());
+            }
+            itemDTOs.add(new PrescriptionItemDTO(
+                pm.getPrescriptionMedicineID(),
+                med.getMedicineID(),
+                med.getName(),
+                med.getMedicineCode(),
+                med.getStrength(),
+                pm.getQuantity(),
+                pm.getNote()
+            ));
         }
-
-        Medicine med = medicine.get();
-        return new PrescriptionItemDTO(
-            pm.getPrescriptionMedicineID(),
-            med.getMedicineID(),
-            med.getName(),
-            med.getMedicineCode(),
-            med.getStrength(),
-            pm.getQuantity(),
-            pm.getNote()
-        );
+        return itemDTOs;
     }
 }
-
@@ -0,0 +1,178 @@
+package com.clinicSys.service.impl;
+
+import com.clinicSys.domain.User;
+import com.clinicSys.dto.response.QueueEventDTO;
+import com.clinicSys.event.AppointmentStatusChangedEvent;
+import com.clinicSys.service.IQueueStreamService;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class QueueStreamServiceImpl implements IQueueStreamService {
+
+    static final String STATUS_EVENT = "appointment-status";
+    // Sent when a subscriber's buffer overflowed: the client must reload the full dashboard
+    static final String RESYNC_EVENT = "resync";
+
+    @Value("${queue.stream.buffer-size:64}")
+    private int bufferSize;
+
+    @Value("${queue.stream.timeout-ms:1800000}")
+    private long timeoutMillis;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicLong sequence = new AtomicLong();
+    // Sends happen here so a slow client never blocks the request that changed the appointment
+    private final ExecutorService sender = Executors.newFixedThreadPool(4, runnable -> {
+        Thread thread = new Thread(runnable, "queue-stream-sender");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Override
+    public SseEmitter subscribeClinic() {
+        return subscribe(null);
+    }
+
+    @Override
+    public SseEmitter subscribeCurrentDoctor() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication.getPrincipal() == null) {
+            throw new RuntimeException("Không tìm thấy thông tin xác thực. Vui lòng đăng nhập lại.");
+        }
+        User currentDoctor = (User) authentication.getPrincipal();
+        return subscribe(currentDoctor.getUserID());
+    }
+
+    @Override
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStatusChanged(AppointmentStatusChangedEvent event) {
+        QueueEventDTO queueEvent = new QueueEventDTO(
+            sequence.incrementAndGet(),
+            event.appointmentID(),
+            event.doctorID(),
+            event.patientID(),
+            event.status(),
+            event.dateTime()
+        );
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.doctorID == null || subscriber.doctorID == queueEvent.doctorID()) {
+                subscriber.offer(queueEvent);
+            }
+        }
+    }
+
+    @Scheduled(fixedRateString = "${queue.stream.heartbeat-ms:25000}")
+    public void sendHeartbeats() {
+        for (Subscriber subscriber : subscribers) {
+            sender.execute(() -> subscriber.send(SseEmitter.event().comment("ping")));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        subscribers.clear();
+    }
+
+    private SseEmitter subscribe(Integer doctorID) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(doctorID, emitter, new ArrayBlockingQueue<>(bufferSize));
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        return emitter;
+    }
+
+    private final class Subscriber {
+        private final Integer doctorID;
+        private final SseEmitter emitter;
+        private final BlockingQueue<QueueEventDTO> buffer;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean overflowed;
+
+        private Subscriber(Integer doctorID, SseEmitter emitter, BlockingQueue<QueueEventDTO> buffer) {
+            this.doctorID = doctorID;
+            this.emitter = emitter;
+            this.buffer = buffer;
+        }
+
+        private void offer(QueueEventDTO event) {
+            if (!buffer.offer(event)) {
+                // Client is not keeping up: drop what is queued and tell it to reload once
+                buffer.clear();
+                overflowed = true;
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                if (overflowed) {
+                    overflowed = false;
+                    if (!send(SseEmitter.event().name(RESYNC_EVENT).data("reload"))) {
+                        return;
+                    }
+                }
+                QueueEventDTO event;
+                while ((event = buffer.poll()) != null) {
+                    if (!send(SseEmitter.event()
+                            .id(String.valueOf(event.eventID()))
+                            .name(STATUS_EVENT)
+                            .data(event))) {
+                        return;
+                    }
+                }
+            } finally {
+                draining.set(false);
+            }
+            // An event may have arrived between the last poll and releasing the flag
+            if (!buffer.isEmpty() || overflowed) {
+                scheduleDrain();
+            }
+        }
+
+        private boolean send(SseEmitter.SseEventBuilder event) {
+            try {
+                emitter.send(event);
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                subscribers.remove(this);
+                buffer.clear();
+                emitter.completeWithError(e);
+                return false;
+            }
+        }
+    }
+}
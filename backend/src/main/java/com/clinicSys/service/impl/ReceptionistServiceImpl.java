@@ -1,8 +1,9 @@
 package com.clinicSys.service.impl;
 
 import com.clinicSys.domain.Appointment;
+import com.clinicSys.domain.AppointmentService;
+import com.clinicSys.domain.AppointmentStatus;
 import com.clinicSys.domain.Patient;
-import com.clinicSys.domain.Service;
 import com.clinicSys.domain.User;
 import com.clinicSys.dto.request.CreateAppointmentDTO;
 import com.clinicSys.dto.response.AppointmentDetailsDTO;
@@ -11,28 +12,47 @@ import com.clinicSys.dto.response.PatientDTO;
 import com.clinicSys.dto.response.ReceptionistDashboardDTO;
 import com.clinicSys.dto.response.ServiceDTO;
 import com.clinicSys.dto.response.UserDTO;
+import com.clinicSys.event.AppointmentStatusChangedEvent;
 import com.clinicSys.repository.IAppointmentRepository;
-import com.clinicSys.repository.IBillRepository;
+import com.clinicSys.repository.IAppointmentServiceRepository;
 import com.clinicSys.repository.IPatientRepository;
 import com.clinicSys.repository.IUserRepository;
+import com.clinicSys.service.IDailyStatsService;
+import com.clinicSys.service.IPatientSearchService;
 import com.clinicSys.service.IReceptionistService;
 import com.clinicSys.service.IServiceService;
+import com.clinicSys.service.ISlotService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 public class ReceptionistServiceImpl implements IReceptionistService {
 
+    // Statuses listed on the dashboard and the subset that makes up the live queue
+    private static final Set<AppointmentStatus> DASHBOARD_STATUSES = EnumSet.of(
+        AppointmentStatus.SCHEDULED, AppointmentStatus.CHECKED_IN,
+        AppointmentStatus.IN_CONSULTATION, AppointmentStatus.COMPLETED);
+    private static final Set<AppointmentStatus> QUEUE_STATUSES = EnumSet.of(
+        AppointmentStatus.CHECKED_IN, AppointmentStatus.IN_CONSULTATION, AppointmentStatus.COMPLETED);
+
     @Autowired
     private IAppointmentRepository appointmentRepository;
 
@@ -43,11 +63,26 @@ public class ReceptionistServiceImpl implements IReceptionistService {
     private IUserRepository userRepository;
 
     @Autowired
-    private IBillRepository billRepository;
+    private IAppointmentServiceRepository appointmentServiceRepository;
 
     @Autowired
     private IServiceService serviceService;
 
+    @Autowired
+    private IDailyStatsService dailyStatsService;
+
+    @Autowired
+    private IPatientSearchService patientSearchService;
+
+    @Autowired
+    private ISlotService slotService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ParallelQueryTemplate parallelQueries;
+
     @Override
     public ReceptionistDashboardDTO getDashboard() {
         // Get today's date range
@@ -55,77 +90,41 @@ public class ReceptionistServiceImpl implements IReceptionistService {
         LocalDateTime startOfToday = today.atStartOfDay();
         LocalDateTime endOfToday = today.atTime(LocalTime.MAX);
 
-        // Get all today's appointments
-        List<Appointment> allTodayAppointments = appointmentRepository.findAllByDateTimeBetween(
-            startOfToday, endOfToday);
-
-        // Filter today's appointments: Scheduled, Checked-in, In Consultation, Completed
-        List<Appointment> todayAppointments = allTodayAppointments.stream()
-            .filter(a -> {
-                String status = a.getStatus();
-                return "Scheduled".equalsIgnoreCase(status) ||
-                       "Checked-in".equalsIgnoreCase(status) ||
-                       "check-in".equalsIgnoreCase(status) ||
-                       "In Consultation".equalsIgnoreCase(status) ||
-                       "in consultation".equalsIgnoreCase(status) ||
-                       "Completed".equalsIgnoreCase(status) ||
-                       "completed".equalsIgnoreCase(status);
-            })
-            .collect(Collectors.toList());
+        // Today's appointments in the statuses shown on the dashboard, with patient and doctor names;
+        // the status filter is an IN predicate on the (DateTime, Status) index
+        ParallelQueryTemplate.Query<List<AppointmentWithDoctorDTO>> appointments = parallelQueries.submit(
+            "receptionist.todayAppointments", today,
+            () -> appointmentRepository.findAppointmentsWithDoctorByDateRangeAndStatuses(startOfToday, endOfToday, DASHBOARD_STATUSES));
+        // Revenue of today's paid bills, kept as a running total in DailyClinicStats
+        ParallelQueryTemplate.Query<BigDecimal> revenue = parallelQueries.submit(
+            "receptionist.revenue", today, () -> dailyStatsService.getRevenue(today));
+
+        // Total slots today from the active doctors' working hours (in memory, while the queries run)
+        long totalSlotsToday = slotService.countSlots(today);
+
+        List<AppointmentWithDoctorDTO> todayAppointments = appointments.get();
 
         // Calculate statistics
         long appointmentsToday = todayAppointments.size();
-        
-        // Total slots today - assuming 30 slots per day (can be configured)
-        long totalSlotsToday = 30L;
-        
-        // Count patients checked in
-        long patientsCheckedIn = allTodayAppointments.stream()
-            .filter(a -> {
-                String status = a.getStatus();
-                return "Checked-in".equalsIgnoreCase(status) ||
-                       "check-in".equalsIgnoreCase(status);
-            })
-            .count();
-        
-        // Count patients waiting (Checked-in, In Consultation, Completed)
-        long patientsWaiting = allTodayAppointments.stream()
-            .filter(a -> {
-                String status = a.getStatus();
-                return "Checked-in".equalsIgnoreCase(status) ||
-                       "check-in".equalsIgnoreCase(status) ||
-                       "In Consultation".equalsIgnoreCase(status) ||
-                       "in consultation".equalsIgnoreCase(status) ||
-                       "Completed".equalsIgnoreCase(status) ||
-                       "completed".equalsIgnoreCase(status);
-            })
-            .count();
-
-        // Calculate estimated revenue from today's appointments
-        // This can be based on completed appointments or all appointments
-        BigDecimal estimatedRevenue = billRepository.getTotalRevenueByDateRange(startOfToday, endOfToday);
-        if (estimatedRevenue == null) {
-            estimatedRevenue = BigDecimal.ZERO;
+
+        // Count checked-in patients and build the live queue from the same rows:
+        // Checked-in → Waiting, In Consultation → In Consultation, Completed → Ready for Billing
+        long patientsCheckedIn = 0;
+        List<AppointmentWithDoctorDTO> liveQueue = new ArrayList<>();
+        for (AppointmentWithDoctorDTO appointment : todayAppointments) {
+            AppointmentStatus status = AppointmentStatus.fromLabel(appointment.status());
+            if (status == AppointmentStatus.CHECKED_IN) {
+                patientsCheckedIn++;
+            }
+            if (QUEUE_STATUSES.contains(status)) {
+                liveQueue.add(toQueueEntry(appointment, status));
+            }
         }
 
-        // Convert today's appointments to DTOs
-        List<AppointmentWithDoctorDTO> todayAppointmentDTOs = todayAppointments.stream()
-            .map(this::convertToAppointmentWithDoctorDTO)
-            .collect(Collectors.toList());
+        // Patients waiting: Checked-in, In Consultation, Completed
+        long patientsWaiting = liveQueue.size();
 
-        // Create live queue: Checked-in → Waiting, In Consultation → In Consultation, Completed → Ready for Billing
-        List<AppointmentWithDoctorDTO> liveQueue = allTodayAppointments.stream()
-            .filter(a -> {
-                String status = a.getStatus();
-                return "Checked-in".equalsIgnoreCase(status) ||
-                       "check-in".equalsIgnoreCase(status) ||
-                       "In Consultation".equalsIgnoreCase(status) ||
-                       "in consultation".equalsIgnoreCase(status) ||
-                       "Completed".equalsIgnoreCase(status) ||
-                       "completed".equalsIgnoreCase(status);
-            })
-            .map(this::convertToAppointmentWithDoctorDTOForQueue)
-            .collect(Collectors.toList());
+        BigDecimal estimatedRevenue = revenue.get();
 
         return new ReceptionistDashboardDTO(
             appointmentsToday,
@@ -133,7 +132,7 @@ public class ReceptionistServiceImpl implements IReceptionistService {
             patientsCheckedIn,
             patientsWaiting,
             estimatedRevenue,
-            todayAppointmentDTOs,
+            todayAppointments,
             liveQueue
         );
     }
@@ -154,7 +153,7 @@ public class ReceptionistServiceImpl implements IReceptionistService {
             return new AppointmentWithDoctorDTO(
                 appointment.getAppointmentID(),
                 appointment.getDateTime(),
-                appointment.getStatus(), // Keep original status
+                appointment.getStatus().getLabel(),
                 appointment.getPatientID(),
                 patientName,
                 appointment.getDoctorID(),
@@ -165,60 +164,26 @@ public class ReceptionistServiceImpl implements IReceptionistService {
         }
     }
 
-    private AppointmentWithDoctorDTO convertToAppointmentWithDoctorDTOForQueue(Appointment appointment) {
-        try {
-            Patient patient = patientRepository.findById(appointment.getPatientID())
-                .orElseThrow(() -> new RuntimeException("Patient not found with ID: " + appointment.getPatientID()));
-            
-            User doctor = userRepository.findById(appointment.getDoctorID())
-                .orElseThrow(() -> new RuntimeException("Doctor not found with ID: " + appointment.getDoctorID()));
-
-            String patientName = patient.getFullName() != null ? patient.getFullName() : "Unknown";
-            String doctorName = doctor.getFullName() != null && !doctor.getFullName().isEmpty()
-                ? doctor.getFullName()
-                : doctor.getUsername();
-
-            // Map status for queue display
-            String queueStatus = mapStatusForQueue(appointment.getStatus());
-
-            return new AppointmentWithDoctorDTO(
-                appointment.getAppointmentID(),
-                appointment.getDateTime(),
-                queueStatus, // Mapped status for queue
-                appointment.getPatientID(),
-                patientName,
-                appointment.getDoctorID(),
-                doctorName
-            );
-        } catch (Exception e) {
-            throw new RuntimeException("Lỗi khi chuyển đổi appointment ID " + appointment.getAppointmentID() + ": " + e.getMessage(), e);
-        }
+    private AppointmentWithDoctorDTO toQueueEntry(AppointmentWithDoctorDTO appointment, AppointmentStatus status) {
+        // Map status for queue display
+        return new AppointmentWithDoctorDTO(
+            appointment.appointmentID(),
+            appointment.dateTime(),
+            mapStatusForQueue(status),
+            appointment.patientID(),
+            appointment.patientName(),
+            appointment.doctorID(),
+            appointment.doctorName()
+        );
     }
 
-    private String mapStatusForQueue(String originalStatus) {
-        if (originalStatus == null) {
-            return "Waiting";
-        }
-        
-        String status = originalStatus.trim();
-        
-        // Checked-in → Waiting
-        if ("Checked-in".equalsIgnoreCase(status) || "check-in".equalsIgnoreCase(status)) {
-            return "Waiting";
-        }
-        
-        // In Consultation → In Consultation
-        if ("In Consultation".equalsIgnoreCase(status) || "in consultation".equalsIgnoreCase(status)) {
-            return "In Consultation";
-        }
-        
-        // Completed → Ready for Billing
-        if ("Completed".equalsIgnoreCase(status) || "completed".equalsIgnoreCase(status)) {
-            return "Ready for Billing";
-        }
-        
-        // Default
-        return "Waiting";
+    private String mapStatusForQueue(AppointmentStatus status) {
+        return switch (status) {
+            case IN_CONSULTATION -> "In Consultation";
+            case COMPLETED -> "Ready for Billing";
+            // Checked-in → Waiting
+            default -> "Waiting";
+        };
     }
 
     @Override
@@ -230,11 +195,7 @@ public class ReceptionistServiceImpl implements IReceptionistService {
         LocalDateTime startOfWeek = monday.atStartOfDay();
         LocalDateTime endOfWeek = sunday.atTime(LocalTime.MAX);
         
-        List<Appointment> appointments = appointmentRepository.findAllByDateTimeBetween(startOfWeek, endOfWeek);
-        
-        return appointments.stream()
-            .map(this::convertToAppointmentWithDoctorDTO)
-            .collect(Collectors.toList());
+        return appointmentRepository.findAppointmentsWithDoctorByDateRange(startOfWeek, endOfWeek);
     }
 
     @Override
@@ -251,7 +212,7 @@ public class ReceptionistServiceImpl implements IReceptionistService {
         return new AppointmentDetailsDTO(
             appointment.getAppointmentID(),
             appointment.getDateTime(),
-            appointment.getStatus(),
+            appointment.getStatus().getLabel(),
             patient.getPatientID(),
             patient.getPatientCode(),
             patient.getFullName(),
@@ -269,23 +230,24 @@ public class ReceptionistServiceImpl implements IReceptionistService {
     }
 
     @Override
+    @Transactional
     public AppointmentDetailsDTO updateAppointmentStatus(int appointmentId, String newStatus) {
         Appointment appointment = appointmentRepository.findById(appointmentId)
             .orElseThrow(() -> new RuntimeException("Appointment not found with ID: " + appointmentId));
-        
-        appointment.setStatus(newStatus);
+
+        AppointmentStatus status = AppointmentStatus.fromLabel(newStatus);
+        appointment.getStatus().requireTransitionTo(status);
+        appointment.setStatus(status);
         Appointment updatedAppointment = appointmentRepository.save(appointment);
+        eventPublisher.publishEvent(AppointmentStatusChangedEvent.of(updatedAppointment));
         
         // Return updated appointment details
         return getAppointmentById(updatedAppointment.getAppointmentID());
     }
 
     @Override
-    public List<PatientDTO> searchPatientsByName(String name) {
-        List<Patient> patients = patientRepository.searchPatientsByName(name);
-        return patients.stream()
-            .map(this::convertPatientToDTO)
-            .collect(Collectors.toList());
+    public List<PatientDTO> searchPatientsByName(String name, int limit) {
+        return patientSearchService.searchByName(name, limit);
     }
 
     @Override
@@ -302,6 +264,7 @@ public class ReceptionistServiceImpl implements IReceptionistService {
     }
 
     @Override
+    @Transactional
     public AppointmentWithDoctorDTO createAppointment(CreateAppointmentDTO createAppointmentDTO) {
         // Get current authenticated receptionist
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -328,27 +291,34 @@ public class ReceptionistServiceImpl implements IReceptionistService {
         appointment.setDoctorID(createAppointmentDTO.doctorID());
         appointment.setReceptionistID(receptionistID);
         appointment.setDateTime(createAppointmentDTO.dateTime());
-        appointment.setStatus("Scheduled");
+        appointment.setStatus(AppointmentStatus.SCHEDULED);
 
-        Appointment savedAppointment = appointmentRepository.save(appointment);
+        // Take the doctor's slot first: fails on overlap, and is released again if the insert rolls back
+        slotService.reserve(appointment.getDoctorID(), appointment.getDateTime());
+
+        dailyStatsService.recordAppointmentBooked(appointment.getPatientID(), appointment.getDateTime());
+        Appointment savedAppointment;
+        try {
+            savedAppointment = appointmentRepository.save(appointment);
+        } catch (DataIntegrityViolationException e) {
+            // Taken on another node, or outside createAppointment, since this node loaded the day
+            String message = String.valueOf(NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+            if (message.toUpperCase(Locale.ROOT).contains("UX_APPOINTMENT_DOCTORID_DATETIME")) {
+                throw new RuntimeException("Bác sĩ đã có lịch hẹn khác trong khung giờ này");
+            }
+            throw e;
+        }
+        if (createAppointmentDTO.serviceID() != null) {
+            // The booked service is the first line of the appointment's bill
+            appointmentServiceRepository.save(new AppointmentService(
+                0, savedAppointment.getAppointmentID(), createAppointmentDTO.serviceID(), 1));
+        }
+        eventPublisher.publishEvent(AppointmentStatusChangedEvent.of(savedAppointment));
 
         // Convert to DTO
         return convertToAppointmentWithDoctorDTO(savedAppointment);
     }
 
-    private PatientDTO convertPatientToDTO(Patient patient) {
-        return new PatientDTO(
-            patient.getPatientID(),
-            patient.getPatientCode(),
-            patient.getFullName(),
-            patient.getDateOfBirth(),
-            patient.getGender(),
-            patient.getAddress(),
-            patient.getPhone(),
-            patient.getEmail()
-        );
-    }
-
     private UserDTO convertUserToDTO(User user) {
         String roleName = switch (user.getRole()) {
             case 1 -> "Admin";
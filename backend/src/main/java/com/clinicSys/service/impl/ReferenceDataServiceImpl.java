@@ -0,0 +1,106 @@
+package com.clinicSys.service.impl;
+
+import com.clinicSys.domain.ICD10Code;
+import com.clinicSys.domain.MedicineGroup;
+import com.clinicSys.domain.ServiceType;
+import com.clinicSys.dto.response.ReferenceDataStatsDTO;
+import com.clinicSys.repository.IICD10CodeRepository;
+import com.clinicSys.repository.IMedicineGroupRepository;
+import com.clinicSys.repository.IServiceTypeRepository;
+import com.clinicSys.service.IReferenceDataService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+
+@Service
+public class ReferenceDataServiceImpl implements IReferenceDataService {
+
+    @Autowired
+    private IMedicineGroupRepository medicineGroupRepository;
+
+    @Autowired
+    private IServiceTypeRepository serviceTypeRepository;
+
+    @Autowired
+    private IICD10CodeRepository icd10CodeRepository;
+
+    // Replaced as a whole on refresh, so readers never see a half-loaded table
+    private volatile Map<Integer, MedicineGroup> medicineGroups = new ConcurrentHashMap<>();
+    private volatile Map<Integer, ServiceType> serviceTypes = new ConcurrentHashMap<>();
+    private volatile Map<Integer, ICD10Code> icd10Codes = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        refresh();
+    }
+
+    @Override
+    public Optional<MedicineGroup> findMedicineGroup(int medicineGroupID) {
+        return lookup(medicineGroups, medicineGroupID, id -> medicineGroupRepository.findById(id));
+    }
+
+    @Override
+    public Optional<ServiceType> findServiceType(int serviceTypeID) {
+        return lookup(serviceTypes, serviceTypeID, id -> serviceTypeRepository.findById(id));
+    }
+
+    @Override
+    public Optional<ICD10Code> findICD10Code(int codeID) {
+        return lookup(icd10Codes, codeID, id -> icd10CodeRepository.findById(id));
+    }
+
+    @Override
+    public void refresh() {
+        medicineGroups = index(medicineGroupRepository.findAll(), MedicineGroup::getMedicineGroupID);
+        serviceTypes = index(serviceTypeRepository.findAll(), ServiceType::getServiceTypeID);
+        icd10Codes = index(icd10CodeRepository.findAll(), ICD10Code::getCodeID);
+    }
+
+    @Override
+    public ReferenceDataStatsDTO getStats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long total = hitCount + missCount;
+        return new ReferenceDataStatsDTO(
+            medicineGroups.size(),
+            serviceTypes.size(),
+            icd10Codes.size(),
+            hitCount,
+            missCount,
+            total == 0 ? 0.0 : (double) hitCount / total
+        );
+    }
+
+    private <T> Optional<T> lookup(Map<Integer, T> cache, int id, IntFunction<Optional<T>> loader) {
+        T cached = cache.get(id);
+        if (cached != null) {
+            hits.increment();
+            return Optional.of(cached);
+        }
+        // Row added after the last refresh: load it once and keep it
+        misses.increment();
+        Optional<T> loaded = loader.apply(id);
+        loaded.ifPresent(value -> cache.put(id, value));
+        return loaded;
+    }
+
+    private <T> Map<Integer, T> index(List<T> rows, ToIntFunction<T> idOf) {
+        Map<Integer, T> map = new ConcurrentHashMap<>();
+        for (T row : rows) {
+            map.put(idOf.applyAsInt(row), row);
+        }
+        return map;
+    }
+}
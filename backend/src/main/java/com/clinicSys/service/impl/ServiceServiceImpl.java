@@ -3,13 +3,16 @@ package com.clinicSys.service.impl;
 import com.clinicSys.domain.Service;
 import com.clinicSys.domain.ServiceType;
 import com.clinicSys.dto.request.CreateServiceDTO;
+import com.clinicSys.dto.response.PageDTO;
 import com.clinicSys.dto.response.ServiceDTO;
 import com.clinicSys.dto.response.ServiceTypeDTO;
 import com.clinicSys.dto.request.UpdateServiceDTO;
 import com.clinicSys.repository.IServiceRepository;
 import com.clinicSys.repository.IServiceTypeRepository;
+import com.clinicSys.service.IReferenceDataService;
 import com.clinicSys.service.IServiceService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
 
 
 import java.util.List;
@@ -26,6 +29,9 @@ public class ServiceServiceImpl implements IServiceService {
     @Autowired
     private IServiceTypeRepository serviceTypeRepository;
 
+    @Autowired
+    private IReferenceDataService referenceDataService;
+
     @Override
     public List<ServiceDTO> getAllServices() {
         try {
@@ -39,6 +45,17 @@ public class ServiceServiceImpl implements IServiceService {
         }
     }
 
+    @Override
+    public PageDTO<ServiceDTO> getServicesPage(String cursor, int limit) {
+        int pageSize = PageCursor.pageSize(limit);
+        // Fetch one extra row to know whether there is a next page
+        List<Service> rows = serviceRepository.findPageAfter(PageCursor.decode(cursor), pageSize + 1);
+        List<ServiceDTO> items = PageCursor.trim(rows, pageSize).stream()
+            .map(this::convertToDTO)
+            .collect(Collectors.toList());
+        return new PageDTO<>(items, PageCursor.next(rows, pageSize, Service::getServiceCode));
+    }
+
     @Override
     public ServiceDTO getServiceById(int serviceId) {
         Optional<Service> serviceOpt = serviceRepository.findById(serviceId);
@@ -61,7 +78,7 @@ public class ServiceServiceImpl implements IServiceService {
         if (existingService.isPresent()) {
             throw new RuntimeException("Service code already exists: " + createDTO.serviceCode());
         }
-        Optional<ServiceType> serviceTypeOpt = serviceTypeRepository.findById(createDTO.serviceTypeID());
+        Optional<ServiceType> serviceTypeOpt = referenceDataService.findServiceType(createDTO.serviceTypeID());
         if (serviceTypeOpt.isEmpty()) {
             throw new RuntimeException("ServiceType not found with ID: " + createDTO.serviceTypeID());
         }
@@ -78,6 +95,7 @@ public class ServiceServiceImpl implements IServiceService {
     }
 
     @Override
+    @Transactional
     public ServiceDTO updateService(int serviceId, UpdateServiceDTO updateDTO) {
         Optional<Service> serviceOpt = serviceRepository.findById(serviceId);
         if (serviceOpt.isEmpty()) {
@@ -90,7 +108,7 @@ public class ServiceServiceImpl implements IServiceService {
             service.setName(updateDTO.serviceName());
         }
         if (updateDTO.serviceTypeID() != null) {
-            Optional<ServiceType> serviceTypeOpt = serviceTypeRepository.findById(updateDTO.serviceTypeID());
+            Optional<ServiceType> serviceTypeOpt = referenceDataService.findServiceType(updateDTO.serviceTypeID());
             if (serviceTypeOpt.isEmpty()) {
                 throw new RuntimeException("ServiceType not found with ID: " + updateDTO.serviceTypeID());
             }
@@ -108,6 +126,7 @@ public class ServiceServiceImpl implements IServiceService {
     }
 
     @Override
+    @Transactional
     public ServiceDTO updateServiceStatus(int serviceId, String status) {
         Optional<Service> serviceOpt = serviceRepository.findById(serviceId);
         if (serviceOpt.isEmpty()) {
@@ -122,7 +141,7 @@ public class ServiceServiceImpl implements IServiceService {
 
     private ServiceDTO convertToDTO(Service service) {
         String serviceTypeName = "Unknown";
-        Optional<ServiceType> serviceTypeOpt = serviceTypeRepository.findById(service.getServiceTypeID());
+        Optional<ServiceType> serviceTypeOpt = referenceDataService.findServiceType(service.getServiceTypeID());
         if (serviceTypeOpt.isPresent()) {
             serviceTypeName = serviceTypeOpt.get().getTypeName();
         }
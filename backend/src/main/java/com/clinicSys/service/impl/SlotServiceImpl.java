@@ -0,0 +1,327 @@
+package com.clinicSys.service.impl;
+
+import com.clinicSys.domain.Appointment;
+import com.clinicSys.domain.AppointmentStatus;
+import com.clinicSys.domain.User;
+import com.clinicSys.dto.response.FreeSlotDTO;
+import com.clinicSys.event.AppointmentStatusChangedEvent;
+import com.clinicSys.repository.IAppointmentRepository;
+import com.clinicSys.repository.IUserRepository;
+import com.clinicSys.service.ISlotService;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+public class SlotServiceImpl implements ISlotService {
+
+    private static final int DOCTOR_ROLE = 2;
+
+    // Every status except Cancelled keeps its slot booked
+    private static final Set<AppointmentStatus> SLOT_HOLDING_STATUSES =
+        EnumSet.complementOf(EnumSet.of(AppointmentStatus.CANCELLED));
+
+    private static final Comparator<FreeSlotDTO> SLOT_ORDER =
+        Comparator.comparing(FreeSlotDTO::start).thenComparingInt(FreeSlotDTO::doctorID);
+
+    @Autowired
+    private IAppointmentRepository appointmentRepository;
+
+    @Autowired
+    private IUserRepository userRepository;
+
+    @Value("${clinic.slots.slot-minutes:30}")
+    private int slotMinutes;
+
+    @Value("${clinic.slots.day-start:08:00}")
+    private String dayStart;
+
+    @Value("${clinic.slots.day-end:17:00}")
+    private String dayEnd;
+
+    @Value("${clinic.slots.break-start:12:00}")
+    private String breakStart;
+
+    @Value("${clinic.slots.break-end:13:00}")
+    private String breakEnd;
+
+    @Value("${clinic.slots.working-days:MONDAY,TUESDAY,WEDNESDAY,THURSDAY,FRIDAY,SATURDAY}")
+    private String workingDays;
+
+    // Per-doctor daily window, e.g. "2=08:00-12:00,4=13:00-17:00"; other doctors use day-start/day-end
+    @Value("${clinic.slots.doctor-hours:}")
+    private String doctorHours;
+
+    // How many days ahead a free-slot search looks
+    @Value("${clinic.slots.search-days:14}")
+    private int searchDays;
+
+    private WorkingTemplate defaultTemplate;
+    private Map<Integer, WorkingTemplate> doctorTemplates = Map.of();
+
+    // Active doctors, replaced as a whole on refresh
+    private volatile Map<Integer, String> doctorNames = Map.of();
+
+    // Booked slots per day, loaded from the database the first time a day is used and reloaded on
+    // refresh. Only this node's bookings are seen in between; UX_Appointment_DoctorID_DateTime
+    // rejects a slot another node (or a write outside createAppointment) took in the meantime
+    private final Map<LocalDate, DaySchedule> days = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void loadTemplates() {
+        Set<DayOfWeek> weekDays = EnumSet.noneOf(DayOfWeek.class);
+        for (String day : workingDays.split(",")) {
+            if (!day.isBlank()) {
+                weekDays.add(DayOfWeek.valueOf(day.trim().toUpperCase(Locale.ROOT)));
+            }
+        }
+        defaultTemplate = new WorkingTemplate(
+            LocalTime.parse(dayStart.trim()), LocalTime.parse(dayEnd.trim()),
+            breakStart.isBlank() ? null : LocalTime.parse(breakStart.trim()),
+            breakEnd.isBlank() ? null : LocalTime.parse(breakEnd.trim()),
+            weekDays, slotMinutes);
+
+        Map<Integer, WorkingTemplate> templates = new HashMap<>();
+        for (String entry : doctorHours.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            String[] doctorAndHours = entry.split("=");
+            String[] hours = doctorAndHours[1].split("-");
+            templates.put(Integer.parseInt(doctorAndHours[0].trim()),
+                defaultTemplate.withHours(LocalTime.parse(hours[0].trim()), LocalTime.parse(hours[1].trim())));
+        }
+        doctorTemplates = Map.copyOf(templates);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        refreshDoctors();
+    }
+
+    // Picks up added or deactivated doctors, drops days that are over and reloads the others
+    @Scheduled(fixedDelayString = "${clinic.slots.refresh-ms:60000}", initialDelayString = "${clinic.slots.refresh-ms:60000}")
+    public void refreshAndEvict() {
+        refreshDoctors();
+        LocalDate today = LocalDate.now();
+        days.keySet().removeIf(date -> date.isBefore(today));
+        for (LocalDate date : days.keySet()) {
+            days.replace(date, loadDay(date));
+        }
+    }
+
+    @Override
+    public void refreshDoctors() {
+        Map<Integer, String> names = new TreeMap<>();
+        for (User doctor : userRepository.findByRole(DOCTOR_ROLE)) {
+            names.put(doctor.getUserID(), doctor.getFullName() != null && !doctor.getFullName().isEmpty()
+                ? doctor.getFullName()
+                : doctor.getUsername());
+        }
+        doctorNames = names;
+    }
+
+    @Override
+    public List<FreeSlotDTO> findFreeSlots(LocalDateTime from, Integer doctorID, int limit) {
+        int maxResults = Math.max(1, Math.min(limit, MAX_RESULTS));
+        LocalDateTime start = from != null ? from : LocalDateTime.now();
+
+        Map<Integer, String> candidates = doctorNames;
+        if (doctorID != null) {
+            candidates = Map.of(doctorID, requireDoctorName(doctorID));
+        }
+
+        List<FreeSlotDTO> result = new ArrayList<>(maxResults);
+        LocalDate date = start.toLocalDate();
+        // Slots starting at or after "from": round a partial minute up
+        int firstMinute = WorkingTemplate.minuteOf(start.toLocalTime())
+            + (start.getSecond() > 0 || start.getNano() > 0 ? 1 : 0);
+
+        for (int day = 0; day < searchDays && result.size() < maxResults; day++, date = date.plusDays(1)) {
+            int fromMinute = day == 0 ? firstMinute : 0;
+            int needed = maxResults - result.size();
+            DaySchedule schedule = schedule(date);
+
+            // No doctor can contribute more than the slots still needed, so each stops early
+            List<FreeSlotDTO> dayFree = new ArrayList<>();
+            for (Map.Entry<Integer, String> doctor : candidates.entrySet()) {
+                WorkingTemplate template = templateFor(doctor.getKey());
+                DoctorDay booked = schedule.doctor(doctor.getKey());
+                int found = 0;
+                for (int slotStart : template.slotStarts(date)) {
+                    if (slotStart < fromMinute || !booked.isFree(slotStart, slotStart + template.slotMinutes())) {
+                        continue;
+                    }
+                    dayFree.add(new FreeSlotDTO(
+                        doctor.getKey(),
+                        doctor.getValue(),
+                        date.atTime(WorkingTemplate.timeOf(slotStart)),
+                        date.atTime(WorkingTemplate.timeOf(slotStart + template.slotMinutes()))));
+                    if (++found == needed) {
+                        break;
+                    }
+                }
+            }
+            dayFree.sort(SLOT_ORDER);
+            result.addAll(dayFree.subList(0, Math.min(needed, dayFree.size())));
+        }
+        return result;
+    }
+
+    @Override
+    public void reserve(int doctorID, LocalDateTime dateTime) {
+        LocalDate date = dateTime.toLocalDate();
+        int start = WorkingTemplate.minuteOf(dateTime.toLocalTime());
+        WorkingTemplate template = templateFor(doctorID);
+        if (!template.covers(date, start)) {
+            throw new RuntimeException("Thời gian hẹn nằm ngoài giờ làm việc của bác sĩ");
+        }
+
+        DoctorDay day = schedule(date).doctor(doctorID);
+        if (!day.tryBook(start, start + template.slotMinutes())) {
+            throw new RuntimeException("Bác sĩ đã có lịch hẹn khác trong khung giờ này");
+        }
+
+        // The appointment insert may still fail: give the slot back unless the transaction commits
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        day.release(start);
+                    }
+                }
+            });
+        }
+    }
+
+    @Override
+    public long countSlots(LocalDate date) {
+        long total = 0;
+        for (Integer doctorID : doctorNames.keySet()) {
+            total += templateFor(doctorID).slotStarts(date).length;
+        }
+        return total;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStatusChanged(AppointmentStatusChangedEvent event) {
+        if (AppointmentStatus.fromLabel(event.status()) != AppointmentStatus.CANCELLED) {
+            return;
+        }
+        DaySchedule schedule = days.get(event.dateTime().toLocalDate());
+        if (schedule != null) {
+            schedule.doctor(event.doctorID()).release(WorkingTemplate.minuteOf(event.dateTime().toLocalTime()));
+        }
+    }
+
+    private WorkingTemplate templateFor(int doctorID) {
+        return doctorTemplates.getOrDefault(doctorID, defaultTemplate);
+    }
+
+    private String requireDoctorName(int doctorID) {
+        String name = doctorNames.get(doctorID);
+        if (name == null) {
+            // Doctor added since the last refresh
+            refreshDoctors();
+            name = doctorNames.get(doctorID);
+        }
+        if (name == null) {
+            throw new RuntimeException("Không tìm thấy bác sĩ với ID: " + doctorID);
+        }
+        return name;
+    }
+
+    // Loaded outside the map: computeIfAbsent would hold the bin lock for the whole query
+    private DaySchedule schedule(LocalDate date) {
+        DaySchedule schedule = days.get(date);
+        if (schedule == null) {
+            DaySchedule loaded = loadDay(date);
+            schedule = days.putIfAbsent(date, loaded);
+            if (schedule == null) {
+                schedule = loaded;
+            }
+        }
+        return schedule;
+    }
+
+    private DaySchedule loadDay(LocalDate date) {
+        DaySchedule schedule = new DaySchedule();
+        for (Appointment appointment : appointmentRepository.findByDateRangeAndStatuses(
+                date.atStartOfDay(), date.plusDays(1).atStartOfDay(), SLOT_HOLDING_STATUSES)) {
+            int start = WorkingTemplate.minuteOf(appointment.getDateTime().toLocalTime());
+            schedule.doctor(appointment.getDoctorID()).load(start, start + templateFor(appointment.getDoctorID()).slotMinutes());
+        }
+        return schedule;
+    }
+
+    private static final class DaySchedule {
+        private final Map<Integer, DoctorDay> doctors = new ConcurrentHashMap<>();
+
+        DoctorDay doctor(int doctorID) {
+            return doctors.computeIfAbsent(doctorID, id -> new DoctorDay());
+        }
+    }
+
+    /**
+     * Booked intervals of one doctor on one day, keyed by start minute. All bookings are one slot
+     * long, so [start, end) is free when the latest booking starting at or before start has ended
+     * by then and the next booking starts at or after end.
+     */
+    private static final class DoctorDay {
+        private final TreeMap<Integer, Integer> bookings = new TreeMap<>();
+
+        synchronized boolean tryBook(int start, int end) {
+            if (overlaps(start, end)) {
+                return false;
+            }
+            bookings.put(start, end);
+            return true;
+        }
+
+        // Rows loaded from the database are kept even if older data overlaps
+        synchronized void load(int start, int end) {
+            bookings.merge(start, end, Math::max);
+        }
+
+        synchronized void release(int start) {
+            bookings.remove(start);
+        }
+
+        synchronized boolean isFree(int start, int end) {
+            return !overlaps(start, end);
+        }
+
+        private boolean overlaps(int start, int end) {
+            Map.Entry<Integer, Integer> before = bookings.floorEntry(start);
+            if (before != null && before.getValue() > start) {
+                return true;
+            }
+            Integer next = bookings.higherKey(start);
+            return next != null && next < end;
+        }
+    }
+}
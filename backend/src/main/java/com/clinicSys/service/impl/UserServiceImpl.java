@@ -1,14 +1,18 @@
 package com.clinicSys.service.impl;
 
+import com.clinicSys.config.Audited;
+import com.clinicSys.config.UserStatusCache;
 import com.clinicSys.domain.User;
 import com.clinicSys.dto.request.CreateUserDTO;
 import com.clinicSys.dto.request.UpdateUserDTO;
 import com.clinicSys.dto.request.UpdateUserStatusDTO;
+import com.clinicSys.dto.response.PageDTO;
 import com.clinicSys.dto.response.UserDTO;
 import com.clinicSys.repository.IUserRepository;
 import com.clinicSys.service.IUserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -20,6 +24,9 @@ public class UserServiceImpl implements IUserService {
     @Autowired
     private IUserRepository userRepository;
 
+    @Autowired
+    private UserStatusCache userStatusCache;
+
     @Override
     public List<UserDTO> getAllStaff() {
         return userRepository.findAll().stream()
@@ -28,6 +35,18 @@ public class UserServiceImpl implements IUserService {
     }
 
     @Override
+    public PageDTO<UserDTO> getStaffPage(String cursor, int limit) {
+        int pageSize = PageCursor.pageSize(limit);
+        // Fetch one extra row to know whether there is a next page
+        List<User> rows = userRepository.findPageAfter(PageCursor.decodeId(cursor), pageSize + 1);
+        List<UserDTO> items = PageCursor.trim(rows, pageSize).stream()
+            .map(this::convertToDTO)
+            .collect(Collectors.toList());
+        return new PageDTO<>(items, PageCursor.next(rows, pageSize, u -> String.valueOf(u.getUserID())));
+    }
+
+    @Override
+    @Audited(action = "Create", entity = "User")
     public UserDTO createStaff(CreateUserDTO userDTO) {
         User newUser = new User();
         newUser.setFullName(userDTO.fullName());
@@ -51,6 +70,8 @@ public class UserServiceImpl implements IUserService {
     }
 
     @Override
+    @Transactional
+    @Audited(action = "Update", entity = "User")
     public UserDTO updateStaff(int userId, UpdateUserDTO updateDTO) {
         Optional<User> userOpt = userRepository.findById(userId);
         if (userOpt.isEmpty()) {
@@ -72,10 +93,13 @@ public class UserServiceImpl implements IUserService {
         }
         
         User updatedUser = userRepository.save(user);
+        userStatusCache.evict(userId);
         return convertToDTO(updatedUser);
     }
 
     @Override
+    @Transactional
+    @Audited(action = "Update", entity = "User")
     public UserDTO updateStaffStatus(int userId, UpdateUserStatusDTO updateDTO) {
         Optional<User> userOpt = userRepository.findById(userId);
         if (userOpt.isEmpty()) {
@@ -85,10 +109,14 @@ public class UserServiceImpl implements IUserService {
         User user = userOpt.get();
         user.setStatus(updateDTO.status());
         User updatedUser = userRepository.save(user);
+        // Lock out existing tokens of deactivated staff on the next request
+        userStatusCache.evict(userId);
         return convertToDTO(updatedUser);
     }
 
     @Override
+    @Transactional
+    @Audited(action = "Update", entity = "User")
     public void resetPassword(int userId) {
         Optional<User> userOpt = userRepository.findById(userId);
         if (userOpt.isEmpty()) {
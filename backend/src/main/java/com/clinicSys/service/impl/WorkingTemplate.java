@@ -0,0 +1,91 @@
+package com.clinicSys.service.impl;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Working hours of a doctor: a daily window, an optional break and the working days of the week.
+ * Times are handled as minutes since midnight.
+ */
+final class WorkingTemplate {
+
+    private final int startMinute;
+    private final int endMinute;
+    private final int breakStartMinute;
+    private final int breakEndMinute;
+    private final Set<DayOfWeek> workingDays;
+    private final int slotMinutes;
+    // Start minute of every slot of a working day, ascending
+    private final int[] slotStarts;
+
+    WorkingTemplate(LocalTime start, LocalTime end, LocalTime breakStart, LocalTime breakEnd,
+                    Set<DayOfWeek> workingDays, int slotMinutes) {
+        if (slotMinutes <= 0 || !start.isBefore(end)) {
+            throw new IllegalArgumentException("Lịch làm việc không hợp lệ: " + start + "-" + end);
+        }
+        this.startMinute = minuteOf(start);
+        this.endMinute = minuteOf(end);
+        this.breakStartMinute = breakStart != null ? minuteOf(breakStart) : 0;
+        this.breakEndMinute = breakEnd != null ? minuteOf(breakEnd) : 0;
+        this.workingDays = workingDays.isEmpty() ? EnumSet.noneOf(DayOfWeek.class) : EnumSet.copyOf(workingDays);
+        this.slotMinutes = slotMinutes;
+
+        List<Integer> starts = new ArrayList<>();
+        for (int minute = startMinute; minute + slotMinutes <= endMinute; minute += slotMinutes) {
+            if (!overlapsBreak(minute, minute + slotMinutes)) {
+                starts.add(minute);
+            }
+        }
+        this.slotStarts = starts.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Same working days, break and slot length, different daily window
+     */
+    WorkingTemplate withHours(LocalTime start, LocalTime end) {
+        return new WorkingTemplate(start, end,
+            breakEndMinute > breakStartMinute ? timeOf(breakStartMinute) : null,
+            breakEndMinute > breakStartMinute ? timeOf(breakEndMinute) : null,
+            workingDays, slotMinutes);
+    }
+
+    int slotMinutes() {
+        return slotMinutes;
+    }
+
+    boolean worksOn(LocalDate date) {
+        return workingDays.contains(date.getDayOfWeek());
+    }
+
+    /**
+     * @return Slot start minutes of the date, empty on days off
+     */
+    int[] slotStarts(LocalDate date) {
+        return worksOn(date) ? slotStarts : new int[0];
+    }
+
+    /**
+     * @return true if an appointment of one slot length starting at startMinute fits into the working hours
+     */
+    boolean covers(LocalDate date, int startMinute) {
+        int end = startMinute + slotMinutes;
+        return worksOn(date) && startMinute >= this.startMinute && end <= endMinute && !overlapsBreak(startMinute, end);
+    }
+
+    static int minuteOf(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    static LocalTime timeOf(int minute) {
+        return LocalTime.of(minute / 60, minute % 60);
+    }
+
+    private boolean overlapsBreak(int start, int end) {
+        return start < breakEndMinute && breakStartMinute < end;
+    }
+}
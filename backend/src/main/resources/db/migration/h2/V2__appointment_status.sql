@@ -0,0 +1,6 @@
+-- Bản H2 (dùng cho test) của db/migration/sqlserver/V2__appointment_status.sql, cùng tên chỉ mục.
+-- Schema test do Hibernate tạo từ AppointmentStatus, nên không có giá trị cũ cần chuẩn hoá.
+
+CREATE INDEX IF NOT EXISTS IX_Appointment_DateTime_Status ON Appointment (DateTime, Status);
+CREATE INDEX IF NOT EXISTS IX_Appointment_DoctorID_DateTime_Status ON Appointment (DoctorID, DateTime, Status);
+GO
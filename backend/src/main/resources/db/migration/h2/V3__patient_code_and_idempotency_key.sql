@@ -0,0 +1,14 @@
+-- Bản H2 (dùng cho test) của db/migration/sqlserver/V3__patient_code_and_idempotency_key.sql.
+-- Không có UQ_Patient_Email: H2 không có chỉ mục có lọc, và ở chế độ MSSQLServer chỉ mục UNIQUE
+-- chỉ cho phép một NULL. Ràng buộc UNIQUE của Patient do Hibernate đặt tên.
+
+CREATE SEQUENCE IF NOT EXISTS PatientCodeSeq AS BIGINT START WITH 1 INCREMENT BY 50;
+GO
+
+CREATE TABLE IF NOT EXISTS IdempotencyKey (
+    IdempotencyKey VARCHAR(100) PRIMARY KEY,
+    Operation VARCHAR(50) NOT NULL,
+    ResourceID INT,
+    CreatedAt DATETIME2 NOT NULL
+);
+GO
@@ -0,0 +1,6 @@
+-- Bản H2 (dùng cho test) của db/migration/sqlserver/V4__notification_outbox.sql, cùng tên chỉ mục.
+-- Schema test do Hibernate tạo, nên các cột outbox đã có.
+
+CREATE INDEX IF NOT EXISTS IX_Notification_Dispatch ON Notification (Status, SendAfter);
+CREATE INDEX IF NOT EXISTS IX_Notification_ClaimToken ON Notification (ClaimToken);
+GO
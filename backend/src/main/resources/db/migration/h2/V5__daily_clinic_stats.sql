@@ -0,0 +1,10 @@
+-- Bản H2 (dùng cho test) của db/migration/sqlserver/V5__daily_clinic_stats.sql.
+
+CREATE TABLE IF NOT EXISTS DailyClinicStats (
+    StatDate DATE PRIMARY KEY,
+    AppointmentCount INT NOT NULL,
+    DistinctPatients INT NOT NULL,
+    NewPatients INT NOT NULL,
+    Revenue DECIMAL(18, 2) NOT NULL
+);
+GO
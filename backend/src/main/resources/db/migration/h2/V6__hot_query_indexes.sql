@@ -0,0 +1,23 @@
+-- Bản H2 (dùng cho test) của db/migration/sqlserver/V6__hot_query_indexes.sql, cùng tên chỉ mục.
+-- H2 không có INCLUDE: các cột INCLUDE được thêm vào cuối khóa.
+
+-- Thay chỉ mục của V2 (DROP_EXISTING trên SQL Server)
+DROP INDEX IF EXISTS IX_Appointment_DateTime_Status;
+CREATE INDEX IX_Appointment_DateTime_Status ON Appointment (DateTime, Status, PatientID, DoctorID);
+GO
+CREATE INDEX IF NOT EXISTS IX_Appointment_DoctorID_DateTime_Status ON Appointment (DoctorID, DateTime, Status);
+GO
+CREATE INDEX IX_Appointment_PatientID_DateTime ON Appointment (PatientID, DateTime);
+GO
+CREATE INDEX IX_AppointmentService_AppointmentID ON Appointment_Service (AppointmentID, ServiceID, Quantity);
+GO
+CREATE INDEX IX_Diagnosis_RecordID_Date ON Diagnosis (RecordID, Date DESC);
+GO
+CREATE INDEX IX_Prescription_RecordID ON Prescription (RecordID);
+GO
+CREATE INDEX IX_PrescriptionMedicine_PrescriptionID ON Prescription_Medicine (PrescriptionID, MedicineID, Quantity);
+GO
+CREATE INDEX IX_Bill_DateIssued_PaymentStatus ON Bill (DateIssued, PaymentStatus, TotalAmount);
+GO
+CREATE INDEX IX_Notification_AppointmentID ON Notification (AppointmentID, Type, Status);
+GO
@@ -0,0 +1,8 @@
+-- Bản H2 (dùng cho test) của db/migration/sqlserver/V7__appointment_slot_guard.sql, cùng tên chỉ mục.
+-- H2 không có chỉ mục lọc (WHERE): cột tính CancelledID bằng 0 cho lịch hẹn còn giữ chỗ và bằng
+-- AppointmentID cho lịch đã hủy, nên chỉ các lịch còn giữ chỗ mới có thể trùng nhau trên chỉ mục.
+
+ALTER TABLE Appointment ADD COLUMN IF NOT EXISTS CancelledID INT
+    GENERATED ALWAYS AS (CASE WHEN Status = 'Cancelled' THEN AppointmentID ELSE 0 END);
+CREATE UNIQUE INDEX IF NOT EXISTS UX_Appointment_DoctorID_DateTime ON Appointment (DoctorID, DateTime, CancelledID);
+GO
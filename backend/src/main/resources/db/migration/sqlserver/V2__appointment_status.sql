@@ -0,0 +1,46 @@
+-- Chuẩn hoá Appointment.Status cho database tạo từ db.sql cũ, trước khi có AppointmentStatus.
+-- Database tạo từ db.sql hiện tại đã có ràng buộc và chỉ mục bên dưới: script không thay đổi gì.
+
+-- Đưa các cách viết cũ ("check-in", "completed", ...) về đúng nhãn của AppointmentStatus.
+-- COLLATE Latin1_General_BIN để không bỏ sót các dòng chỉ khác hoa/thường.
+UPDATE Appointment SET Status = 'Scheduled'
+WHERE LOWER(LTRIM(RTRIM(Status))) = 'scheduled'
+  AND Status COLLATE Latin1_General_BIN <> 'Scheduled';
+
+UPDATE Appointment SET Status = 'Checked-in'
+WHERE LOWER(LTRIM(RTRIM(Status))) IN ('checked-in', 'check-in', 'checked in', 'check in', 'checkin', 'checkedin')
+  AND Status COLLATE Latin1_General_BIN <> 'Checked-in';
+
+UPDATE Appointment SET Status = 'In Consultation'
+WHERE LOWER(LTRIM(RTRIM(Status))) IN ('in consultation', 'in-consultation', 'inconsultation')
+  AND Status COLLATE Latin1_General_BIN <> 'In Consultation';
+
+UPDATE Appointment SET Status = 'Completed'
+WHERE LOWER(LTRIM(RTRIM(Status))) = 'completed'
+  AND Status COLLATE Latin1_General_BIN <> 'Completed';
+
+UPDATE Appointment SET Status = 'Billed'
+WHERE LOWER(LTRIM(RTRIM(Status))) = 'billed'
+  AND Status COLLATE Latin1_General_BIN <> 'Billed';
+
+UPDATE Appointment SET Status = 'Cancelled'
+WHERE LOWER(LTRIM(RTRIM(Status))) IN ('cancelled', 'canceled')
+  AND Status COLLATE Latin1_General_BIN <> 'Cancelled';
+GO
+
+-- Các giá trị còn lại không nhận ra được: cần sửa tay trước khi thêm CHECK constraint bên dưới
+IF EXISTS (SELECT 1 FROM Appointment WHERE Status COLLATE Latin1_General_BIN NOT IN
+        ('Scheduled', 'Checked-in', 'In Consultation', 'Completed', 'Billed', 'Cancelled'))
+    THROW 50000, N'Appointment.Status có giá trị không hợp lệ, cần sửa tay trước khi chạy lại', 1;
+GO
+
+IF NOT EXISTS (SELECT * FROM sys.check_constraints WHERE name = 'CK_Appointment_Status')
+    ALTER TABLE Appointment ADD CONSTRAINT CK_Appointment_Status CHECK (Status COLLATE Latin1_General_BIN IN
+        ('Scheduled', 'Checked-in', 'In Consultation', 'Completed', 'Billed', 'Cancelled'));
+GO
+
+IF NOT EXISTS (SELECT * FROM sys.indexes WHERE name = 'IX_Appointment_DateTime_Status')
+    CREATE INDEX IX_Appointment_DateTime_Status ON Appointment (DateTime, Status);
+IF NOT EXISTS (SELECT * FROM sys.indexes WHERE name = 'IX_Appointment_DoctorID_DateTime_Status')
+    CREATE INDEX IX_Appointment_DoctorID_DateTime_Status ON Appointment (DoctorID, DateTime, Status);
+GO
@@ -0,0 +1,45 @@
+-- Đặt tên cho các ràng buộc UNIQUE của Patient, thêm sequence mã bệnh nhân và bảng Idempotency-Key
+-- cho database tạo từ db.sql cũ. Database tạo từ db.sql hiện tại đã có đủ: script không thay đổi gì.
+
+-- Ràng buộc UNIQUE tạo không tên (UQ__Patient__...) được đổi tên để backend nhận ra cột bị trùng
+DECLARE @name SYSNAME, @column SYSNAME, @sql NVARCHAR(400);
+DECLARE unnamed CURSOR LOCAL FAST_FORWARD FOR
+    SELECT kc.name, c.name
+    FROM sys.key_constraints kc
+    JOIN sys.index_columns ic ON ic.object_id = kc.parent_object_id AND ic.index_id = kc.unique_index_id
+    JOIN sys.columns c ON c.object_id = ic.object_id AND c.column_id = ic.column_id
+    WHERE kc.parent_object_id = OBJECT_ID('dbo.Patient') AND kc.type = 'UQ'
+      AND c.name IN ('PatientCode', 'Phone', 'Email') AND kc.name NOT LIKE 'UQ[_]Patient[_]%';
+OPEN unnamed;
+FETCH NEXT FROM unnamed INTO @name, @column;
+WHILE @@FETCH_STATUS = 0
+BEGIN
+    IF @column = 'Email'
+        -- UNIQUE trên Email chỉ cho phép một bệnh nhân không có email: thay bằng index có lọc bên dưới
+        SET @sql = N'ALTER TABLE dbo.Patient DROP CONSTRAINT ' + QUOTENAME(@name);
+    ELSE
+        SET @sql = N'EXEC sp_rename ''dbo.' + @name + ''', ''UQ_Patient_' + @column + ''', ''OBJECT''';
+    EXEC sp_executesql @sql;
+    FETCH NEXT FROM unnamed INTO @name, @column;
+END
+CLOSE unnamed;
+DEALLOCATE unnamed;
+GO
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'UQ_Patient_Email' AND object_id = OBJECT_ID('dbo.Patient'))
+    CREATE UNIQUE INDEX UQ_Patient_Email ON Patient(Email) WHERE Email IS NOT NULL;
+GO
+
+-- Mã bệnh nhân được cấp theo từng khối 50 số (xem PatientCodeGenerator)
+IF NOT EXISTS (SELECT 1 FROM sys.sequences WHERE name = 'PatientCodeSeq')
+    CREATE SEQUENCE PatientCodeSeq AS BIGINT START WITH 1 INCREMENT BY 50;
+GO
+
+IF OBJECT_ID('dbo.IdempotencyKey', 'U') IS NULL
+    CREATE TABLE IdempotencyKey (
+        IdempotencyKey VARCHAR(100) PRIMARY KEY,
+        Operation VARCHAR(50) NOT NULL,
+        ResourceID INT,
+        CreatedAt DATETIME2 NOT NULL
+    );
+GO
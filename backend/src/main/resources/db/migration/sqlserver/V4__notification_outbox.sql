@@ -0,0 +1,28 @@
+-- Thêm các cột hàng đợi gửi (outbox) cho bảng Notification của database tạo từ db.sql cũ.
+-- Database tạo từ db.sql hiện tại đã có đủ: script không thay đổi gì.
+
+-- Các thông báo cũ đã có trạng thái Sent: CreatedAt/SendAfter nhận thời điểm chạy script
+IF COL_LENGTH('dbo.Notification', 'Payload') IS NULL
+    ALTER TABLE Notification ADD Payload NVARCHAR(500);
+IF COL_LENGTH('dbo.Notification', 'CreatedAt') IS NULL
+    ALTER TABLE Notification ADD CreatedAt DATETIME2 NOT NULL DEFAULT SYSDATETIME();
+IF COL_LENGTH('dbo.Notification', 'SendAfter') IS NULL
+    ALTER TABLE Notification ADD SendAfter DATETIME2 NOT NULL DEFAULT SYSDATETIME();
+IF COL_LENGTH('dbo.Notification', 'Attempts') IS NULL
+    ALTER TABLE Notification ADD Attempts INT NOT NULL DEFAULT 0;
+IF COL_LENGTH('dbo.Notification', 'LockedUntil') IS NULL
+    ALTER TABLE Notification ADD LockedUntil DATETIME2;
+IF COL_LENGTH('dbo.Notification', 'ClaimToken') IS NULL
+    ALTER TABLE Notification ADD ClaimToken VARCHAR(36);
+IF COL_LENGTH('dbo.Notification', 'SentAt') IS NULL
+    ALTER TABLE Notification ADD SentAt DATETIME2;
+IF COL_LENGTH('dbo.Notification', 'LastError') IS NULL
+    ALTER TABLE Notification ADD LastError NVARCHAR(500);
+GO
+
+-- Dispatcher lấy các dòng Pending đến hạn theo SendAfter, rồi đọc lại lô vừa nhận theo ClaimToken
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'IX_Notification_Dispatch' AND object_id = OBJECT_ID('dbo.Notification'))
+    CREATE INDEX IX_Notification_Dispatch ON Notification (Status, SendAfter);
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'IX_Notification_ClaimToken' AND object_id = OBJECT_ID('dbo.Notification'))
+    CREATE INDEX IX_Notification_ClaimToken ON Notification (ClaimToken);
+GO
@@ -0,0 +1,12 @@
+-- Bảng thống kê theo ngày cho database tạo từ db.sql cũ. Bảng mới tạo còn trống, nên backend tính
+-- toàn bộ lịch sử từ Appointment và Bill ngay sau khi khởi động (DailyStatsServiceImpl).
+-- Database tạo từ db.sql hiện tại đã có bảng: script không thay đổi gì.
+IF OBJECT_ID('dbo.DailyClinicStats', 'U') IS NULL
+    CREATE TABLE DailyClinicStats (
+        StatDate DATE PRIMARY KEY,
+        AppointmentCount INT NOT NULL,
+        DistinctPatients INT NOT NULL,
+        NewPatients INT NOT NULL,
+        Revenue DECIMAL(18, 2) NOT NULL
+    );
+GO
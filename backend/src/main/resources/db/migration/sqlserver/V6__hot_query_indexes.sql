@@ -0,0 +1,47 @@
+-- Chỉ mục cho các điều kiện lọc của truy vấn trong repository/impl. Cột khóa là cột trong WHERE/ORDER BY,
+-- cột INCLUDE giúp truy vấn chỉ đọc chỉ mục (covering) khi nó chỉ cần các cột đó.
+-- Giữ cùng tên chỉ mục với db/migration/h2/V6__hot_query_indexes.sql.
+
+-- Lịch hẹn theo khoảng ngày (+ trạng thái): danh sách lễ tân, đếm bệnh nhân, rollup DailyClinicStats,
+-- lập hóa đơn cuối ngày. PatientID/DoctorID cho COUNT(DISTINCT PatientID) và kiểm tra bác sĩ
+IF EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'IX_Appointment_DateTime_Status' AND object_id = OBJECT_ID('dbo.Appointment'))
+    CREATE INDEX IX_Appointment_DateTime_Status ON Appointment (DateTime, Status) INCLUDE (PatientID, DoctorID)
+        WITH (DROP_EXISTING = ON);
+ELSE
+    CREATE INDEX IX_Appointment_DateTime_Status ON Appointment (DateTime, Status) INCLUDE (PatientID, DoctorID);
+GO
+
+-- Lịch của một bác sĩ theo ngày (+ trạng thái)
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'IX_Appointment_DoctorID_DateTime_Status' AND object_id = OBJECT_ID('dbo.Appointment'))
+    CREATE INDEX IX_Appointment_DoctorID_DateTime_Status ON Appointment (DoctorID, DateTime, Status);
+GO
+
+-- Lần khám đầu tiên, lịch sử khám, bệnh án/chẩn đoán theo bệnh nhân
+CREATE INDEX IX_Appointment_PatientID_DateTime ON Appointment (PatientID, DateTime);
+GO
+
+-- Dịch vụ của một lịch hẹn (chi tiết và tổng tiền hóa đơn)
+CREATE INDEX IX_AppointmentService_AppointmentID ON Appointment_Service (AppointmentID) INCLUDE (ServiceID, Quantity);
+GO
+
+-- MedicalRecord(AppointmentID) và Bill(AppointmentID) đã có chỉ mục từ ràng buộc UNIQUE
+
+-- Chẩn đoán của một bệnh án, mới nhất trước
+CREATE INDEX IX_Diagnosis_RecordID_Date ON Diagnosis (RecordID, Date DESC);
+GO
+
+-- Đơn thuốc của một bệnh án
+CREATE INDEX IX_Prescription_RecordID ON Prescription (RecordID);
+GO
+
+-- Thuốc của một đơn (chi tiết và tổng tiền hóa đơn)
+CREATE INDEX IX_PrescriptionMedicine_PrescriptionID ON Prescription_Medicine (PrescriptionID) INCLUDE (MedicineID, Quantity);
+GO
+
+-- Doanh thu theo ngày lập hóa đơn, xuất hóa đơn theo khoảng ngày
+CREATE INDEX IX_Bill_DateIssued_PaymentStatus ON Bill (DateIssued, PaymentStatus) INCLUDE (TotalAmount);
+GO
+
+-- Thông báo của một lịch hẹn, hủy nhắc lịch khi lịch hẹn bị hủy (chỉ mục của dispatcher có từ V4)
+CREATE INDEX IX_Notification_AppointmentID ON Notification (AppointmentID, Type, Status);
+GO
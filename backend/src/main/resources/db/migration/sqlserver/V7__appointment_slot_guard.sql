@@ -0,0 +1,14 @@
+-- Mỗi bác sĩ chỉ có một lịch hẹn còn giữ chỗ (khác Cancelled) tại một thời điểm. SlotServiceImpl chặn đặt
+-- trùng trong một node; chỉ mục này chặn cả khi các node khác nhau cùng đặt, hoặc khi lịch hẹn được ghi
+-- không qua createAppointment.
+
+-- Dữ liệu đang trùng: cần hủy hoặc dời tay trước khi tạo chỉ mục
+IF EXISTS (SELECT 1 FROM Appointment WHERE Status <> 'Cancelled'
+        GROUP BY DoctorID, DateTime HAVING COUNT(*) > 1)
+    THROW 50000, N'Có bác sĩ bị đặt hai lịch hẹn cùng thời điểm, cần sửa tay trước khi chạy lại', 1;
+GO
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'UX_Appointment_DoctorID_DateTime' AND object_id = OBJECT_ID('dbo.Appointment'))
+    CREATE UNIQUE INDEX UX_Appointment_DoctorID_DateTime ON Appointment (DoctorID, DateTime)
+        WHERE Status <> 'Cancelled';
+GO
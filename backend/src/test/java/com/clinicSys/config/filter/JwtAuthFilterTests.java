@@ -0,0 +1,95 @@
+package com.clinicSys.config.filter;
+
+import com.clinicSys.backend.BackendApplication;
+import com.clinicSys.config.JwtUtil;
+import com.clinicSys.domain.User;
+import com.clinicSys.repository.IUserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(classes = BackendApplication.class)
+@AutoConfigureMockMvc
+class JwtAuthFilterTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private IUserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void principalComesFromClaimsWithoutUserQuery() throws Exception {
+        User doctor = saveDoctor("jwt.claims@clinic.test");
+        String token = jwtUtil.generateToken(doctor);
+
+        // First request fills the status cache
+        mockMvc.perform(get("/api/doctor/dashboard").header("Authorization", "Bearer " + token))
+            .andExpect(status().isOk());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mockMvc.perform(get("/api/doctor/dashboard").header("Authorization", "Bearer " + token))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.doctorName").value(doctor.getFullName()));
+
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void deactivatedStaffIsLockedOut() throws Exception {
+        User doctor = saveDoctor("jwt.locked@clinic.test");
+        String token = jwtUtil.generateToken(doctor);
+        mockMvc.perform(get("/api/doctor/dashboard").header("Authorization", "Bearer " + token))
+            .andExpect(status().isOk());
+
+        User admin = saveUser("jwt.admin@clinic.test", 1);
+        mockMvc.perform(put("/api/admin/staff/" + doctor.getUserID() + "/status")
+                .header("Authorization", "Bearer " + jwtUtil.generateToken(admin))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"status\":\"Inactive\"}"))
+            .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/doctor/dashboard").header("Authorization", "Bearer " + token))
+            .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void invalidTokenIsTreatedAsAnonymous() throws Exception {
+        mockMvc.perform(get("/api/doctor/dashboard").header("Authorization", "Bearer not-a-token"))
+            .andExpect(status().isForbidden());
+    }
+
+    private User saveDoctor(String username) {
+        return saveUser(username, 2);
+    }
+
+    private User saveUser(String username, int role) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPasswordHash("default123");
+        user.setRole(role);
+        user.setFullName("Staff " + username);
+        user.setEmail(username);
+        user.setStatus("Active");
+        return userRepository.save(user);
+    }
+}
@@ -0,0 +1,194 @@
+package com.clinicSys.service.impl;
+
+import com.clinicSys.backend.BackendApplication;
+import com.clinicSys.config.JwtUtil;
+import com.clinicSys.domain.AuditLog;
+import com.clinicSys.domain.User;
+import com.clinicSys.dto.response.AuditLogDTO;
+import com.clinicSys.dto.response.AuditStatsDTO;
+import com.clinicSys.repository.IAuditLogRepository;
+import com.clinicSys.repository.IUserRepository;
+import com.clinicSys.service.IAuditLogService;
+import com.clinicSys.service.IEMRService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(classes = BackendApplication.class)
+@AutoConfigureMockMvc
+class AuditLogServiceImplTests {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private IAuditLogService auditLogService;
+
+    @Autowired
+    private IEMRService emrService;
+
+    @Autowired
+    private IUserRepository userRepository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void auditedCallsAreWrittenWithTheCallerAndArgumentIDs() {
+        User doctor = saveUser(2);
+        authenticate(doctor);
+
+        emrService.getVisitHistory(424242, null, 10);
+        assertThrows(RuntimeException.class, () -> emrService.startConsultation(-7));
+        auditLogService.flush();
+
+        List<AuditLogDTO> entries = auditLogService.getRecent(doctor.getUserID(), 10);
+        assertEquals(2, entries.size());
+        AuditLogDTO failed = entries.stream().filter(e -> e.details().startsWith("startConsultation")).findFirst().orElseThrow();
+        assertEquals("Update", failed.actionType());
+        assertEquals("Appointment", failed.entityAffected());
+        assertEquals("startConsultation appointmentID=-7 failed: RuntimeException", failed.details());
+        AuditLogDTO read = entries.stream().filter(e -> e.details().startsWith("getVisitHistory")).findFirst().orElseThrow();
+        assertEquals("Read", read.actionType());
+        assertEquals("MedicalRecord", read.entityAffected());
+        assertEquals("getVisitHistory patientID=424242 limit=10", read.details());
+    }
+
+    @Test
+    void callsWithoutASignedInUserAreNotAudited() {
+        long recorded = auditLogService.getStats().recorded();
+        emrService.getVisitHistory(424243, null, 10);
+        assertEquals(recorded, auditLogService.getStats().recorded());
+    }
+
+    @Test
+    void concurrentProducersLoseNothingBelowCapacity() throws Exception {
+        User doctor = saveUser(2);
+        int threads = 8;
+        int perThread = 500;
+        AuditStatsDTO before = auditLogService.getStats();
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            results.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < perThread; i++) {
+                    auditLogService.record(doctor.getUserID(), "Read", "MedicalRecord", "load test " + i);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> result : results) {
+            result.get();
+        }
+        pool.shutdown();
+        auditLogService.flush();
+
+        AuditStatsDTO after = auditLogService.getStats();
+        assertEquals(threads * perThread, after.recorded() - before.recorded());
+        assertEquals(threads * perThread, after.written() - before.written());
+        assertEquals(before.overflowed(), after.overflowed());
+        assertEquals(0, after.pending());
+        // The listing is capped, the rows are all there
+        assertEquals(500, auditLogService.getRecent(doctor.getUserID(), 5000).size());
+    }
+
+    @Test
+    void fullQueueRejectsEntriesAndFailedBatchesAreCountedAsDropped() {
+        AuditLogServiceImpl writer = new AuditLogServiceImpl();
+        ReflectionTestUtils.setField(writer, "queueCapacity", 5);
+        ReflectionTestUtils.setField(writer, "batchSize", 2);
+        ReflectionTestUtils.setField(writer, "auditLogRepository", new IAuditLogRepository() {
+            @Override
+            public void insertAll(List<AuditLog> entries) {
+                throw new IllegalStateException("database unavailable");
+            }
+
+            @Override
+            public List<AuditLog> findRecent(Integer userID, int limit) {
+                return List.of();
+            }
+        });
+        // Writer thread not started: entries stay queued until flush
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(writer.record(1, "Read", "MedicalRecord", "entry " + i));
+        }
+        assertFalse(writer.record(1, "Read", "MedicalRecord", "one too many"));
+        assertFalse(writer.record(1, "Read", "MedicalRecord", "two too many"));
+        assertEquals(new AuditStatsDTO(5, 0, 2, 0, 5, 5), writer.getStats());
+
+        writer.flush();
+        assertEquals(new AuditStatsDTO(5, 0, 2, 5, 0, 5), writer.getStats());
+        assertTrue(writer.record(1, "Read", "MedicalRecord", "room again"));
+    }
+
+    @Test
+    void auditEndpointsAreAdminOnly() throws Exception {
+        User admin = saveUser(1);
+        auditLogService.record(admin.getUserID(), "Update", "User", "resetPassword userId=1");
+        auditLogService.flush();
+
+        mockMvc.perform(get("/api/admin/audit/stats")
+                .header("Authorization", "Bearer " + jwtUtil.generateToken(admin)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.queueCapacity").value(10000));
+        mockMvc.perform(get("/api/admin/audit")
+                .param("userId", String.valueOf(admin.getUserID()))
+                .header("Authorization", "Bearer " + jwtUtil.generateToken(admin)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].details").value("resetPassword userId=1"));
+        mockMvc.perform(get("/api/admin/audit/stats")
+                .header("Authorization", "Bearer " + jwtUtil.generateToken(saveUser(2))))
+            .andExpect(status().isForbidden());
+    }
+
+    private void authenticate(User user) {
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+
+    private User saveUser(int role) {
+        int n = SEQUENCE.incrementAndGet();
+        User user = new User();
+        user.setUsername("au-user" + n + "@clinic.test");
+        user.setPasswordHash("default123");
+        user.setRole(role);
+        user.setFullName("Staff " + n);
+        user.setEmail("au-user" + n + "@clinic.test");
+        user.setStatus("Active");
+        return userRepository.save(user);
+    }
+}
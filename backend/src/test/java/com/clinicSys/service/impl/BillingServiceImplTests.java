@@ -0,0 +1,320 @@
+package com.clinicSys.service.impl;
+
+import com.clinicSys.backend.BackendApplication;
+import com.clinicSys.config.JwtUtil;
+import com.clinicSys.domain.Appointment;
+import com.clinicSys.domain.AppointmentStatus;
+import com.clinicSys.domain.Bill;
+import com.clinicSys.domain.MedicalRecord;
+import com.clinicSys.domain.Medicine;
+import com.clinicSys.domain.Patient;
+import com.clinicSys.domain.Prescription;
+import com.clinicSys.domain.PrescriptionMedicine;
+import com.clinicSys.domain.User;
+import com.clinicSys.dto.request.AddAppointmentServiceDTO;
+import com.clinicSys.dto.request.CreateAppointmentDTO;
+import com.clinicSys.dto.response.AppointmentWithDoctorDTO;
+import com.clinicSys.dto.response.BillDTO;
+import com.clinicSys.dto.response.BillingRunDTO;
+import com.clinicSys.repository.IAppointmentRepository;
+import com.clinicSys.repository.IAppointmentServiceRepository;
+import com.clinicSys.repository.IBillRepository;
+import com.clinicSys.repository.IMedicalRecordRepository;
+import com.clinicSys.repository.IMedicineRepository;
+import com.clinicSys.repository.IPatientRepository;
+import com.clinicSys.repository.IPrescriptionMedicineRepository;
+import com.clinicSys.repository.IPrescriptionRepository;
+import com.clinicSys.repository.IServiceRepository;
+import com.clinicSys.repository.IUserRepository;
+import com.clinicSys.service.IBillingService;
+import com.clinicSys.service.IDailyStatsService;
+import com.clinicSys.service.IReceptionistService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(classes = BackendApplication.class)
+@AutoConfigureMockMvc
+class BillingServiceImplTests {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+    // Batch tests each bill their own day, far from the data of other test classes
+    private static final AtomicInteger DAY_OFFSET = new AtomicInteger();
+
+    @Autowired
+    private IBillingService billingService;
+
+    @Autowired
+    private IReceptionistService receptionistService;
+
+    @Autowired
+    private IDailyStatsService dailyStatsService;
+
+    @Autowired
+    private IBillRepository billRepository;
+
+    @Autowired
+    private IAppointmentRepository appointmentRepository;
+
+    @Autowired
+    private IAppointmentServiceRepository appointmentServiceRepository;
+
+    @Autowired
+    private IServiceRepository serviceRepository;
+
+    @Autowired
+    private IMedicineRepository medicineRepository;
+
+    @Autowired
+    private IMedicalRecordRepository medicalRecordRepository;
+
+    @Autowired
+    private IPrescriptionRepository prescriptionRepository;
+
+    @Autowired
+    private IPrescriptionMedicineRepository prescriptionMedicineRepository;
+
+    @Autowired
+    private IPatientRepository patientRepository;
+
+    @Autowired
+    private IUserRepository userRepository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private User doctor;
+    private User receptionist;
+
+    @BeforeEach
+    void setUp() {
+        doctor = saveUser(2);
+        receptionist = saveUser(3);
+    }
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void billAddsServiceLinesAndPrescribedMedicines() {
+        Appointment appointment = saveAppointment(LocalDateTime.now(), AppointmentStatus.COMPLETED);
+        int exam = saveService(new BigDecimal("150000.00"));
+        int bloodTest = saveService(new BigDecimal("80000.00"));
+        billingService.addServiceLine(appointment.getAppointmentID(), new AddAppointmentServiceDTO(exam, null));
+        BigDecimal preview = billingService.addServiceLine(appointment.getAppointmentID(),
+            new AddAppointmentServiceDTO(bloodTest, 2));
+        prescribe(appointment, saveMedicine(new BigDecimal("5000.00")), 10);
+        prescribe(appointment, saveMedicine(new BigDecimal("12500.00")), 2);
+
+        // 150000 + 2 x 80000 + 10 x 5000 + 2 x 12500
+        BigDecimal expected = new BigDecimal("385000.00");
+        assertEquals(0, expected.compareTo(billRepository.computeAppointmentTotal(appointment.getAppointmentID())));
+        assertEquals(0, new BigDecimal("310000.00").compareTo(preview));
+
+        BigDecimal revenueBefore = dailyStatsService.getRevenue(LocalDate.now());
+        BillDTO bill = billingService.createBill(appointment.getAppointmentID(), 1);
+
+        assertEquals(0, expected.compareTo(bill.totalAmount()));
+        assertEquals("Paid", bill.paymentStatus());
+        assertEquals(AppointmentStatus.BILLED,
+            appointmentRepository.findById(appointment.getAppointmentID()).orElseThrow().getStatus());
+        assertEquals(0, revenueBefore.add(expected).compareTo(dailyStatsService.getRevenue(LocalDate.now())));
+        assertEquals(0, dailyStatsService.getRevenue(LocalDate.now())
+            .compareTo(receptionistService.getDashboard().estimatedRevenue()));
+    }
+
+    @Test
+    void appointmentIsBilledOnlyOnceAndOnlyWhenCompleted() {
+        Appointment inConsultation = saveAppointment(LocalDateTime.now(), AppointmentStatus.IN_CONSULTATION);
+        assertThrows(RuntimeException.class, () -> billingService.createBill(inConsultation.getAppointmentID(), null));
+
+        Appointment completed = saveAppointment(LocalDateTime.now(), AppointmentStatus.COMPLETED);
+        billingService.createBill(completed.getAppointmentID(), null);
+        assertThrows(RuntimeException.class, () -> billingService.createBill(completed.getAppointmentID(), null));
+        assertThrows(RuntimeException.class, () -> billingService.addServiceLine(completed.getAppointmentID(),
+            new AddAppointmentServiceDTO(saveService(BigDecimal.TEN), 1)));
+    }
+
+    @Test
+    void payingABillRecordsRevenueOnTheDayItWasIssued() {
+        Appointment appointment = saveAppointment(LocalDateTime.now(), AppointmentStatus.COMPLETED);
+        billingService.addServiceLine(appointment.getAppointmentID(),
+            new AddAppointmentServiceDTO(saveService(new BigDecimal("200000.00")), 1));
+        BillDTO unpaid = billingService.createBill(appointment.getAppointmentID(), null);
+        LocalDate issued = unpaid.dateIssued().toLocalDate();
+        BigDecimal revenueBefore = dailyStatsService.getRevenue(issued);
+
+        BillDTO paid = billingService.payBill(unpaid.billID(), 2);
+
+        assertEquals("Paid", paid.paymentStatus());
+        assertEquals("Paid", billRepository.findById(unpaid.billID()).orElseThrow().getPaymentStatus());
+        assertEquals(0, revenueBefore.add(new BigDecimal("200000.00")).compareTo(dailyStatsService.getRevenue(issued)));
+        assertThrows(RuntimeException.class, () -> billingService.payBill(unpaid.billID(), 2));
+        assertEquals(0, revenueBefore.add(new BigDecimal("200000.00")).compareTo(dailyStatsService.getRevenue(issued)));
+    }
+
+    @Test
+    void endOfDayRunBillsEveryUnbilledCompletedAppointment() {
+        LocalDate day = LocalDate.of(2033, 3, 1).plusDays(DAY_OFFSET.getAndIncrement());
+        int exam = saveService(new BigDecimal("100000.00"));
+        int completedCount = 120;
+        for (int i = 0; i < completedCount; i++) {
+            Appointment appointment = saveAppointment(day.atTime(8, 0).plusMinutes(i), AppointmentStatus.COMPLETED);
+            appointmentServiceRepository.save(
+                new com.clinicSys.domain.AppointmentService(0, appointment.getAppointmentID(), exam, 1));
+        }
+        Appointment alreadyBilled = saveAppointment(day.atTime(7, 0), AppointmentStatus.COMPLETED);
+        billingService.createBill(alreadyBilled.getAppointmentID(), null);
+        Appointment scheduled = saveAppointment(day.atTime(16, 0), AppointmentStatus.SCHEDULED);
+        Appointment nextDay = saveAppointment(day.plusDays(1).atTime(9, 0), AppointmentStatus.COMPLETED);
+
+        BillingRunDTO run = billingService.billCompletedAppointments(day);
+
+        assertEquals(completedCount, run.billsCreated());
+        assertEquals(0, new BigDecimal("12000000.00").compareTo(run.totalAmount()));
+        List<Appointment> appointments = appointmentRepository.findAllByDateTimeBetween(
+            day.atStartOfDay(), day.plusDays(1).atStartOfDay());
+        assertEquals(completedCount + 1, appointments.stream()
+            .filter(a -> a.getStatus() == AppointmentStatus.BILLED).count());
+        Bill bill = billRepository.findByAppointmentID(appointments.get(appointments.size() - 2).getAppointmentID())
+            .orElseThrow();
+        assertEquals("Unpaid", bill.getPaymentStatus());
+        assertTrue(bill.getInvoiceCode().startsWith("HD"));
+        assertEquals(AppointmentStatus.SCHEDULED,
+            appointmentRepository.findById(scheduled.getAppointmentID()).orElseThrow().getStatus());
+        assertEquals(AppointmentStatus.COMPLETED,
+            appointmentRepository.findById(nextDay.getAppointmentID()).orElseThrow().getStatus());
+
+        assertEquals(0, billingService.billCompletedAppointments(day).billsCreated());
+    }
+
+    @Test
+    void bookedServiceBecomesTheFirstBillLine() throws Exception {
+        int exam = saveService(new BigDecimal("175000.00"));
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(receptionist, null, receptionist.getAuthorities()));
+        AppointmentWithDoctorDTO booked = receptionistService.createAppointment(new CreateAppointmentDTO(
+            savePatient().getPatientID(), doctor.getUserID(),
+            LocalDate.of(2033, 9, 1).plusDays(DAY_OFFSET.getAndIncrement()).atTime(9, 0), exam, null));
+        for (String status : List.of("Checked-in", "In Consultation", "Completed")) {
+            receptionistService.updateAppointmentStatus(booked.appointmentID(), status);
+        }
+
+        mockMvc.perform(post("/api/receptionist/appointments/" + booked.appointmentID() + "/bill")
+                .header("Authorization", "Bearer " + jwtUtil.generateToken(receptionist))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{}"))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.totalAmount").value(175000.00))
+            .andExpect(jsonPath("$.paymentStatus").value("Unpaid"));
+        mockMvc.perform(post("/api/receptionist/appointments/" + booked.appointmentID() + "/bill")
+                .header("Authorization", "Bearer " + jwtUtil.generateToken(receptionist)))
+            .andExpect(status().isBadRequest());
+    }
+
+    private void prescribe(Appointment appointment, int medicineID, int quantity) {
+        MedicalRecord record = medicalRecordRepository.findByAppointmentID(appointment.getAppointmentID())
+            .orElseGet(() -> {
+                MedicalRecord created = new MedicalRecord();
+                created.setAppointmentID(appointment.getAppointmentID());
+                created.setCreatedBy(doctor.getUserID());
+                return medicalRecordRepository.save(created);
+            });
+        Prescription prescription = prescriptionRepository.findByRecordID(record.getRecordID())
+            .orElseGet(() -> {
+                Prescription created = new Prescription();
+                created.setPrescriptionCode("BL-RX" + SEQUENCE.incrementAndGet());
+                created.setDate(LocalDateTime.now());
+                created.setRecordID(record.getRecordID());
+                created.setCreatedBy(doctor.getUserID());
+                return prescriptionRepository.save(created);
+            });
+        PrescriptionMedicine item = new PrescriptionMedicine();
+        item.setPrescriptionID(prescription.getPrescriptionID());
+        item.setMedicineID(medicineID);
+        item.setQuantity(quantity);
+        prescriptionMedicineRepository.save(item);
+    }
+
+    private Appointment saveAppointment(LocalDateTime dateTime, AppointmentStatus status) {
+        Appointment appointment = new Appointment();
+        appointment.setPatientID(savePatient().getPatientID());
+        appointment.setDoctorID(doctor.getUserID());
+        appointment.setReceptionistID(receptionist.getUserID());
+        appointment.setDateTime(dateTime);
+        appointment.setStatus(status);
+        return appointmentRepository.save(appointment);
+    }
+
+    private int saveService(BigDecimal price) {
+        int n = SEQUENCE.incrementAndGet();
+        com.clinicSys.domain.Service service = new com.clinicSys.domain.Service();
+        service.setServiceCode("BL-SV" + n);
+        service.setServiceTypeID(1);
+        service.setName("Billing Service " + n);
+        service.setPrice(price);
+        service.setStatus("Active");
+        return serviceRepository.save(service).getServiceID();
+    }
+
+    private int saveMedicine(BigDecimal price) {
+        int n = SEQUENCE.incrementAndGet();
+        Medicine medicine = new Medicine();
+        medicine.setMedicineCode("BL-MD" + n);
+        medicine.setMedicineGroupID(1);
+        medicine.setName("Billing Medicine " + n);
+        medicine.setPrice(price);
+        medicine.setStock(100);
+        medicine.setStatus("Active");
+        return medicineRepository.save(medicine).getMedicineID();
+    }
+
+    private Patient savePatient() {
+        int n = SEQUENCE.incrementAndGet();
+        Patient patient = new Patient();
+        patient.setPatientCode("BL" + n);
+        patient.setFullName("Patient " + n);
+        patient.setDateOfBirth(LocalDate.of(1988, 8, 8));
+        patient.setGender("Nữ");
+        patient.setPhone("0950" + n);
+        patient.setEmail("bl-patient" + n + "@clinic.test");
+        return patientRepository.save(patient);
+    }
+
+    private User saveUser(int role) {
+        int n = SEQUENCE.incrementAndGet();
+        User user = new User();
+        user.setUsername("bl-user" + n + "@clinic.test");
+        user.setPasswordHash("default123");
+        user.setRole(role);
+        user.setFullName("Staff " + n);
+        user.setEmail("bl-user" + n + "@clinic.test");
+        user.setStatus("Active");
+        return userRepository.save(user);
+    }
+}
@@ -0,0 +1,163 @@
+package com.clinicSys.service.impl;
+
+import com.clinicSys.backend.BackendApplication;
+import com.clinicSys.config.JwtUtil;
+import com.clinicSys.domain.User;
+import com.clinicSys.dto.response.CacheRegionStatsDTO;
+import com.clinicSys.repository.IServiceRepository;
+import com.clinicSys.repository.IUserRepository;
+import com.clinicSys.service.ICacheAdminService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Policy;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(classes = BackendApplication.class)
+@AutoConfigureMockMvc
+class CacheAdminServiceImplTests {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private ICacheAdminService cacheAdminService;
+
+    @Autowired
+    private IUserRepository userRepository;
+
+    @Autowired
+    private IServiceRepository serviceRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void repeatedFindByIdIsServedFromTheSecondLevelCache() {
+        User doctor = saveUser(2);
+        cacheAdminService.evictRegion("User");
+
+        statistics.clear();
+        userRepository.findById(doctor.getUserID());
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        statistics.clear();
+        User cached = userRepository.findById(doctor.getUserID()).orElseThrow();
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(doctor.getFullName(), cached.getFullName());
+        assertTrue(statistics.getDomainDataRegionStatistics("User").getHitCount() > 0);
+    }
+
+    @Test
+    void cachedQueriesSkipTheDatabaseUntilTheTableChanges() throws Exception {
+        User doctor = saveUser(2);
+        userRepository.findByUsername(doctor.getUsername());
+
+        statistics.clear();
+        assertTrue(userRepository.findByUsername(doctor.getUsername()).isPresent());
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        // A write through Hibernate invalidates both the entity and the query results
+        mockMvc.perform(put("/api/admin/staff/" + doctor.getUserID() + "/status")
+                .header("Authorization", "Bearer " + jwtUtil.generateToken(saveUser(1)))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"status\":\"Inactive\"}"))
+            .andExpect(status().isOk());
+        assertEquals("Inactive", userRepository.findById(doctor.getUserID()).orElseThrow().getStatus());
+        assertTrue(userRepository.findByRole(2).stream().noneMatch(u -> u.getUserID() == doctor.getUserID()));
+    }
+
+    @Test
+    void regionStatsAndEviction() {
+        serviceRepository.findAll();
+        serviceRepository.findAll();
+
+        List<CacheRegionStatsDTO> stats = cacheAdminService.getRegionStats();
+        List<String> regions = stats.stream().map(CacheRegionStatsDTO::region).toList();
+        assertTrue(regions.containsAll(List.of("User", "Medicine", "MedicineGroup", "Service", "ServiceType",
+            "ICD10Code", "default-query-results-region")), regions.toString());
+        CacheRegionStatsDTO queries = stats.stream()
+            .filter(s -> s.region().equals("default-query-results-region")).findFirst().orElseThrow();
+        assertTrue(queries.hits() > 0 && queries.hitRatio() > 0);
+
+        cacheAdminService.evictRegion("default-query-results-region");
+        statistics.clear();
+        serviceRepository.findAll();
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        assertThrows(RuntimeException.class, () -> cacheAdminService.evictRegion("NoSuchRegion"));
+    }
+
+    @Test
+    void regionsUseTheBoundsFromApplicationConf() {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName()).getCacheManager();
+        assertEquals(Optional.of(2000L), maximumSize(cacheManager.getCache("User")));
+        assertEquals(Optional.empty(), maximumSize(cacheManager.getCache("default-update-timestamps-region")));
+    }
+
+    private static Optional<Long> maximumSize(javax.cache.Cache<?, ?> region) {
+        Cache<?, ?> cache = region.unwrap(Cache.class);
+        return cache.policy().eviction().map(Policy.Eviction::getMaximum);
+    }
+
+    @Test
+    void cacheEndpointsAreAdminOnly() throws Exception {
+        String adminToken = "Bearer " + jwtUtil.generateToken(saveUser(1));
+        String doctorToken = "Bearer " + jwtUtil.generateToken(saveUser(2));
+
+        mockMvc.perform(get("/api/admin/cache/regions").header("Authorization", adminToken))
+            .andExpect(status().isOk());
+        mockMvc.perform(delete("/api/admin/cache/regions/Medicine").header("Authorization", adminToken))
+            .andExpect(status().isNoContent());
+        mockMvc.perform(delete("/api/admin/cache/regions/NoSuchRegion").header("Authorization", adminToken))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/admin/cache/regions").header("Authorization", doctorToken))
+            .andExpect(status().isForbidden());
+    }
+
+    private User saveUser(int role) {
+        int n = SEQUENCE.incrementAndGet();
+        User user = new User();
+        user.setUsername("cache-user" + n + "@clinic.test");
+        user.setPasswordHash("default123");
+        user.setRole(role);
+        user.setFullName("Cached Staff " + n);
+        user.setEmail("cache-user" + n + "@clinic.test");
+        user.setStatus("Active");
+        return userRepository.save(user);
+    }
+}
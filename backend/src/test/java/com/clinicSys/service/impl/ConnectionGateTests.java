@@ -0,0 +1,115 @@
+package com.clinicSys.service.impl;
+
+import com.clinicSys.config.ConnectionGateDataSource;
+import com.clinicSys.config.VirtualThreadConfig;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConnectionGateTests {
+
+    private JdbcDataSource database;
+
+    @BeforeEach
+    void setUp() {
+        database = new JdbcDataSource();
+        database.setURL("jdbc:h2:mem:connection-gate;DB_CLOSE_DELAY=-1");
+    }
+
+    @Test
+    void permitsCapBorrowedConnectionsAndGoBackOnceOnClose() throws Exception {
+        ConnectionGateDataSource gate = new ConnectionGateDataSource(database, 2, 100);
+
+        Connection first = gate.getConnection();
+        Connection second = gate.getConnection();
+        assertEquals(0, gate.getAvailablePermits());
+        assertThrows(SQLTransientConnectionException.class, gate::getConnection);
+        assertEquals(1, gate.getRejected());
+
+        first.close();
+        first.close();
+        assertEquals(1, gate.getAvailablePermits());
+        assertTrue(first.isClosed());
+
+        try (Connection third = gate.getConnection()) {
+            assertTrue(third.createStatement().execute("SELECT 1"));
+            assertTrue(third.isWrapperFor(org.h2.jdbc.JdbcConnection.class));
+        }
+        second.close();
+        assertEquals(2, gate.getAvailablePermits());
+    }
+
+    @Test
+    void waitersGetAConnectionWhenOneIsClosed() throws Exception {
+        ConnectionGateDataSource gate = new ConnectionGateDataSource(database, 1, 10000);
+        Connection held = gate.getConnection();
+
+        CompletableFuture<Boolean> waiter = CompletableFuture.supplyAsync(() -> {
+            try (Connection connection = gate.getConnection()) {
+                return connection.isValid(1);
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        long deadline = System.currentTimeMillis() + 5000;
+        while (gate.getWaiting() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, gate.getWaiting());
+        assertFalse(waiter.isDone());
+
+        held.close();
+        assertTrue(waiter.get(5, TimeUnit.SECONDS));
+        assertEquals(1, gate.getAvailablePermits());
+        assertEquals(0, gate.getRejected());
+    }
+
+    @Test
+    void aFailedBorrowGivesThePermitBack() {
+        ConnectionGateDataSource gate = new ConnectionGateDataSource(
+            new DriverManagerDataSource("jdbc:no-such-driver:clinic"), 1, 100);
+
+        assertThrows(SQLException.class, gate::getConnection);
+        assertThrows(SQLException.class, gate::getConnection);
+        assertEquals(1, gate.getAvailablePermits());
+        assertEquals(0, gate.getRejected());
+    }
+
+    @Test
+    void virtualThreadModeWrapsTheDataSourceOnJava21() {
+        ApplicationContextRunner runner = new ApplicationContextRunner()
+            .withUserConfiguration(VirtualThreadConfig.class)
+            .withBean(DataSource.class, () -> database);
+
+        runner.run(context -> assertEquals(database, context.getBean(DataSource.class)));
+        runner.withPropertyValues("spring.threads.virtual.enabled=true", "clinic.datasource.acquire-permits=3")
+            .run(context -> {
+                if (Runtime.version().feature() < 21) {
+                    assertNotNull(context.getStartupFailure());
+                    assertTrue(context.getStartupFailure().getMessage().contains("cần Java 21"),
+                        context.getStartupFailure().getMessage());
+                    return;
+                }
+                DataSource dataSource = context.getBean(DataSource.class);
+                ConnectionGateDataSource gate = assertInstanceOf(ConnectionGateDataSource.class, dataSource);
+                assertEquals(3, gate.getPermits());
+                assertEquals(database, dataSource.unwrap(JdbcDataSource.class));
+            });
+    }
+}
@@ -0,0 +1,165 @@
+package com.clinicSys.service.impl;
+
+import com.clinicSys.backend.BackendApplication;
+import com.clinicSys.domain.DailyClinicStats;
+import com.clinicSys.domain.Patient;
+import com.clinicSys.domain.User;
+import com.clinicSys.dto.request.CreateAppointmentDTO;
+import com.clinicSys.dto.response.DashboardStatsDTO;
+import com.clinicSys.repository.IPatientRepository;
+import com.clinicSys.repository.IUserRepository;
+import com.clinicSys.service.IDailyStatsService;
+import com.clinicSys.service.IDashboardService;
+import com.clinicSys.service.IReceptionistService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(classes = BackendApplication.class)
+class DashboardServiceImplTests {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private IDashboardService dashboardService;
+
+    @Autowired
+    private IDailyStatsService dailyStatsService;
+
+    @Autowired
+    private IReceptionistService receptionistService;
+
+    @Autowired
+    private IPatientRepository patientRepository;
+
+    @Autowired
+    private IUserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User doctor;
+
+    @BeforeEach
+    void authenticateReceptionist() {
+        doctor = saveUser(2);
+        User receptionist = saveUser(3);
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(receptionist, null, receptionist.getAuthorities()));
+    }
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void getDashboardStatsUsesOneStatement() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        dashboardService.getDashboardStats();
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void bookingAppointmentsUpdatesTodayCounters() {
+        DashboardStatsDTO before = dashboardService.getDashboardStats();
+        Patient first = savePatient();
+        Patient second = savePatient();
+        LocalDate later = LocalDate.now().plusDays(1);
+
+        book(first, LocalDate.now(), 8);
+        book(first, LocalDate.now(), 9);
+        book(second, later, 10);
+
+        DashboardStatsDTO after = dashboardService.getDashboardStats();
+        assertEquals(before.patientsToday() + 1, after.patientsToday());
+        assertEquals(before.appointmentsBooked() + 3, after.appointmentsBooked());
+        assertEquals(before.totalStaff(), after.totalStaff());
+    }
+
+    @Test
+    void incrementalCountersMatchRebuild() {
+        LocalDate day = LocalDate.of(2031, 3, 10);
+        Patient returning = savePatient();
+        Patient newcomer = savePatient();
+
+        book(returning, day.plusDays(2), 9);
+        // Booked before the earlier first visit: the new patient moves to this day
+        book(returning, day, 9);
+        book(returning, day, 10);
+        book(newcomer, day, 11);
+        dailyStatsService.recordRevenue(day.atTime(12, 0), new BigDecimal("150000.00"));
+
+        DailyClinicStats incremental = findDay(day);
+        DailyClinicStats incrementalLater = findDay(day.plusDays(2));
+        assertEquals(3, incremental.getAppointmentCount());
+        assertEquals(2, incremental.getDistinctPatients());
+        assertEquals(2, incremental.getNewPatients());
+        assertEquals(0, incrementalLater.getNewPatients());
+
+        dailyStatsService.rebuild(day, day.plusDays(2));
+
+        DailyClinicStats rebuilt = findDay(day);
+        assertEquals(incremental.getAppointmentCount(), rebuilt.getAppointmentCount());
+        assertEquals(incremental.getDistinctPatients(), rebuilt.getDistinctPatients());
+        assertEquals(incremental.getNewPatients(), rebuilt.getNewPatients());
+        assertEquals(incrementalLater.getNewPatients(), findDay(day.plusDays(2)).getNewPatients());
+    }
+
+    private DailyClinicStats findDay(LocalDate day) {
+        entityManager.clear();
+        return entityManager.createQuery(
+                "SELECT s FROM DailyClinicStats s WHERE s.statDate = :day", DailyClinicStats.class)
+            .setParameter("day", day)
+            .getSingleResult();
+    }
+
+    private void book(Patient patient, LocalDate day, int hour) {
+        receptionistService.createAppointment(new CreateAppointmentDTO(
+            patient.getPatientID(), doctor.getUserID(), day.atTime(hour, 0), null, null));
+    }
+
+    private Patient savePatient() {
+        int n = SEQUENCE.incrementAndGet();
+        Patient patient = new Patient();
+        patient.setPatientCode("DS" + n);
+        patient.setFullName("Patient " + n);
+        patient.setDateOfBirth(LocalDate.of(1990, 1, 1));
+        patient.setGender("Nam");
+        patient.setPhone("0910" + n);
+        patient.setEmail("ds-patient" + n + "@clinic.test");
+        return patientRepository.save(patient);
+    }
+
+    private User saveUser(int role) {
+        int n = SEQUENCE.incrementAndGet();
+        User user = new User();
+        user.setUsername("ds-user" + n + "@clinic.test");
+        user.setPasswordHash("default123");
+        user.setRole(role);
+        user.setFullName("Staff " + n);
+        user.setEmail("ds-user" + n + "@clinic.test");
+        user.setStatus("Active");
+        return userRepository.save(user);
+    }
+}
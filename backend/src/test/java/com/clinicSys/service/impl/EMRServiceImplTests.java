@@ -0,0 +1,175 @@
+package com.clinicSys.service.impl;
+
+import com.clinicSys.backend.BackendApplication;
+import com.clinicSys.domain.Appointment;
+import com.clinicSys.domain.AppointmentStatus;
+import com.clinicSys.domain.Diagnosis;
+import com.clinicSys.domain.ICD10Code;
+import com.clinicSys.domain.MedicalRecord;
+import com.clinicSys.domain.Patient;
+import com.clinicSys.domain.User;
+import com.clinicSys.dto.response.VisitHistoryDTO;
+import com.clinicSys.dto.response.VisitHistoryPageDTO;
+import com.clinicSys.repository.IAppointmentRepository;
+import com.clinicSys.repository.IDiagnosisRepository;
+import com.clinicSys.repository.IMedicalRecordRepository;
+import com.clinicSys.repository.IPatientRepository;
+import com.clinicSys.repository.IUserRepository;
+import com.clinicSys.service.IEMRService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(classes = BackendApplication.class)
+class EMRServiceImplTests {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private IEMRService emrService;
+
+    @Autowired
+    private IAppointmentRepository appointmentRepository;
+
+    @Autowired
+    private IPatientRepository patientRepository;
+
+    @Autowired
+    private IUserRepository userRepository;
+
+    @Autowired
+    private IMedicalRecordRepository medicalRecordRepository;
+
+    @Autowired
+    private IDiagnosisRepository diagnosisRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void getVisitHistoryPagesNewestFirstWithCursor() {
+        Patient patient = seedHistory(25);
+
+        VisitHistoryPageDTO first = emrService.getVisitHistory(patient.getPatientID(), null, 20);
+        assertEquals(20, first.visits().size());
+        assertNotNull(first.nextCursor());
+
+        VisitHistoryPageDTO second = emrService.getVisitHistory(patient.getPatientID(), first.nextCursor(), 20);
+        assertEquals(5, second.visits().size());
+        assertNull(second.nextCursor());
+
+        List<VisitHistoryDTO> all = new ArrayList<>(first.visits());
+        all.addAll(second.visits());
+        for (int i = 1; i < all.size(); i++) {
+            assertTrue(all.get(i - 1).recordID() > all.get(i).recordID());
+        }
+        assertTrue(all.get(0).diagnosisCode().startsWith("Z"));
+        assertEquals("Latest", all.get(0).primaryDiagnosis());
+    }
+
+    @Test
+    void getVisitHistoryStatementCountDoesNotGrowWithPageSize() {
+        Patient patient = seedHistory(30);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        // Warm up the reference data cache with the ICD10 code seeded after startup
+        emrService.getVisitHistory(patient.getPatientID(), null, 1);
+
+        statistics.clear();
+        emrService.getVisitHistory(patient.getPatientID(), null, 2);
+        long smallPage = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        emrService.getVisitHistory(patient.getPatientID(), null, 30);
+        long largePage = statistics.getPrepareStatementCount();
+
+        assertEquals(smallPage, largePage);
+    }
+
+    private Patient seedHistory(int visits) {
+        User doctor = saveUser(2);
+        Patient patient = savePatient();
+        ICD10Code code = transactionTemplate.execute(status -> {
+            ICD10Code icd = new ICD10Code();
+            icd.setCode("Z" + SEQUENCE.incrementAndGet());
+            icd.setDescription("General examination");
+            entityManager.persist(icd);
+            return icd;
+        });
+        for (int i = 0; i < visits; i++) {
+            Appointment appointment = new Appointment();
+            appointment.setPatientID(patient.getPatientID());
+            appointment.setDoctorID(doctor.getUserID());
+            appointment.setReceptionistID(doctor.getUserID());
+            appointment.setDateTime(LocalDateTime.now().minusDays(visits - i));
+            appointment.setStatus(AppointmentStatus.COMPLETED);
+            appointment = appointmentRepository.save(appointment);
+
+            MedicalRecord record = new MedicalRecord();
+            record.setAppointmentID(appointment.getAppointmentID());
+            record.setSymptoms("Visit " + i);
+            record.setCreatedBy(doctor.getUserID());
+            record = medicalRecordRepository.save(record);
+
+            // An older and a newer diagnosis; the newer one is the primary diagnosis
+            saveDiagnosis(record, code, doctor, "Earlier", LocalDateTime.now().minusDays(1));
+            saveDiagnosis(record, code, doctor, "Latest", LocalDateTime.now());
+        }
+        return patient;
+    }
+
+    private void saveDiagnosis(MedicalRecord record, ICD10Code code, User doctor, String description, LocalDateTime date) {
+        Diagnosis diagnosis = new Diagnosis();
+        diagnosis.setRecordID(record.getRecordID());
+        diagnosis.setIcd10CodeID(code.getCodeID());
+        diagnosis.setCreatedBy(doctor.getUserID());
+        diagnosis.setDescription(description);
+        diagnosis.setDate(date);
+        diagnosisRepository.save(diagnosis);
+    }
+
+    private Patient savePatient() {
+        int n = SEQUENCE.incrementAndGet();
+        Patient patient = new Patient();
+        patient.setPatientCode("EMR" + n);
+        patient.setFullName("Patient " + n);
+        patient.setDateOfBirth(LocalDate.of(1980, 1, 1));
+        patient.setGender("Nữ");
+        patient.setPhone("0911" + n);
+        patient.setEmail("emr" + n + "@clinic.test");
+        return patientRepository.save(patient);
+    }
+
+    private User saveUser(int role) {
+        int n = SEQUENCE.incrementAndGet();
+        User user = new User();
+        user.setUsername("emr" + n + "@clinic.test");
+        user.setPasswordHash("default123");
+        user.setRole(role);
+        user.setFullName("Doctor " + n);
+        user.setEmail("emr" + n + "@clinic.test");
+        user.setStatus("Active");
+        return userRepository.save(user);
+    }
+}
@@ -0,0 +1,75 @@
+package com.clinicSys.service.impl;
+
+import com.clinicSys.backend.BackendApplication;
+import com.clinicSys.dto.request.FileFormat;
+import com.clinicSys.service.IExportService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.OutputStream;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Exports a million appointments with -Xmx256m (export-memory execution in pom.xml). Loading
+ * them as entities and DTOs, as the list endpoints do, needs several times that heap. The
+ * database is an H2 file, because an in-memory H2 holding the rows would fill the heap by itself.
+ */
+@Tag("export-memory")
+@SpringBootTest(classes = BackendApplication.class, properties =
+    "spring.datasource.url=jdbc:h2:file:./target/export-memory-db;MODE=MSSQLServer;DATABASE_TO_UPPER=FALSE")
+class ExportMemoryTests {
+
+    private static final int ROWS = 1_000_000;
+
+    @Autowired
+    private IExportService exportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void aMillionRowsAreExportedWithASmallHeap() throws Exception {
+        assertTrue(Runtime.getRuntime().maxMemory() <= 256L * 1024 * 1024, "expected to run with -Xmx256m");
+        jdbcTemplate.update(
+            "INSERT INTO Appointment (DateTime, Status, PatientID, DoctorID, ReceptionistID) " +
+            "SELECT DATEADD(SECOND, X * 10, TIMESTAMP '2040-01-01 00:00:00'), 'Completed', 1, 1, 1 " +
+            "FROM SYSTEM_RANGE(1, " + ROWS + ")");
+
+        LineCounter csv = new LineCounter();
+        long rows = exportService.exportAppointments(LocalDate.of(2040, 1, 1), LocalDate.of(2040, 12, 31),
+            FileFormat.CSV, csv);
+        assertEquals(ROWS, rows);
+        assertEquals(ROWS + 1, csv.lines);
+
+        LineCounter ndjson = new LineCounter();
+        assertEquals(ROWS, exportService.exportAppointments(null, null, FileFormat.NDJSON, ndjson));
+        assertEquals(ROWS, ndjson.lines);
+    }
+
+    // Discards the export, keeping only the number of lines
+    private static final class LineCounter extends OutputStream {
+        private long lines;
+
+        @Override
+        public void write(int b) {
+            if (b == '\n') {
+                lines++;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '\n') {
+                    lines++;
+                }
+            }
+        }
+    }
+}
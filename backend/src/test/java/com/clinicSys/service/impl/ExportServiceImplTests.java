@@ -0,0 +1,219 @@
+package com.clinicSys.service.impl;
+
+import com.clinicSys.backend.BackendApplication;
+import com.clinicSys.config.JwtUtil;
+import com.clinicSys.domain.Appointment;
+import com.clinicSys.domain.AppointmentStatus;
+import com.clinicSys.domain.Bill;
+import com.clinicSys.domain.Patient;
+import com.clinicSys.domain.User;
+import com.clinicSys.dto.request.FileFormat;
+import com.clinicSys.repository.IAppointmentRepository;
+import com.clinicSys.repository.IBillRepository;
+import com.clinicSys.repository.IPatientRepository;
+import com.clinicSys.repository.IUserRepository;
+import com.clinicSys.service.IExportService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(classes = BackendApplication.class)
+@AutoConfigureMockMvc
+class ExportServiceImplTests {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+    // Each test exports its own day, far from the data of other test classes
+    private static final AtomicInteger DAY_OFFSET = new AtomicInteger();
+
+    @Autowired
+    private IExportService exportService;
+
+    @Autowired
+    private IAppointmentRepository appointmentRepository;
+
+    @Autowired
+    private IBillRepository billRepository;
+
+    @Autowired
+    private IPatientRepository patientRepository;
+
+    @Autowired
+    private IUserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private User doctor;
+    private String adminToken;
+
+    @BeforeEach
+    void setUp() {
+        doctor = saveUser(2);
+        adminToken = "Bearer " + jwtUtil.generateToken(saveUser(1));
+    }
+
+    @Test
+    void appointmentsAreExportedAsCsvForTheRequestedDays() throws Exception {
+        LocalDate day = nextDay();
+        Patient quoted = savePatient("Nguyễn Văn \"Bảy\", con");
+        Appointment first = saveAppointment(quoted, day.atTime(8, 0));
+        Appointment second = saveAppointment(savePatient("Trần Thị Tám"), day.atTime(9, 30));
+        saveAppointment(quoted, day.plusDays(1).atTime(8, 0));
+
+        String csv = export("/api/admin/export/appointments?format=csv&from=" + day + "&to=" + day,
+            "text/csv;charset=UTF-8", "appointments.csv");
+
+        assertTrue(csv.startsWith("﻿"));
+        List<String> lines = csv.substring(1).lines().toList();
+        assertEquals(List.of(
+            "appointmentID,dateTime,status,patientCode,patientName,doctorName",
+            first.getAppointmentID() + "," + day + "T08:00:00,Scheduled," + quoted.getPatientCode()
+                + ",\"Nguyễn Văn \"\"Bảy\"\", con\"," + doctor.getFullName(),
+            second.getAppointmentID() + "," + day + "T09:30:00,Scheduled," + patientCode(second)
+                + ",Trần Thị Tám," + doctor.getFullName()
+        ), lines);
+    }
+
+    @Test
+    void billsAreExportedAsNdjson() throws Exception {
+        LocalDate day = nextDay();
+        Patient patient = savePatient("Lê Văn Chín");
+        Bill unpaid = saveBill(saveAppointment(patient, day.atTime(10, 0)), day.atTime(11, 0), new BigDecimal("150000.50"));
+        saveBill(saveAppointment(patient, day.minusDays(1).atTime(10, 0)), day.minusDays(1).atTime(11, 0), BigDecimal.TEN);
+
+        String ndjson = export("/api/admin/export/bills?format=ndjson&from=" + day + "&to=" + day,
+            "application/x-ndjson", "bills.ndjson");
+
+        List<String> lines = ndjson.lines().toList();
+        assertEquals(1, lines.size());
+        JsonNode bill = objectMapper.readTree(lines.get(0));
+        assertEquals(unpaid.getBillID(), bill.get("billID").asInt());
+        assertEquals(unpaid.getInvoiceCode(), bill.get("invoiceCode").asText());
+        assertEquals("Lê Văn Chín", bill.get("patientName").asText());
+        assertTrue(lines.get(0).contains("\"totalAmount\":150000.50"), lines.get(0));
+        assertEquals(day + "T11:00:00", bill.get("dateIssued").asText());
+        assertTrue(bill.get("datePaid").isNull());
+    }
+
+    @Test
+    void patientExportWithoutFiltersContainsEveryPatient() throws Exception {
+        Patient patient = savePatient("Phạm Thị Mười");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = exportService.exportPatients(FileFormat.NDJSON, out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(rows, lines.size());
+        assertEquals(patientRepository.findAll().size(), rows);
+        assertTrue(lines.stream().anyMatch(line -> line.contains("\"patientCode\":\"" + patient.getPatientCode() + "\"")));
+    }
+
+    @Test
+    void invalidRequestsAreRejectedBeforeStreaming() throws Exception {
+        MvcResult badFormat = mockMvc.perform(get("/api/admin/export/patients").param("format", "xml")
+                .header("Authorization", adminToken))
+            .andReturn();
+        mockMvc.perform(asyncDispatch(badFormat))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("Định dạng tệp không hợp lệ: xml (csv hoặc ndjson)"));
+        mockMvc.perform(get("/api/admin/export/bills").param("from", "2035-02-02").param("to", "2035-02-01")
+                .header("Authorization", adminToken))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/admin/export/patients")
+                .header("Authorization", "Bearer " + jwtUtil.generateToken(doctor)))
+            .andExpect(status().isForbidden());
+    }
+
+    private String export(String url, String contentType, String fileName) throws Exception {
+        MvcResult started = mockMvc.perform(get(url).header("Authorization", adminToken))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(contentType))
+            .andExpect(header().string("Content-Disposition", "attachment; filename=\"" + fileName + "\""))
+            .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+    }
+
+    private LocalDate nextDay() {
+        return LocalDate.of(2035, 5, 1).plusDays(3L * DAY_OFFSET.getAndIncrement());
+    }
+
+    private String patientCode(Appointment appointment) {
+        return patientRepository.findById(appointment.getPatientID()).orElseThrow().getPatientCode();
+    }
+
+    private Appointment saveAppointment(Patient patient, LocalDateTime dateTime) {
+        Appointment appointment = new Appointment();
+        appointment.setPatientID(patient.getPatientID());
+        appointment.setDoctorID(doctor.getUserID());
+        appointment.setReceptionistID(doctor.getUserID());
+        appointment.setDateTime(dateTime);
+        appointment.setStatus(AppointmentStatus.SCHEDULED);
+        return appointmentRepository.save(appointment);
+    }
+
+    private Bill saveBill(Appointment appointment, LocalDateTime dateIssued, BigDecimal amount) {
+        Bill bill = new Bill();
+        bill.setInvoiceCode("EX-INV" + SEQUENCE.incrementAndGet());
+        bill.setTotalAmount(amount);
+        bill.setPaymentStatus("Unpaid");
+        bill.setAppointmentID(appointment.getAppointmentID());
+        bill.setDateIssued(dateIssued);
+        return billRepository.save(bill);
+    }
+
+    private Patient savePatient(String fullName) {
+        int n = SEQUENCE.incrementAndGet();
+        Patient patient = new Patient();
+        patient.setPatientCode("EX" + n);
+        patient.setFullName(fullName);
+        patient.setDateOfBirth(LocalDate.of(1979, 9, 9));
+        patient.setGender("Nam");
+        patient.setPhone("0970" + n);
+        patient.setEmail("ex-patient" + n + "@clinic.test");
+        return patientRepository.save(patient);
+    }
+
+    private User saveUser(int role) {
+        int n = SEQUENCE.incrementAndGet();
+        User user = new User();
+        user.setUsername("ex-user" + n + "@clinic.test");
+        user.setPasswordHash("default123");
+        user.setRole(role);
+        user.setFullName("Staff " + n);
+        user.setEmail("ex-user" + n + "@clinic.test");
+        user.setStatus("Active");
+        return userRepository.save(user);
+    }
+}
@@ -0,0 +1,272 @@
+package com.clinicSys.service.impl;
+
+import com.clinicSys.backend.BackendApplication;
+import com.clinicSys.config.JwtUtil;
+import com.clinicSys.domain.Medicine;
+import com.clinicSys.domain.MedicineGroup;
+import com.clinicSys.domain.Patient;
+import com.clinicSys.domain.User;
+import com.clinicSys.dto.request.FileFormat;
+import com.clinicSys.dto.response.ImportJobDTO;
+import com.clinicSys.dto.response.ImportRowErrorDTO;
+import com.clinicSys.repository.IMedicineRepository;
+import com.clinicSys.repository.IPatientRepository;
+import com.clinicSys.repository.IUserRepository;
+import com.clinicSys.service.IImportService;
+import com.clinicSys.service.IPatientSearchService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(classes = BackendApplication.class)
+@AutoConfigureMockMvc
+class ImportServiceImplTests {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private IImportService importService;
+
+    @Autowired
+    private IPatientRepository patientRepository;
+
+    @Autowired
+    private IMedicineRepository medicineRepository;
+
+    @Autowired
+    private IPatientSearchService patientSearchService;
+
+    @Autowired
+    private IUserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private String adminToken;
+
+    @BeforeEach
+    void setUp() {
+        adminToken = "Bearer " + jwtUtil.generateToken(saveUser(1));
+    }
+
+    @Test
+    void patientCsvUpsertsValidRowsAndReportsTheOthers() throws Exception {
+        int n = SEQUENCE.incrementAndGet();
+        Patient existing = savePatient("IMP-P" + n, "Old Name " + n, "09800" + n + "001");
+        String csv = "\uFEFFPatientCode,FullName,DateOfBirth,Gender,Phone,Email,Address\r\n"
+            + "IMP-P" + n + ",Updated Name " + n + ",1980-05-01,Nam,09800" + n + "001,,\r\n"
+            + ",Imported Person " + n + ",1992-11-30,Nữ,0980 0" + n + " 002,imported" + n + "@clinic.test,\"12 Lê Lợi, Q1\nTầng 2\"\r\n"
+            + ",Bad Date " + n + ",1992-13-40,Nam,09800" + n + "003,,\r\n"
+            + ",Duplicate Phone " + n + ",1990-01-01,Khác,09800" + n + "001,,\r\n";
+
+        MvcResult result = mockMvc.perform(multipart("/api/admin/import/patients")
+                .file(new MockMultipartFile("file", "patients.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8)))
+                .header("Authorization", adminToken))
+            .andExpect(status().isAccepted())
+            .andExpect(jsonPath("$.type").value("Patients"))
+            .andReturn();
+        ImportJobDTO job = awaitJob(objectMapper.readValue(result.getResponse().getContentAsString(), ImportJobDTO.class).jobID());
+
+        assertEquals(ImportServiceImpl.COMPLETED, job.status());
+        assertEquals(4, job.rowsRead());
+        assertEquals(1, job.inserted());
+        assertEquals(1, job.updated());
+        assertEquals(2, job.failed());
+        ImportRowErrorDTO badDate = job.errors().stream().filter(e -> e.line() == 5).findFirst().orElseThrow();
+        assertTrue(badDate.message().startsWith("Ngày không hợp lệ"), badDate.message());
+        ImportRowErrorDTO duplicate = job.errors().stream().filter(e -> e.line() == 6).findFirst().orElseThrow();
+        assertEquals("Số điện thoại đã tồn tại trong hệ thống", duplicate.message());
+
+        Patient updated = patientRepository.findById(existing.getPatientID()).orElseThrow();
+        assertEquals("Updated Name " + n, updated.getFullName());
+        Patient imported = patientRepository.findByPhone("09800" + n + "002").orElseThrow();
+        assertEquals("12 Lê Lợi, Q1\nTầng 2", imported.getAddress());
+        assertEquals(LocalDate.of(1992, 11, 30), imported.getDateOfBirth());
+        assertTrue(imported.getPatientCode().startsWith("P"), imported.getPatientCode());
+        // Imported patients are searchable straight away
+        assertTrue(patientSearchService.search("Imported Person " + n, 10).stream()
+            .anyMatch(p -> p.patientID() == imported.getPatientID()));
+    }
+
+    @Test
+    void medicineNdjsonUpdatesCachedMedicines() throws Exception {
+        int n = SEQUENCE.incrementAndGet();
+        MedicineGroup group = saveGroup();
+        saveMedicine(group, "IMP-M" + n);
+        // Warm the entity and query cache with the old price
+        assertEquals(0, new BigDecimal("10.00").compareTo(medicineRepository.findByMedicineCode("IMP-M" + n).orElseThrow().getPrice()));
+
+        String ndjson = "{\"medicineCode\":\"IMP-M" + n + "\",\"medicineName\":\"Paracetamol\",\"medicineGroupID\":" + group.getMedicineGroupID()
+            + ",\"strength\":\"500mg\",\"unit\":\"Viên\",\"price\":1500.50,\"stock\":200}\n"
+            + "{\"medicineCode\":\"IMP-N" + n + "\",\"medicineName\":\"Amoxicillin\",\"medicineGroupID\":" + group.getMedicineGroupID()
+            + ",\"price\":2500,\"stock\":50,\"status\":\"Inactive\"}\n"
+            + "{\"medicineCode\":\"IMP-X" + n + "\",\"medicineName\":\"Unknown group\",\"medicineGroupID\":-1,\"price\":1,\"stock\":1}\n"
+            + "not json\n"
+            + "\n";
+
+        ImportJobDTO job = awaitJob(importService.startMedicineImport(tempFile(ndjson), FileFormat.NDJSON).jobID());
+
+        assertEquals(ImportServiceImpl.COMPLETED, job.status());
+        assertEquals(1, job.inserted());
+        assertEquals(1, job.updated());
+        assertEquals(2, job.failed());
+        assertEquals("Không tìm thấy nhóm thuốc: -1", job.errors().stream().filter(e -> e.line() == 3).findFirst().orElseThrow().message());
+        assertTrue(job.errors().stream().anyMatch(e -> e.line() == 4));
+
+        Medicine updated = medicineRepository.findByMedicineCode("IMP-M" + n).orElseThrow();
+        assertEquals(0, new BigDecimal("1500.50").compareTo(updated.getPrice()));
+        assertEquals(200, updated.getStock());
+        assertEquals("500mg", updated.getStrength());
+        Medicine inserted = medicineRepository.findByMedicineCode("IMP-N" + n).orElseThrow();
+        assertEquals("Inactive", inserted.getStatus());
+        assertFalse(medicineRepository.findByMedicineCode("IMP-X" + n).isPresent());
+    }
+
+    @Test
+    void largeFilesAreWrittenChunkByChunk() throws Exception {
+        int n = SEQUENCE.incrementAndGet();
+        int rows = 2300;
+        StringBuilder csv = new StringBuilder("fullName,dateOfBirth,gender,phone\n");
+        for (int i = 0; i < rows; i++) {
+            csv.append("Bulk Patient ").append(n).append('-').append(i).append(",1970-01-01,Nam,")
+                .append(String.format("0981%02d%05d", n, i)).append('\n');
+        }
+        // One row without a name
+        csv.append(",1970-01-01,Nam,0981999999\n");
+
+        Path file = tempFile(csv.toString());
+        ImportJobDTO job = awaitJob(importService.startPatientImport(file, FileFormat.CSV).jobID());
+
+        assertEquals(ImportServiceImpl.COMPLETED, job.status());
+        assertEquals(rows + 1, job.rowsRead());
+        assertEquals(rows, job.inserted());
+        assertEquals(1, job.failed());
+        assertEquals("Họ tên không được để trống", job.errors().get(0).message());
+        assertTrue(patientRepository.findByPhone(String.format("0981%02d%05d", n, rows - 1)).isPresent());
+        assertFalse(Files.exists(file), "The uploaded file is deleted when the import ends");
+    }
+
+    @Test
+    void fileWithoutARequiredColumnFailsTheJob() throws Exception {
+        ImportJobDTO job = awaitJob(importService.startPatientImport(
+            tempFile("fullName,gender,phone\nNo Birthday,Nam,0981000000\n"), FileFormat.CSV).jobID());
+
+        assertEquals(ImportServiceImpl.FAILED, job.status());
+        assertEquals("Thiếu cột bắt buộc: dateofbirth", job.message());
+        assertEquals(0, job.inserted());
+    }
+
+    @Test
+    void importEndpointsAreAdminOnly() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "patients.xml", "text/xml", "<x/>".getBytes(StandardCharsets.UTF_8));
+        mockMvc.perform(multipart("/api/admin/import/patients").file(file).param("format", "xml")
+                .header("Authorization", adminToken))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("Định dạng tệp không hợp lệ: xml (csv hoặc ndjson)"));
+        mockMvc.perform(get("/api/admin/import/no-such-job").header("Authorization", adminToken))
+            .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/admin/import").header("Authorization", adminToken))
+            .andExpect(status().isOk());
+        mockMvc.perform(multipart("/api/admin/import/patients").file(file)
+                .header("Authorization", "Bearer " + jwtUtil.generateToken(saveUser(2))))
+            .andExpect(status().isForbidden());
+    }
+
+    private ImportJobDTO awaitJob(String jobID) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 60_000;
+        ImportJobDTO job = importService.getJob(jobID);
+        while (job.finishedAt() == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            job = importService.getJob(jobID);
+        }
+        assertNotNull(job.finishedAt(), "Import did not finish");
+        return job;
+    }
+
+    private Path tempFile(String content) throws IOException {
+        Path file = Files.createTempFile("import-test-", ".tmp");
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        return file;
+    }
+
+    private Patient savePatient(String code, String name, String phone) {
+        Patient patient = new Patient();
+        patient.setPatientCode(code);
+        patient.setFullName(name);
+        patient.setDateOfBirth(LocalDate.of(1980, 5, 1));
+        patient.setGender("Nam");
+        patient.setPhone(phone);
+        return patientRepository.save(patient);
+    }
+
+    private MedicineGroup saveGroup() {
+        return transactionTemplate.execute(status -> {
+            MedicineGroup medicineGroup = new MedicineGroup();
+            medicineGroup.setName("Import Group");
+            medicineGroup.setStatus("Active");
+            entityManager.persist(medicineGroup);
+            return medicineGroup;
+        });
+    }
+
+    private void saveMedicine(MedicineGroup group, String code) {
+        Medicine medicine = new Medicine();
+        medicine.setMedicineCode(code);
+        medicine.setMedicineGroupID(group.getMedicineGroupID());
+        medicine.setName("Medicine " + code);
+        medicine.setPrice(new BigDecimal("10.00"));
+        medicine.setStock(10);
+        medicine.setStatus("Active");
+        medicineRepository.save(medicine);
+    }
+
+    private User saveUser(int role) {
+        int n = SEQUENCE.incrementAndGet();
+        User user = new User();
+        user.setUsername("import-user" + n + "@clinic.test");
+        user.setPasswordHash("default123");
+        user.setRole(role);
+        user.setFullName("Import Admin " + n);
+        user.setEmail("import-user" + n + "@clinic.test");
+        user.setStatus("Active");
+        return userRepository.save(user);
+    }
+}
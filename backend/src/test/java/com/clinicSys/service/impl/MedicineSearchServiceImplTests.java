@@ -0,0 +1,148 @@
+package com.clinicSys.service.impl;
+
+import com.clinicSys.backend.BackendApplication;
+import com.clinicSys.domain.MedicineGroup;
+import com.clinicSys.dto.request.CreateMedicineDTO;
+import com.clinicSys.dto.request.UpdateMedicineDTO;
+import com.clinicSys.dto.response.MedicineDTO;
+import com.clinicSys.service.IMedicineSearchService;
+import com.clinicSys.service.IMedicineService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(classes = BackendApplication.class)
+class MedicineSearchServiceImplTests {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private IMedicineSearchService medicineSearchService;
+
+    @Autowired
+    private IMedicineService medicineService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void matchesWordPrefixesTyposAndCodes() {
+        MedicineGroup group = saveGroup("Kháng sinh thử");
+        MedicineDTO zorvalimab = createMedicine(group, "Zorvalimab 50mg", 10);
+        MedicineDTO zorvaxin = createMedicine(group, "Zorvaxin 10mg", 10);
+
+        assertTrue(ids(medicineSearchService.search("zorv", 10, false))
+            .containsAll(List.of(zorvalimab.medicineID(), zorvaxin.medicineID())));
+        assertEquals(zorvaxin.medicineID(), medicineSearchService.search("Zorvaxin 10", 10, false).get(0).medicineID());
+
+        // One typo in a medium word, two in a long one
+        assertEquals(zorvaxin.medicineID(), medicineSearchService.search("zorvaxim", 10, false).get(0).medicineID());
+        assertEquals(zorvalimab.medicineID(), medicineSearchService.search("zorvelimb", 10, false).get(0).medicineID());
+        // Short words have to match exactly
+        assertTrue(medicineSearchService.search("zovr", 10, false).isEmpty());
+
+        List<MedicineDTO> byCode = medicineSearchService.search(zorvalimab.medicineCode().toLowerCase(), 10, false);
+        assertEquals(zorvalimab.medicineID(), byCode.get(0).medicineID());
+        assertEquals("Kháng sinh thử", byCode.get(0).medicineGroupName());
+    }
+
+    @Test
+    void statusAndStockAreFilteredAndEditsAreReindexed() {
+        MedicineGroup group = saveGroup("Giảm đau thử");
+        MedicineDTO medicine = createMedicine(group, "Quenthral 250mg", 0);
+
+        assertTrue(ids(medicineSearchService.search("quenthral", 10, false)).contains(medicine.medicineID()));
+        assertFalse(ids(medicineSearchService.search("quenthral", 10, true)).contains(medicine.medicineID()));
+
+        medicineService.updateMedicine(medicine.medicineID(),
+            new UpdateMedicineDTO("Quinmerol 250mg", null, null, null, null, null));
+        assertFalse(ids(medicineSearchService.search("quenthral", 10, false)).contains(medicine.medicineID()));
+        assertTrue(ids(medicineSearchService.search("quinmerol", 10, false)).contains(medicine.medicineID()));
+        assertTrue(ids(medicineSearchService.search("250", 10, false)).contains(medicine.medicineID()));
+
+        medicineService.updateMedicineStatus(medicine.medicineID(), "Inactive");
+        assertFalse(ids(medicineSearchService.search("quinmerol", 10, false)).contains(medicine.medicineID()));
+    }
+
+    @Test
+    void rolledBackUpdateIsNotIndexed() {
+        MedicineGroup group = saveGroup("Tim mạch thử");
+        MedicineDTO medicine = createMedicine(group, "Cardovexil 5mg", 10);
+        transactionTemplate.executeWithoutResult(status -> {
+            medicineService.updateMedicine(medicine.medicineID(),
+                new UpdateMedicineDTO("Cardomintra 5mg", null, null, null, null, null));
+            medicineService.updateMedicineStatus(medicine.medicineID(), "Inactive");
+            status.setRollbackOnly();
+        });
+
+        assertTrue(ids(medicineSearchService.search("cardovexil", 10, false)).contains(medicine.medicineID()));
+        assertFalse(ids(medicineSearchService.search("cardomintra", 10, false)).contains(medicine.medicineID()));
+    }
+
+    @Test
+    void searchDoesNotQueryTheDatabase() {
+        MedicineGroup group = saveGroup("Tiêu hóa thử");
+        MedicineDTO medicine = createMedicine(group, "Gastrovex 20mg", 5);
+        // First lookup of the new group goes to the database
+        medicineSearchService.search("gastrovex", 10, false);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        assertEquals(medicine.medicineID(), medicineSearchService.search("gastrovex", 10, true).get(0).medicineID());
+        assertEquals(medicine.medicineID(), medicineSearchService.search("gastrovx 20", 10, true).get(0).medicineID());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void resultsAreCappedAndSurviveRebuild() {
+        MedicineGroup group = saveGroup("Vitamin thử");
+        for (int i = 0; i < IMedicineSearchService.MAX_RESULTS + 5; i++) {
+            createMedicine(group, "Pelorazin " + i, 1);
+        }
+        assertEquals(IMedicineSearchService.MAX_RESULTS, medicineSearchService.search("pelorazin", 1000, false).size());
+        assertEquals(3, medicineSearchService.search("pelorazin", 3, false).size());
+
+        medicineSearchService.rebuild();
+        assertEquals(IMedicineSearchService.MAX_RESULTS, medicineSearchService.search("pelorazin", 1000, false).size());
+        assertEquals("pelorazin 7", medicineSearchService.search("pelorazin 7", 1, false).get(0).medicineName().toLowerCase());
+    }
+
+    private MedicineGroup saveGroup(String name) {
+        return transactionTemplate.execute(status -> {
+            MedicineGroup medicineGroup = new MedicineGroup();
+            medicineGroup.setName(name);
+            medicineGroup.setStatus("Active");
+            entityManager.persist(medicineGroup);
+            return medicineGroup;
+        });
+    }
+
+    private MedicineDTO createMedicine(MedicineGroup group, String name, int stock) {
+        return medicineService.createMedicine(new CreateMedicineDTO(
+            "MS-" + SEQUENCE.incrementAndGet(), group.getMedicineGroupID(), name, null, "Viên",
+            BigDecimal.TEN, stock, "Active"));
+    }
+
+    private static List<Integer> ids(List<MedicineDTO> medicines) {
+        return medicines.stream().map(MedicineDTO::medicineID).toList();
+    }
+}
@@ -0,0 +1,115 @@
+package com.clinicSys.service.impl;
+
+import com.clinicSys.backend.BackendApplication;
+import com.clinicSys.domain.Medicine;
+import com.clinicSys.domain.MedicineGroup;
+import com.clinicSys.dto.response.MedicineDTO;
+import com.clinicSys.dto.response.PageDTO;
+import com.clinicSys.repository.IMedicineRepository;
+import com.clinicSys.service.IMedicineService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(classes = BackendApplication.class)
+class MedicineServiceImplTests {
+
+    @Autowired
+    private IMedicineService medicineService;
+
+    @Autowired
+    private IMedicineRepository medicineRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void pagesByCodeStayConsistentWhileCodesAreInsertedAnywhere() throws Exception {
+        MedicineGroup group = saveGroup();
+        // Codes land both before and after the current cursor
+        Random random = new Random(42);
+        Set<String> usedCodes = new HashSet<>();
+        for (int i = 0; i < 50; i++) {
+            saveMedicine(group, nextCode(random, usedCodes));
+        }
+        Set<String> existing = new HashSet<>();
+        for (Medicine medicine : medicineRepository.findAll()) {
+            existing.add(medicine.getMedicineCode());
+        }
+
+        ExecutorService inserter = Executors.newSingleThreadExecutor();
+        Future<?> inserts = inserter.submit(() -> {
+            for (int i = 0; i < 40; i++) {
+                saveMedicine(group, nextCode(random, usedCodes));
+                Thread.sleep(2);
+            }
+            return null;
+        });
+
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            PageDTO<MedicineDTO> page = medicineService.getMedicinesPage(cursor, 6);
+            page.items().forEach(m -> seen.add(m.medicineCode()));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+        inserts.get(10, TimeUnit.SECONDS);
+        inserter.shutdown();
+
+        assertEquals(seen.size(), new HashSet<>(seen).size(), "A medicine was returned twice");
+        for (int i = 1; i < seen.size(); i++) {
+            assertTrue(seen.get(i - 1).compareTo(seen.get(i)) < 0, "Pages must follow the sort key");
+        }
+        assertTrue(seen.containsAll(existing), "A medicine that existed before paging was skipped");
+    }
+
+    private String nextCode(Random random, Set<String> usedCodes) {
+        synchronized (usedCodes) {
+            String code;
+            do {
+                code = String.format("KS%04d", random.nextInt(10000));
+            } while (!usedCodes.add(code));
+            return code;
+        }
+    }
+
+    private MedicineGroup saveGroup() {
+        return transactionTemplate.execute(status -> {
+            MedicineGroup medicineGroup = new MedicineGroup();
+            medicineGroup.setName("Keyset Group");
+            medicineGroup.setStatus("Active");
+            entityManager.persist(medicineGroup);
+            return medicineGroup;
+        });
+    }
+
+    private void saveMedicine(MedicineGroup group, String code) {
+        Medicine medicine = new Medicine();
+        medicine.setMedicineCode(code);
+        medicine.setMedicineGroupID(group.getMedicineGroupID());
+        medicine.setName("Medicine " + code);
+        medicine.setPrice(BigDecimal.ONE);
+        medicine.setStock(10);
+        medicine.setStatus("Active");
+        medicineRepository.save(medicine);
+    }
+}
@@ -0,0 +1,152 @@
+package com.clinicSys.service.impl;
+
+import com.clinicSys.backend.BackendApplication;
+import com.clinicSys.config.BucketHistogram;
+import com.clinicSys.config.JwtUtil;
+import com.clinicSys.config.SqlStatementCounter;
+import com.clinicSys.domain.User;
+import com.clinicSys.dto.response.MethodTimingDTO;
+import com.clinicSys.dto.response.MetricsDTO;
+import com.clinicSys.dto.response.RouteStatementsDTO;
+import com.clinicSys.repository.IUserRepository;
+import com.clinicSys.service.IMetricsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(classes = BackendApplication.class)
+@AutoConfigureMockMvc
+class MetricsServiceImplTests {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private IMetricsService metricsService;
+
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+
+    @Autowired
+    private IUserRepository userRepository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Test
+    void repositoryAndServiceCallsAreTimedAndRequestsCountTheirStatements() throws Exception {
+        User admin = saveUser(1);
+        mockMvc.perform(get("/api/admin/audit").param("userId", String.valueOf(admin.getUserID()))
+                .header("Authorization", "Bearer " + jwtUtil.generateToken(admin)))
+            .andExpect(status().isOk());
+
+        MetricsDTO metrics = metricsService.getMetrics();
+        MethodTimingDTO service = find(metrics, "IAuditLogService", "getRecent");
+        assertEquals("service", service.layer());
+        assertTrue(service.calls() >= 1);
+        assertTrue(service.maxMillis() > 0 && service.p99Millis() <= service.maxMillis());
+        assertEquals("repository", find(metrics, "IUserRepository", "save").layer());
+
+        RouteStatementsDTO route = metrics.routes().stream()
+            .filter(r -> r.route().equals("GET /api/admin/audit")).findFirst().orElseThrow();
+        assertTrue(route.requests() >= 1);
+        assertTrue(route.maxStatements() >= 1, "The audit query runs on the request thread");
+        assertTrue(metrics.sqlStatements() >= route.maxStatements());
+        assertNotNull(metrics.connectionPool());
+        assertTrue(metrics.connectionPool().maximumPoolSize() > 0);
+    }
+
+    @Test
+    void requestsOverTheStatementBudgetAreFlagged() throws Exception {
+        User admin = saveUser(1);
+        long before = overBudget("GET /api/admin/audit");
+        ReflectionTestUtils.setField(sqlStatementCounter, "statementBudget", 0);
+        try {
+            mockMvc.perform(get("/api/admin/audit").param("userId", String.valueOf(admin.getUserID()))
+                    .header("Authorization", "Bearer " + jwtUtil.generateToken(admin)))
+                .andExpect(status().isOk());
+        } finally {
+            ReflectionTestUtils.setField(sqlStatementCounter, "statementBudget", 30);
+        }
+
+        assertEquals(before + 1, overBudget("GET /api/admin/audit"));
+        assertEquals("GET /api/admin/audit", metricsService.getMetrics().violations().get(0).route());
+    }
+
+    @Test
+    void prometheusScrapeNeedsTheScrapeToken() throws Exception {
+        saveUser(2);
+        mockMvc.perform(get("/api/metrics/prometheus"))
+            .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/metrics/prometheus").header("Authorization", "Bearer wrong-token"))
+            .andExpect(status().isUnauthorized());
+
+        String body = mockMvc.perform(get("/api/metrics/prometheus").header("Authorization", "Bearer test-scrape-token"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith("text/plain"))
+            .andReturn().getResponse().getContentAsString();
+        assertTrue(body.contains("# TYPE clinic_method_seconds histogram"), body);
+        assertTrue(body.contains("clinic_method_seconds_bucket{layer=\"repository\",type=\"IUserRepository\",method=\"save\",le=\"+Inf\"}"), body);
+        assertTrue(body.contains("clinic_sql_statement_budget 30"), body);
+        assertTrue(body.contains("hikaricp_connections_active{pool=\""), body);
+
+        mockMvc.perform(get("/api/admin/metrics").header("Authorization", "Bearer " + jwtUtil.generateToken(saveUser(2))))
+            .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void histogramBucketsAndPercentiles() {
+        BucketHistogram histogram = new BucketHistogram(1, 10, 100);
+        assertEquals(0, histogram.percentile(0.99));
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i);
+        }
+        histogram.record(250);
+
+        assertArrayEquals(new long[] {1, 10, 100, 101}, histogram.getCumulativeCounts());
+        assertEquals(101, histogram.getCount());
+        assertEquals(5300, histogram.getSum());
+        assertEquals(250, histogram.getMax());
+        double median = histogram.percentile(0.5);
+        assertTrue(median > 10 && median <= 100, String.valueOf(median));
+        assertEquals(250, histogram.percentile(1.0));
+    }
+
+    private MethodTimingDTO find(MetricsDTO metrics, String type, String method) {
+        return metrics.methods().stream()
+            .filter(m -> m.type().equals(type) && m.method().equals(method))
+            .findFirst().orElseThrow(() -> new AssertionError("No timer for " + type + "." + method));
+    }
+
+    private long overBudget(String route) {
+        return metricsService.getMetrics().routes().stream()
+            .filter(r -> r.route().equals(route)).mapToLong(RouteStatementsDTO::overBudget).sum();
+    }
+
+    private User saveUser(int role) {
+        int n = SEQUENCE.incrementAndGet();
+        User user = new User();
+        user.setUsername("metrics-user" + n + "@clinic.test");
+        user.setPasswordHash("default123");
+        user.setRole(role);
+        user.setFullName("Metrics Staff " + n);
+        user.setEmail("metrics-user" + n + "@clinic.test");
+        user.setStatus("Active");
+        return userRepository.save(user);
+    }
+}
@@ -0,0 +1,277 @@
+package com.clinicSys.service.impl;
+
+import com.clinicSys.backend.BackendApplication;
+import com.clinicSys.config.JwtUtil;
+import com.clinicSys.domain.Appointment;
+import com.clinicSys.domain.AppointmentStatus;
+import com.clinicSys.domain.Notification;
+import com.clinicSys.domain.Patient;
+import com.clinicSys.domain.User;
+import com.clinicSys.dto.request.CreateAppointmentDTO;
+import com.clinicSys.dto.response.AppointmentWithDoctorDTO;
+import com.clinicSys.dto.response.NotificationMessageDTO;
+import com.clinicSys.dto.response.NotificationStatsDTO;
+import com.clinicSys.repository.IAppointmentRepository;
+import com.clinicSys.repository.INotificationRepository;
+import com.clinicSys.repository.IPatientRepository;
+import com.clinicSys.repository.IUserRepository;
+import com.clinicSys.service.INotificationChannel;
+import com.clinicSys.service.INotificationService;
+import com.clinicSys.service.IReceptionistService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(classes = BackendApplication.class)
+@AutoConfigureMockMvc
+class NotificationServiceImplTests {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+    private static final AtomicInteger DAY_OFFSET = new AtomicInteger();
+
+    @Autowired
+    private INotificationService notificationService;
+
+    @Autowired
+    private IReceptionistService receptionistService;
+
+    @Autowired
+    private INotificationRepository notificationRepository;
+
+    @Autowired
+    private IAppointmentRepository appointmentRepository;
+
+    @Autowired
+    private IPatientRepository patientRepository;
+
+    @Autowired
+    private IUserRepository userRepository;
+
+    @Autowired
+    private INotificationChannel channel;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Value("${clinic.notifications.file}")
+    private Path sinkFile;
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void bookingWritesAConfirmationAndAReminderWithTheAppointment() {
+        LocalDateTime dateTime = nextDay().atTime(9, 0);
+        AppointmentWithDoctorDTO booked = book(dateTime);
+
+        Map<String, Notification> byType = byType(booked.appointmentID());
+        assertEquals(Set.of(Notification.CONFIRMATION, Notification.REMINDER), byType.keySet());
+        assertEquals(Notification.PENDING, byType.get(Notification.CONFIRMATION).getStatus());
+        assertTrue(!byType.get(Notification.CONFIRMATION).getSendAfter().isAfter(LocalDateTime.now()));
+        assertEquals(dateTime.minusHours(24), byType.get(Notification.REMINDER).getSendAfter());
+    }
+
+    @Test
+    void cancellingAnAppointmentCancelsItsReminder() {
+        AppointmentWithDoctorDTO booked = book(nextDay().atTime(10, 0));
+        receptionistService.updateAppointmentStatus(booked.appointmentID(), "Cancelled");
+
+        Map<String, Notification> byType = byType(booked.appointmentID());
+        assertEquals(Notification.CANCELLED, byType.get(Notification.REMINDER).getStatus());
+        assertEquals(Notification.PENDING, byType.get(Notification.CONFIRMATION).getStatus());
+        assertEquals(Notification.PENDING, byType.get(Notification.STATUS_CHANGED).getStatus());
+        assertEquals("Cancelled", byType.get(Notification.STATUS_CHANGED).getPayload());
+    }
+
+    @Test
+    void concurrentDispatchersDeliverEachNotificationExactlyOnce() throws Exception {
+        Appointment appointment = saveAppointment(LocalDateTime.now().plusHours(2));
+        Set<Integer> ids = new HashSet<>();
+        for (int i = 0; i < 250; i++) {
+            ids.add(saveDueNotification(appointment.getAppointmentID()).getId());
+        }
+
+        // The sink outlives the in-memory database: only lines written by this test count
+        long linesBefore = Files.exists(sinkFile) ? Files.readAllLines(sinkFile, StandardCharsets.UTF_8).size() : 0;
+        int threads = 4;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            results.add(pool.submit(() -> {
+                start.await();
+                return notificationService.dispatchDue();
+            }));
+        }
+        start.countDown();
+        for (Future<Integer> result : results) {
+            result.get();
+        }
+        pool.shutdown();
+
+        List<Notification> stored = notificationRepository.findByAppointmentID(appointment.getAppointmentID());
+        assertTrue(stored.stream().allMatch(n -> n.getStatus().equals(Notification.SENT) && n.getAttempts() == 1));
+        Map<Integer, Long> deliveries = Files.readAllLines(sinkFile, StandardCharsets.UTF_8).stream()
+            .skip(linesBefore)
+            .map(line -> Integer.parseInt(line.substring("notificationID=".length(), line.indexOf(' '))))
+            .filter(ids::contains)
+            .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+        assertEquals(ids, deliveries.keySet());
+        assertTrue(deliveries.values().stream().allMatch(count -> count == 1), deliveries.toString());
+    }
+
+    @Test
+    void failedDeliveriesAreRetriedAndThenGivenUp() {
+        Appointment appointment = saveAppointment(LocalDateTime.now().plusHours(3));
+        int failingID = saveDueNotification(appointment.getAppointmentID()).getId();
+
+        NotificationServiceImpl dispatcher = new NotificationServiceImpl();
+        ReflectionTestUtils.setField(dispatcher, "notificationRepository", notificationRepository);
+        ReflectionTestUtils.setField(dispatcher, "appointmentRepository", appointmentRepository);
+        ReflectionTestUtils.setField(dispatcher, "patientRepository", patientRepository);
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 100);
+        ReflectionTestUtils.setField(dispatcher, "maxBatchesPerRun", 50);
+        ReflectionTestUtils.setField(dispatcher, "leaseSeconds", 300L);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", 2);
+        ReflectionTestUtils.setField(dispatcher, "retryDelaySeconds", 0L);
+        ReflectionTestUtils.setField(dispatcher, "channel", new INotificationChannel() {
+            @Override
+            public String getName() {
+                return "flaky";
+            }
+
+            @Override
+            public void send(NotificationMessageDTO message) {
+                if (message.notificationID() == failingID) {
+                    throw new IllegalStateException("SMS gateway unavailable");
+                }
+                channel.send(message);
+            }
+        });
+
+        dispatcher.dispatchDue();
+        Notification afterFirst = notificationRepository.findByAppointmentID(appointment.getAppointmentID()).get(0);
+        assertEquals(Notification.PENDING, afterFirst.getStatus());
+        assertEquals(1, afterFirst.getAttempts());
+        assertEquals("SMS gateway unavailable", afterFirst.getLastError());
+
+        dispatcher.dispatchDue();
+        Notification afterSecond = notificationRepository.findByAppointmentID(appointment.getAppointmentID()).get(0);
+        assertEquals(Notification.FAILED, afterSecond.getStatus());
+        assertEquals(2, afterSecond.getAttempts());
+
+        NotificationStatsDTO stats = dispatcher.getStats();
+        assertEquals(2, stats.failedAttempts());
+        assertEquals(1, stats.givenUp());
+        assertTrue(stats.failed() >= 1);
+    }
+
+    @Test
+    void statsEndpointIsAdminOnly() throws Exception {
+        mockMvc.perform(get("/api/admin/notifications/stats")
+                .header("Authorization", "Bearer " + jwtUtil.generateToken(saveUser(1))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.channel").value("file"));
+        mockMvc.perform(get("/api/admin/notifications/stats")
+                .header("Authorization", "Bearer " + jwtUtil.generateToken(saveUser(3))))
+            .andExpect(status().isForbidden());
+    }
+
+    private AppointmentWithDoctorDTO book(LocalDateTime dateTime) {
+        User receptionist = saveUser(3);
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(receptionist, null, receptionist.getAuthorities()));
+        return receptionistService.createAppointment(new CreateAppointmentDTO(
+            savePatient().getPatientID(), saveUser(2).getUserID(), dateTime, null, null));
+    }
+
+    private Map<String, Notification> byType(int appointmentID) {
+        return notificationRepository.findByAppointmentID(appointmentID).stream()
+            .collect(Collectors.toMap(Notification::getType, Function.identity()));
+    }
+
+    private Notification saveDueNotification(int appointmentID) {
+        Notification notification = new Notification();
+        notification.setType(Notification.REMINDER);
+        notification.setStatus(Notification.PENDING);
+        notification.setAppointmentID(appointmentID);
+        notification.setCreatedAt(LocalDateTime.now());
+        notification.setSendAfter(LocalDateTime.now().minusMinutes(1));
+        return notificationRepository.save(notification);
+    }
+
+    // Booking far ahead, one day per test, so the slots never collide
+    private LocalDate nextDay() {
+        return LocalDate.of(2034, 3, 1).plusDays(DAY_OFFSET.getAndIncrement());
+    }
+
+    private Appointment saveAppointment(LocalDateTime dateTime) {
+        Appointment appointment = new Appointment();
+        appointment.setPatientID(savePatient().getPatientID());
+        appointment.setDoctorID(saveUser(2).getUserID());
+        appointment.setReceptionistID(saveUser(3).getUserID());
+        appointment.setDateTime(dateTime);
+        appointment.setStatus(AppointmentStatus.SCHEDULED);
+        return appointmentRepository.save(appointment);
+    }
+
+    private Patient savePatient() {
+        int n = SEQUENCE.incrementAndGet();
+        Patient patient = new Patient();
+        patient.setPatientCode("NT" + n);
+        patient.setFullName("Patient " + n);
+        patient.setDateOfBirth(LocalDate.of(1991, 1, 1));
+        patient.setGender("Nam");
+        patient.setPhone("0960" + n);
+        patient.setEmail("nt-patient" + n + "@clinic.test");
+        return patientRepository.save(patient);
+    }
+
+    private User saveUser(int role) {
+        int n = SEQUENCE.incrementAndGet();
+        User user = new User();
+        user.setUsername("nt-user" + n + "@clinic.test");
+        user.setPasswordHash("default123");
+        user.setRole(role);
+        user.setFullName("Staff " + n);
+        user.setEmail("nt-user" + n + "@clinic.test");
+        user.setStatus("Active");
+        return userRepository.save(user);
+    }
+}
@@ -0,0 +1,131 @@
+package com.clinicSys.service.impl;
+
+import com.clinicSys.backend.BackendApplication;
+import com.clinicSys.config.ReplicaLagGuard;
+import com.clinicSys.config.SqlStatementCounter;
+import com.clinicSys.repository.IAppointmentRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(classes = BackendApplication.class)
+class ParallelQueryTemplateTests {
+
+    private static final LocalDate DAY = LocalDate.of(2099, 4, 1);
+
+    @Autowired
+    private ParallelQueryTemplate parallelQueries;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+
+    @Autowired
+    private ReplicaLagGuard replicaLagGuard;
+
+    @Autowired
+    private IAppointmentRepository appointmentRepository;
+
+    @Test
+    void queriesRunSideBySideInReadOnlyTransactions() {
+        // Neither query can pass the barrier unless the other runs at the same time
+        CyclicBarrier bothRunning = new CyclicBarrier(2);
+        ParallelQueryTemplate.Query<String> first = parallelQueries.submit("test.first", DAY, () -> describe(bothRunning));
+        ParallelQueryTemplate.Query<String> second = parallelQueries.submit("test.second", DAY, () -> describe(bothRunning));
+
+        assertEquals("read-only parallel-query", first.get());
+        assertEquals("read-only parallel-query", second.get());
+    }
+
+    @Test
+    void slowOrFailingQueriesAnswerWithTheLastValueOfTheSameScope() throws Exception {
+        ParallelQueryTemplate template = new ParallelQueryTemplate();
+        ReflectionTestUtils.setField(template, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(template, "sqlStatementCounter", sqlStatementCounter);
+        ReflectionTestUtils.setField(template, "replicaLagGuard", replicaLagGuard);
+        ReflectionTestUtils.setField(template, "threads", 4);
+        ReflectionTestUtils.setField(template, "queueCapacity", 10);
+        ReflectionTestUtils.setField(template, "timeoutMillis", 200L);
+        ReflectionTestUtils.setField(template, "transactionTimeoutSeconds", 10);
+        template.start();
+        CountDownLatch slow = new CountDownLatch(1);
+        CountDownLatch later = new CountDownLatch(1);
+        try {
+            assertEquals(1, template.submit("test.count", DAY, () -> 1).get());
+            assertEquals(1, template.submit("test.count", DAY, ParallelQueryTemplateTests::unavailable).get());
+            assertEquals(1, template.submit("test.count", DAY, () -> await(slow, 2)).get());
+
+            // The slow query finishes after all and becomes the last known value
+            slow.countDown();
+            long deadline = System.currentTimeMillis() + 5000;
+            while (System.currentTimeMillis() < deadline
+                    && template.submit("test.count", DAY, ParallelQueryTemplateTests::unavailable).get() != 2) {
+                Thread.sleep(20);
+            }
+            assertEquals(2, template.submit("test.count", DAY, ParallelQueryTemplateTests::unavailable).get());
+
+            // Nothing known for the next day: failures are thrown, slow answers are waited for
+            assertThrows(IllegalStateException.class,
+                () -> template.submit("test.count", DAY.plusDays(1), ParallelQueryTemplateTests::unavailable).get());
+            ParallelQueryTemplate.Query<Integer> first = template.submit("test.count", DAY.plusDays(1), () -> await(later, 3));
+            CompletableFuture.runAsync(later::countDown, CompletableFuture.delayedExecutor(400, TimeUnit.MILLISECONDS));
+            long start = System.nanoTime();
+            assertEquals(3, first.get());
+            assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(300));
+        } finally {
+            slow.countDown();
+            later.countDown();
+            template.shutdown();
+        }
+    }
+
+    @Test
+    void statementsOnWorkersCountTowardsTheSubmittingRequest() {
+        LocalDateTime start = DAY.atStartOfDay();
+        sqlStatementCounter.begin();
+        parallelQueries.submit("test.appointments", DAY, () -> appointmentRepository.countByDateRange(start, start.plusDays(1))).get();
+        parallelQueries.submit("test.appointments", DAY, () -> appointmentRepository.countByDateRange(start, start.plusDays(1))).get();
+        assertEquals(2, sqlStatementCounter.end("GET /test/parallel-queries"));
+    }
+
+    private static String describe(CyclicBarrier bothRunning) {
+        try {
+            bothRunning.await(5, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException("Queries did not run at the same time", e);
+        }
+        boolean readOnly = TransactionSynchronizationManager.isActualTransactionActive()
+            && TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        return (readOnly ? "read-only " : "read-write ")
+            + (Thread.currentThread().getName().startsWith("parallel-query-") ? "parallel-query" : "caller");
+    }
+
+    private static int unavailable() {
+        throw new IllegalStateException("database unavailable");
+    }
+
+    private static int await(CountDownLatch release, int value) {
+        try {
+            release.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return value;
+    }
+}
@@ -0,0 +1,119 @@
+package com.clinicSys.service.impl;
+
+import com.clinicSys.backend.BackendApplication;
+import com.clinicSys.dto.request.CreatePatientDTO;
+import com.clinicSys.dto.request.UpdatePatientDTO;
+import com.clinicSys.dto.response.PatientDTO;
+import com.clinicSys.service.IPatientSearchService;
+import com.clinicSys.service.IPatientService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(classes = BackendApplication.class)
+class PatientSearchServiceImplTests {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private IPatientSearchService patientSearchService;
+
+    @Autowired
+    private IPatientService patientService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void foldedQueryMatchesDiacriticsAndPrefersTypedSpelling() {
+        PatientDTO withDiacritics = createPatient("Nguyễn Văn Xoàn");
+        PatientDTO otherSpelling = createPatient("Nguyên Thị Xoan");
+
+        List<PatientDTO> folded = patientSearchService.searchByName("nguyen xoan", 10);
+        assertTrue(ids(folded).containsAll(List.of(withDiacritics.patientID(), otherSpelling.patientID())));
+
+        List<PatientDTO> typed = patientSearchService.searchByName("Nguyễn Xoàn", 10);
+        assertEquals(withDiacritics.patientID(), typed.get(0).patientID());
+
+        // Short queries match the start of a word
+        assertTrue(ids(patientSearchService.searchByName("xo", 50)).contains(withDiacritics.patientID()));
+    }
+
+    @Test
+    void searchMatchesPhoneAndCodeWithoutQueryingTheDatabase() {
+        PatientDTO patient = createPatient("Đặng Quốc Khải");
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<PatientDTO> byPhone = patientSearchService.search(patient.phone().substring(0, 8), 10);
+        List<PatientDTO> byCode = patientSearchService.search(patient.patientCode(), 10);
+        List<PatientDTO> byName = patientSearchService.search("dang khai", 10);
+
+        assertTrue(ids(byPhone).contains(patient.patientID()));
+        assertEquals(patient.patientID(), byCode.get(0).patientID());
+        assertTrue(ids(byName).contains(patient.patientID()));
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void updatedPatientIsReindexed() {
+        PatientDTO patient = createPatient("Trịnh Hoài Đức");
+        patientService.updatePatient(patient.patientID(), new UpdatePatientDTO(
+            "Trịnh Hoài Nam", patient.dateOfBirth(), patient.gender(), null, patient.phone(), patient.email()));
+
+        assertTrue(!ids(patientSearchService.searchByName("hoai duc", 10)).contains(patient.patientID()));
+        assertTrue(ids(patientSearchService.searchByName("hoai nam", 10)).contains(patient.patientID()));
+    }
+
+    @Test
+    void rolledBackUpdateIsNotIndexed() {
+        PatientDTO patient = createPatient("Mạc Đình Lộc");
+        // As when the flush fails at commit, e.g. on a duplicate email
+        transactionTemplate.executeWithoutResult(status -> {
+            patientService.updatePatient(patient.patientID(), new UpdatePatientDTO(
+                "Mạc Đình Phúc", patient.dateOfBirth(), patient.gender(), null, patient.phone(), patient.email()));
+            status.setRollbackOnly();
+        });
+
+        assertTrue(ids(patientSearchService.searchByName("mac dinh loc", 10)).contains(patient.patientID()));
+        assertTrue(!ids(patientSearchService.searchByName("mac dinh phuc", 10)).contains(patient.patientID()));
+    }
+
+    @Test
+    void resultsAreCappedAndSurviveRebuild() {
+        for (int i = 0; i < IPatientSearchService.MAX_RESULTS + 5; i++) {
+            createPatient("Lâm Thế Vĩ " + i);
+        }
+
+        assertEquals(IPatientSearchService.MAX_RESULTS, patientSearchService.searchByName("lam the vi", 1000).size());
+        assertEquals(3, patientSearchService.searchByName("lam the vi", 3).size());
+
+        patientSearchService.rebuild();
+        assertEquals(IPatientSearchService.MAX_RESULTS, patientSearchService.searchByName("lam the vi", 1000).size());
+    }
+
+    private PatientDTO createPatient(String fullName) {
+        int n = SEQUENCE.incrementAndGet();
+        return patientService.createPatient(new CreatePatientDTO(
+            fullName, LocalDate.of(1985, 5, 5), "Nam", null, "0987" + String.format("%06d", n),
+            "ps-patient" + n + "@clinic.test"));
+    }
+
+    private List<Integer> ids(List<PatientDTO> patients) {
+        return patients.stream().map(PatientDTO::patientID).toList();
+    }
+}
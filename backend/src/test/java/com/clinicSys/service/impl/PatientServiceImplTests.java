@@ -0,0 +1,199 @@
+package com.clinicSys.service.impl;
+
+import com.clinicSys.backend.BackendApplication;
+import com.clinicSys.domain.Patient;
+import com.clinicSys.dto.request.CreatePatientDTO;
+import com.clinicSys.dto.response.PageDTO;
+import com.clinicSys.dto.response.PatientDTO;
+import com.clinicSys.repository.IPatientRepository;
+import com.clinicSys.service.IPatientService;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(classes = BackendApplication.class)
+class PatientServiceImplTests {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private IPatientService patientService;
+
+    @Autowired
+    private IPatientRepository patientRepository;
+
+    @Autowired
+    private PatientCodeGenerator patientCodeGenerator;
+
+    @Test
+    void pagesSeeEveryExistingPatientOnceWhileRowsAreInserted() throws Exception {
+        for (int i = 0; i < 60; i++) {
+            savePatient();
+        }
+        Set<Integer> existing = new HashSet<>();
+        for (Patient patient : patientRepository.findAll()) {
+            existing.add(patient.getPatientID());
+        }
+
+        ExecutorService inserter = Executors.newSingleThreadExecutor();
+        Future<?> inserts = inserter.submit(() -> {
+            for (int i = 0; i < 40; i++) {
+                savePatient();
+                Thread.sleep(2);
+            }
+            return null;
+        });
+
+        List<Integer> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            PageDTO<PatientDTO> page = patientService.getPatientsPage(cursor, 7);
+            assertTrue(page.items().size() <= 7);
+            page.items().forEach(p -> seen.add(p.patientID()));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+        inserts.get(10, TimeUnit.SECONDS);
+        inserter.shutdown();
+
+        assertEquals(seen.size(), new HashSet<>(seen).size(), "A patient was returned twice");
+        for (int i = 1; i < seen.size(); i++) {
+            assertTrue(seen.get(i - 1) < seen.get(i), "Pages must follow the sort key");
+        }
+        assertTrue(seen.containsAll(existing), "A patient that existed before paging was skipped");
+    }
+
+    @Test
+    void lastPageHasNoCursorAndBadCursorIsRejected() {
+        savePatient();
+        PageDTO<PatientDTO> page = patientService.getPatientsPage(null, 100000);
+        assertTrue(page.items().size() <= PageCursor.MAX_PAGE_SIZE);
+
+        String cursor = PageCursor.encode(String.valueOf(Integer.MAX_VALUE));
+        PageDTO<PatientDTO> empty = patientService.getPatientsPage(cursor, 10);
+        assertTrue(empty.items().isEmpty());
+        assertEquals(null, empty.nextCursor());
+
+        assertThrows(RuntimeException.class, () -> patientService.getPatientsPage("not a cursor!", 10));
+        assertThrows(RuntimeException.class, () -> patientService.getPatientsPage(PageCursor.encode("abc"), 10));
+    }
+
+    @Test
+    void concurrentRegistrationsWithOnePhoneCreateOnePatient() throws Exception {
+        String phone = "0931" + SEQUENCE.incrementAndGet();
+        int receptionists = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(receptionists);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < receptionists; i++) {
+            CreatePatientDTO request = newPatientRequest(phone);
+            results.add(pool.submit(() -> {
+                start.await();
+                try {
+                    return patientService.createPatient(request).patientCode();
+                } catch (RuntimeException e) {
+                    return e.getMessage();
+                }
+            }));
+        }
+        start.countDown();
+        List<String> outcomes = new ArrayList<>();
+        for (Future<String> result : results) {
+            outcomes.add(result.get(10, TimeUnit.SECONDS));
+        }
+        pool.shutdown();
+
+        assertEquals(1, outcomes.stream().filter(o -> o.startsWith("P")).count(), outcomes.toString());
+        assertEquals(receptionists - 1,
+            outcomes.stream().filter("Số điện thoại đã tồn tại trong hệ thống"::equals).count(), outcomes.toString());
+        assertTrue(patientRepository.findByPhone(phone).isPresent());
+    }
+
+    @Test
+    void patientCodesAreUniqueAcrossSequenceBlocks() {
+        Set<String> codes = new HashSet<>();
+        // More than one block of the default size
+        for (int i = 0; i < 120; i++) {
+            codes.add(patientCodeGenerator.nextCode());
+        }
+        assertEquals(120, codes.size());
+        assertTrue(codes.stream().allMatch(code -> code.matches("P\\d{8}\\d{6,}")), codes.toString());
+    }
+
+    @Test
+    void missingSequenceFailsUntilTheSchemaIsMigrated() {
+        IPatientRepository repository = Mockito.mock(IPatientRepository.class);
+        Mockito.when(repository.findPatientCodeSequenceIncrement()).thenReturn(Optional.empty(), Optional.of(50));
+        Mockito.when(repository.nextPatientCodeBlock()).thenReturn(1L);
+        PatientCodeGenerator generator = new PatientCodeGenerator();
+        ReflectionTestUtils.setField(generator, "patientRepository", repository);
+
+        RuntimeException e = assertThrows(RuntimeException.class, generator::nextCode);
+        assertTrue(e.getMessage().contains("PatientCodeSeq"), e.getMessage());
+        // Nothing was cached: once the sequence exists codes are handed out without a restart
+        assertTrue(generator.nextCode().endsWith("000001"));
+    }
+
+    @Test
+    void retriesWithTheSameIdempotencyKeyReturnTheFirstPatient() throws Exception {
+        String key = UUID.randomUUID().toString();
+        CreatePatientDTO request = newPatientRequest("0932" + SEQUENCE.incrementAndGet());
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<PatientDTO>> results = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            results.add(pool.submit(() -> {
+                start.await();
+                return patientService.createPatient(request, key);
+            }));
+        }
+        start.countDown();
+        Set<Integer> ids = new HashSet<>();
+        for (Future<PatientDTO> result : results) {
+            ids.add(result.get(10, TimeUnit.SECONDS).patientID());
+        }
+        pool.shutdown();
+        assertEquals(1, ids.size());
+
+        // A later retry, even with a changed body, still gets the same patient back
+        PatientDTO retried = patientService.createPatient(newPatientRequest("0933" + SEQUENCE.incrementAndGet()), key);
+        assertEquals(ids.iterator().next(), retried.patientID());
+        assertEquals(request.phone(), retried.phone());
+    }
+
+    private CreatePatientDTO newPatientRequest(String phone) {
+        return new CreatePatientDTO("Registered Patient " + phone, LocalDate.of(1975, 3, 3), "Nam", null, phone, null);
+    }
+
+    private Patient savePatient() {
+        int n = SEQUENCE.incrementAndGet();
+        Patient patient = new Patient();
+        patient.setPatientCode("PG" + n);
+        patient.setFullName("Paged Patient " + n);
+        patient.setDateOfBirth(LocalDate.of(1980, 1, 1));
+        patient.setGender("Nữ");
+        patient.setPhone("0930" + n);
+        patient.setEmail("pg-patient" + n + "@clinic.test");
+        return patientRepository.save(patient);
+    }
+}
@@ -0,0 +1,251 @@
+package com.clinicSys.service.impl;
+
+import com.clinicSys.backend.BackendApplication;
+import com.clinicSys.domain.Appointment;
+import com.clinicSys.domain.AppointmentStatus;
+import com.clinicSys.domain.MedicalRecord;
+import com.clinicSys.domain.Medicine;
+import com.clinicSys.domain.MedicineGroup;
+import com.clinicSys.domain.Patient;
+import com.clinicSys.domain.User;
+import com.clinicSys.dto.request.SavePrescriptionDTO;
+import com.clinicSys.dto.response.PrescriptionDTO;
+import com.clinicSys.repository.IAppointmentRepository;
+import com.clinicSys.repository.IMedicalRecordRepository;
+import com.clinicSys.repository.IMedicineRepository;
+import com.clinicSys.repository.IPatientRepository;
+import com.clinicSys.repository.IUserRepository;
+import com.clinicSys.service.IPrescriptionService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(classes = BackendApplication.class)
+@Import(PrescriptionServiceImplTests.JdbcCounter.class)
+class PrescriptionServiceImplTests {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+    private static final String ITEM_INSERT = "INSERT INTO Prescription_Medicine";
+
+    /**
+     * Records the statements prepared and run on the DataSource's connections. Unlike Hibernate's
+     * statistics it also sees JDBC work done on the raw connection, such as the batched item insert.
+     * Only the thread that last called clear() is recorded, not background jobs.
+     */
+    record Batch(String sql, int rows) {
+    }
+
+    @TestConfiguration
+    static class JdbcCounter {
+        static final List<String> PREPARED = new CopyOnWriteArrayList<>();
+        static final List<String> EXECUTED = new CopyOnWriteArrayList<>();
+        static final List<Batch> BATCHES = new CopyOnWriteArrayList<>();
+        private static volatile Thread recorded;
+
+        static void clear() {
+            recorded = Thread.currentThread();
+            PREPARED.clear();
+            EXECUTED.clear();
+            BATCHES.clear();
+        }
+
+        @Bean
+        static BeanPostProcessor countingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (!beanName.equals("dataSource") || !(bean instanceof DataSource dataSource)) {
+                        return bean;
+                    }
+                    return new DelegatingDataSource(dataSource) {
+                        @Override
+                        public Connection getConnection() throws SQLException {
+                            return counted(Connection.class, super.getConnection(), null);
+                        }
+                    };
+                }
+            };
+        }
+
+        // Wraps a connection, and the statements it prepares, to record what runs on them
+        private static <T> T counted(Class<T> type, T target, String sql) {
+            return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type},
+                (proxy, method, args) -> {
+                    Object result;
+                    try {
+                        result = method.invoke(target, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                    String name = method.getName();
+                    if (Thread.currentThread() != recorded) {
+                        return result;
+                    }
+                    if (sql == null && name.startsWith("prepare") && result instanceof PreparedStatement statement) {
+                        PREPARED.add((String) args[0]);
+                        return counted(PreparedStatement.class, statement, (String) args[0]);
+                    }
+                    if (sql != null && name.equals("executeBatch")) {
+                        BATCHES.add(new Batch(sql, ((int[]) result).length));
+                    } else if (sql != null && name.startsWith("execute")) {
+                        EXECUTED.add(sql);
+                    }
+                    return result;
+                }));
+        }
+    }
+
+    @Autowired
+    private IPrescriptionService prescriptionService;
+
+    @Autowired
+    private IAppointmentRepository appointmentRepository;
+
+    @Autowired
+    private IPatientRepository patientRepository;
+
+    @Autowired
+    private IUserRepository userRepository;
+
+    @Autowired
+    private IMedicalRecordRepository medicalRecordRepository;
+
+    @Autowired
+    private IMedicineRepository medicineRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void savePrescriptionReplacesItemsAndKeepsStatementCountFlat() {
+        User doctor = saveDoctor();
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(doctor, null, doctor.getAuthorities()));
+        int appointmentID = seedMedicalRecord(doctor);
+        List<Medicine> medicines = seedMedicines(20);
+
+        prescriptionService.savePrescription(prescription(appointmentID, medicines.subList(0, 2)));
+
+        JdbcCounter.clear();
+        PrescriptionDTO small = prescriptionService.savePrescription(prescription(appointmentID, medicines.subList(0, 3)));
+        int smallStatements = JdbcCounter.PREPARED.size();
+
+        JdbcCounter.clear();
+        PrescriptionDTO large = prescriptionService.savePrescription(prescription(appointmentID, medicines));
+        int largeStatements = JdbcCounter.PREPARED.size();
+
+        assertEquals(3, small.items().size());
+        assertEquals(20, large.items().size());
+        assertEquals(smallStatements, largeStatements);
+        // All 20 items in one batch of one prepared INSERT
+        assertEquals(1, JdbcCounter.PREPARED.stream().filter(sql -> sql.startsWith(ITEM_INSERT)).count());
+        assertEquals(List.of(20), JdbcCounter.BATCHES.stream()
+            .filter(batch -> batch.sql().startsWith(ITEM_INSERT)).map(Batch::rows).toList());
+        assertEquals(List.of(), JdbcCounter.EXECUTED.stream().filter(sql -> sql.startsWith(ITEM_INSERT)).toList());
+        assertEquals(medicines.get(19).getMedicineID(), large.items().get(19).medicineID());
+        assertEquals(20, prescriptionService.getPrescriptionByAppointmentID(appointmentID).items().size());
+    }
+
+    private SavePrescriptionDTO prescription(int appointmentID, List<Medicine> medicines) {
+        List<SavePrescriptionDTO.PrescriptionItemRequestDTO> items = new ArrayList<>();
+        for (Medicine medicine : medicines) {
+            items.add(new SavePrescriptionDTO.PrescriptionItemRequestDTO(medicine.getMedicineID(), 2, "After meals"));
+        }
+        return new SavePrescriptionDTO(appointmentID, "Notes", null, items);
+    }
+
+    private List<Medicine> seedMedicines(int count) {
+        int n = SEQUENCE.incrementAndGet();
+        MedicineGroup group = transactionTemplate.execute(status -> {
+            MedicineGroup medicineGroup = new MedicineGroup();
+            medicineGroup.setName("Group " + n);
+            medicineGroup.setStatus("Active");
+            entityManager.persist(medicineGroup);
+            return medicineGroup;
+        });
+        List<Medicine> medicines = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Medicine medicine = new Medicine();
+            medicine.setMedicineCode("PM" + n + "-" + i);
+            medicine.setMedicineGroupID(group.getMedicineGroupID());
+            medicine.setName("Medicine " + n + "-" + i);
+            medicine.setPrice(BigDecimal.TEN);
+            medicine.setStock(100);
+            medicine.setStatus("Active");
+            medicines.add(medicineRepository.save(medicine));
+        }
+        return medicines;
+    }
+
+    private int seedMedicalRecord(User doctor) {
+        int n = SEQUENCE.incrementAndGet();
+        Patient patient = new Patient();
+        patient.setPatientCode("PR" + n);
+        patient.setFullName("Patient " + n);
+        patient.setDateOfBirth(LocalDate.of(1975, 5, 5));
+        patient.setGender("Nam");
+        patient.setPhone("0922" + n);
+        patient.setEmail("pr" + n + "@clinic.test");
+        patient = patientRepository.save(patient);
+
+        Appointment appointment = new Appointment();
+        appointment.setPatientID(patient.getPatientID());
+        appointment.setDoctorID(doctor.getUserID());
+        appointment.setReceptionistID(doctor.getUserID());
+        appointment.setDateTime(LocalDateTime.now());
+        appointment.setStatus(AppointmentStatus.IN_CONSULTATION);
+        appointment = appointmentRepository.save(appointment);
+
+        MedicalRecord record = new MedicalRecord();
+        record.setAppointmentID(appointment.getAppointmentID());
+        record.setCreatedBy(doctor.getUserID());
+        medicalRecordRepository.save(record);
+        return appointment.getAppointmentID();
+    }
+
+    private User saveDoctor() {
+        int n = SEQUENCE.incrementAndGet();
+        User user = new User();
+        user.setUsername("pr" + n + "@clinic.test");
+        user.setPasswordHash("default123");
+        user.setRole(2);
+        user.setFullName("Doctor " + n);
+        user.setEmail("pr" + n + "@clinic.test");
+        user.setStatus("Active");
+        return userRepository.save(user);
+    }
+}
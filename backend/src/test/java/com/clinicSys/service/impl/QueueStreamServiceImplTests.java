@@ -0,0 +1,134 @@
+package com.clinicSys.service.impl;
+
+import com.clinicSys.backend.BackendApplication;
+import com.clinicSys.config.JwtUtil;
+import com.clinicSys.domain.Appointment;
+import com.clinicSys.domain.AppointmentStatus;
+import com.clinicSys.domain.Patient;
+import com.clinicSys.domain.User;
+import com.clinicSys.repository.IAppointmentRepository;
+import com.clinicSys.repository.IPatientRepository;
+import com.clinicSys.repository.IUserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(classes = BackendApplication.class)
+@AutoConfigureMockMvc
+class QueueStreamServiceImplTests {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private IAppointmentRepository appointmentRepository;
+
+    @Autowired
+    private IPatientRepository patientRepository;
+
+    @Autowired
+    private IUserRepository userRepository;
+
+    @Test
+    void statusChangesAreFannedOutPerDoctorAndClinic() throws Exception {
+        User doctor = saveUser(2);
+        User otherDoctor = saveUser(2);
+        User receptionist = saveUser(3);
+        Appointment appointment = saveAppointment(doctor, receptionist);
+
+        MvcResult clinicStream = openStream("/api/receptionist/queue/stream", receptionist);
+        MvcResult doctorStream = openStream("/api/doctor/queue/stream", doctor);
+        MvcResult otherDoctorStream = openStream("/api/doctor/queue/stream", otherDoctor);
+
+        mockMvc.perform(put("/api/receptionist/appointments/" + appointment.getAppointmentID() + "/status")
+                .header("Authorization", bearer(receptionist))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"status\":\"Checked-in\"}"))
+            .andExpect(status().isOk());
+        mockMvc.perform(post("/api/doctor/emr/appointment/" + appointment.getAppointmentID() + "/start-consultation")
+                .header("Authorization", bearer(doctor)))
+            .andExpect(status().isOk());
+
+        String appointmentField = "\"appointmentID\":" + appointment.getAppointmentID();
+        awaitContent(clinicStream, "\"status\":\"In Consultation\"");
+        awaitContent(doctorStream, "\"status\":\"In Consultation\"");
+        String clinicEvents = clinicStream.getResponse().getContentAsString();
+        assertTrue(clinicEvents.contains("event:appointment-status"));
+        assertTrue(clinicEvents.contains("\"status\":\"Checked-in\""));
+        assertTrue(clinicEvents.contains(appointmentField));
+        assertFalse(otherDoctorStream.getResponse().getContentAsString().contains(appointmentField));
+    }
+
+    private MvcResult openStream(String path, User user) throws Exception {
+        return mockMvc.perform(get(path).header("Authorization", bearer(user)))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+    }
+
+    private void awaitContent(MvcResult stream, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!stream.getResponse().getContentAsString().contains(expected)) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("Stream never received " + expected + ": "
+                    + stream.getResponse().getContentAsString());
+            }
+            Thread.sleep(20);
+        }
+    }
+
+    private String bearer(User user) {
+        return "Bearer " + jwtUtil.generateToken(user);
+    }
+
+    private Appointment saveAppointment(User doctor, User receptionist) {
+        int n = SEQUENCE.incrementAndGet();
+        Patient patient = new Patient();
+        patient.setPatientCode("QS" + n);
+        patient.setFullName("Patient " + n);
+        patient.setDateOfBirth(LocalDate.of(1990, 1, 1));
+        patient.setGender("Nam");
+        patient.setPhone("0920" + n);
+        patient.setEmail("qs-patient" + n + "@clinic.test");
+        patientRepository.save(patient);
+
+        Appointment appointment = new Appointment();
+        appointment.setPatientID(patient.getPatientID());
+        appointment.setDoctorID(doctor.getUserID());
+        appointment.setReceptionistID(receptionist.getUserID());
+        appointment.setDateTime(LocalDate.now().atTime(9, 0));
+        appointment.setStatus(AppointmentStatus.SCHEDULED);
+        return appointmentRepository.save(appointment);
+    }
+
+    private User saveUser(int role) {
+        int n = SEQUENCE.incrementAndGet();
+        User user = new User();
+        user.setUsername("qs-user" + n + "@clinic.test");
+        user.setPasswordHash("default123");
+        user.setRole(role);
+        user.setFullName("Staff " + n);
+        user.setEmail("qs-user" + n + "@clinic.test");
+        user.setStatus("Active");
+        return userRepository.save(user);
+    }
+}
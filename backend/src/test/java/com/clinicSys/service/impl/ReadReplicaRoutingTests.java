@@ -0,0 +1,227 @@
+package com.clinicSys.service.impl;
+
+import com.clinicSys.backend.BackendApplication;
+import com.clinicSys.config.ReplicaRoutingDataSource;
+import com.clinicSys.domain.Patient;
+import com.clinicSys.repository.IPatientRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Two local H2 databases stand in for the primary and the replica. The replica only catches up
+ * when a test calls replicate(), so anything written since then is replica lag.
+ */
+@SpringBootTest(classes = BackendApplication.class, properties = {
+    "spring.datasource.url=" + ReadReplicaRoutingTests.PRIMARY_URL,
+    "clinic.datasource.replica.url=" + ReadReplicaRoutingTests.REPLICA_URL,
+    "clinic.datasource.replica.max-lag-ms=1000"
+})
+@Import(ReadReplicaRoutingTests.ReplicaSchema.class)
+class ReadReplicaRoutingTests {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:ClinicSysPrimary;MODE=MSSQLServer;DATABASE_TO_UPPER=FALSE;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:ClinicSysReplica;MODE=MSSQLServer;DATABASE_TO_UPPER=FALSE;DB_CLOSE_DELAY=-1";
+
+    // Hibernate creates the schema on the primary; the replica needs it before the startup reads
+    @TestConfiguration
+    static class ReplicaSchema {
+        @Bean
+        static BeanPostProcessor replicateSchema() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (beanName.equals("entityManagerFactory")) {
+                        replicate();
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+
+    @Autowired
+    private IPatientRepository patientRepository;
+
+    @Autowired
+    private ParallelQueryTemplate parallelQueries;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyWorkGoesToTheReplicaUnlessTheUserHasJustWritten() throws Exception {
+        ReplicaRoutingDataSource routing = dataSource.unwrap(ReplicaRoutingDataSource.class);
+        replicate();
+
+        // Written as receptionist A: only the primary has it
+        Patient patient = as("receptionist-a", () -> patientRepository.save(newPatient(1)));
+        String phone = patient.getPhone();
+        assertEquals(1, countOn(PRIMARY_URL, phone));
+        assertEquals(0, countOn(REPLICA_URL, phone));
+
+        long replicaReads = routing.getReplicaReads();
+        long primaryReads = routing.getPrimaryReads();
+        assertTrue(as("receptionist-a", () -> patientRepository.findByPhone(phone)).isPresent());
+        assertTrue(as("receptionist-a", () -> parallelQueries.submit("test.replica.a", phone,
+            () -> patientRepository.findByPhone(phone).isPresent()).get()));
+        assertEquals(primaryReads + 2, routing.getPrimaryReads());
+
+        assertFalse(as("receptionist-b", () -> patientRepository.findByPhone(phone)).isPresent());
+        assertFalse(as("receptionist-b", () -> parallelQueries.submit("test.replica.b", phone,
+            () -> patientRepository.findByPhone(phone).isPresent()).get()));
+        assertEquals(replicaReads + 2, routing.getReplicaReads());
+
+        replicate();
+        assertTrue(as("receptionist-b", () -> patientRepository.findByPhone(phone)).isPresent());
+    }
+
+    @Test
+    void theWriterReadsTheReplicaAgainOnceTheLagWindowHasPassed() throws Exception {
+        replicate();
+        String phone = as("receptionist-c", () -> patientRepository.save(newPatient(2))).getPhone();
+        assertTrue(as("receptionist-c", () -> patientRepository.findByPhone(phone)).isPresent());
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline
+                && as("receptionist-c", () -> patientRepository.findByPhone(phone)).isPresent()) {
+            Thread.sleep(100);
+        }
+        assertFalse(as("receptionist-c", () -> patientRepository.findByPhone(phone)).isPresent());
+        assertEquals(1, countOn(PRIMARY_URL, phone));
+    }
+
+    // Open-in-view keeps one EntityManager for the whole request, like the one bound here
+    @Test
+    void aWriteAfterAReadInTheSameRequestGoesToThePrimary() throws Exception {
+        replicate();
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(entityManager));
+        try {
+            Patient patient = newPatient(4);
+            assertFalse(as("receptionist-e", () -> patientRepository.findByPhone(patient.getPhone())).isPresent());
+            as("receptionist-e", () -> patientRepository.save(patient));
+            assertEquals(1, countOn(PRIMARY_URL, patient.getPhone()));
+            assertEquals(0, countOn(REPLICA_URL, patient.getPhone()));
+        } finally {
+            TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+            entityManager.close();
+        }
+    }
+
+    @Test
+    void readOnlyTransactionsDoNotFlushChanges() throws Exception {
+        int patientID = patientRepository.save(newPatient(3)).getPatientID();
+        replicate();
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        as("receptionist-d", () -> readOnly.execute(status -> {
+            patientRepository.findById(patientID).orElseThrow().setFullName("Changed in a read-only transaction");
+            return null;
+        }));
+
+        assertEquals("Patient 0990000003", fullNameOn(REPLICA_URL, patientID));
+        assertEquals("Patient 0990000003", fullNameOn(PRIMARY_URL, patientID));
+    }
+
+    private static Patient newPatient(int n) {
+        Patient patient = new Patient();
+        String phone = String.format("0990%06d", n);
+        patient.setPatientCode("RR" + n);
+        patient.setFullName("Patient " + phone);
+        patient.setDateOfBirth(LocalDate.of(1985, 3, 3));
+        patient.setGender("Nữ");
+        patient.setPhone(phone);
+        patient.setEmail("rr" + n + "@clinic.test");
+        return patient;
+    }
+
+    private static <T> T as(String username, Supplier<T> work) {
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(username, null, List.of()));
+        try {
+            return work.get();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private static int countOn(String url, String phone) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM Patient WHERE Phone = '" + phone + "'")) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    private static String fullNameOn(String url, int patientID) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT FullName FROM Patient WHERE PatientID = " + patientID)) {
+            assertTrue(rs.next());
+            return rs.getString(1);
+        }
+    }
+
+    // Brings the replica up to date with the primary, like replication catching up
+    private static void replicate() {
+        try (Connection primary = DriverManager.getConnection(PRIMARY_URL, "sa", "");
+             Connection replica = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement script = primary.createStatement();
+             Statement apply = replica.createStatement()) {
+            List<String> statements = new ArrayList<>();
+            try (ResultSet rs = script.executeQuery("SCRIPT")) {
+                while (rs.next()) {
+                    statements.add(rs.getString(1));
+                }
+            }
+            apply.execute("DROP ALL OBJECTS");
+            for (String sql : statements) {
+                apply.execute(sql);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not copy the primary to the replica", e);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.clinicSys.service.impl;
+
+import com.clinicSys.backend.BackendApplication;
+import com.clinicSys.config.SqlStatementCounter;
+import com.clinicSys.domain.Appointment;
+import com.clinicSys.domain.AppointmentStatus;
+import com.clinicSys.domain.Patient;
+import com.clinicSys.domain.User;
+import com.clinicSys.dto.response.ReceptionistDashboardDTO;
+import com.clinicSys.repository.IAppointmentRepository;
+import com.clinicSys.repository.IPatientRepository;
+import com.clinicSys.repository.IUserRepository;
+import com.clinicSys.service.IReceptionistService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(classes = BackendApplication.class)
+class ReceptionistServiceImplTests {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private IReceptionistService receptionistService;
+
+    @Autowired
+    private IAppointmentRepository appointmentRepository;
+
+    @Autowired
+    private IPatientRepository patientRepository;
+
+    @Autowired
+    private IUserRepository userRepository;
+
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private int appointmentsSaved;
+
+    @Test
+    void getDashboardStatementCountDoesNotGrowWithAppointments() {
+        User doctor = saveUser(2);
+        User receptionist = saveUser(3);
+
+        seedAppointments(doctor, receptionist, 3);
+        long fewStatements = countDashboardStatements();
+
+        seedAppointments(doctor, receptionist, 40);
+        long manyStatements = countDashboardStatements();
+
+        assertEquals(fewStatements, manyStatements);
+        assertTrue(manyStatements <= 2, "Dashboard should need at most two statements but used " + manyStatements);
+    }
+
+    @Test
+    void getDashboardBuildsListAndQueueFromSameRows() {
+        User doctor = saveUser(2);
+        User receptionist = saveUser(3);
+        Patient patient = savePatient();
+        saveAppointment(patient, doctor, receptionist, AppointmentStatus.CHECKED_IN);
+
+        ReceptionistDashboardDTO dashboard = receptionistService.getDashboard();
+
+        assertTrue(dashboard.todayAppointments().stream()
+            .anyMatch(a -> a.patientID() == patient.getPatientID()
+                && "Checked-in".equals(a.status())
+                && doctor.getFullName().equals(a.doctorName())));
+        assertTrue(dashboard.liveQueue().stream()
+            .anyMatch(a -> a.patientID() == patient.getPatientID()
+                && "Waiting".equals(a.status())
+                && patient.getFullName().equals(a.patientName())));
+    }
+
+    @Test
+    void getDashboardLeavesOutStatusesNotShownOnIt() {
+        User doctor = saveUser(2);
+        User receptionist = saveUser(3);
+        Patient patient = savePatient();
+        saveAppointment(patient, doctor, receptionist, AppointmentStatus.CANCELLED);
+
+        ReceptionistDashboardDTO dashboard = receptionistService.getDashboard();
+
+        assertTrue(dashboard.todayAppointments().stream().noneMatch(a -> a.patientID() == patient.getPatientID()));
+        assertTrue(dashboard.liveQueue().stream().noneMatch(a -> a.patientID() == patient.getPatientID()));
+    }
+
+    @Test
+    void updateAppointmentStatusFollowsTransitionTable() {
+        Appointment appointment = saveAppointment(savePatient(), saveUser(2), saveUser(3), AppointmentStatus.SCHEDULED);
+        int id = appointment.getAppointmentID();
+
+        assertThrows(RuntimeException.class, () -> receptionistService.updateAppointmentStatus(id, "Completed"));
+        assertThrows(RuntimeException.class, () -> receptionistService.updateAppointmentStatus(id, "Waiting"));
+
+        // Older spellings are accepted and stored canonically
+        assertEquals("Checked-in", receptionistService.updateAppointmentStatus(id, "check-in").status());
+        assertEquals(AppointmentStatus.CHECKED_IN, appointmentRepository.findById(id).orElseThrow().getStatus());
+
+        assertThrows(RuntimeException.class, () -> receptionistService.updateAppointmentStatus(id, "Scheduled"));
+    }
+
+    @Test
+    void rowsWithOlderSpellingsAreReadAsCanonicalStatus() {
+        Appointment appointment = saveAppointment(savePatient(), saveUser(2), saveUser(3), AppointmentStatus.SCHEDULED);
+        jdbcTemplate.update("UPDATE Appointment SET Status = 'in consultation' WHERE AppointmentID = ?",
+            appointment.getAppointmentID());
+
+        assertEquals(AppointmentStatus.IN_CONSULTATION,
+            appointmentRepository.findById(appointment.getAppointmentID()).orElseThrow().getStatus());
+    }
+
+    private long countDashboardStatements() {
+        // Counted per request, including the queries it runs on ParallelQueryTemplate workers
+        sqlStatementCounter.begin();
+        receptionistService.getDashboard();
+        return sqlStatementCounter.end("GET /test/receptionist-dashboard");
+    }
+
+    private void seedAppointments(User doctor, User receptionist, int count) {
+        for (int i = 0; i < count; i++) {
+            saveAppointment(savePatient(), doctor, receptionist, i % 2 == 0 ? AppointmentStatus.SCHEDULED : AppointmentStatus.CHECKED_IN);
+        }
+    }
+
+    private Appointment saveAppointment(Patient patient, User doctor, User receptionist, AppointmentStatus status) {
+        Appointment appointment = new Appointment();
+        appointment.setPatientID(patient.getPatientID());
+        appointment.setDoctorID(doctor.getUserID());
+        appointment.setReceptionistID(receptionist.getUserID());
+        // A doctor holds at most one appointment per time (UX_Appointment_DoctorID_DateTime)
+        appointment.setDateTime(LocalDate.now().atTime(9, 0).plusMinutes(appointmentsSaved++));
+        appointment.setStatus(status);
+        return appointmentRepository.save(appointment);
+    }
+
+    private Patient savePatient() {
+        int n = SEQUENCE.incrementAndGet();
+        Patient patient = new Patient();
+        patient.setPatientCode("RT" + n);
+        patient.setFullName("Patient " + n);
+        patient.setDateOfBirth(LocalDate.of(1990, 1, 1));
+        patient.setGender("Nam");
+        patient.setPhone("0900" + n);
+        patient.setEmail("patient" + n + "@clinic.test");
+        return patientRepository.save(patient);
+    }
+
+    private User saveUser(int role) {
+        int n = SEQUENCE.incrementAndGet();
+        User user = new User();
+        user.setUsername("user" + n + "@clinic.test");
+        user.setPasswordHash("default123");
+        user.setRole(role);
+        user.setFullName("Staff " + n);
+        user.setEmail("user" + n + "@clinic.test");
+        user.setStatus("Active");
+        return userRepository.save(user);
+    }
+}
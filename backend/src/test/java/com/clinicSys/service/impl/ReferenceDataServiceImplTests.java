@@ -0,0 +1,94 @@
+package com.clinicSys.service.impl;
+
+import com.clinicSys.backend.BackendApplication;
+import com.clinicSys.domain.Medicine;
+import com.clinicSys.domain.MedicineGroup;
+import com.clinicSys.dto.response.ReferenceDataStatsDTO;
+import com.clinicSys.repository.IMedicineRepository;
+import com.clinicSys.service.IMedicineService;
+import com.clinicSys.service.IReferenceDataService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(classes = BackendApplication.class)
+class ReferenceDataServiceImplTests {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private IReferenceDataService referenceDataService;
+
+    @Autowired
+    private IMedicineService medicineService;
+
+    @Autowired
+    private IMedicineRepository medicineRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void groupAddedAfterRefreshIsLoadedOnceThenServedFromCache() {
+        MedicineGroup group = saveGroup();
+        ReferenceDataStatsDTO before = referenceDataService.getStats();
+
+        assertEquals(group.getName(), referenceDataService.findMedicineGroup(group.getMedicineGroupID()).orElseThrow().getName());
+        assertEquals(group.getName(), referenceDataService.findMedicineGroup(group.getMedicineGroupID()).orElseThrow().getName());
+
+        ReferenceDataStatsDTO after = referenceDataService.getStats();
+        assertEquals(before.misses() + 1, after.misses());
+        assertEquals(before.hits() + 1, after.hits());
+    }
+
+    @Test
+    void medicineListingDoesNotLookUpGroupsPerRow() {
+        MedicineGroup group = saveGroup();
+        for (int i = 0; i < 10; i++) {
+            Medicine medicine = new Medicine();
+            medicine.setMedicineCode("RD" + group.getMedicineGroupID() + "-" + i);
+            medicine.setMedicineGroupID(group.getMedicineGroupID());
+            medicine.setName("Reference " + i);
+            medicine.setPrice(BigDecimal.ONE);
+            medicine.setStock(10);
+            medicine.setStatus("Active");
+            medicineRepository.save(medicine);
+        }
+        referenceDataService.refresh();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        assertTrue(medicineService.getAllMedicines().stream()
+            .anyMatch(m -> group.getName().equals(m.medicineGroupName())));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    private MedicineGroup saveGroup() {
+        int n = SEQUENCE.incrementAndGet();
+        return transactionTemplate.execute(status -> {
+            MedicineGroup group = new MedicineGroup();
+            group.setName("Reference group " + n);
+            group.setStatus("Active");
+            entityManager.persist(group);
+            return group;
+        });
+    }
+}
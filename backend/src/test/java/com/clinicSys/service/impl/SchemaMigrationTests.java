@@ -0,0 +1,331 @@
+package com.clinicSys.service.impl;
+
+import com.clinicSys.backend.BackendApplication;
+import com.clinicSys.config.SchemaMigrator;
+import com.clinicSys.domain.Appointment;
+import com.clinicSys.domain.AppointmentService;
+import com.clinicSys.domain.AppointmentStatus;
+import com.clinicSys.domain.Bill;
+import com.clinicSys.domain.Diagnosis;
+import com.clinicSys.domain.MedicalRecord;
+import com.clinicSys.domain.Patient;
+import com.clinicSys.domain.Prescription;
+import com.clinicSys.domain.PrescriptionMedicine;
+import com.clinicSys.domain.User;
+import com.clinicSys.dto.request.FileFormat;
+import com.clinicSys.repository.IAppointmentRepository;
+import com.clinicSys.repository.IAppointmentServiceRepository;
+import com.clinicSys.repository.IBillRepository;
+import com.clinicSys.repository.IDiagnosisRepository;
+import com.clinicSys.repository.IMedicalRecordRepository;
+import com.clinicSys.repository.INotificationRepository;
+import com.clinicSys.repository.IPatientRepository;
+import com.clinicSys.repository.IPrescriptionMedicineRepository;
+import com.clinicSys.repository.IPrescriptionRepository;
+import com.clinicSys.repository.IUserRepository;
+import com.clinicSys.service.IExportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(classes = BackendApplication.class)
+class SchemaMigrationTests {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+    private static final Pattern CREATE_INDEX = Pattern.compile("CREATE (?:UNIQUE )?INDEX (?:IF NOT EXISTS )?(\\w+)");
+    // Table access in an H2 plan: "/* PUBLIC.<index or table.tableScan>[: <conditions>] */"
+    private static final Pattern ACCESS = Pattern.compile("/\\* PUBLIC\\.(\\S+?)(?:: (.*?))? \\*/(\\s*/\\* direct lookup \\*/)?", Pattern.DOTALL);
+    private static final Set<String> HOT_TABLES = Set.of("Appointment", "Appointment_Service", "MedicalRecord",
+        "Diagnosis", "Prescription", "Prescription_Medicine", "Bill", "Notification");
+
+    // Far from the days other test classes work on
+    private static final LocalDateTime DAY = LocalDateTime.of(2099, 3, 10, 0, 0);
+
+    @Autowired
+    private SchemaMigrator schemaMigrator;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private IAppointmentRepository appointmentRepository;
+
+    @Autowired
+    private IAppointmentServiceRepository appointmentServiceRepository;
+
+    @Autowired
+    private IBillRepository billRepository;
+
+    @Autowired
+    private IMedicalRecordRepository medicalRecordRepository;
+
+    @Autowired
+    private IDiagnosisRepository diagnosisRepository;
+
+    @Autowired
+    private IPrescriptionRepository prescriptionRepository;
+
+    @Autowired
+    private IPrescriptionMedicineRepository prescriptionMedicineRepository;
+
+    @Autowired
+    private INotificationRepository notificationRepository;
+
+    @Autowired
+    private IPatientRepository patientRepository;
+
+    @Autowired
+    private IUserRepository userRepository;
+
+    @Autowired
+    private IExportService exportService;
+
+    @BeforeEach
+    void migrate() {
+        schemaMigrator.migrate();
+    }
+
+    @Test
+    void migrationsRunOnceOnTopOfTheBaseline() {
+        assertEquals(List.of(), schemaMigrator.migrate());
+        List<Integer> versions = new ArrayList<>(List.of(1));
+        schemaMigrator.load("h2").forEach(migration -> versions.add(migration.version()));
+        assertEquals(versions, jdbcTemplate.queryForList("SELECT Version FROM SchemaHistory ORDER BY Version", Integer.class));
+        assertEquals("db.sql", jdbcTemplate.queryForObject("SELECT Script FROM SchemaHistory WHERE Version = 1", String.class));
+
+        List<String> indexes = jdbcTemplate.queryForList("SELECT INDEX_NAME FROM INFORMATION_SCHEMA.INDEXES", String.class);
+        for (SchemaMigrator.Migration migration : schemaMigrator.load("h2")) {
+            for (String index : indexNames(migration)) {
+                assertTrue(indexes.contains(index), index + " was not created");
+            }
+        }
+    }
+
+    @Test
+    void aScriptChangedAfterItRanStopsTheMigration() {
+        SchemaMigrator.Migration first = schemaMigrator.load("h2").get(0);
+        long checksum = first.checksum();
+        jdbcTemplate.update("UPDATE SchemaHistory SET Checksum = 1 WHERE Version = 2");
+        try {
+            RuntimeException e = assertThrows(RuntimeException.class, () -> schemaMigrator.migrate());
+            assertTrue(e.getMessage().contains(first.script()), e.getMessage());
+        } finally {
+            jdbcTemplate.update("UPDATE SchemaHistory SET Checksum = ? WHERE Version = 2", checksum);
+        }
+    }
+
+    @Test
+    void sqlServerAndH2ScriptsCreateTheSameIndexes() {
+        List<SchemaMigrator.Migration> sqlServer = schemaMigrator.load("sqlserver");
+        List<SchemaMigrator.Migration> h2 = schemaMigrator.load("h2");
+        assertEquals(sqlServer.stream().map(SchemaMigrator.Migration::script).toList(),
+            h2.stream().map(SchemaMigrator.Migration::script).toList());
+        for (int i = 0; i < sqlServer.size(); i++) {
+            Set<String> expected = indexNames(sqlServer.get(i));
+            // Filtered on Email IS NOT NULL, which H2 cannot express (see h2/V3)
+            expected.remove("UQ_Patient_Email");
+            assertEquals(expected, indexNames(h2.get(i)), sqlServer.get(i).script());
+        }
+    }
+
+    @Test
+    void hotRepositoryQueriesSeekAnIndex() throws Exception {
+        Seed seed = seed();
+        LocalDateTime start = DAY;
+        LocalDateTime end = DAY.plusDays(1);
+        List<AppointmentStatus> statuses = List.of(AppointmentStatus.SCHEDULED, AppointmentStatus.COMPLETED);
+
+        jdbcTemplate.execute("SET QUERY_STATISTICS_MAX_ENTRIES 1000");
+        jdbcTemplate.execute("SET QUERY_STATISTICS TRUE");
+        List<String> statements;
+        try {
+            appointmentRepository.findAllByDateTimeBetween(start, end);
+            appointmentRepository.findByDateRangeAndStatuses(start, end, statuses);
+            appointmentRepository.countByDateRange(start, end);
+            appointmentRepository.findByDoctorIDAndDateRange(seed.doctorID, start, end);
+            appointmentRepository.findByDoctorIDAndDateRangeAndStatuses(seed.doctorID, start, end, statuses);
+            appointmentRepository.findByDoctorIDAndStatus(seed.doctorID, AppointmentStatus.SCHEDULED);
+            appointmentRepository.findAppointmentsWithDoctorByDateRange(start, end);
+            appointmentRepository.findAppointmentsWithDoctorByDateRangeAndStatuses(start, end, statuses);
+            appointmentRepository.findFirstDateTimeByPatientID(seed.patientID);
+            appointmentRepository.existsByPatientIDAndDateRange(seed.patientID, start, end);
+            appointmentServiceRepository.findByAppointmentID(seed.appointmentID);
+            medicalRecordRepository.findByAppointmentID(seed.appointmentID);
+            medicalRecordRepository.findByPatientID(seed.patientID);
+            medicalRecordRepository.findPageByPatientID(seed.patientID, null, 10);
+            diagnosisRepository.findByRecordID(seed.recordID);
+            diagnosisRepository.findByRecordIDs(List.of(seed.recordID));
+            diagnosisRepository.findByPatientID(seed.patientID);
+            prescriptionRepository.findByRecordID(seed.recordID);
+            prescriptionMedicineRepository.findByPrescriptionID(seed.prescriptionID);
+            billRepository.findByAppointmentID(seed.appointmentID);
+            billRepository.getTotalRevenueByDateRange(start, end);
+            billRepository.computeAppointmentTotal(seed.appointmentID);
+            billRepository.computeUnbilledCompletedTotals(start, end);
+            notificationRepository.findByAppointmentID(seed.appointmentID);
+            notificationRepository.cancelPendingReminders(seed.appointmentID);
+            exportService.exportAppointments(start.toLocalDate(), start.toLocalDate(), FileFormat.CSV, OutputStream.nullOutputStream());
+            exportService.exportBills(start.toLocalDate(), start.toLocalDate(), FileFormat.CSV, OutputStream.nullOutputStream());
+            // Turning the statistics off discards them
+            statements = jdbcTemplate.queryForList("SELECT SQL_STATEMENT FROM INFORMATION_SCHEMA.QUERY_STATISTICS", String.class);
+        } finally {
+            jdbcTemplate.execute("SET QUERY_STATISTICS FALSE");
+        }
+        // Not covered: queries without a predicate to seek on (findAll, full exports) and the
+        // first-visit rollup of DailyClinicStats, which groups all appointments by patient and
+        // reads IX_Appointment_PatientID_DateTime in full by design
+
+        Map<String, String> leadingColumns = new HashMap<>();
+        jdbcTemplate.query("SELECT INDEX_NAME, COLUMN_NAME FROM INFORMATION_SCHEMA.INDEX_COLUMNS WHERE ORDINAL_POSITION = 1",
+            row -> { leadingColumns.put(row.getString(1), row.getString(2)); });
+
+        List<String> problems = new ArrayList<>();
+        int checked = 0;
+        for (String sql : statements) {
+            String lower = sql.toLowerCase();
+            if (!(lower.startsWith("select") || lower.startsWith("update") || lower.startsWith("delete"))
+                    || !lower.contains(" where ") || HOT_TABLES.stream().noneMatch(t -> sql.contains(" " + t + " "))) {
+                continue;
+            }
+            if (sql.contains(" from Notification ") && sql.contains(" or ")) {
+                // The dispatcher may poll meanwhile: H2 cannot seek an OR of two Status arms,
+                // SQL Server seeks IX_Notification_Dispatch once per arm
+                continue;
+            }
+            checked++;
+            String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+            Matcher access = ACCESS.matcher(plan);
+            while (access.find()) {
+                String target = access.group(1);
+                String conditions = access.group(2);
+                if (target.endsWith(".tableScan")) {
+                    problems.add("Table scan of " + target + " in: " + sql);
+                } else if (access.group(3) == null) {
+                    String leading = leadingColumns.get(target);
+                    if (conditions == null || leading == null
+                            || !Pattern.compile("\\b" + leading + "\\s*(=|<|>|IN\\b|IS\\b)").matcher(conditions).find()) {
+                        problems.add("Index " + target + " is scanned, not sought, in: " + sql + "\n" + plan);
+                    }
+                }
+            }
+        }
+        assertTrue(checked >= 25, "Only " + checked + " queries were captured");
+        assertTrue(problems.isEmpty(), String.join("\n\n", problems));
+    }
+
+    private static Set<String> indexNames(SchemaMigrator.Migration migration) {
+        Set<String> names = new TreeSet<>();
+        Matcher matcher = CREATE_INDEX.matcher(migration.sql());
+        while (matcher.find()) {
+            names.add(matcher.group(1));
+        }
+        return names;
+    }
+
+    private record Seed(int doctorID, int patientID, int appointmentID, int recordID, int prescriptionID) {
+    }
+
+    // Arbitrary IDs for services, medicines and ICD-10 codes: the test schema has no foreign keys
+    private Seed seed() {
+        User doctor = saveUser(2);
+        Patient patient = savePatient();
+        Appointment first = null;
+        for (int i = 0; i < 20; i++) {
+            Appointment appointment = new Appointment();
+            appointment.setPatientID(i < 5 ? patient.getPatientID() : savePatient().getPatientID());
+            appointment.setDoctorID(doctor.getUserID());
+            appointment.setReceptionistID(doctor.getUserID());
+            appointment.setDateTime(DAY.plusMinutes(20L * i));
+            appointment.setStatus(i % 2 == 0 ? AppointmentStatus.COMPLETED : AppointmentStatus.SCHEDULED);
+            appointment = appointmentRepository.save(appointment);
+            if (first == null) {
+                first = appointment;
+            }
+        }
+
+        AppointmentService line = new AppointmentService();
+        line.setAppointmentID(first.getAppointmentID());
+        line.setServiceID(1);
+        line.setQuantity(1);
+        appointmentServiceRepository.save(line);
+
+        MedicalRecord record = new MedicalRecord();
+        record.setAppointmentID(first.getAppointmentID());
+        record.setCreatedBy(doctor.getUserID());
+        record = medicalRecordRepository.save(record);
+
+        Diagnosis diagnosis = new Diagnosis();
+        diagnosis.setRecordID(record.getRecordID());
+        diagnosis.setIcd10CodeID(1);
+        diagnosis.setCreatedBy(doctor.getUserID());
+        diagnosis.setDate(DAY);
+        diagnosisRepository.save(diagnosis);
+
+        Prescription prescription = new Prescription();
+        prescription.setPrescriptionCode("SM-RX" + SEQUENCE.incrementAndGet());
+        prescription.setDate(DAY);
+        prescription.setRecordID(record.getRecordID());
+        prescription.setCreatedBy(doctor.getUserID());
+        prescription = prescriptionRepository.save(prescription);
+
+        PrescriptionMedicine item = new PrescriptionMedicine();
+        item.setPrescriptionID(prescription.getPrescriptionID());
+        item.setMedicineID(1);
+        item.setQuantity(2);
+        prescriptionMedicineRepository.save(item);
+
+        Bill bill = new Bill();
+        bill.setInvoiceCode("SM-INV" + SEQUENCE.incrementAndGet());
+        bill.setTotalAmount(new BigDecimal("100000.00"));
+        bill.setPaymentStatus("Paid");
+        bill.setAppointmentID(first.getAppointmentID());
+        bill.setDateIssued(DAY.plusHours(1));
+        billRepository.save(bill);
+
+        return new Seed(doctor.getUserID(), patient.getPatientID(), first.getAppointmentID(), record.getRecordID(),
+            prescription.getPrescriptionID());
+    }
+
+    private Patient savePatient() {
+        int n = SEQUENCE.incrementAndGet();
+        Patient patient = new Patient();
+        patient.setPatientCode("SM" + n);
+        patient.setFullName("Plan Patient " + n);
+        patient.setDateOfBirth(LocalDate.of(1975, 5, 5));
+        patient.setGender("Nam");
+        patient.setPhone("0989" + n);
+        return patientRepository.save(patient);
+    }
+
+    private User saveUser(int role) {
+        int n = SEQUENCE.incrementAndGet();
+        User user = new User();
+        user.setUsername("sm-user" + n + "@clinic.test");
+        user.setPasswordHash("default123");
+        user.setRole(role);
+        user.setFullName("Plan Staff " + n);
+        user.setEmail("sm-user" + n + "@clinic.test");
+        user.setStatus("Active");
+        return userRepository.save(user);
+    }
+}
@@ -0,0 +1,254 @@
+package com.clinicSys.service.impl;
+
+import com.clinicSys.backend.BackendApplication;
+import com.clinicSys.config.JwtUtil;
+import com.clinicSys.domain.Appointment;
+import com.clinicSys.domain.AppointmentStatus;
+import com.clinicSys.domain.Patient;
+import com.clinicSys.domain.User;
+import com.clinicSys.dto.request.CreateAppointmentDTO;
+import com.clinicSys.dto.response.AppointmentWithDoctorDTO;
+import com.clinicSys.dto.response.FreeSlotDTO;
+import com.clinicSys.repository.IAppointmentRepository;
+import com.clinicSys.repository.IPatientRepository;
+import com.clinicSys.repository.IUserRepository;
+import com.clinicSys.service.IReceptionistService;
+import com.clinicSys.service.ISlotService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(classes = BackendApplication.class)
+@AutoConfigureMockMvc
+class SlotServiceImplTests {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+    // Each test books its own doctor on its own day, far from the data of other test classes
+    private static final AtomicInteger DAY_OFFSET = new AtomicInteger();
+
+    @Autowired
+    private ISlotService slotService;
+
+    @Autowired
+    private SlotServiceImpl slotServiceImpl;
+
+    @Autowired
+    private IReceptionistService receptionistService;
+
+    @Autowired
+    private IAppointmentRepository appointmentRepository;
+
+    @Autowired
+    private IPatientRepository patientRepository;
+
+    @Autowired
+    private IUserRepository userRepository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private User doctor;
+    private User receptionist;
+    private LocalDate day;
+
+    @BeforeEach
+    void setUp() {
+        doctor = saveUser(2);
+        receptionist = saveUser(3);
+        day = LocalDate.of(2032, 1, 5).plusDays(DAY_OFFSET.getAndIncrement());
+        authenticate(receptionist);
+    }
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void concurrentBookingsOfOneSlotLetExactlyOneThrough() throws Exception {
+        int receptionists = 16;
+        List<Patient> patients = new ArrayList<>();
+        for (int i = 0; i < receptionists; i++) {
+            patients.add(savePatient());
+        }
+        LocalDateTime slot = day.atTime(9, 0);
+
+        ExecutorService pool = Executors.newFixedThreadPool(receptionists);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < receptionists; i++) {
+            Patient patient = patients.get(i);
+            // Half of them ask for 09:15, which overlaps the 09:00 slot
+            LocalDateTime requested = i % 2 == 0 ? slot : slot.plusMinutes(15);
+            results.add(pool.submit(() -> {
+                authenticate(receptionist);
+                start.await();
+                try {
+                    receptionistService.createAppointment(new CreateAppointmentDTO(
+                        patient.getPatientID(), doctor.getUserID(), requested, null, null));
+                    return true;
+                } catch (RuntimeException e) {
+                    return false;
+                } finally {
+                    SecurityContextHolder.clearContext();
+                }
+            }));
+        }
+        start.countDown();
+        int booked = 0;
+        for (Future<Boolean> result : results) {
+            booked += result.get() ? 1 : 0;
+        }
+        pool.shutdown();
+
+        assertEquals(1, booked);
+        assertEquals(1, appointmentRepository.findByDoctorIDAndDateRange(
+            doctor.getUserID(), day.atStartOfDay(), day.plusDays(1).atStartOfDay()).size());
+    }
+
+    @Test
+    void findFreeSlotsSkipsBookedSlotsAndTheBreak() {
+        book(day.atTime(8, 0));
+        book(day.atTime(9, 0));
+
+        List<FreeSlotDTO> morning = slotService.findFreeSlots(day.atTime(8, 0), doctor.getUserID(), 3);
+        assertEquals(List.of(day.atTime(8, 30), day.atTime(9, 30), day.atTime(10, 0)),
+            morning.stream().map(FreeSlotDTO::start).toList());
+        assertEquals(doctor.getFullName(), morning.get(0).doctorName());
+
+        // 11:30 is the last slot before the 12:00-13:00 break
+        List<FreeSlotDTO> aroundBreak = slotService.findFreeSlots(day.atTime(11, 20), doctor.getUserID(), 2);
+        assertEquals(List.of(day.atTime(11, 30), day.atTime(13, 0)),
+            aroundBreak.stream().map(FreeSlotDTO::start).toList());
+    }
+
+    @Test
+    void bookingOutsideWorkingHoursIsRejected() {
+        assertThrows(RuntimeException.class, () -> book(day.atTime(12, 15)));
+        assertThrows(RuntimeException.class, () -> book(day.atTime(7, 30)));
+        assertThrows(RuntimeException.class, () -> book(day.atTime(16, 45)));
+    }
+
+    @Test
+    void cancellingAnAppointmentFreesItsSlot() {
+        AppointmentWithDoctorDTO appointment = book(day.atTime(10, 0));
+        assertThrows(RuntimeException.class, () -> book(day.atTime(10, 0)));
+
+        receptionistService.updateAppointmentStatus(appointment.appointmentID(), "Cancelled");
+
+        assertEquals(day.atTime(10, 0),
+            slotService.findFreeSlots(day.atTime(10, 0), doctor.getUserID(), 1).get(0).start());
+        book(day.atTime(10, 0));
+    }
+
+    @Test
+    void appointmentsWrittenElsewhereShowUpOnRefresh() {
+        LocalDateTime slot = day.atTime(14, 0);
+        assertEquals(slot, slotService.findFreeSlots(slot, doctor.getUserID(), 1).get(0).start());
+
+        // As if booked on another node
+        saveAppointment(slot, AppointmentStatus.SCHEDULED);
+        slotServiceImpl.refreshAndEvict();
+
+        assertEquals(slot.plusMinutes(30), slotService.findFreeSlots(slot, doctor.getUserID(), 1).get(0).start());
+    }
+
+    @Test
+    void theDatabaseRejectsASlotTakenSinceTheDayWasLoaded() {
+        LocalDateTime slot = day.atTime(15, 0);
+        slotService.findFreeSlots(slot, doctor.getUserID(), 1);
+
+        // Cancelled appointments do not hold the slot
+        saveAppointment(slot, AppointmentStatus.CANCELLED);
+        saveAppointment(slot, AppointmentStatus.CANCELLED);
+        saveAppointment(slot, AppointmentStatus.SCHEDULED);
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> book(slot));
+        assertEquals("Bác sĩ đã có lịch hẹn khác trong khung giờ này", e.getMessage());
+        assertEquals(1, appointmentRepository.findByDoctorIDAndDateRangeAndStatuses(doctor.getUserID(),
+            slot, slot.plusMinutes(1), List.of(AppointmentStatus.SCHEDULED)).size());
+    }
+
+    @Test
+    void freeSlotEndpointReturnsSlotsForReceptionist() throws Exception {
+        book(day.atTime(8, 0));
+
+        mockMvc.perform(get("/api/receptionist/slots/free")
+                .param("from", day.atTime(8, 0).toString())
+                .param("doctorId", String.valueOf(doctor.getUserID()))
+                .param("limit", "2")
+                .header("Authorization", "Bearer " + jwtUtil.generateToken(receptionist)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$[0].start").value(day.atTime(8, 30).toString() + ":00"));
+    }
+
+    private AppointmentWithDoctorDTO book(LocalDateTime dateTime) {
+        return receptionistService.createAppointment(new CreateAppointmentDTO(
+            savePatient().getPatientID(), doctor.getUserID(), dateTime, null, null));
+    }
+
+    private void saveAppointment(LocalDateTime dateTime, AppointmentStatus status) {
+        Appointment appointment = new Appointment();
+        appointment.setPatientID(savePatient().getPatientID());
+        appointment.setDoctorID(doctor.getUserID());
+        appointment.setReceptionistID(receptionist.getUserID());
+        appointment.setDateTime(dateTime);
+        appointment.setStatus(status);
+        appointmentRepository.save(appointment);
+    }
+
+    private void authenticate(User user) {
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+
+    private Patient savePatient() {
+        int n = SEQUENCE.incrementAndGet();
+        Patient patient = new Patient();
+        patient.setPatientCode("SL" + n);
+        patient.setFullName("Patient " + n);
+        patient.setDateOfBirth(LocalDate.of(1990, 1, 1));
+        patient.setGender("Nam");
+        patient.setPhone("0940" + n);
+        patient.setEmail("sl-patient" + n + "@clinic.test");
+        return patientRepository.save(patient);
+    }
+
+    private User saveUser(int role) {
+        int n = SEQUENCE.incrementAndGet();
+        User user = new User();
+        user.setUsername("sl-user" + n + "@clinic.test");
+        user.setPasswordHash("default123");
+        user.setRole(role);
+        user.setFullName("Staff " + n);
+        user.setEmail("sl-user" + n + "@clinic.test");
+        user.setStatus("Active");
+        return userRepository.save(user);
+    }
+}
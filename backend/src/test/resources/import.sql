@@ -0,0 +1,4 @@
+-- Run by Hibernate after it creates the test schema: what the migrations would add that the tests need
+CREATE SEQUENCE IF NOT EXISTS PatientCodeSeq AS BIGINT START WITH 1 INCREMENT BY 50;
+ALTER TABLE Appointment ADD COLUMN IF NOT EXISTS CancelledID INT GENERATED ALWAYS AS (CASE WHEN Status = 'Cancelled' THEN AppointmentID ELSE 0 END);
+CREATE UNIQUE INDEX IF NOT EXISTS UX_Appointment_DoctorID_DateTime ON Appointment (DoctorID, DateTime, CancelledID);
@@ -0,0 +1,195 @@
+package com.clinicSys.benchmark;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Fills an empty benchmark database with generated clinic data through plain JDBC batches.
+ * Data is deterministic for a given set of volumes, so results of different runs are comparable.
+ */
+class ClinicDataSeeder {
+
+    private static final int BATCH_SIZE = 5_000;
+
+    // Appointments are spread over this many days, ending today
+    static final int HISTORY_DAYS = 365;
+
+    private static final String[] SURNAMES = {
+        "Nguyễn", "Trần", "Lê", "Phạm", "Hoàng", "Huỳnh", "Phan", "Vũ",
+        "Võ", "Đặng", "Bùi", "Đỗ", "Hồ", "Ngô", "Dương", "Lý"
+    };
+    private static final String[] MIDDLE_NAMES = {
+        "Văn", "Thị", "Hữu", "Minh", "Ngọc", "Thanh", "Quốc", "Đức", "Thu", "Hoài"
+    };
+    private static final String[] GIVEN_NAMES = {
+        "An", "Bình", "Châu", "Dũng", "Đạt", "Giang", "Hà", "Hải", "Hạnh", "Hiếu",
+        "Hoa", "Hùng", "Hương", "Khánh", "Lan", "Linh", "Long", "Mai", "Nam", "Nga",
+        "Phong", "Phúc", "Quân", "Quỳnh", "Sơn", "Tâm", "Thảo", "Trang", "Trung", "Tuấn",
+        "Vy", "Yến"
+    };
+    private static final String[] MEDICINE_NAMES = {
+        "Paracetamol", "Amoxicillin", "Ibuprofen", "Omeprazole", "Metformin", "Amlodipine",
+        "Cefuroxime", "Loratadine", "Vitamin C", "Azithromycin", "Losartan", "Atorvastatin",
+        "Salbutamol", "Prednisolone", "Diclofenac", "Cetirizine"
+    };
+    private static final String[] STRENGTHS = { "250mg", "500mg", "5mg", "10mg", "20mg", "100mg" };
+    private static final String[] TODAY_STATUSES = { "Scheduled", "Checked-in", "In Consultation", "Completed" };
+
+    private final JdbcTemplate jdbc;
+
+    ClinicDataSeeder(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    boolean isSeeded() {
+        return count("Patient") > 0;
+    }
+
+    boolean isComplete() {
+        return count("MedicalRecord") > 0;
+    }
+
+    void seed(int patients, int appointments, int medicines, int doctors, int historyPatients) {
+        LocalDate today = LocalDate.now();
+        seedUsers(doctors);
+        seedMedicines(medicines);
+        seedPatients(patients, today);
+
+        List<Integer> doctorIDs = jdbc.queryForList("SELECT UserID FROM [User] WHERE RoleID = 2 ORDER BY UserID", Integer.class);
+        int receptionistID = jdbc.queryForObject("SELECT MIN(UserID) FROM [User] WHERE RoleID = 3", Integer.class);
+        int firstPatientID = jdbc.queryForObject("SELECT MIN(PatientID) FROM Patient", Integer.class);
+        seedAppointments(appointments, patients, firstPatientID, doctorIDs, receptionistID, today);
+
+        // Full visit history (records and diagnoses) only for the first patients, used by the EMR benchmarks
+        seedMedicalRecords(firstPatientID + Math.min(historyPatients, patients) - 1);
+    }
+
+    private void seedUsers(int doctors) {
+        jdbc.update("INSERT INTO [User] (Username, PasswordHash, RoleID, FullName, Email, Status) VALUES (?, ?, ?, ?, ?, ?)",
+            "bench.admin", "-", 1, "Bench Admin", "bench.admin@clinic.local", "Active");
+        jdbc.update("INSERT INTO [User] (Username, PasswordHash, RoleID, FullName, Email, Status) VALUES (?, ?, ?, ?, ?, ?)",
+            "bench.receptionist", "-", 3, "Bench Receptionist", "bench.receptionist@clinic.local", "Active");
+        batch("INSERT INTO [User] (Username, PasswordHash, RoleID, FullName, Email, Status) VALUES (?, ?, ?, ?, ?, ?)",
+            doctors, (i, ps) -> {
+                ps.setString(1, "bench.doctor" + i);
+                ps.setString(2, "-");
+                ps.setInt(3, 2);
+                ps.setString(4, "BS. " + personName(i * 7919));
+                ps.setString(5, "bench.doctor" + i + "@clinic.local");
+                ps.setString(6, "Active");
+            });
+    }
+
+    private void seedMedicines(int medicines) {
+        batch("INSERT INTO MedicineGroup (Name, Status) VALUES (?, ?)", 10, (i, ps) -> {
+            ps.setString(1, "Nhóm thuốc " + (i + 1));
+            ps.setString(2, "Active");
+        });
+        jdbc.update("INSERT INTO ICD10Code (Code, Description) VALUES (?, ?)", "J06.9", "Nhiễm trùng hô hấp trên cấp");
+        int firstGroupID = jdbc.queryForObject("SELECT MIN(MedicineGroupID) FROM MedicineGroup", Integer.class);
+
+        batch("INSERT INTO Medicine (MedicineCode, MedicineGroupID, Name, Strength, Price, Stock, Status, Unit) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)", medicines, (i, ps) -> {
+            String strength = STRENGTHS[(i / MEDICINE_NAMES.length) % STRENGTHS.length];
+            ps.setString(1, String.format("MED%06d", i + 1));
+            ps.setInt(2, firstGroupID + i % 10);
+            ps.setString(3, MEDICINE_NAMES[i % MEDICINE_NAMES.length] + " " + strength + " #" + (i / MEDICINE_NAMES.length + 1));
+            ps.setString(4, strength);
+            ps.setBigDecimal(5, BigDecimal.valueOf(1_000L + (i % 200) * 500L));
+            ps.setInt(6, 100 + i % 900);
+            ps.setString(7, i % 20 == 0 ? "Inactive" : "Active");
+            ps.setString(8, "Viên");
+        });
+    }
+
+    private void seedPatients(int patients, LocalDate today) {
+        batch("INSERT INTO Patient (PatientCode, FullName, DateOfBirth, Gender, Address, Phone, Email) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?)", patients, (i, ps) -> {
+            ps.setString(1, String.format("BN%07d", i + 1));
+            ps.setString(2, personName(i));
+            ps.setDate(3, Date.valueOf(today.minusDays(365L + (i * 37L) % (80 * 365))));
+            ps.setString(4, i % 2 == 0 ? "Nam" : "Nữ");
+            ps.setString(5, "Số " + (i % 500 + 1) + " đường " + GIVEN_NAMES[i % GIVEN_NAMES.length]);
+            ps.setString(6, String.format("09%08d", i));
+            ps.setString(7, "patient" + i + "@clinic.local");
+        });
+    }
+
+    private void seedAppointments(int appointments, int patients, int firstPatientID,
+                                  List<Integer> doctorIDs, int receptionistID, LocalDate today) {
+        batch("INSERT INTO Appointment (DateTime, Status, PatientID, DoctorID, ReceptionistID) VALUES (?, ?, ?, ?, ?)",
+            appointments, (i, ps) -> {
+                int daysAgo = i % HISTORY_DAYS;
+                // A doctor holds one appointment per time (UX_Appointment_DoctorID_DateTime): the
+                // doctors take turns on the 18 half-hour slots of a day, and once those are full
+                // later rows move within the slot a minute at a time
+                int ofDay = i / HISTORY_DAYS;
+                int slot = (ofDay / doctorIDs.size()) % 18;
+                int minute = (ofDay / doctorIDs.size() / 18) % 30;
+                LocalDateTime dateTime = today.minusDays(daysAgo).atTime(8 + slot / 2, (slot % 2) * 30 + minute);
+                String status;
+                if (daysAgo == 0) {
+                    status = TODAY_STATUSES[(ofDay / doctorIDs.size()) % TODAY_STATUSES.length];
+                } else {
+                    status = i % 25 == 0 ? "Cancelled" : "Completed";
+                }
+                ps.setTimestamp(1, Timestamp.valueOf(dateTime));
+                ps.setString(2, status);
+                ps.setInt(3, firstPatientID + i % patients);
+                ps.setInt(4, doctorIDs.get(ofDay % doctorIDs.size()));
+                ps.setInt(5, receptionistID);
+            });
+    }
+
+    private void seedMedicalRecords(int lastHistoryPatientID) {
+        jdbc.update("INSERT INTO MedicalRecord (Vitals, Symptoms, Notes, AppointmentID, CreatedBy) "
+            + "SELECT 'HA 120/80, M 80', 'Ho, sốt nhẹ', 'Tái khám sau 1 tuần', AppointmentID, DoctorID "
+            + "FROM Appointment WHERE PatientID <= ? AND Status <> 'Cancelled'", lastHistoryPatientID);
+        int codeID = jdbc.queryForObject("SELECT MIN(CodeID) FROM ICD10Code", Integer.class);
+        jdbc.update("INSERT INTO Diagnosis (Description, Date, RecordID, ICD10CodeID, CreatedBy) "
+            + "SELECT 'Viêm họng cấp', a.DateTime, r.RecordID, ?, r.CreatedBy "
+            + "FROM MedicalRecord r JOIN Appointment a ON a.AppointmentID = r.AppointmentID", codeID);
+    }
+
+    private static String personName(int i) {
+        return SURNAMES[i % SURNAMES.length] + " "
+            + MIDDLE_NAMES[(i / SURNAMES.length) % MIDDLE_NAMES.length] + " "
+            + GIVEN_NAMES[(i / (SURNAMES.length * MIDDLE_NAMES.length)) % GIVEN_NAMES.length];
+    }
+
+    private int count(String table) {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
+    }
+
+    private void batch(String sql, int rows, RowWriter writer) {
+        for (int start = 0; start < rows; start += BATCH_SIZE) {
+            int from = start;
+            int size = Math.min(BATCH_SIZE, rows - start);
+            jdbc.batchUpdate(sql, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    writer.write(from + i, ps);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return size;
+                }
+            });
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(int index, PreparedStatement ps) throws SQLException;
+    }
+}
@@ -0,0 +1,136 @@
+package com.clinicSys.benchmark;
+
+import com.clinicSys.backend.BackendApplication;
+import com.clinicSys.config.SchemaMigrator;
+import com.clinicSys.domain.User;
+import com.clinicSys.repository.IUserRepository;
+import com.clinicSys.service.ICacheAdminService;
+import com.clinicSys.service.IDailyStatsService;
+import com.clinicSys.service.IEMRService;
+import com.clinicSys.service.IMedicineSearchService;
+import com.clinicSys.service.IPatientSearchService;
+import com.clinicSys.service.IPatientService;
+import com.clinicSys.service.IPrescriptionService;
+import com.clinicSys.service.IReceptionistService;
+import com.clinicSys.service.IReferenceDataService;
+import com.clinicSys.service.ISlotService;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Boots the real backend against an embedded H2 database (SQL Server mode) and seeds it.
+ * The database file is keyed by date and volumes and kept under target/bench-db, so only
+ * the first fork of a run pays for seeding; later forks and runs on the same day reuse it.
+ */
+@State(Scope.Benchmark)
+public class ClinicDatabase {
+
+    @Param("100000")
+    public int patients;
+
+    @Param("1000000")
+    public int appointments;
+
+    @Param("5000")
+    public int medicines;
+
+    @Param("20")
+    public int doctors;
+
+    // Patients that get a full visit history (medical records and diagnoses)
+    @Param("200")
+    public int historyPatients;
+
+    ConfigurableApplicationContext context;
+    IReceptionistService receptionistService;
+    IEMRService emrService;
+    IPrescriptionService prescriptionService;
+    IPatientService patientService;
+    ISlotService slotService;
+
+    User doctor;
+    int[] recordAppointmentIDs;
+    int[] medicineIDs;
+    int[] doctorIDs;
+
+    @Setup(Level.Trial)
+    public void start() {
+        LocalDate today = LocalDate.now();
+        Path dbDir = Paths.get(System.getProperty("bench.db.dir", "target/bench-db")).toAbsolutePath();
+        String dbName = String.format("clinic-%s-p%d-a%d-m%d-d%d-h%d",
+            today, patients, appointments, medicines, doctors, historyPatients);
+
+        context = new SpringApplicationBuilder(BackendApplication.class).run(
+            "--spring.datasource.url=jdbc:h2:file:" + dbDir.resolve(dbName)
+                + ";MODE=MSSQLServer;DATABASE_TO_UPPER=FALSE",
+            "--spring.datasource.driver-class-name=org.h2.Driver",
+            "--spring.datasource.username=sa",
+            "--spring.datasource.password=",
+            "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+            "--spring.jpa.hibernate.ddl-auto=update",
+            "--clinic.schema.migrate-on-startup=false",
+            "--spring.jpa.show-sql=false",
+            "--spring.main.banner-mode=off",
+            "--server.port=0",
+            "--logging.level.root=WARN");
+        // Hibernate creates the tables, the migrations add the indexes on top (as in the backend tests)
+        context.getBean(SchemaMigrator.class).migrate();
+
+        JdbcTemplate jdbc = new JdbcTemplate(context.getBean(DataSource.class));
+        ClinicDataSeeder seeder = new ClinicDataSeeder(jdbc);
+        if (!seeder.isSeeded()) {
+            seeder.seed(patients, appointments, medicines, doctors, historyPatients);
+            // These were built at startup from an empty database, and the seeder bypasses Hibernate
+            context.getBean(IPatientSearchService.class).rebuild();
+            context.getBean(IMedicineSearchService.class).rebuild();
+            context.getBean(IDailyStatsService.class).rebuild(today.minusDays(ClinicDataSeeder.HISTORY_DAYS), today);
+            context.getBean(IReferenceDataService.class).refresh();
+            context.getBean(ICacheAdminService.class).evictAll();
+        } else if (!seeder.isComplete()) {
+            throw new IllegalStateException("Benchmark database " + dbName
+                + " was only partially seeded, delete it from " + dbDir + " and run again");
+        }
+
+        receptionistService = context.getBean(IReceptionistService.class);
+        emrService = context.getBean(IEMRService.class);
+        prescriptionService = context.getBean(IPrescriptionService.class);
+        patientService = context.getBean(IPatientService.class);
+        slotService = context.getBean(ISlotService.class);
+        // Doctors were loaded at startup, before a fresh database was seeded
+        slotService.refreshDoctors();
+
+        int doctorID = jdbc.queryForObject("SELECT MIN(UserID) FROM [User] WHERE RoleID = 2", Integer.class);
+        doctor = context.getBean(IUserRepository.class).findById(doctorID)
+            .orElseThrow(() -> new IllegalStateException("Seeded doctor not found"));
+        recordAppointmentIDs = toArray(jdbc.queryForList(
+            "SELECT AppointmentID FROM MedicalRecord ORDER BY AppointmentID", Integer.class));
+        medicineIDs = toArray(jdbc.queryForList(
+            "SELECT MedicineID FROM Medicine WHERE Status = 'Active' ORDER BY MedicineID", Integer.class));
+        doctorIDs = toArray(jdbc.queryForList(
+            "SELECT UserID FROM [User] WHERE RoleID = 2 ORDER BY UserID", Integer.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    private static int[] toArray(List<Integer> values) {
+        return values.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
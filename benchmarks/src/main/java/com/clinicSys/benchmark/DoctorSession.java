@@ -0,0 +1,72 @@
+package com.clinicSys.benchmark;
+
+import com.clinicSys.dto.request.SavePrescriptionDTO;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.ThreadParams;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Per-thread state: signs the benchmark thread in as a doctor (like the JWT filter does)
+ * and hands out the inputs each benchmark rotates through.
+ */
+@State(Scope.Thread)
+public class DoctorSession {
+
+    private static final String[] PATIENT_TERMS = {
+        "nguyen van", "Trần Thị", "le minh h", "pham", "hoang ngoc lan", "0900012", "BN00123", "dang duc"
+    };
+    private static final String[] MEDICINE_TERMS = {
+        "para", "amox", "vitamin", "500mg", "cetirizine", "los", "ibu", "#12"
+    };
+
+    private ClinicDatabase db;
+    private SplittableRandom random;
+    private int nextRecord;
+
+    @Setup(Level.Trial)
+    public void signIn(ClinicDatabase db, ThreadParams threadParams) {
+        this.db = db;
+        this.random = new SplittableRandom(42L + threadParams.getThreadIndex());
+        // Threads start at different records so concurrent savePrescription calls rarely share one
+        this.nextRecord = threadParams.getThreadIndex() * 97;
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(db.doctor, null, db.doctor.getAuthorities()));
+    }
+
+    @TearDown(Level.Trial)
+    public void signOut() {
+        SecurityContextHolder.clearContext();
+    }
+
+    int nextRecordAppointmentID() {
+        int[] ids = db.recordAppointmentIDs;
+        return ids[nextRecord++ % ids.length];
+    }
+
+    SavePrescriptionDTO nextPrescription() {
+        List<SavePrescriptionDTO.PrescriptionItemRequestDTO> items = new ArrayList<>();
+        int itemCount = 2 + random.nextInt(4);
+        for (int i = 0; i < itemCount; i++) {
+            int medicineID = db.medicineIDs[random.nextInt(db.medicineIDs.length)];
+            items.add(new SavePrescriptionDTO.PrescriptionItemRequestDTO(medicineID, 1 + random.nextInt(20), "Ngày 2 lần sau ăn"));
+        }
+        return new SavePrescriptionDTO(nextRecordAppointmentID(), "Uống đủ liều", null, items);
+    }
+
+    String nextPatientTerm() {
+        return PATIENT_TERMS[random.nextInt(PATIENT_TERMS.length)];
+    }
+
+    String nextMedicineTerm() {
+        return MEDICINE_TERMS[random.nextInt(MEDICINE_TERMS.length)];
+    }
+}
@@ -0,0 +1,97 @@
+package com.clinicSys.benchmark;
+
+import com.clinicSys.dto.response.MedicineDTO;
+import com.clinicSys.service.IMedicineSearchService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Medicine autocomplete as the prescription screen uses it: one search per keystroke from
+ * several doctors at once, over the seeded catalogue (medicines, default 5000). Times are in
+ * microseconds; the index answers from memory, so p99 should stay well under a millisecond.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@Threads(4)
+public class MedicineSearchBenchmarks {
+
+    // Whole queries typed one character at a time; every prefix is a search
+    private static final String[] TYPED = {
+        "paracetamol 500mg", "amoxicillin", "ibuprofen 200", "omeprazole", "vitamin c", "cetirizine 10mg",
+        "azithromycin", "losartan", "med000123"
+    };
+    // Typos that should still find the medicine
+    private static final String[] TYPOS = {
+        "paracetamon", "amoxicilin", "ibuprofne", "omeprazol", "cetirizin", "azitromycin", "atorvastatine", "salbutamon"
+    };
+
+    @State(Scope.Thread)
+    public static class Doctor {
+        private List<String> keystrokes;
+        private SplittableRandom random;
+
+        @Setup(Level.Trial)
+        public void start(ThreadParams threadParams) {
+            keystrokes = new ArrayList<>();
+            for (String query : TYPED) {
+                for (int i = 1; i <= query.length(); i++) {
+                    keystrokes.add(query.substring(0, i));
+                }
+            }
+            random = new SplittableRandom(11L + threadParams.getThreadIndex());
+        }
+
+        String nextKeystroke() {
+            return keystrokes.get(random.nextInt(keystrokes.size()));
+        }
+
+        String nextTypo() {
+            return TYPOS[random.nextInt(TYPOS.length)];
+        }
+    }
+
+    @Benchmark
+    public List<MedicineDTO> searchAsTyped(ClinicDatabase db, Doctor doctor) {
+        return db.prescriptionService.searchMedicines(doctor.nextKeystroke(), false);
+    }
+
+    @Benchmark
+    public List<MedicineDTO> searchWithTypos(ClinicDatabase db, Doctor doctor) {
+        return db.prescriptionService.searchMedicines(doctor.nextTypo(), false);
+    }
+
+    @Benchmark
+    public List<MedicineDTO> searchInStockOnly(ClinicDatabase db, Doctor doctor) {
+        return db.prescriptionService.searchMedicines(doctor.nextKeystroke(), true);
+    }
+
+    // The whole catalogue, as after an import
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Threads(1)
+    public int rebuild(ClinicDatabase db) {
+        IMedicineSearchService index = db.context.getBean(IMedicineSearchService.class);
+        index.rebuild();
+        return index.size();
+    }
+}
@@ -0,0 +1,55 @@
+package com.clinicSys.benchmark;
+
+import com.clinicSys.dto.response.EMRDTO;
+import com.clinicSys.dto.response.MedicineDTO;
+import com.clinicSys.dto.response.PatientDTO;
+import com.clinicSys.dto.response.PrescriptionDTO;
+import com.clinicSys.dto.response.ReceptionistDashboardDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service-layer hot paths measured end to end (service, repository, Hibernate, JDBC).
+ * Throughput mode gives ops/ms; SampleTime gives the latency distribution (p50, p90, p99, p99.9).
+ * The GC profiler added by {@link BenchmarkMain} reports gc.alloc.rate and gc.alloc.rate.norm.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class ServiceBenchmarks {
+
+    @Benchmark
+    public ReceptionistDashboardDTO getDashboard(ClinicDatabase db) {
+        return db.receptionistService.getDashboard();
+    }
+
+    @Benchmark
+    public EMRDTO getEMRByAppointmentID(ClinicDatabase db, DoctorSession session) {
+        return db.emrService.getEMRByAppointmentID(session.nextRecordAppointmentID());
+    }
+
+    @Benchmark
+    public PrescriptionDTO savePrescription(ClinicDatabase db, DoctorSession session) {
+        return db.prescriptionService.savePrescription(session.nextPrescription());
+    }
+
+    @Benchmark
+    public List<PatientDTO> searchPatients(ClinicDatabase db, DoctorSession session) {
+        return db.patientService.searchPatients(session.nextPatientTerm(), 20);
+    }
+
+    @Benchmark
+    public List<MedicineDTO> searchMedicines(ClinicDatabase db, DoctorSession session) {
+        return db.prescriptionService.searchMedicines(session.nextMedicineTerm(), false);
+    }
+}
@@ -0,0 +1,88 @@
+package com.clinicSys.benchmark;
+
+import com.clinicSys.dto.response.FreeSlotDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test of the slot engine: free-slot searches and bookings from several receptionist
+ * threads at once. Times are in microseconds since nothing here should touch the database
+ * once a day has been loaded.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@Threads(8)
+public class SlotBenchmarks {
+
+    // Bookings are spread over this many days ahead, so threads keep colliding on the same doctors
+    private static final int BOOKING_DAYS = 30;
+
+    @State(Scope.Thread)
+    public static class Receptionist {
+        private ClinicDatabase db;
+        private SplittableRandom random;
+
+        @Setup(Level.Trial)
+        public void start(ClinicDatabase db, ThreadParams threadParams) {
+            this.db = db;
+            this.random = new SplittableRandom(7L + threadParams.getThreadIndex());
+        }
+
+        LocalDateTime nextSearchStart() {
+            return LocalDate.now().plusDays(random.nextInt(7)).atTime(8 + random.nextInt(9), 0);
+        }
+
+        int nextDoctorID() {
+            return db.doctorIDs[random.nextInt(db.doctorIDs.length)];
+        }
+
+        LocalDateTime nextBookingTime() {
+            return LocalDate.now().plusDays(1 + random.nextInt(BOOKING_DAYS))
+                .atTime(8 + random.nextInt(9), random.nextBoolean() ? 0 : 30);
+        }
+    }
+
+    @Benchmark
+    public List<FreeSlotDTO> findFreeSlotsAllDoctors(ClinicDatabase db, Receptionist receptionist) {
+        return db.slotService.findFreeSlots(receptionist.nextSearchStart(), null, 10);
+    }
+
+    @Benchmark
+    public List<FreeSlotDTO> findFreeSlotsOneDoctor(ClinicDatabase db, Receptionist receptionist) {
+        return db.slotService.findFreeSlots(receptionist.nextSearchStart(), receptionist.nextDoctorID(), 10);
+    }
+
+    /**
+     * Outside a transaction a successful reserve keeps its slot, so after warmup most calls
+     * measure the rejected double booking, which is the contended path.
+     */
+    @Benchmark
+    public boolean reserve(ClinicDatabase db, Receptionist receptionist) {
+        try {
+            db.slotService.reserve(receptionist.nextDoctorID(), receptionist.nextBookingTime());
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+}
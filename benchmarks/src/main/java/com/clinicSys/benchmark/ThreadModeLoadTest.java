@@ -0,0 +1,208 @@
+package com.clinicSys.benchmark;
+
+import com.clinicSys.config.JwtUtil;
+import com.clinicSys.domain.User;
+import com.clinicSys.repository.IUserRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives the backend over HTTP with a fixed number of concurrent clients, once with platform
+ * request threads (Tomcat's pool) and once with spring.threads.virtual.enabled=true, and prints
+ * throughput, latency percentiles and errors for each. Every client keeps one request in flight,
+ * alternating between a doctor opening an EMR and a receptionist opening an appointment, which
+ * are both chains of sequential JDBC lookups. Not a JMH benchmark: JMH calls the services from
+ * its own threads, this measures the request threads and the connection pool under load.
+ *
+ * Options (key=value): clients (1000), seconds (30), warmup (10), modes (platform,virtual), and
+ * the ClinicDatabase volumes patients, appointments, medicines, doctors, historyPatients.
+ * The virtual mode is skipped on a JVM older than 21.
+ */
+public class ThreadModeLoadTest {
+
+    private static final String[] MODES = {"platform", "virtual"};
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("Expected key=value, got " + arg);
+            }
+            options.put(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+        int clients = intOption(options, "clients", 1000);
+        int seconds = intOption(options, "seconds", 30);
+        int warmup = intOption(options, "warmup", 10);
+        List<String> modes = Arrays.asList(options.getOrDefault("modes", String.join(",", MODES)).split(","));
+
+        List<String> report = new ArrayList<>();
+        for (String mode : modes) {
+            if (!Arrays.asList(MODES).contains(mode)) {
+                throw new IllegalArgumentException("Unknown mode " + mode);
+            }
+            if (mode.equals("virtual") && Runtime.version().feature() < 21) {
+                report.add(String.format("%-9s skipped: needs Java 21, running %d", mode, Runtime.version().feature()));
+                continue;
+            }
+            report.add(run(mode, options, clients, warmup, seconds));
+        }
+
+        System.out.printf("%n%d clients, %d s measured after %d s warmup%n", clients, seconds, warmup);
+        System.out.printf("%-9s %10s %10s %9s %9s %9s %9s %8s%n",
+            "mode", "requests", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms", "errors");
+        report.forEach(System.out::println);
+    }
+
+    private static String run(String mode, Map<String, String> options, int clients, int warmup, int seconds)
+            throws Exception {
+        // Read by Spring Boot like any other property of the environment
+        System.setProperty("spring.threads.virtual.enabled", String.valueOf(mode.equals("virtual")));
+        // Same defaults as the @Param values JMH would inject
+        ClinicDatabase db = new ClinicDatabase();
+        db.patients = intOption(options, "patients", 100000);
+        db.appointments = intOption(options, "appointments", 1000000);
+        db.medicines = intOption(options, "medicines", 5000);
+        db.doctors = intOption(options, "doctors", 20);
+        db.historyPatients = intOption(options, "historyPatients", 200);
+        db.start();
+        try {
+            String base = "http://localhost:" + db.context.getEnvironment().getProperty("local.server.port");
+            JwtUtil jwtUtil = db.context.getBean(JwtUtil.class);
+            int receptionistID = new JdbcTemplate(db.context.getBean(DataSource.class))
+                .queryForObject("SELECT MIN(UserID) FROM [User] WHERE RoleID = 3", Integer.class);
+            User receptionist = db.context.getBean(IUserRepository.class).findById(receptionistID)
+                .orElseThrow(() -> new IllegalStateException("Seeded receptionist not found"));
+            String doctorToken = "Bearer " + jwtUtil.generateToken(db.doctor);
+            String receptionistToken = "Bearer " + jwtUtil.generateToken(receptionist);
+
+            List<HttpRequest> requests = new ArrayList<>();
+            for (int appointmentID : db.recordAppointmentIDs) {
+                requests.add(get(base + "/api/doctor/emr/appointment/" + appointmentID, doctorToken));
+                requests.add(get(base + "/api/receptionist/appointments/" + appointmentID, receptionistToken));
+            }
+
+            HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+            drive(client, requests, clients, warmup);
+            Load load = drive(client, requests, clients, seconds);
+            return String.format("%-9s %10d %10.0f %9.1f %9.1f %9.1f %9.1f %8d", mode, load.count,
+                load.count / (double) seconds, load.percentile(0.5), load.percentile(0.9), load.percentile(0.99),
+                load.percentile(1.0), load.errors);
+        } finally {
+            db.stop();
+            System.clearProperty("spring.threads.virtual.enabled");
+        }
+    }
+
+    private static Load drive(HttpClient client, List<HttpRequest> requests, int clients, int seconds)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        CountDownLatch done = new CountDownLatch(clients);
+        List<Client> running = new ArrayList<>();
+        for (int i = 0; i < clients; i++) {
+            Client c = new Client(client, requests, i * 31, deadline, done);
+            running.add(c);
+            c.next();
+        }
+        // Requests still in flight at the deadline are allowed the request timeout to finish
+        if (!done.await(seconds + 60L, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("Clients did not finish");
+        }
+        Load load = new Load();
+        for (Client c : running) {
+            load.add(c);
+        }
+        return load;
+    }
+
+    private static HttpRequest get(String uri, String token) {
+        return HttpRequest.newBuilder(URI.create(uri))
+            .header("Authorization", token)
+            .timeout(Duration.ofSeconds(30))
+            .GET()
+            .build();
+    }
+
+    private static int intOption(Map<String, String> options, String key, int defaultValue) {
+        String value = options.get(key);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+
+    // One simulated user: sends the next request when the previous one has completed
+    private static final class Client {
+        private final HttpClient client;
+        private final List<HttpRequest> requests;
+        private final long deadline;
+        private final CountDownLatch done;
+        private int next;
+        private long[] latencies = new long[256];
+        private int count;
+        private int errors;
+
+        Client(HttpClient client, List<HttpRequest> requests, int first, long deadline, CountDownLatch done) {
+            this.client = client;
+            this.requests = requests;
+            this.next = first;
+            this.deadline = deadline;
+            this.done = done;
+        }
+
+        void next() {
+            if (System.nanoTime() >= deadline) {
+                done.countDown();
+                return;
+            }
+            long start = System.nanoTime();
+            HttpRequest request = requests.get(next++ % requests.size());
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+                if (error != null || response.statusCode() != 200) {
+                    errors++;
+                } else {
+                    if (count == latencies.length) {
+                        latencies = Arrays.copyOf(latencies, count * 2);
+                    }
+                    latencies[count++] = System.nanoTime() - start;
+                }
+                next();
+            });
+        }
+    }
+
+    private static final class Load {
+        private long[] latencies = new long[0];
+        private int count;
+        private int errors;
+
+        void add(Client client) {
+            latencies = Arrays.copyOf(latencies, count + client.count);
+            System.arraycopy(client.latencies, 0, latencies, count, client.count);
+            count += client.count;
+            errors += client.errors;
+        }
+
+        double percentile(double p) {
+            if (count == 0) {
+                return 0;
+            }
+            Arrays.sort(latencies);
+            int index = (int) Math.ceil(p * count) - 1;
+            return latencies[Math.max(index, 0)] / 1_000_000.0;
+        }
+    }
+}
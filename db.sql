@@ -1,3 +1,7 @@
+-- Lược đồ hiện tại (phiên bản 1 trong SchemaHistory). Các thay đổi sau đó nằm trong
+-- backend/src/main/resources/db/migration và được backend tự áp dụng khi khởi động; các script
+-- V2 đến V5 đưa database tạo từ db.sql cũ lên lược đồ này (bảng SchemaHistory ghi lại các phiên bản đã chạy)
+
 -- Tạo cơ sở dữ liệu nếu chưa tồn tại
 IF NOT EXISTS (SELECT * FROM sys.databases WHERE name = 'ClinicSysDB')
 BEGIN
@@ -50,16 +54,43 @@ CREATE TABLE ICD10Code (
 );
 GO
 
+-- Bảng Thống kê theo ngày (DailyClinicStats) - được cập nhật khi tạo lịch hẹn / thanh toán
+CREATE TABLE DailyClinicStats (
+    StatDate DATE PRIMARY KEY,
+    AppointmentCount INT NOT NULL,
+    DistinctPatients INT NOT NULL,
+    NewPatients INT NOT NULL,
+    Revenue DECIMAL(18, 2) NOT NULL
+);
+GO
+
 -- Bảng Bệnh nhân (Patient)
 CREATE TABLE Patient (
     PatientID INT IDENTITY(1,1) PRIMARY KEY,
-    PatientCode VARCHAR(50) NOT NULL UNIQUE,
+    PatientCode VARCHAR(50) NOT NULL CONSTRAINT UQ_Patient_PatientCode UNIQUE,
     FullName NVARCHAR(255) NOT NULL,
     DateOfBirth DATE NOT NULL,
     Gender NVARCHAR(50) NOT NULL,
     Address NVARCHAR(500),
-    Phone VARCHAR(20) NOT NULL UNIQUE,
-    Email VARCHAR(255) UNIQUE
+    Phone VARCHAR(20) NOT NULL CONSTRAINT UQ_Patient_Phone UNIQUE,
+    Email VARCHAR(255)
+);
+GO
+
+-- Email không bắt buộc nhưng không được trùng (UNIQUE thường chỉ cho phép một giá trị NULL)
+CREATE UNIQUE INDEX UQ_Patient_Email ON Patient(Email) WHERE Email IS NOT NULL;
+GO
+
+-- Mã bệnh nhân được cấp theo từng khối 50 số (xem PatientCodeGenerator)
+CREATE SEQUENCE PatientCodeSeq AS BIGINT START WITH 1 INCREMENT BY 50;
+GO
+
+-- Idempotency-Key của các yêu cầu tạo bệnh nhân (client retry không tạo bản ghi trùng)
+CREATE TABLE IdempotencyKey (
+    IdempotencyKey VARCHAR(100) PRIMARY KEY,
+    Operation VARCHAR(50) NOT NULL,
+    ResourceID INT,
+    CreatedAt DATETIME2 NOT NULL
 );
 GO
 
@@ -118,10 +149,18 @@ CREATE TABLE Appointment (
     ReceptionistID INT NOT NULL,
     CONSTRAINT FK_Appointment_Patient FOREIGN KEY (PatientID) REFERENCES Patient(PatientID),
     CONSTRAINT FK_Appointment_Doctor FOREIGN KEY (DoctorID) REFERENCES [User](UserID),
-    CONSTRAINT FK_Appointment_Receptionist FOREIGN KEY (ReceptionistID) REFERENCES [User](UserID)
+    CONSTRAINT FK_Appointment_Receptionist FOREIGN KEY (ReceptionistID) REFERENCES [User](UserID),
+    -- Giá trị của AppointmentStatus (so sánh phân biệt hoa thường)
+    CONSTRAINT CK_Appointment_Status CHECK (Status COLLATE Latin1_General_BIN IN
+        ('Scheduled', 'Checked-in', 'In Consultation', 'Completed', 'Billed', 'Cancelled'))
 );
 GO
 
+-- Lọc theo ngày + trạng thái (dashboard lễ tân) và theo bác sĩ + ngày + trạng thái (dashboard bác sĩ)
+CREATE INDEX IX_Appointment_DateTime_Status ON Appointment (DateTime, Status);
+CREATE INDEX IX_Appointment_DoctorID_DateTime_Status ON Appointment (DoctorID, DateTime, Status);
+GO
+
 -- Bảng Nhật ký Hệ thống (AuditLog)
 CREATE TABLE AuditLog (
     LogID INT IDENTITY(1,1) PRIMARY KEY,
@@ -142,10 +181,23 @@ CREATE TABLE Notification (
     Type NVARCHAR(50) NOT NULL,
     Status VARCHAR(50) NOT NULL,
     AppointmentID INT NOT NULL,
+    Payload NVARCHAR(500),
+    CreatedAt DATETIME2 NOT NULL DEFAULT SYSDATETIME(),
+    SendAfter DATETIME2 NOT NULL DEFAULT SYSDATETIME(),
+    Attempts INT NOT NULL DEFAULT 0,
+    LockedUntil DATETIME2,
+    ClaimToken VARCHAR(36),
+    SentAt DATETIME2,
+    LastError NVARCHAR(500),
     CONSTRAINT FK_Notification_Appointment FOREIGN KEY (AppointmentID) REFERENCES Appointment(AppointmentID)
 );
 GO
 
+-- Hàng đợi gửi thông báo: dispatcher lấy các dòng Pending đến hạn theo SendAfter
+CREATE INDEX IX_Notification_Dispatch ON Notification (Status, SendAfter);
+CREATE INDEX IX_Notification_ClaimToken ON Notification (ClaimToken);
+GO
+
 -- Bảng Hóa đơn (Bill)
 CREATE TABLE Bill (
     BillID INT IDENTITY(1,1) PRIMARY KEY,
@@ -10,6 +10,22 @@ export const getEMRByAppointmentID = async (appointmentID) => {
     return response.data;
 };
 
+/**
+ * Get one page of a patient's visit history (newest first)
+ * @param {number} patientID Patient ID
+ * @param {number|null} cursor nextCursor from the previous page, or null for the first page
+ * @param {number} limit Page size
+ * @returns {Promise} { visits, nextCursor }
+ */
+export const getVisitHistory = async (patientID, cursor = null, limit = 20) => {
+    const params = { limit };
+    if (cursor !== null && cursor !== undefined) {
+        params.cursor = cursor;
+    }
+    const response = await apiClient.get(`/doctor/emr/patient/${patientID}/visits`, { params });
+    return response.data;
+};
+
 /**
  * Start consultation (update appointment status to "In Consultation")
  * @param {number} appointmentID Appointment ID
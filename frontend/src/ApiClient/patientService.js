@@ -1,5 +1,20 @@
 import apiClient from './api';
 
+/**
+ * Get one page of patients (ordered by PatientID)
+ * @param {string|null} cursor - nextCursor from the previous page, null for the first page
+ * @param {number} limit - Page size (max 200)
+ * @returns {Promise} { items, nextCursor }
+ */
+export const getPatientsPage = async (cursor = null, limit = 50) => {
+    const params = { limit };
+    if (cursor) {
+        params.cursor = cursor;
+    }
+    const response = await apiClient.get('/receptionist/patients/page', { params });
+    return response.data;
+};
+
 /**
  * Get all patients
  * @returns {Promise} List of all patients
@@ -32,10 +47,12 @@ export const searchPatients = async (searchTerm) => {
 /**
  * Create a new patient
  * @param {Object} patientData - Patient data including fullName, dateOfBirth, gender, address, phone, email
+ * @param {string} [idempotencyKey] - Same key for retries of one registration, so it is created only once
  * @returns {Promise} Created patient data
  */
-export const createPatient = async (patientData) => {
-    const response = await apiClient.post('/receptionist/patients', patientData);
+export const createPatient = async (patientData, idempotencyKey) => {
+    const headers = idempotencyKey ? { 'Idempotency-Key': idempotencyKey } : undefined;
+    const response = await apiClient.post('/receptionist/patients', patientData, { headers });
     return response.data;
 };
 
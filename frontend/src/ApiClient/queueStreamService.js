@@ -0,0 +1,108 @@
+const STREAM_BASE_URL = 'http://localhost:8080/api';
+const RECONNECT_DELAY_MS = 3000;
+
+/**
+ * @param {string} dateTime - ISO local date time sent by the backend
+ * @returns {boolean} true if the date time is today (browser local date)
+ */
+export const isToday = (dateTime) => {
+    const now = new Date();
+    const today = `${now.getFullYear()}-${String(now.getMonth() + 1).padStart(2, '0')}-${String(now.getDate()).padStart(2, '0')}`;
+    return typeof dateTime === 'string' && dateTime.startsWith(today);
+};
+
+/**
+ * Subscribe to the live queue stream (Server-Sent Events).
+ * fetch is used instead of EventSource because EventSource cannot send the Authorization header.
+ * @param {string} path - '/receptionist/queue/stream' or '/doctor/queue/stream'
+ * @param {Object} handlers
+ * @param {Function} handlers.onStatus - Called with { appointmentID, doctorID, patientID, status, dateTime }
+ * @param {Function} handlers.onResync - Called after a reconnect and when the server dropped events; reload the full dashboard
+ * @returns {Function} Unsubscribe function
+ */
+export const subscribeQueueStream = (path, { onStatus, onResync }) => {
+    let controller = null;
+    let closed = false;
+    let reconnectTimer = null;
+    let connectedBefore = false;
+
+    const dispatch = (eventName, data) => {
+        if (eventName === 'appointment-status') {
+            try {
+                onStatus(JSON.parse(data));
+            } catch (err) {
+                console.error('Invalid queue event:', err);
+            }
+        } else if (eventName === 'resync') {
+            onResync();
+        }
+    };
+
+    const connect = async () => {
+        controller = new AbortController();
+        try {
+            const token = localStorage.getItem('clinicSysToken');
+            const response = await fetch(`${STREAM_BASE_URL}${path}`, {
+                headers: {
+                    Accept: 'text/event-stream',
+                    ...(token ? { Authorization: `Bearer ${token}` } : {})
+                },
+                signal: controller.signal
+            });
+            if (!response.ok || !response.body) {
+                throw new Error(`Queue stream failed with status ${response.status}`);
+            }
+            // Anything may have changed while we were disconnected
+            if (connectedBefore) {
+                onResync();
+            }
+            connectedBefore = true;
+
+            const reader = response.body.getReader();
+            const decoder = new TextDecoder();
+            let buffer = '';
+            let eventName = 'message';
+            let data = '';
+            for (;;) {
+                const { value, done } = await reader.read();
+                if (done) {
+                    break;
+                }
+                buffer += decoder.decode(value, { stream: true });
+                const lines = buffer.split(/\r?\n/);
+                buffer = lines.pop();
+                for (const line of lines) {
+                    if (line === '') {
+                        if (data) {
+                            dispatch(eventName, data);
+                        }
+                        eventName = 'message';
+                        data = '';
+                    } else if (line.startsWith('event:')) {
+                        eventName = line.slice(6).trim();
+                    } else if (line.startsWith('data:')) {
+                        data += line.slice(5).trim();
+                    }
+                }
+            }
+        } catch (err) {
+            if (closed) {
+                return;
+            }
+            console.warn('Queue stream disconnected:', err.message);
+        }
+        if (!closed) {
+            reconnectTimer = setTimeout(connect, RECONNECT_DELAY_MS);
+        }
+    };
+
+    connect();
+
+    return () => {
+        closed = true;
+        clearTimeout(reconnectTimer);
+        if (controller) {
+            controller.abort();
+        }
+    };
+};
@@ -1,4 +1,4 @@
-import React, { useState } from 'react';
+import React, { useRef, useState } from 'react';
 import { createPatient } from '../ApiClient/patientService';
 import './AddPatientModal.css';
 
@@ -13,6 +13,8 @@ function AddPatientModal({ isOpen, onClose, onSuccess }) {
     });
     const [error, setError] = useState('');
     const [loading, setLoading] = useState(false);
+    // One key per registration: resubmitting the same form after a network error reuses it
+    const idempotencyKey = useRef(null);
 
     if (!isOpen) return null;
 
@@ -23,6 +25,7 @@ function AddPatientModal({ isOpen, onClose, onSuccess }) {
             [name]: value
         }));
         setError('');
+        idempotencyKey.current = null;
     };
 
     const handleSubmit = async (e) => {
@@ -47,7 +50,11 @@ function AddPatientModal({ isOpen, onClose, onSuccess }) {
                 email: formData.email.trim() || null
             };
 
-            await createPatient(patientData);
+            if (!idempotencyKey.current) {
+                idempotencyKey.current = crypto.randomUUID();
+            }
+            await createPatient(patientData, idempotencyKey.current);
+            idempotencyKey.current = null;
             
             // Reset form
             setFormData({
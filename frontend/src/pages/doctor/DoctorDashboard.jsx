@@ -1,7 +1,8 @@
-import React, { useState, useEffect } from 'react';
+import React, { useState, useEffect, useRef } from 'react';
 import { useNavigate } from 'react-router-dom';
 import { getDoctorDashboard } from '../../ApiClient/doctorService';
 import { startConsultation, completeConsultation } from '../../ApiClient/emrService';
+import { subscribeQueueStream, isToday } from '../../ApiClient/queueStreamService';
 import './DoctorDashboard.css';
 
 function DoctorDashboard() {
@@ -14,10 +15,43 @@ function DoctorDashboard() {
     const [loading, setLoading] = useState(true);
     const [error, setError] = useState('');
 
+    const dashboardRef = useRef(dashboardData);
+    dashboardRef.current = dashboardData;
+
     useEffect(() => {
         fetchDashboard();
+        // Live status changes for this doctor's appointments (deltas, no full reload)
+        return subscribeQueueStream('/doctor/queue/stream', {
+            onStatus: applyStatusEvent,
+            onResync: fetchDashboard
+        });
     }, []);
 
+    const isInTodayList = (status) => ['scheduled', 'checked-in', 'check-in'].includes(status?.toLowerCase());
+    const isInWaitingQueue = (status) => ['checked-in', 'check-in', 'in consultation', 'completed'].includes(status?.toLowerCase());
+
+    const applyStatusEvent = (event) => {
+        if (!isToday(event.dateTime)) {
+            return;
+        }
+        const current = dashboardRef.current;
+        const rows = new Map();
+        [...current.todayAppointments, ...current.waitingQueue].forEach((a) => rows.set(a.appointmentID, a));
+        const existing = rows.get(event.appointmentID);
+        if (!existing) {
+            // New appointment: we do not have the patient details yet
+            fetchDashboard();
+            return;
+        }
+        rows.set(event.appointmentID, { ...existing, status: event.status });
+        const all = [...rows.values()].sort((a, b) => String(a.dateTime).localeCompare(String(b.dateTime)));
+        setDashboardData({
+            ...current,
+            todayAppointments: all.filter((a) => isInTodayList(a.status)),
+            waitingQueue: all.filter((a) => isInWaitingQueue(a.status))
+        });
+    };
+
     // Refresh when component becomes visible again (when returning from EMR page)
     useEffect(() => {
         const handleFocus = () => {
@@ -1,6 +1,6 @@
 import React, { useState, useEffect } from 'react';
 import { useParams, useNavigate } from 'react-router-dom';
-import { getEMRByAppointmentID } from '../../ApiClient/emrService';
+import { getEMRByAppointmentID, getVisitHistory } from '../../ApiClient/emrService';
 import BackButton from '../../components/BackButton';
 import './EMRPage.css';
 
@@ -10,6 +10,7 @@ function EMRPage() {
     const [emrData, setEmrData] = useState(null);
     const [loading, setLoading] = useState(true);
     const [error, setError] = useState('');
+    const [loadingMore, setLoadingMore] = useState(false);
 
     useEffect(() => {
         const fetchEMR = async () => {
@@ -49,6 +50,23 @@ function EMRPage() {
         return age;
     };
 
+    const handleLoadMoreVisits = async () => {
+        setLoadingMore(true);
+        try {
+            const page = await getVisitHistory(emrData.patientID, emrData.visitHistoryNextCursor);
+            setEmrData((prev) => ({
+                ...prev,
+                visitHistory: [...prev.visitHistory, ...page.visits],
+                visitHistoryNextCursor: page.nextCursor
+            }));
+        } catch (err) {
+            console.error('Error fetching visit history:', err);
+            setError('Không thể tải thêm lịch sử khám bệnh. Vui lòng thử lại.');
+        } finally {
+            setLoadingMore(false);
+        }
+    };
+
     const handleStartNewConsultation = () => {
         navigate(`/doctor/consultation/${appointmentId}`);
     };
@@ -157,6 +175,17 @@ function EMRPage() {
                             )}
                         </tbody>
                     </table>
+                    {emrData.visitHistoryNextCursor != null && (
+                        <div style={{ textAlign: 'center', padding: '12px' }}>
+                            <button
+                                className="details-btn"
+                                onClick={handleLoadMoreVisits}
+                                disabled={loadingMore}
+                            >
+                                {loadingMore ? 'Loading...' : 'Load More'}
+                            </button>
+                        </div>
+                    )}
                 </div>
         </div>
     );
@@ -1,6 +1,6 @@
 import React, { useState, useEffect } from 'react';
 import { Link } from 'react-router-dom';
-import { getAllPatients, searchPatients } from '../../ApiClient/patientService';
+import { getPatientsPage, searchPatients } from '../../ApiClient/patientService';
 import AddPatientModal from '../../components/AddPatientModal';
 import ViewPatientDetailsModal from '../../components/ViewPatientDetailsModal';
 import EditPatientModal from '../../components/EditPatientModal';
@@ -17,7 +17,10 @@ function PatientList() {
     const [isViewModalOpen, setIsViewModalOpen] = useState(false);
     const [isEditModalOpen, setIsEditModalOpen] = useState(false);
     const [currentPage, setCurrentPage] = useState(1);
+    const [nextCursor, setNextCursor] = useState(null);
+    const [loadingMore, setLoadingMore] = useState(false);
     const itemsPerPage = 8;
+    const serverPageSize = 50;
 
     useEffect(() => {
         fetchPatients();
@@ -26,8 +29,9 @@ function PatientList() {
     const fetchPatients = async () => {
         try {
             setLoading(true);
-            const data = await getAllPatients();
-            setPatients(data || []);
+            const page = await getPatientsPage(null, serverPageSize);
+            setPatients(page.items || []);
+            setNextCursor(page.nextCursor || null);
             setError('');
             setCurrentPage(1); // Reset to first page when fetching new data
         } catch (err) {
@@ -38,6 +42,24 @@ function PatientList() {
         }
     };
 
+    // Load the next server page and append it to the list
+    const loadMorePatients = async () => {
+        if (!nextCursor) {
+            return;
+        }
+        try {
+            setLoadingMore(true);
+            const page = await getPatientsPage(nextCursor, serverPageSize);
+            setPatients((prev) => [...prev, ...(page.items || [])]);
+            setNextCursor(page.nextCursor || null);
+        } catch (err) {
+            console.error('Error loading more patients:', err);
+            setError('Không thể tải thêm bệnh nhân. Vui lòng thử lại.');
+        } finally {
+            setLoadingMore(false);
+        }
+    };
+
     const handleSearch = async () => {
         if (!searchTerm.trim()) {
             fetchPatients();
@@ -48,6 +70,7 @@ function PatientList() {
             setLoading(true);
             const data = await searchPatients(searchTerm);
             setPatients(data || []);
+            setNextCursor(null);
             setError('');
             setCurrentPage(1); // Reset to first page when searching
         } catch (err) {
@@ -299,8 +322,18 @@ function PatientList() {
                             </button>
                             
                             <div className="pagination-info">
-                                Trang {currentPage} / {totalPages} ({patients.length} bệnh nhân)
+                                Trang {currentPage} / {totalPages} ({patients.length} bệnh nhân{nextCursor ? ' đã tải' : ''})
                             </div>
+
+                            {nextCursor && (
+                                <button
+                                    className="pagination-btn"
+                                    onClick={loadMorePatients}
+                                    disabled={loadingMore}
+                                >
+                                    {loadingMore ? 'Đang tải...' : 'Tải thêm'}
+                                </button>
+                            )}
                         </div>
                     )}
                 </div>
@@ -1,5 +1,6 @@
-import React, { useState, useEffect } from 'react';
+import React, { useState, useEffect, useRef } from 'react';
 import { getReceptionistDashboard } from '../../ApiClient/receptionistService';
+import { subscribeQueueStream, isToday } from '../../ApiClient/queueStreamService';
 import LogoutButton from '../../components/LogoutButton';
 import AddPatientModal from '../../components/AddPatientModal';
 import BookAppointmentModal from '../../components/BookAppointmentModal';
@@ -20,13 +21,58 @@ function ReceptionistDashboard() {
     const [isAddPatientModalOpen, setIsAddPatientModalOpen] = useState(false);
     const [isBookAppointmentModalOpen, setIsBookAppointmentModalOpen] = useState(false);
 
+    const dashboardRef = useRef(dashboardData);
+    dashboardRef.current = dashboardData;
+
     useEffect(() => {
         fetchDashboard();
-        // Auto-refresh every 30 seconds
-        const interval = setInterval(fetchDashboard, 30000);
-        return () => clearInterval(interval);
+        // Live status changes are pushed by the server; only new appointments need a reload
+        return subscribeQueueStream('/receptionist/queue/stream', {
+            onStatus: applyStatusEvent,
+            onResync: fetchDashboard
+        });
     }, []);
 
+    const isCheckedIn = (status) => ['checked-in', 'check-in'].includes(status?.toLowerCase());
+    const isInQueue = (status) => ['checked-in', 'check-in', 'in consultation', 'completed'].includes(status?.toLowerCase());
+    const isListed = (status) => status?.toLowerCase() === 'scheduled' || isInQueue(status);
+
+    const toQueueStatus = (status) => {
+        const statusLower = status?.toLowerCase() || '';
+        if (statusLower === 'in consultation') {
+            return 'In Consultation';
+        } else if (statusLower === 'completed') {
+            return 'Ready for Billing';
+        }
+        return 'Waiting';
+    };
+
+    const applyStatusEvent = (event) => {
+        if (!isToday(event.dateTime)) {
+            return;
+        }
+        const current = dashboardRef.current;
+        const existing = current.todayAppointments.find((a) => a.appointmentID === event.appointmentID);
+        if (!existing) {
+            // New appointment: we do not have the patient and doctor names yet
+            fetchDashboard();
+            return;
+        }
+        const todayAppointments = current.todayAppointments
+            .map((a) => (a.appointmentID === event.appointmentID ? { ...a, status: event.status } : a))
+            .filter((a) => isListed(a.status));
+        setDashboardData({
+            ...current,
+            appointmentsToday: todayAppointments.length,
+            patientsCheckedIn: todayAppointments.filter((a) => isCheckedIn(a.status)).length,
+            patientsWaiting: todayAppointments.filter((a) => isInQueue(a.status)).length,
+            todayAppointments,
+            liveQueue: todayAppointments
+                .filter((a) => isInQueue(a.status))
+                .map((a) => ({ ...a, status: toQueueStatus(a.status) }))
+        });
+    };
+
     const formatTime = (dateTimeString) => {
         const date = new Date(dateTimeString);
         const hours = date.getHours();